@@ -0,0 +1,32 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_regprc
+-- Release Version 	: 1.2.0.1
+-- Purpose    		: Database Alter scripts for the release for Registration Processor DB.       
+-- Create By   		: MOSIP
+-- Created Date		: Oct-2026
+-- 
+-- Modified Date        Modified By         Comments / Remarks
+-- -------------------------------------------------------------------------------------------------
+-- Oct-2026		MOSIP	   Added dedupe_key column to individual_demographic_dedup table
+----------------------------------------------------------------------------------------------------
+\c mosip_regprc sysadmin
+
+ALTER TABLE regprc.individual_demographic_dedup ADD COLUMN IF NOT EXISTS dedupe_key character varying(64);
+
+-- the dedupe key is set by the database, it is not written by the application
+CREATE OR REPLACE FUNCTION regprc.idemogd_set_dedupe_key() RETURNS trigger AS $$
+BEGIN
+	NEW.dedupe_key := encode(sha256(convert_to(NEW.name || '|' || NEW.dob || '|' || NEW.gender || '|' || NEW.lang_code, 'UTF8')), 'hex');
+	RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+DROP TRIGGER IF EXISTS trg_idemogd_dedupe_key ON regprc.individual_demographic_dedup;
+CREATE TRIGGER trg_idemogd_dedupe_key BEFORE INSERT OR UPDATE OF name, dob, gender, lang_code ON regprc.individual_demographic_dedup FOR EACH ROW EXECUTE PROCEDURE regprc.idemogd_set_dedupe_key();
+
+UPDATE regprc.individual_demographic_dedup SET dedupe_key = encode(sha256(convert_to(name || '|' || dob || '|' || gender || '|' || lang_code, 'UTF8')), 'hex') WHERE dedupe_key IS NULL AND name IS NOT NULL AND dob IS NOT NULL AND gender IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_idemogd_dedupekey ON regprc.individual_demographic_dedup USING btree (dedupe_key, is_active);
+CREATE INDEX IF NOT EXISTS idx_rgstrn_regid_statuscode ON regprc.registration USING btree (reg_id, status_code);
+
+COMMENT ON COLUMN regprc.individual_demographic_dedup.dedupe_key IS 'Dedupe Key: SHA-256 of the name, dob, gender and language, set by trg_idemogd_dedupe_key, used to find the demographic duplicates in a single lookup';
+----------------------------------------------------------------------------------------------------
@@ -0,0 +1,19 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_regprc
+-- Release Version 	: 1.2.0.1
+-- Purpose    		: Revoking Database Alter deployement done for release in Registration ProcessorDB.       
+-- Create By   		: MOSIP
+-- Created Date		: Oct-2026
+-- 
+-- Modified Date        Modified By         Comments / Remarks
+-- -------------------------------------------------------------------------------------------------
+-- Oct-2026		MOSIP	   Removed dedupe_key column from individual_demographic_dedup table
+----------------------------------------------------------------------------------------------------
+\c mosip_regprc sysadmin
+
+DROP INDEX IF EXISTS regprc.idx_rgstrn_regid_statuscode;
+DROP INDEX IF EXISTS regprc.idx_idemogd_dedupekey;
+DROP TRIGGER IF EXISTS trg_idemogd_dedupe_key ON regprc.individual_demographic_dedup;
+DROP FUNCTION IF EXISTS regprc.idemogd_set_dedupe_key();
+ALTER TABLE regprc.individual_demographic_dedup DROP COLUMN IF EXISTS dedupe_key;
+----------------------------------------------------------------------------------------------------
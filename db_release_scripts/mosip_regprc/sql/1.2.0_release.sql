@@ -78,6 +78,7 @@ CREATE INDEX IF NOT EXISTS idx_rmanvrn_reqid on regprc.reg_manual_verification (
 DROP INDEX IF EXISTS idx_rgstrn_ltstrbcode_ltststscode;
 CREATE INDEX IF NOT EXISTS idx_rgstrn_ltstrbcode_ltststscode on regprc.registration (latest_trn_dtimes, latest_trn_status_code);
 CREATE INDEX IF NOT EXISTS idx_reg_latest_trn_dtimes ON regprc.registration USING btree (latest_trn_dtimes);
+CREATE INDEX IF NOT EXISTS idx_reg_latest_trn_dtimes_wfid ON regprc.registration USING btree (latest_trn_dtimes, workflow_instance_id);
 CREATE INDEX IF NOT EXISTS idx_rgstrnlst_pcktid on regprc.registration_list (packet_id);
 CREATE INDEX IF NOT EXISTS idx_rgstrnlst_aireqid on regprc.registration_list (additional_info_req_id);
 CREATE INDEX IF NOT EXISTS idx_reg_verification_reqId on regprc.reg_verification (verification_req_id);
@@ -87,6 +88,10 @@ CREATE INDEX IF NOT EXISTS idx_reg_trn_trntypecode ON regprc.registration_transa
 CREATE INDEX IF NOT EXISTS idx_reg_trn_upd_dtimes ON regprc.registration_transaction USING btree (upd_dtimes);
 CREATE INDEX IF NOT EXISTS idx_user_detail_cntr_id ON regprc.abis_request USING btree (bio_ref_id);
 CREATE INDEX IF NOT EXISTS idx_abis_req_regtrn_id ON regprc.abis_request USING btree (ref_regtrn_id);
+CREATE INDEX IF NOT EXISTS idx_abis_req_bioref_regtrn_type ON regprc.abis_request USING btree (bio_ref_id, ref_regtrn_id, request_type);
+CREATE INDEX IF NOT EXISTS idx_abisrdt_respid ON regprc.abis_response_det USING btree (abis_resp_id, matched_bio_ref_id);
+CREATE INDEX IF NOT EXISTS idx_rbioref_regid_crdtimes ON regprc.reg_bio_ref USING btree (reg_id, cr_dtimes);
+CREATE INDEX IF NOT EXISTS idx_rbioref_lower_biorefid ON regprc.reg_bio_ref USING btree (lower(bio_ref_id));
 
 ALTER TABLE regprc.individual_demographic_dedup DROP CONSTRAINT pk_idemogd_id;
 ALTER TABLE regprc.individual_demographic_dedup ALTER COLUMN workflow_instance_id SET NOT NULL;
@@ -14,6 +14,8 @@ CREATE TABLE regprc.abis_response_det(
 	CONSTRAINT pk_abisrdt PRIMARY KEY (matched_bio_ref_id,abis_resp_id)
 
 );
+-- indexes section -------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_abisrdt_respid ON regprc.abis_response_det USING btree (abis_resp_id, matched_bio_ref_id);
 -- ddl-end --
 COMMENT ON TABLE regprc.abis_response_det IS 'ABIS Response Detail: Stores details of all the ABIS responses received from ABIS system. Response details will mainly have scores, which is applicable only for identify request type.';
 -- ddl-end --
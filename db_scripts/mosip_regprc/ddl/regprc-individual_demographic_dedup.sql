@@ -7,6 +7,7 @@ CREATE TABLE regprc.individual_demographic_dedup(
 	name character varying(128),
 	dob character varying(64),
 	gender character varying(64),
+	dedupe_key character varying(64),
 	mobile_number character varying(64),
 	email character varying(512),
 	pincode character varying(64),
@@ -27,6 +28,16 @@ CREATE TABLE regprc.individual_demographic_dedup(
 
 -- indexes section -------------------------------------------------
 CREATE index IF NOT EXISTS idx_idemogd_namedobgender on regprc.individual_demographic_dedup (name, dob,gender);
+CREATE INDEX IF NOT EXISTS idx_idemogd_dedupekey ON regprc.individual_demographic_dedup USING btree (dedupe_key, is_active);
+-- the dedupe key is set by the database, it is not written by the application --
+CREATE OR REPLACE FUNCTION regprc.idemogd_set_dedupe_key() RETURNS trigger AS $$
+BEGIN
+	NEW.dedupe_key := encode(sha256(convert_to(NEW.name || '|' || NEW.dob || '|' || NEW.gender || '|' || NEW.lang_code, 'UTF8')), 'hex');
+	RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+DROP TRIGGER IF EXISTS trg_idemogd_dedupe_key ON regprc.individual_demographic_dedup;
+CREATE TRIGGER trg_idemogd_dedupe_key BEFORE INSERT OR UPDATE OF name, dob, gender, lang_code ON regprc.individual_demographic_dedup FOR EACH ROW EXECUTE PROCEDURE regprc.idemogd_set_dedupe_key();
 -- ddl-end --
 COMMENT ON TABLE regprc.individual_demographic_dedup IS 'Individual Demographic Dedupe: Table stores applicant demographic details for deduplication, Only required information for dedupe is stored. ';
 -- ddl-end --
@@ -38,6 +49,8 @@ COMMENT ON COLUMN regprc.individual_demographic_dedup.dob IS 'Date of Birth: DOB
 -- ddl-end --
 COMMENT ON COLUMN regprc.individual_demographic_dedup.gender IS 'Gender: Gender of an individual';
 -- ddl-end --
+COMMENT ON COLUMN regprc.individual_demographic_dedup.dedupe_key IS 'Dedupe Key: SHA-256 of the name, dob, gender and language, set by trg_idemogd_dedupe_key, used to find the demographic duplicates in a single lookup';
+-- ddl-end --
 COMMENT ON COLUMN regprc.individual_demographic_dedup.mobile_number IS 'Mobile Number :  Contact number of the individulas, Number which is used for registration and any OTP communication';
 -- ddl-end --
 COMMENT ON COLUMN regprc.individual_demographic_dedup.email IS 'Email Address :  Email address of the individulas, Address which is used for registration and any communication.';
@@ -34,6 +34,8 @@ CREATE TABLE regprc.registration(
 
 create index idx_rgstrn_ltstrbcode_ltststscode on regprc.registration (latest_trn_dtimes, latest_trn_status_code);
 CREATE INDEX IF NOT EXISTS idx_reg_latest_trn_dtimes ON regprc.registration USING btree (latest_trn_dtimes);
+CREATE INDEX IF NOT EXISTS idx_reg_latest_trn_dtimes_wfid ON regprc.registration USING btree (latest_trn_dtimes, workflow_instance_id);
+CREATE INDEX IF NOT EXISTS idx_rgstrn_regid_statuscode ON regprc.registration USING btree (reg_id, status_code);
 
 COMMENT ON TABLE regprc.registration IS 'Registration: Registration Processor table is to store registration requests that are being processed, Also maintains packet id details and status of the registration requests.';
 COMMENT ON COLUMN regprc.registration.ref_reg_id IS 'reference Registration ID:Previous registartion ID using which UIN was generated, Which will be used as refrence for any update or correction request.';
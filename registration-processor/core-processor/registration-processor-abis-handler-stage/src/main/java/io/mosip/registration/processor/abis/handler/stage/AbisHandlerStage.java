@@ -10,6 +10,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 import io.mosip.kernel.core.util.StringUtils;
@@ -87,7 +89,9 @@ import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessor
 import io.mosip.registration.processor.core.status.util.StatusUtil;
 import io.mosip.registration.processor.core.status.util.TrimExceptionMessage;
 import io.mosip.registration.processor.core.util.JsonUtil;
+import io.mosip.registration.processor.core.util.StreamingCbeffWriter;
 import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
+import io.mosip.registration.processor.packet.storage.utils.DataSharePolicyCache;
 import io.mosip.registration.processor.packet.storage.utils.PriorityBasedPacketManagerService;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
@@ -111,8 +115,9 @@ import io.mosip.registration.processor.status.service.RegistrationStatusService;
 public class AbisHandlerStage extends MosipVerticleAPIManager {
 
 	private static final String STAGE_PROPERTY_PREFIX = "mosip.regproc.abis.handler.";
-	private Map<String, List<String>> typeAndSubTypeMap = new HashMap<>();
-	LinkedHashMap<String, String> datasharePolicies = null;
+
+	/** The data share policy and the values read from it */
+	private volatile DataSharePolicy dataSharePolicy;
 
 	/** The cluster manager url. */
 	@Value("${vertx.cluster.configuration}")
@@ -204,8 +209,17 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 	@Autowired
 	private PriorityBasedPacketManagerService priorityBasedPacketManagerService;
 
+	@Autowired(required = false)
+	private DataSharePolicyCache dataSharePolicyCache;
+
+	/** Sends the CBEFF xml to data share as it is written instead of as a byte array */
+	@Value("${mosip.regproc.abis.handler.data-share.streaming.enabled:false}")
+	private boolean dataShareStreamingEnabled;
+
 	private static final String DATASHARECREATEURL = "DATASHARECREATEURL";
 
+	private static final String AGE_GROUP = "AGE_GROUP";
+
 	private static final String DATETIME_PATTERN = "mosip.registration.processor.datetime.pattern";
 
 	/**
@@ -270,7 +284,7 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 					throw new AbisHandlerException(PlatformErrorMessages.RPR_ABIS_INTERNAL_ERROR.getCode());
 				}
 				createRequest(regId, abisQueueDetails, transactionId, registrationStatusDto.getRegistrationType(),registrationStatusDto.getIteration(),
-						registrationStatusDto.getWorkflowInstanceId(), description, transactionTypeCode);
+						registrationStatusDto.getWorkflowInstanceId(), description, transactionTypeCode, object.getTags());
 				object.setMessageBusAddress(MessageBusAddress.ABIS_MIDDLEWARE_BUS_IN);
 			} else {
 				if (transactionTypeCode.equalsIgnoreCase(AbisHandlerStageConstant.DEMOGRAPHIC_VERIFICATION)) {
@@ -331,12 +345,19 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 	}
 
 	private void createRequest(String regId, List<AbisQueueDetails> abisQueueDetails, String transactionId,
-			String process, int iteration, String workflowInstanceId, LogDescription description, String transactionTypeCode) throws Exception {
+			String process, int iteration, String workflowInstanceId, LogDescription description, String transactionTypeCode,
+			Map<String, String> tags) throws Exception {
 		String bioRefId = getUUID();
-		insertInBioRef(regId, bioRefId,process,iteration, workflowInstanceId);
-		createInsertRequest(abisQueueDetails, transactionId, bioRefId, regId, process, description);
-		createIdentifyRequest(abisQueueDetails, transactionId, bioRefId, transactionTypeCode, description);
-
+		RegBioRefDto regBioRefDto = createBioRef(regId, bioRefId, process, iteration, workflowInstanceId);
+		List<AbisRequestDto> abisRequestDtos = new ArrayList<>(abisQueueDetails.size() * 2);
+		createInsertRequest(abisQueueDetails, transactionId, bioRefId, regId, process, description, tags,
+				abisRequestDtos);
+		createIdentifyRequest(abisQueueDetails, transactionId, bioRefId, transactionTypeCode, description,
+				abisRequestDtos);
+		// the bio ref and the requests of every ABIS are saved together
+		String moduleId = PlatformSuccessMessages.RPR_ABIS_HANDLER_STAGE_SUCCESS.getCode();
+		String moduleName = ModuleName.ABIS_HANDLER.toString();
+		packetInfoManager.saveAbisRequests(regBioRefDto, abisRequestDtos, moduleId, moduleName);
 	}
 
 	/**
@@ -347,9 +368,11 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 	 * @param bioRefId            the bio ref id
 	 * @param transactionTypeCode the transaction type code
 	 * @param description
+	 * @param abisRequestDtos     the requests to save, the identify requests are
+	 *                            added to it
 	 */
 	private void createIdentifyRequest(List<AbisQueueDetails> abisQueueDetails, String transactionId, String bioRefId,
-			String transactionTypeCode, LogDescription description) {
+			String transactionTypeCode, LogDescription description, List<AbisRequestDto> abisRequestDtos) {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"AbisHandlerStage::createIdentifyRequest()::entry");
 		String batchId = getUUID();
@@ -373,10 +396,7 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 			abisRequestDto.setCrBy(AbisHandlerStageConstant.USER);
 			abisRequestDto.setUpdBy(null);
 			abisRequestDto.setIsDeleted(Boolean.FALSE);
-
-			String moduleId = PlatformSuccessMessages.RPR_ABIS_HANDLER_STAGE_SUCCESS.getCode();
-			String moduleName = ModuleName.ABIS_HANDLER.toString();
-			packetInfoManager.saveAbisRequest(abisRequestDto, moduleId, moduleName);
+			abisRequestDtos.add(abisRequestDto);
 		}
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"AbisHandlerStage::createIdentifyRequest()::exit");
@@ -419,15 +439,12 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 						"Potential Match Records are Not Found for Demo Dedupe Potential Match");
 				throw new AbisHandlerException(description.getMessage());
 			}
-			List<ReferenceIdDto> referenceIdDtos = new ArrayList<>();
+			List<ReferenceIdDto> referenceIdDtos = new ArrayList<>(regDemoDedupeListDtoList.size());
+			Map<String, String> bioRefIdByRegId = getBioRefIdsByMatchedRegIds(regDemoDedupeListDtoList);
 
 			for (RegDemoDedupeListDto dedupeListDto : regDemoDedupeListDtoList) {
 				ReferenceIdDto dto = new ReferenceIdDto();
-				List<RegBioRefDto> regBioRefDto = packetInfoManager.getBioRefIdByRegId(dedupeListDto.getMatchedRegId());
-				if (!CollectionUtils.isEmpty(regBioRefDto)) {
-					dto.setReferenceId(regBioRefDto.get(0).getBioRefId());
-				}
-
+				dto.setReferenceId(bioRefIdByRegId.get(dedupeListDto.getMatchedRegId()));
 				referenceIdDtos.add(dto);
 			}
 			AbisIdentifyRequestGalleryDto galleryDto = new AbisIdentifyRequestGalleryDto();
@@ -449,12 +466,35 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 	}
 
 	/**
-	 * Insert in bio ref.
+	 * Gets the latest bio ref id of every matched reg id of the demo dedupe
+	 * potential matches, all loaded in bulk instead of a query per match.
+	 *
+	 * @param regDemoDedupeListDtoList the demo dedupe potential matches
+	 * @return the bio ref id by matched reg id
+	 */
+	private Map<String, String> getBioRefIdsByMatchedRegIds(List<RegDemoDedupeListDto> regDemoDedupeListDtoList) {
+		List<String> matchedRegIds = new ArrayList<>(regDemoDedupeListDtoList.size());
+		for (RegDemoDedupeListDto dedupeListDto : regDemoDedupeListDtoList)
+			matchedRegIds.add(dedupeListDto.getMatchedRegId());
+		Map<String, String> bioRefIdByRegId = new HashMap<>();
+		List<RegBioRefDto> regBioRefDtos = packetInfoManager.getBioRefsByRegIds(matchedRegIds);
+		if (!CollectionUtils.isEmpty(regBioRefDtos)) {
+			// the latest bio ref of a reg id comes first
+			for (RegBioRefDto regBioRefDto : regBioRefDtos)
+				bioRefIdByRegId.putIfAbsent(regBioRefDto.getRegId(), regBioRefDto.getBioRefId());
+		}
+		return bioRefIdByRegId;
+	}
+
+	/**
+	 * Creates the bio ref.
 	 *
 	 * @param regId    the reg id
 	 * @param bioRefId the bio ref id
+	 * @return the bio ref to save
 	 */
-	private void insertInBioRef(String regId, String bioRefId, String process, int iteration, String workflowInstanceId) {
+	private RegBioRefDto createBioRef(String regId, String bioRefId, String process, int iteration,
+			String workflowInstanceId) {
 		RegBioRefDto regBioRefDto = new RegBioRefDto();
 		regBioRefDto.setBioRefId(bioRefId);
 		regBioRefDto.setCrBy(AbisHandlerStageConstant.USER);
@@ -465,9 +505,7 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 		regBioRefDto.setProcess(process);
 		regBioRefDto.setIteration(iteration);
 		regBioRefDto.setWorkflowInstanceId(workflowInstanceId);
-		String moduleId = PlatformSuccessMessages.RPR_ABIS_HANDLER_STAGE_SUCCESS.getCode();
-		String moduleName = ModuleName.ABIS_HANDLER.toString();
-		packetInfoManager.saveBioRef(regBioRefDto, moduleId, moduleName);
+		return regBioRefDto;
 	}
 
 	/**
@@ -478,9 +516,13 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 	 * @param bioRefId         the bio ref id
 	 * @param regId            the reg id
 	 * @param description
+	 * @param tags             the tags of the message, null when not known
+	 * @param abisRequestDtos  the requests to save, the insert requests are added
+	 *                         to it
 	 */
 	private void createInsertRequest(List<AbisQueueDetails> abisQueueDetails, String transactionId, String bioRefId,
-			String regId, String process, LogDescription description) throws Exception {
+			String regId, String process, LogDescription description, Map<String, String> tags,
+			List<AbisRequestDto> abisRequestDtos) throws Exception {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 				regId, "AbisHandlerStage::createInsertRequest()::entry");
 		String batchId = getUUID();
@@ -490,6 +532,8 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 		for (AbisQueueDetails abisQueue : abisQueueDetails) {
 			abisAppCodeList.add(abisQueue.getName());
 		}
+		// read once and shared with every ABIS the packet is inserted in
+		List<BIR> dataShareSegments = null;
 
 		for (String appCode : abisAppCodeList) {
 
@@ -508,20 +552,21 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 			abisRequestDto.setCrBy(AbisHandlerStageConstant.USER);
 			abisRequestDto.setUpdBy(null);
 			abisRequestDto.setIsDeleted(Boolean.FALSE);
-			String moduleId = PlatformSuccessMessages.RPR_ABIS_HANDLER_STAGE_SUCCESS.getCode();
-			String moduleName = ModuleName.ABIS_HANDLER.toString();
 			byte[] abisInsertRequestBytes=null;
 			if (abisProcessedInsertAppCodeList != null && abisProcessedInsertAppCodeList.contains(appCode)) {
-				abisInsertRequestBytes = getInsertRequestBytes(regId, id, process, bioRefId, description,AbisStatusCode.ALREADY_PROCESSED.toString());
+				abisInsertRequestBytes = getInsertRequestBytes(regId, id, bioRefId, description, null);
 				abisRequestDto.setStatusCode(AbisStatusCode.ALREADY_PROCESSED.toString());
 
 			} else {
-				abisInsertRequestBytes = getInsertRequestBytes(regId, id, process, bioRefId, description,AbisStatusCode.IN_PROGRESS.toString());
+				if (dataShareSegments == null)
+					dataShareSegments = getDataShareSegments(regId, process, tags);
+				abisInsertRequestBytes = getInsertRequestBytes(regId, id, bioRefId, description,
+						getDataShareUrl(dataShareSegments));
 				abisRequestDto.setStatusCode(AbisStatusCode.IN_PROGRESS.toString());
 
 			}
 			abisRequestDto.setReqText(abisInsertRequestBytes);
-			packetInfoManager.saveAbisRequest(abisRequestDto, moduleId, moduleName);
+			abisRequestDtos.add(abisRequestDto);
 
 		}
 
@@ -536,13 +581,16 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 	 * @param id          the id
 	 * @param bioRefId    the bio ref id
 	 * @param description
+	 * @param referenceUrl the data share url of the biometrics, null when
+	 *                     already inserted
 	 * @return the insert request bytes
 	 */
-	private byte[] getInsertRequestBytes(String regId, String id, String process, String bioRefId, LogDescription description,String status) throws Exception {
+	private byte[] getInsertRequestBytes(String regId, String id, String bioRefId, LogDescription description,
+			String referenceUrl) {
 		AbisInsertRequestDto abisInsertRequestDto = new AbisInsertRequestDto();
 		abisInsertRequestDto.setId(AbisHandlerStageConstant.MOSIP_ABIS_INSERT);
 		abisInsertRequestDto.setReferenceId(bioRefId);
-		abisInsertRequestDto.setReferenceURL(status.equalsIgnoreCase(AbisStatusCode.IN_PROGRESS.toString())?getDataShareUrl(regId, process):null);
+		abisInsertRequestDto.setReferenceURL(referenceUrl);
 		abisInsertRequestDto.setRequestId(id);
 		abisInsertRequestDto.setRequesttime(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)));
 		abisInsertRequestDto.setVersion(AbisHandlerStageConstant.VERSION);
@@ -568,7 +616,21 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 		return UUID.randomUUID().toString();
 	}
 
-	private String getDataShareUrl(String id, String process) throws Exception {
+	/**
+	 * Gets the biometrics of the packet to share with ABIS, checked against the
+	 * biometrics expected for the age group of the applicant.
+	 *
+	 * @param id      the reg id
+	 * @param process the process
+	 * @param tags    the tags of the message, the age group is read from packet
+	 *                manager along the biometrics when they do not have it
+	 * @return the biometric segments, without the exceptions
+	 */
+	private List<BIR> getDataShareSegments(String id, String process, Map<String, String> tags) throws Exception {
+		String ageGroup = tags != null ? tags.get(AGE_GROUP) : null;
+		CompletionStage<Map<String, String>> packetTags = ageGroup == null
+				? packetManagerService.getAllTagsAsync(id)
+				: null;
 		Map<String, List<String>> typeAndSubtypMap = createTypeSubtypeMapping();
 		List<String> modalities = new ArrayList<>();
 		for (Map.Entry<String, List<String>> entry : typeAndSubtypMap.entrySet()) {
@@ -578,44 +640,45 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 				modalities.addAll(entry.getValue());
 			}
 		}
-		JSONObject regProcessorIdentityJson = utility
-				.getRegistrationProcessorMappingJson(MappingJsonConstants.IDENTITY);
-		String individualBiometricsLabel = JsonUtil.getJSONValue(
-				JsonUtil.getJSONObject(regProcessorIdentityJson, MappingJsonConstants.INDIVIDUAL_BIOMETRICS),
-				MappingJsonConstants.VALUE);
-		BiometricRecord biometricRecord = priorityBasedPacketManagerService.getBiometrics(id, individualBiometricsLabel,
-				modalities, process, ProviderStageName.BIO_DEDUPE);
+		BiometricRecord biometricRecord = priorityBasedPacketManagerService.getBiometrics(id,
+				getIndividualBiometricsLabel(), modalities, process, ProviderStageName.BIO_DEDUPE);
 
-		Map<String, String> tags = packetManagerService.getAllTags(id);
-		String ageGroup = tags.get("AGE_GROUP");
+		if (ageGroup == null)
+			ageGroup = join(packetTags).get(AGE_GROUP);
+		Map<String, String> metaInfo = priorityBasedPacketManagerService.getMetaInfo(id, process,
+				ProviderStageName.BIO_DEDUPE);
 
 		if (ageGroup.equalsIgnoreCase("INFANT")) {
-			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapInfant,
-					priorityBasedPacketManagerService.getMetaInfo(id, process, ProviderStageName.BIO_DEDUPE));
+			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapInfant, metaInfo);
 		} else if (ageGroup.equalsIgnoreCase("MINOR")) {
-			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapMinor,
-					priorityBasedPacketManagerService.getMetaInfo(id, process, ProviderStageName.BIO_DEDUPE));
-		} else if (ageGroup.equalsIgnoreCase("ADULT")) {
-			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapAdult,
-					priorityBasedPacketManagerService.getMetaInfo(id, process, ProviderStageName.BIO_DEDUPE));
+			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapMinor, metaInfo);
 		} else {
-			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapAdult,
-					priorityBasedPacketManagerService.getMetaInfo(id, process, ProviderStageName.BIO_DEDUPE));
+			validateBiometricRecord(biometricRecord, modalities, biometricModalitySegmentsMapAdult, metaInfo);
 		}
+		return filterExceptionBiometrics(biometricRecord).getSegments();
+	}
 
-		byte[] content = cbeffutil.createXML(filterExceptionBiometrics(biometricRecord).getSegments());
+	private static <T> T join(CompletionStage<T> stage) throws Exception {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Exception)
+				throw (Exception) e.getCause();
+			throw e;
+		}
+	}
 
-		MultiValueMap<String, Object> map = new LinkedMultiValueMap<>();
-		map.add("name", individualBiometricsLabel);
-		map.add("filename", individualBiometricsLabel);
+	private String getIndividualBiometricsLabel() throws IOException {
+		JSONObject regProcessorIdentityJson = utility
+				.getRegistrationProcessorMappingJson(MappingJsonConstants.IDENTITY);
+		return JsonUtil.getJSONValue(
+				JsonUtil.getJSONObject(regProcessorIdentityJson, MappingJsonConstants.INDIVIDUAL_BIOMETRICS),
+				MappingJsonConstants.VALUE);
+	}
 
-		ByteArrayResource contentsAsResource = new ByteArrayResource(content) {
-			@Override
-			public String getFilename() {
-				return individualBiometricsLabel;
-			}
-		};
-		map.add("file", contentsAsResource);
+	private String getDataShareUrl(List<BIR> segments) throws Exception {
+		String individualBiometricsLabel = getIndividualBiometricsLabel();
+		Map<String, String> datasharePolicies = getDataSharePolicy().datasharePolicies;
 
 		List<String> pathSegments = new ArrayList<>();
 		pathSegments.add(policyId);
@@ -628,8 +691,35 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 		else
 			url = protocol + internalDomainName + env.getProperty(ApiName.DATASHARECREATEURL.name());
 		url = url.replaceAll("[\\[\\]]", "");
-		DataShareResponseDto response = (DataShareResponseDto) registrationProcessorRestClientService.postApi(url,
-				MediaType.MULTIPART_FORM_DATA, pathSegments, null, null, map, DataShareResponseDto.class);
+
+		DataShareResponseDto response;
+		if (dataShareStreamingEnabled) {
+			// checked before the request is sent, then written to the request body
+			BIR cbeff = StreamingCbeffWriter.createBIR(segments);
+			Map<String, String> formFields = new LinkedHashMap<>();
+			formFields.put("name", individualBiometricsLabel);
+			formFields.put("filename", individualBiometricsLabel);
+			response = (DataShareResponseDto) registrationProcessorRestClientService.postMultipartApi(url,
+					pathSegments, formFields, "file", individualBiometricsLabel,
+					outputStream -> StreamingCbeffWriter.write(cbeff, outputStream), DataShareResponseDto.class);
+		} else {
+			byte[] content = cbeffutil.createXML(segments);
+
+			MultiValueMap<String, Object> map = new LinkedMultiValueMap<>();
+			map.add("name", individualBiometricsLabel);
+			map.add("filename", individualBiometricsLabel);
+
+			ByteArrayResource contentsAsResource = new ByteArrayResource(content) {
+				@Override
+				public String getFilename() {
+					return individualBiometricsLabel;
+				}
+			};
+			map.add("file", contentsAsResource);
+
+			response = (DataShareResponseDto) registrationProcessorRestClientService.postApi(url,
+					MediaType.MULTIPART_FORM_DATA, pathSegments, null, null, map, DataShareResponseDto.class);
+		}
 		if (response == null || (response.getErrors() != null && response.getErrors().size() > 0))
 			throw new DataShareException(
 					response == null ? "Datashare response is null" : response.getErrors().get(0).getMessage());
@@ -720,42 +810,57 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 
 	public Map<String, List<String>> createTypeSubtypeMapping() throws ApisResourceAccessException, DataShareException,
 			IOException {
+		return getDataSharePolicy().typeAndSubTypeMap;
+	}
 
-		// Call only once and use cache
-		if (!CollectionUtils.isEmpty(typeAndSubTypeMap) && !CollectionUtils.isEmpty(datasharePolicies))
-			return typeAndSubTypeMap;
-
-		ResponseWrapper<?> policyResponse = (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(
-				ApiName.PMS, Lists.newArrayList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "",
-				ResponseWrapper.class);
+	/**
+	 * Gets the data share policy. With the shared policy cache the policy is
+	 * read again when the cache refreshed it, else it is fetched once.
+	 */
+	@SuppressWarnings("unchecked")
+	private DataSharePolicy getDataSharePolicy() throws ApisResourceAccessException, DataShareException, IOException {
+		DataSharePolicy current = dataSharePolicy;
+		if (dataSharePolicyCache == null && current != null && !CollectionUtils.isEmpty(current.typeAndSubTypeMap)
+				&& !CollectionUtils.isEmpty(current.datasharePolicies))
+			return current;
+
+		ResponseWrapper<?> policyResponse = dataSharePolicyCache != null
+				? dataSharePolicyCache.getPolicy(policyId, subscriberId)
+				: (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(ApiName.PMS,
+						Lists.newArrayList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "",
+						ResponseWrapper.class);
+		if (current != null && current.policyResponse == policyResponse)
+			return current;
 		if (policyResponse == null || (policyResponse.getErrors() != null && policyResponse.getErrors().size() > 0)) {
 			throw new DataShareException(policyResponse == null ? "Policy Response response is null"
 					: policyResponse.getErrors().get(0).getMessage());
 
-		} else {
-			LinkedHashMap<String, Object> responseMap = (LinkedHashMap<String, Object>) policyResponse.getResponse();
-			LinkedHashMap<String, Object> policies = (LinkedHashMap<String, Object>) responseMap
-					.get(PolicyConstant.POLICIES);
-			List<?> attributes = (List<?>) policies.get(PolicyConstant.SHAREABLE_ATTRIBUTES);
-			datasharePolicies = (LinkedHashMap<String, String>) policies.get(PolicyConstant.DATASHARE_POLICIES);
-			ShareableAttributes shareableAttributes = mapper.readValue(mapper.writeValueAsString(attributes.get(0)),
-					ShareableAttributes.class);
-			for (Source source : shareableAttributes.getSource()) {
-				List<Filter> filterList = source.getFilter();
-				if (filterList != null && !filterList.isEmpty()) {
-
-					filterList.forEach(filter -> {
-						if (filter.getSubType() != null && !filter.getSubType().isEmpty()) {
-							typeAndSubTypeMap.put(filter.getType(), filter.getSubType());
-						} else {
-							typeAndSubTypeMap.put(filter.getType(), null);
-						}
-					});
-				}
+		}
+		LinkedHashMap<String, Object> responseMap = (LinkedHashMap<String, Object>) policyResponse.getResponse();
+		LinkedHashMap<String, Object> policies = (LinkedHashMap<String, Object>) responseMap
+				.get(PolicyConstant.POLICIES);
+		List<?> attributes = (List<?>) policies.get(PolicyConstant.SHAREABLE_ATTRIBUTES);
+		Map<String, String> datasharePolicies = (LinkedHashMap<String, String>) policies
+				.get(PolicyConstant.DATASHARE_POLICIES);
+		ShareableAttributes shareableAttributes = mapper.readValue(mapper.writeValueAsString(attributes.get(0)),
+				ShareableAttributes.class);
+		Map<String, List<String>> typeAndSubTypeMap = new HashMap<>();
+		for (Source source : shareableAttributes.getSource()) {
+			List<Filter> filterList = source.getFilter();
+			if (filterList != null && !filterList.isEmpty()) {
+
+				filterList.forEach(filter -> {
+					if (filter.getSubType() != null && !filter.getSubType().isEmpty()) {
+						typeAndSubTypeMap.put(filter.getType(), filter.getSubType());
+					} else {
+						typeAndSubTypeMap.put(filter.getType(), null);
+					}
+				});
 			}
 		}
-		return typeAndSubTypeMap;
-
+		current = new DataSharePolicy(policyResponse, typeAndSubTypeMap, datasharePolicies);
+		dataSharePolicy = current;
+		return current;
 	}
 
 	private void updateErrorFlags(InternalRegistrationStatusDto registrationStatusDto, MessageDTO object) {
@@ -767,4 +872,21 @@ public class AbisHandlerStage extends MosipVerticleAPIManager {
 			object.setIsValid(false);
 		}
 	}
+
+	private static class DataSharePolicy {
+
+		private final ResponseWrapper<?> policyResponse;
+
+		private final Map<String, List<String>> typeAndSubTypeMap;
+
+		private final Map<String, String> datasharePolicies;
+
+		private DataSharePolicy(ResponseWrapper<?> policyResponse, Map<String, List<String>> typeAndSubTypeMap,
+				Map<String, String> datasharePolicies) {
+			this.policyResponse = policyResponse;
+			this.typeAndSubTypeMap = typeAndSubTypeMap;
+			this.datasharePolicies = datasharePolicies;
+		}
+	}
+
 }
\ No newline at end of file
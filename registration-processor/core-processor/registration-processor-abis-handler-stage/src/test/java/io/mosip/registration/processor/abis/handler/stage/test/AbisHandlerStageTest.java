@@ -1,13 +1,16 @@
 package io.mosip.registration.processor.abis.handler.stage.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -15,6 +18,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.assertj.core.util.Lists;
 import org.junit.Before;
@@ -28,6 +32,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -335,9 +340,9 @@ public class AbisHandlerStageTest {
 		Mockito.when(packetInfoManager.getAllAbisDetails()).thenReturn(abisApplicationDtos);
 
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
@@ -354,6 +359,78 @@ public class AbisHandlerStageTest {
 		assertTrue(result.getMessageBusAddress().getAddress().equalsIgnoreCase("abis-middle-ware-bus-in"));
 	}
 
+	@Test
+	public void testAgeGroupNotReadFromPacketManager() throws Exception {
+		registrationStatusDto.setLatestTransactionTypeCode("DEMOGRAPHIC_VERIFICATION");
+		registrationStatusDto.setLatestRegistrationTransactionId("dd7b7d20-910a-4b84-be21-c9f211318563");
+		Mockito.when(registrationStatusService.getRegistrationStatus(any(), any(), any(), any())).thenReturn(registrationStatusDto);
+		Mockito.when(packetInfoManager.getIdentifyByTransactionId(any(), any())).thenReturn(Boolean.FALSE);
+		Mockito.when(packetInfoManager.getAllAbisDetails()).thenReturn(abisApplicationDtos);
+		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
+		CompletableFuture<Map<String, String>> failedTags = new CompletableFuture<>();
+		failedTags.completeExceptionally(new PacketManagerException("KER-PUT-001", "packet manager unavailable"));
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(failedTags);
+		RegDemoDedupeListDto regDemoDedupeListDto = new RegDemoDedupeListDto();
+		regDemoDedupeListDto.setMatchedRegId("10003100030001520190422074511");
+		regDemoDedupeListDtoList.add(regDemoDedupeListDto);
+		Mockito.when(packetInfoManager.getDemoListByTransactionId(any())).thenReturn(regDemoDedupeListDtoList);
+
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		MessageDTO result = abisHandlerStage.process(dto);
+
+		assertTrue(result.getInternalError());
+		assertTrue(registrationStatusDto.getStatusComment().contains("packet manager unavailable"));
+		Mockito.verify(packetService, Mockito.never()).getAllTags(any());
+		Mockito.verify(packetInfoManager, Mockito.never()).saveAbisRequests(any(), any(), any(), any());
+	}
+
+	@Test
+	public void testDemoGalleryBioRefsLoadedInBulk() throws Exception {
+		registrationStatusDto.setLatestTransactionTypeCode("DEMOGRAPHIC_VERIFICATION");
+		registrationStatusDto.setLatestRegistrationTransactionId("dd7b7d20-910a-4b84-be21-c9f211318563");
+		Mockito.when(registrationStatusService.getRegistrationStatus(any(), any(), any(), any())).thenReturn(registrationStatusDto);
+		Mockito.when(packetInfoManager.getIdentifyByTransactionId(any(), any())).thenReturn(Boolean.FALSE);
+		Mockito.when(packetInfoManager.getAllAbisDetails()).thenReturn(abisApplicationDtos);
+		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
+		tags.put("AGE_GROUP", "ADULT");
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
+
+		for (int i = 0; i < 10000; i++) {
+			RegDemoDedupeListDto regDemoDedupeListDto = new RegDemoDedupeListDto();
+			regDemoDedupeListDto.setMatchedRegId("rid-" + i);
+			regDemoDedupeListDtoList.add(regDemoDedupeListDto);
+			RegBioRefDto latestBioRef = new RegBioRefDto();
+			latestBioRef.setRegId("rid-" + i);
+			latestBioRef.setBioRefId("bio-ref-" + i);
+			bioRefDtos.add(latestBioRef);
+		}
+		RegBioRefDto olderBioRef = new RegBioRefDto();
+		olderBioRef.setRegId("rid-0");
+		olderBioRef.setBioRefId("older-bio-ref-0");
+		bioRefDtos.add(olderBioRef);
+		Mockito.when(packetInfoManager.getDemoListByTransactionId(any())).thenReturn(regDemoDedupeListDtoList);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
+
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		abisHandlerStage.process(dto);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<AbisRequestDto>> abisRequestCaptor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(packetInfoManager).saveAbisRequests(any(), abisRequestCaptor.capture(), any(), any());
+		AbisRequestDto identifyRequest = abisRequestCaptor.getValue().stream()
+				.filter(request -> "IDENTIFY".equals(request.getRequestType())).findFirst().get();
+		AbisIdentifyRequestDto identifyRequestDto = mapper.readValue(identifyRequest.getReqText(),
+				AbisIdentifyRequestDto.class);
+		assertEquals(10000, identifyRequestDto.getGallery().getReferenceIds().size());
+		assertEquals("bio-ref-0", identifyRequestDto.getGallery().getReferenceIds().get(0).getReferenceId());
+		assertEquals("bio-ref-9999", identifyRequestDto.getGallery().getReferenceIds().get(9999).getReferenceId());
+		Mockito.verify(packetInfoManager, Mockito.times(1)).getBioRefsByRegIds(any());
+		Mockito.verify(packetInfoManager, Mockito.never()).getBioRefIdByRegId(any());
+	}
+
 	@Test
 	public void testBioToAbisHandlerToMiddlewareSuccess() throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
 		registrationStatusDto.setLatestTransactionTypeCode("DEMOGRAPHIC_VERIFICATION");
@@ -366,9 +443,9 @@ public class AbisHandlerStageTest {
 		RegBioRefDto regBioRefDto = new RegBioRefDto();
 		regBioRefDto.setBioRefId("1234567890");
 		bioRefDtos.add(regBioRefDto);
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
@@ -421,7 +498,7 @@ public class AbisHandlerStageTest {
 		Mockito.when(packetInfoManager.getIdentifyByTransactionId(any(), any())).thenReturn(Boolean.FALSE);
 		Mockito.when(packetInfoManager.getAllAbisDetails()).thenReturn(abisApplicationDtos);
 
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
@@ -451,7 +528,7 @@ public class AbisHandlerStageTest {
 
 		RegBioRefDto bioRefDto = new RegBioRefDto();
 		bioRefDtos.add(bioRefDto);
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 
@@ -461,7 +538,7 @@ public class AbisHandlerStageTest {
 		abisRequestDtoList.add(abisRequestDto);
 		Mockito.when(packetInfoManager.getAbisRequestsByBioRefId(any())).thenReturn(abisRequestDtoList);
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
 
@@ -500,7 +577,7 @@ public class AbisHandlerStageTest {
 
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
@@ -522,9 +599,9 @@ public class AbisHandlerStageTest {
 		Mockito.when(packetInfoManager.getIdentifyByTransactionId(any(), any())).thenReturn(Boolean.FALSE);
 
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
@@ -552,7 +629,7 @@ public class AbisHandlerStageTest {
 
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
 		tags.put("AGE_GROUP", "MINOR");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 
@@ -574,7 +651,7 @@ public class AbisHandlerStageTest {
 
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
 		tags.put("AGE_GROUP", "MINOR");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		
@@ -626,7 +703,7 @@ public class AbisHandlerStageTest {
 		
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
 		tags.put("AGE_GROUP", "MINOR");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 
@@ -660,7 +737,7 @@ public class AbisHandlerStageTest {
 		
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 		BiometricRecord biometricRecord = new BiometricRecord();
 		biometricRecord.setSegments(null);
 		Mockito.when(packetManagerService.getBiometrics(any(), any(), any(), any(), any())).thenReturn(biometricRecord);
@@ -684,7 +761,7 @@ public class AbisHandlerStageTest {
 		
 		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
 		tags.put("AGE_GROUP", "ADULT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 		BiometricRecord biometricRecord = new BiometricRecord();
 		BIR bir = new BIR.BIRBuilder().build();
 		BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder().build();
@@ -714,7 +791,7 @@ public class AbisHandlerStageTest {
 
 		RegBioRefDto bioRefDto = new RegBioRefDto();
 		bioRefDtos.add(bioRefDto);
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 
@@ -751,7 +828,7 @@ public class AbisHandlerStageTest {
 
 		RegBioRefDto bioRefDto = new RegBioRefDto();
 		bioRefDtos.add(bioRefDto);
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 
@@ -844,9 +921,9 @@ public class AbisHandlerStageTest {
 		Mockito.when(packetInfoManager.getIdentifyByTransactionId(any(), any())).thenReturn(Boolean.FALSE);
 		Mockito.when(packetInfoManager.getAllAbisDetails()).thenReturn(abisApplicationDtos);
 
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 		tags.put("AGE_GROUP", "INFANT");
-		Mockito.when(packetService.getAllTags(any())).thenReturn(tags);
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
@@ -888,6 +965,87 @@ public class AbisHandlerStageTest {
 		assertTrue(result.getInternalError());
 	}
 	
+	@Test
+	public void testAbisRequestsSavedTogether() throws Exception {
+		defaultMockToProcess();
+		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
+		tags.put("AGE_GROUP", "ADULT");
+		Mockito.when(packetService.getAllTagsAsync(any())).thenReturn(CompletableFuture.completedFuture(tags));
+		AbisQueueDetails abis1 = new AbisQueueDetails();
+		abis1.setName("ABIS1");
+		AbisQueueDetails abis2 = new AbisQueueDetails();
+		abis2.setName("ABIS2");
+		AbisQueueDetails abis3 = new AbisQueueDetails();
+		abis3.setName("ABIS3");
+		Mockito.when(utility.getAbisQueueDetails()).thenReturn(Arrays.asList(abis1, abis2, abis3));
+
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		MessageDTO result = abisHandlerStage.process(dto);
+
+		assertFalse(result.getInternalError());
+		ArgumentCaptor<RegBioRefDto> bioRefCaptor = ArgumentCaptor.forClass(RegBioRefDto.class);
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<AbisRequestDto>> abisRequestCaptor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(packetInfoManager, Mockito.times(1)).saveAbisRequests(bioRefCaptor.capture(),
+				abisRequestCaptor.capture(), any(), any());
+		Mockito.verify(packetInfoManager, Mockito.never()).saveBioRef(any(), any(), any());
+		Mockito.verify(packetInfoManager, Mockito.never()).saveAbisRequest(any(), any(), any());
+		assertEquals("10003100030001520190422074511", bioRefCaptor.getValue().getRegId());
+		assertEquals(6, abisRequestCaptor.getValue().size());
+		assertEquals(3, abisRequestCaptor.getValue().stream()
+				.filter(request -> "INSERT".equals(request.getRequestType())).count());
+		for (AbisRequestDto abisRequestDto : abisRequestCaptor.getValue())
+			assertEquals(bioRefCaptor.getValue().getBioRefId(), abisRequestDto.getBioRefId());
+	}
+
+	@Test
+	public void testDataShareStreamedOncePerAbisWithMessageTags() throws Exception {
+		defaultMockToProcess();
+		ReflectionTestUtils.setField(abisHandlerStage, "dataShareStreamingEnabled", true);
+		mockDataSharePolicy(Lists.newArrayList(BiometricType.IRIS, BiometricType.FINGER, BiometricType.FACE));
+		AbisQueueDetails abis1 = new AbisQueueDetails();
+		abis1.setName("ABIS1");
+		AbisQueueDetails abis2 = new AbisQueueDetails();
+		abis2.setName("ABIS2");
+		Mockito.when(utility.getAbisQueueDetails()).thenReturn(Arrays.asList(abis1, abis2));
+		BiometricRecord biometricRecord = getBiometricRecord(Arrays.asList("Left Thumb", "Right Thumb",
+				"Left MiddleFinger", "Left RingFinger", "Left LittleFinger", "Left IndexFinger", "Right MiddleFinger",
+				"Right RingFinger", "Right LittleFinger", "Right IndexFinger", "Left", "Right", "Face"), false);
+		for (BIR bir : biometricRecord.getSegments()) {
+			BiometricType type = bir.getBdbInfo().getType().get(0);
+			bir.getBdbInfo().setFormat(new RegistryIDType("Mosip",
+					type == BiometricType.FINGER ? "7" : type == BiometricType.FACE ? "8" : "9"));
+		}
+		Mockito.when(packetManagerService.getBiometrics(any(), any(), any(), any(), any())).thenReturn(biometricRecord);
+		DataShareResponseDto dataShareResponseDto = new DataShareResponseDto();
+		DataShare dataShare = new DataShare();
+		dataShare.setUrl("http://localhost");
+		dataShareResponseDto.setDataShare(dataShare);
+		ArgumentCaptor<StreamingHttpOutputMessage.Body> file = ArgumentCaptor
+				.forClass(StreamingHttpOutputMessage.Body.class);
+		Mockito.when(registrationProcessorRestClientService.postMultipartApi(anyString(), any(), any(), any(), any(),
+				file.capture(), any())).thenReturn(dataShareResponseDto);
+
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		Map<String, String> messageTags = new HashMap<>();
+		messageTags.put("AGE_GROUP", "ADULT");
+		dto.setTags(messageTags);
+		MessageDTO result = abisHandlerStage.process(dto);
+
+		assertFalse(result.getInternalError());
+		Mockito.verify(packetManagerService, Mockito.times(1)).getBiometrics(any(), any(), any(), any(), any());
+		Mockito.verify(packetManagerService, Mockito.times(1)).getMetaInfo(any(), any(), any());
+		Mockito.verify(packetService, Mockito.never()).getAllTags(any());
+		Mockito.verify(cbeffutil, Mockito.never()).createXML(any());
+		assertEquals(2, file.getAllValues().size());
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		file.getValue().writeTo(outputStream);
+		String xml = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+		assertEquals(13, xml.split("<BDBInfo>", -1).length - 1);
+	}
+
 	@Test
 	public void noBdbInAnyBiometric()
 			throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
@@ -917,7 +1075,7 @@ public class AbisHandlerStageTest {
 		RegBioRefDto regBioRefDto = new RegBioRefDto();
 		regBioRefDto.setBioRefId("1234567890");
 		bioRefDtos.add(regBioRefDto);
-		Mockito.when(packetInfoManager.getBioRefIdByRegId(any())).thenReturn(bioRefDtos);
+		Mockito.when(packetInfoManager.getBioRefsByRegIds(any())).thenReturn(bioRefDtos);
 
 		Mockito.doNothing().when(packetInfoManager).saveBioRef(any(), any(), any());
 		Mockito.doNothing().when(packetInfoManager).saveAbisRequest(any(), any(), any());
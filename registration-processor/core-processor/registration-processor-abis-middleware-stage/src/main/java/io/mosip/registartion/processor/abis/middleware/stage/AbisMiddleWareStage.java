@@ -3,17 +3,24 @@ package io.mosip.registartion.processor.abis.middleware.stage;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.TextMessage;
 
 import org.apache.activemq.command.ActiveMQBytesMessage;
 import org.assertj.core.util.Arrays;
-import org.json.simple.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
@@ -21,8 +28,12 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registartion.processor.abis.middleware.util.AbisCorrelationCache;
+import io.mosip.registartion.processor.abis.middleware.util.AbisCorrelationCache.Correlation;
+import io.mosip.registartion.processor.abis.middleware.util.AbisResponseDispatcher;
 import io.mosip.registration.processor.abis.queue.dto.AbisQueueDetails;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
@@ -45,11 +56,11 @@ import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.packet.dto.Identity;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisCommonResponseDto;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyResponseDto;
-import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertResponseDto;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDto;
 import io.mosip.registration.processor.core.packet.dto.abis.CandidatesDto;
 import io.mosip.registration.processor.core.packet.dto.abis.RegBioRefDto;
+import io.mosip.registration.processor.core.queue.factory.MosipActiveMq;
 import io.mosip.registration.processor.core.queue.factory.MosipQueue;
 import io.mosip.registration.processor.core.queue.factory.QueueListener;
 import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
@@ -57,6 +68,7 @@ import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
 import io.mosip.registration.processor.core.status.util.StatusUtil;
 import io.mosip.registration.processor.core.status.util.TrimExceptionMessage;
 import io.mosip.registration.processor.core.util.JsonUtil;
+import io.mosip.registration.processor.core.util.MeterBinding;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
 import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
 import io.mosip.registration.processor.packet.storage.entity.AbisRequestEntity;
@@ -129,6 +141,9 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 	@Autowired
 	private PacketInfoDao packetInfoDao;
 
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
 	@Value("${vertx.cluster.configuration}")
 	private String clusterManagerUrl;
 	
@@ -144,6 +159,31 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 	@Value("${activemq.message.format}")
 	private String messageFormat;
 
+	/** Workers processing the abis responses, 0 to process them on the listener thread. */
+	@Value("${mosip.regproc.abis.middleware.response.concurrency:0}")
+	private int responseConcurrency;
+
+	/** Responses queued per worker before the listener thread waits. */
+	@Value("${mosip.regproc.abis.middleware.response.queue-size:100}")
+	private int responseQueueSize;
+
+	/** Time given to the workers to process the responses queued when the stage stops. */
+	@Value("${mosip.regproc.abis.middleware.response.shutdown-timeout-seconds:30}")
+	private long responseShutdownTimeoutSeconds;
+
+	@Value("${mosip.regproc.abis.middleware.correlation-cache.enabled:false}")
+	private boolean correlationCacheEnabled;
+
+	@Value("${mosip.regproc.abis.middleware.correlation-cache.max-size:100000}")
+	private int correlationCacheMaxSize;
+
+	@Value("${mosip.regproc.abis.middleware.correlation-cache.ttl-seconds:3600}")
+	private long correlationCacheTtlSeconds;
+
+	private AbisCorrelationCache correlationCache;
+
+	private AbisResponseDispatcher responseDispatcher;
+
 	/** The mosip event bus. */
 	MosipEventBus mosipEventBus = null;
 
@@ -169,6 +209,7 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 			mosipEventBus = this.getEventBus(this, clusterManagerUrl, workerPoolSize);
 			this.consume(mosipEventBus, MessageBusAddress.ABIS_MIDDLEWARE_BUS_IN, messageExpiryTimeLimit);
 			abisQueueDetails = utility.getAbisQueueDetails();
+			initResponseProcessing();
 			for (AbisQueueDetails abisQueue : abisQueueDetails) {
 				String abisInBoundaddress = abisQueue.getInboundQueueName();
 				int inboundMessageTTL = abisQueue.getInboundMessageTTL();
@@ -177,8 +218,12 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 					@Override
 					public void setListener(Message message) {
 						try {
-							consumerListener(message, abisInBoundaddress, queue, mosipEventBus,
-								inboundMessageTTL);
+							if (responseDispatcher != null)
+								dispatchResponse(message, abisInBoundaddress, queue, mosipEventBus,
+										inboundMessageTTL);
+							else
+								consumerListener(message, abisInBoundaddress, queue, mosipEventBus,
+									inboundMessageTTL);
 						} catch (Exception e) {
 
 							regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -187,7 +232,12 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 						}
 					}
 				};
-				mosipQueueManager.consume(queue, abisQueue.getOutboundQueueName(), listener);
+				// a response processed on a worker is acknowledged once processed
+				if (responseDispatcher != null)
+					mosipQueueManager.consumeWithClientAcknowledge(queue, abisQueue.getOutboundQueueName(),
+							listener);
+				else
+					mosipQueueManager.consume(queue, abisQueue.getOutboundQueueName(), listener);
 			}
 
 		} catch (Exception e) {
@@ -199,6 +249,20 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 		}
 	}
 
+	private void initResponseProcessing() {
+		MeterRegistry registry = MeterBinding.getRegistry(meterRegistry);
+		if (correlationCacheEnabled && correlationCache == null) {
+			correlationCache = new AbisCorrelationCache(correlationCacheMaxSize, correlationCacheTtlSeconds);
+			if (registry != null)
+				correlationCache.bindTo(registry);
+		}
+		if (responseConcurrency > 0 && responseDispatcher == null) {
+			responseDispatcher = new AbisResponseDispatcher(responseConcurrency, responseQueueSize);
+			if (registry != null)
+				responseDispatcher.bindTo(registry);
+		}
+	}
+
 	@Override
 	public void start() {
 		router.setRoute(this.postUrl(getVertx(), MessageBusAddress.ABIS_MIDDLEWARE_BUS_IN,
@@ -249,9 +313,15 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 			List<AbisRequestDto> abisIdentifyRequestList = abisInsertIdentifyList.stream()
 					.filter(dto -> dto.getRequestType().equals(AbisStatusCode.IDENTIFY.toString()))
 					.collect(Collectors.toList());
+			RegBioRefDto regBioRefDto = new RegBioRefDto();
+			regBioRefDto.setRegId(registrationId);
+			regBioRefDto.setBioRefId(abisRefId);
+			regBioRefDto.setProcess(object.getReg_type());
+			regBioRefDto.setIteration(object.getIteration());
+			regBioRefDto.setWorkflowInstanceId(object.getWorkflowInstanceId());
 
 			processInsertIdentify(abisInsertRequestList, abisIdentifyRequestList, abisInprogressInsertRequestList,
-					internalRegDto, abisAlreadyprocessedInsertRequestList);
+					internalRegDto, abisAlreadyprocessedInsertRequestList, regBioRefDto);
 
 			object.setIsValid(true);
 			object.setInternalError(false);
@@ -313,90 +383,237 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 
 	private void processInsertIdentify(List<AbisRequestDto> abisInsertRequestList,
 			List<AbisRequestDto> abisIdentifyRequestList, List<AbisRequestDto> abisInprogressInsertRequestList,
-			InternalRegistrationStatusDto internalRegDto, List<AbisRequestDto> abisAlreadyprocessedInsertRequestList)
-			throws RegistrationProcessorCheckedException {
+			InternalRegistrationStatusDto internalRegDto, List<AbisRequestDto> abisAlreadyprocessedInsertRequestList,
+			RegBioRefDto regBioRefDto) throws RegistrationProcessorCheckedException {
+		List<PendingRequest> pendingRequests = new ArrayList<>();
 		// If all insert request are null then send all identify requests.
 		if (abisInsertRequestList.isEmpty()) {
-			for (AbisRequestDto abisIdentifyRequest : abisIdentifyRequestList) {
-				List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
-						.filter(dto -> dto.getName().equals(abisIdentifyRequest.getAbisAppCode()))
-						.collect(Collectors.toList());
-				validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
-				byte[] reqBytearray = abisIdentifyRequest.getReqText();
-
-				boolean isAddedToQueue = sendToQueue(abisQueue.get(0).getMosipQueue(), new String(reqBytearray),
-						abisQueue.get(0).getInboundQueueName(), abisQueue.get(0).getInboundMessageTTL());
-
-				updateAbisRequest(isAddedToQueue, abisIdentifyRequest, internalRegDto);
-			}
-
+			for (AbisRequestDto abisIdentifyRequest : abisIdentifyRequestList)
+				pendingRequests.add(new PendingRequest(abisIdentifyRequest, getAbisQueue(abisIdentifyRequest), null));
 		}
 		// send in progress insert requests to queue
-		for (AbisRequestDto abisInprogressRequest : abisInprogressInsertRequestList) {
-			List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
-					.filter(dto -> dto.getName().equals(abisInprogressRequest.getAbisAppCode()))
-					.collect(Collectors.toList());
-			validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
-
-			byte[] reqBytearray = abisInprogressRequest.getReqText();
-
-			boolean isAddedToQueue = sendToQueue(abisQueue.get(0).getMosipQueue(), new String(reqBytearray),
-					abisQueue.get(0).getInboundQueueName(), abisQueue.get(0).getInboundMessageTTL());
-
-			updateAbisRequest(isAddedToQueue, abisInprogressRequest, internalRegDto);
-		}
+		for (AbisRequestDto abisInprogressRequest : abisInprogressInsertRequestList)
+			pendingRequests.add(new PendingRequest(abisInprogressRequest, getAbisQueue(abisInprogressRequest),
+					abisIdentifyRequestList));
 		// send all identify requests for already processed insert requests
 		for (AbisRequestDto abisAlreadyProcessedInsertRequest : abisAlreadyprocessedInsertRequestList) {
-			List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
-					.filter(dto -> dto.getName().equals(abisAlreadyProcessedInsertRequest.getAbisAppCode()))
-					.collect(Collectors.toList());
-			validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
+			AbisQueueDetails abisQueue = getAbisQueue(abisAlreadyProcessedInsertRequest);
 			List<AbisRequestDto> identifyRequest = abisIdentifyRequestList.stream()
 					.filter(dto -> dto.getAbisAppCode().equals(abisAlreadyProcessedInsertRequest.getAbisAppCode()))
 					.collect(Collectors.toList());
-			byte[] reqBytearray = identifyRequest.get(0).getReqText();
-			boolean isAddedToQueue = sendToQueue(abisQueue.get(0).getMosipQueue(), new String(reqBytearray),
-					abisQueue.get(0).getInboundQueueName(), abisQueue.get(0).getInboundMessageTTL());
-			updateAbisRequest(isAddedToQueue, identifyRequest.get(0), internalRegDto);
+			pendingRequests.add(new PendingRequest(identifyRequest.get(0), abisQueue, null));
+		}
+		sendToQueues(pendingRequests, internalRegDto, regBioRefDto);
+	}
 
+	private AbisQueueDetails getAbisQueue(AbisRequestDto abisRequestDto) {
+		List<AbisQueueDetails> abisQueue = abisQueueDetails.stream()
+				.filter(dto -> dto.getName().equals(abisRequestDto.getAbisAppCode())).collect(Collectors.toList());
+		validateNullCheck(abisQueue, ABIS_QUEUE_NOT_FOUND);
+		return abisQueue.get(0);
+	}
+
+	/**
+	 * Sends the requests to the abis queues on the same broker in one
+	 * transaction, so that all of them are queued or none. A request alone on its
+	 * broker, or on a broker the messages can not be sent to in a transaction, is
+	 * sent by itself and marked sent before the next one is sent
+	 */
+	private void sendToQueues(List<PendingRequest> pendingRequests, InternalRegistrationStatusDto internalRegDto,
+			RegBioRefDto regBioRefDto) throws RegistrationProcessorCheckedException {
+		Map<Map.Entry<Object, Integer>, List<PendingRequest>> batches = new LinkedHashMap<>();
+		for (PendingRequest pendingRequest : pendingRequests)
+			batches.computeIfAbsent(new AbstractMap.SimpleImmutableEntry<>(
+					getBroker(pendingRequest.abisQueue.getMosipQueue()),
+					pendingRequest.abisQueue.getInboundMessageTTL()), key -> new ArrayList<>()).add(pendingRequest);
+		for (List<PendingRequest> batch : batches.values()) {
+			Map<String, Object> messages = new LinkedHashMap<>();
+			for (PendingRequest pendingRequest : batch)
+				messages.put(pendingRequest.abisQueue.getInboundQueueName(),
+						messageFormat.equalsIgnoreCase(TEXT_MESSAGE) ? new String(pendingRequest.request.getReqText())
+								: pendingRequest.request.getReqText());
+			if (batch.size() == 1 || messages.size() < batch.size()
+					|| !mosipQueueManager.isSendAllTransacted(batch.get(0).abisQueue.getMosipQueue())) {
+				for (PendingRequest pendingRequest : batch) {
+					boolean isAddedToQueue = sendToQueue(pendingRequest.abisQueue.getMosipQueue(),
+							new String(pendingRequest.request.getReqText()),
+							pendingRequest.abisQueue.getInboundQueueName(),
+							pendingRequest.abisQueue.getInboundMessageTTL());
+					updateAbisRequest(isAddedToQueue, pendingRequest, internalRegDto, regBioRefDto);
+				}
+			} else {
+				boolean isAddedToQueue = sendAllToQueue(batch.get(0).abisQueue.getMosipQueue(), messages,
+						batch.get(0).abisQueue.getInboundMessageTTL());
+				for (PendingRequest pendingRequest : batch)
+					updateAbisRequest(isAddedToQueue, pendingRequest, internalRegDto, regBioRefDto);
+			}
 		}
 	}
 
+	private void updateAbisRequest(boolean isAddedToQueue, PendingRequest pendingRequest,
+			InternalRegistrationStatusDto internalRegDto, RegBioRefDto regBioRefDto) {
+		updateAbisRequest(isAddedToQueue, pendingRequest.request, internalRegDto);
+		cacheCorrelation(isAddedToQueue, pendingRequest.request, pendingRequest.identifyRequests, regBioRefDto);
+	}
+
+	/*
+	 * The queues of an activemq broker share the connection of the broker
+	 */
+	private Object getBroker(MosipQueue mosipQueue) {
+		if (mosipQueue instanceof MosipActiveMq) {
+			MosipActiveMq mosipActiveMq = (MosipActiveMq) mosipQueue;
+			return mosipActiveMq.getUsername() + "@" + mosipActiveMq.getBrokerUrl();
+		}
+		return mosipQueue;
+	}
+
 	public void consumerListener(Message message, String abisInBoundAddress, MosipQueue queue,
 			MosipEventBus eventBus, int inboundMessageTTL)
 			throws RegistrationProcessorCheckedException {
+		AbisResponse abisResponse = readResponse(message);
+		if (abisResponse != null)
+			processResponse(abisResponse, null, abisInBoundAddress, queue, eventBus, inboundMessageTTL);
+	}
+
+	/**
+	 * Reads the response on the listener thread and queues it to the worker of its
+	 * batch, so that the responses of a batch are processed in order. A response
+	 * is acknowledged once processed, whether or not its processing failed, so that
+	 * a response failing every time does not hold the listener. A response not
+	 * queued because the workers are stopping is not acknowledged, it is received
+	 * again once the session of the listener is closed.
+	 */
+	private void dispatchResponse(Message message, String abisInBoundAddress, MosipQueue queue,
+			MosipEventBus eventBus, int inboundMessageTTL) throws RegistrationProcessorCheckedException {
+		boolean acknowledgeNow = true;
+		String requestId = null;
+		try {
+			AbisResponse abisResponse = readResponse(message);
+			if (abisResponse == null)
+				return;
+			requestId = abisResponse.responseDto.getRequestId();
+			String batchId = correlationCache != null ? correlationCache.getBatchId(requestId) : null;
+			if (batchId == null)
+				batchId = packetInfoManager.getBatchIdByRequestId(requestId);
+			String responseBatchId = batchId;
+			responseDispatcher.dispatch(batchId != null ? batchId : requestId, () -> {
+				try {
+					processResponse(abisResponse, responseBatchId, abisInBoundAddress, queue, eventBus,
+							inboundMessageTTL);
+				} catch (RegistrationProcessorCheckedException | RuntimeException e) {
+					regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.REGISTRATIONID.toString(), "", ExceptionUtils.getStackTrace(e));
+				} finally {
+					acknowledge(message);
+				}
+			});
+			// acknowledged by the worker
+			acknowledgeNow = false;
+		} catch (RejectedExecutionException e) {
+			acknowledgeNow = false;
+			regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "AbisMiddlewareStage::dispatchResponse()::workers stopped, response not processed for requestId ::"
+							+ requestId);
+		} catch (InterruptedException e) {
+			acknowledgeNow = false;
+			Thread.currentThread().interrupt();
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "AbisMiddlewareStage::dispatchResponse()::interrupted, response not processed for requestId ::"
+							+ requestId);
+		} finally {
+			if (acknowledgeNow)
+				acknowledge(message);
+		}
+	}
+
+	private void acknowledge(Message message) {
+		try {
+			message.acknowledge();
+		} catch (JMSException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", "AbisMiddlewareStage::acknowledge()::response will be received again::"
+							+ ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Stops the response workers once the responses queued are processed, the
+	 * responses not processed in time are not acknowledged and received again once
+	 * the session of the listener is closed
+	 */
+	@PreDestroy
+	public void stopResponseProcessing() throws InterruptedException {
+		if (responseDispatcher != null)
+			responseDispatcher.shutdown(responseShutdownTimeoutSeconds, TimeUnit.SECONDS);
+	}
+
+	private AbisResponse readResponse(Message message) throws RegistrationProcessorCheckedException {
+		try {
+			String response;
+			if (messageFormat.equalsIgnoreCase(TEXT_MESSAGE)) {
+				TextMessage textMessage = (TextMessage) message;
+				response = textMessage.getText();
+			} else
+				response = new String(((ActiveMQBytesMessage) message).getContent().data);
+			// parsed once, the identify response has all the fields of the insert response
+			AbisIdentifyResponseDto responseDto = JsonUtil.readValueWithUnknownProperties(response,
+					AbisIdentifyResponseDto.class);
+			return new AbisResponse(response, responseDto);
+		} catch (IOException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", ExceptionUtils.getStackTrace(e));
+			throw new RegistrationProcessorCheckedException(PlatformErrorMessages.RPR_SYS_IO_EXCEPTION.getCode(),
+					PlatformErrorMessages.RPR_SYS_IO_EXCEPTION.getMessage(), e);
+		} catch (Exception e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", ExceptionUtils.getStackTrace(e));
+			return null;
+		}
+	}
+
+	private void processResponse(AbisResponse abisResponse, String batchId, String abisInBoundAddress,
+			MosipQueue queue, MosipEventBus eventBus, int inboundMessageTTL)
+			throws RegistrationProcessorCheckedException {
 		TrimExceptionMessage trimExceptionMessage = new TrimExceptionMessage();
 		InternalRegistrationStatusDto internalRegStatusDto = null;
+		Correlation correlation = null;
 		String registrationId = null;
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"AbisMiddlewareStage::consumerListener()::entry");
 		String moduleId = "";
 		String moduleName = ModuleName.ABIS_MIDDLEWARE.toString();
 		boolean isTransactionSuccessful = true;
-		String response = null;
+		String response = abisResponse.response;
 		LogDescription description = new LogDescription();
 		try {
-			if (messageFormat.equalsIgnoreCase(TEXT_MESSAGE)) {
-				TextMessage textMessage = (TextMessage) message;
-				response =textMessage.getText();
-			} else
-				response = new String(((ActiveMQBytesMessage) message).getContent().data);
-			JSONObject inserOrIdentifyResponse = JsonUtil.objectMapperReadValue(response, JSONObject.class);
-			String requestId = JsonUtil.getJSONValue(inserOrIdentifyResponse, REQUESTID);
-			String batchId = packetInfoManager.getBatchIdByRequestId(requestId);
-			validateNullCheck(batchId, "ABIS_BATCH_ID_NOT_FOUND");
-			List<String> bioRefId = packetInfoManager.getReferenceIdByBatchId(batchId);
-			validateNullCheck(bioRefId, "ABIS_REFERENCE_ID_NOT_FOUND");
-
-			List<RegBioRefDto> regBioRefist = packetInfoManager.getRegBioRefDataByBioRefIds(bioRefId);
-			RegBioRefDto regBioRefDto = regBioRefist.get(0);
+			AbisIdentifyResponseDto abisResponseDto = abisResponse.responseDto;
+			String requestId = abisResponseDto.getRequestId();
+			List<String> bioRefId;
+			RegBioRefDto regBioRefDto;
+			AbisRequestDto abisCommonRequestDto;
+			correlation = correlationCache != null ? correlationCache.take(requestId) : null;
+			if (correlation != null) {
+				// the request was sent by this instance and this is its first response here,
+				// its status is read again as another instance may have processed a response
+				batchId = correlation.getBatchId();
+				regBioRefDto = correlation.getRegBioRef();
+				bioRefId = Collections.singletonList(regBioRefDto.getBioRefId());
+			} else {
+				if (batchId == null)
+					batchId = packetInfoManager.getBatchIdByRequestId(requestId);
+				validateNullCheck(batchId, "ABIS_BATCH_ID_NOT_FOUND");
+				bioRefId = packetInfoManager.getReferenceIdByBatchId(batchId);
+				validateNullCheck(bioRefId, "ABIS_REFERENCE_ID_NOT_FOUND");
+
+				List<RegBioRefDto> regBioRefist = packetInfoManager.getRegBioRefDataByBioRefIds(bioRefId);
+				regBioRefDto = regBioRefist.get(0);
+				internalRegStatusDto = getRegistrationStatus(null, regBioRefDto);
+			}
+			abisCommonRequestDto = packetInfoManager.getAbisRequestByRequestId(requestId);
 			registrationId = regBioRefDto.getRegId();
-			internalRegStatusDto = registrationStatusService.getRegistrationStatus(registrationId,
-					regBioRefDto.getProcess(), regBioRefDto.getIteration(), regBioRefDto.getWorkflowInstanceId());
 			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 					"AbisMiddlewareStage::consumerListener()::response from abis for requestId ::" + requestId);
 
-			AbisRequestDto abisCommonRequestDto = packetInfoManager.getAbisRequestByRequestId(requestId);
 			// check for insert response,if success send corresponding identify request to
 			// queue
 			if (abisCommonRequestDto.getRequestType().equals(AbisStatusCode.INSERT.toString())) {
@@ -404,35 +621,41 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 						"AbisMiddlewareStage::consumerListener()::Insert Response received from abis ::"
-								+ inserOrIdentifyResponse);
-				AbisInsertResponseDto abisInsertResponseDto = JsonUtil.objectMapperReadValue(response,
-						AbisInsertResponseDto.class);
+								+ response);
 
-				if (abisInsertResponseDto.getFailureReason() != null && abisInsertResponseDto.getFailureReason().equalsIgnoreCase("10"))
+				if (abisResponseDto.getFailureReason() != null && abisResponseDto.getFailureReason().equalsIgnoreCase("10"))
 					regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 							"Received failure response from abis.",
 							"Reference id already present for requestId : " + requestId +". Regproc will pass this insert response.");
 
-				updateAbisResponseEntity(abisInsertResponseDto, response);
-				updteAbisRequestProcessed(abisInsertResponseDto, abisCommonRequestDto);
-				if (isInsertSuccess(abisInsertResponseDto)) {
-					List<String> transactionIdList = packetInfoManager.getAbisTransactionIdByRequestId(requestId);
-					validateNullCheck(transactionIdList, "LATEST_TRANSACTION_ID_NOT_FOUND");
-					List<AbisRequestDto> abisIdentifyRequestList = packetInfoManager.getIdentifyReqListByTransactionId(
-							transactionIdList.get(0), AbisStatusCode.IDENTIFY.toString());
-					List<AbisRequestDto> abisIdentifyRequest = abisIdentifyRequestList.stream()
-							.filter(dto1 -> dto1.getAbisAppCode().equals(abisCommonRequestDto.getAbisAppCode()))
-							.collect(Collectors.toList());
-					validateNullCheck(abisIdentifyRequest, "IDENTIFY_REQUESTS_NOT_FOUND");
-					AbisRequestDto abisIdentifyRequestDto = abisIdentifyRequest.get(0);
+				updateAbisResponseEntity(abisResponseDto, response);
+				updteAbisRequestProcessed(abisResponseDto, abisCommonRequestDto);
+				if (isInsertSuccess(abisResponseDto)) {
+					AbisRequestDto abisIdentifyRequestDto = correlation != null ? correlation.getIdentifyRequest()
+							: null;
+					if (abisIdentifyRequestDto == null) {
+						List<String> transactionIdList = packetInfoManager.getAbisTransactionIdByRequestId(requestId);
+						validateNullCheck(transactionIdList, "LATEST_TRANSACTION_ID_NOT_FOUND");
+						List<AbisRequestDto> abisIdentifyRequestList = packetInfoManager.getIdentifyReqListByTransactionId(
+								transactionIdList.get(0), AbisStatusCode.IDENTIFY.toString());
+						List<AbisRequestDto> abisIdentifyRequest = abisIdentifyRequestList.stream()
+								.filter(dto1 -> dto1.getAbisAppCode().equals(abisCommonRequestDto.getAbisAppCode()))
+								.collect(Collectors.toList());
+						validateNullCheck(abisIdentifyRequest, "IDENTIFY_REQUESTS_NOT_FOUND");
+						abisIdentifyRequestDto = abisIdentifyRequest.get(0);
+					}
 					boolean isAddedToQueue = sendToQueue(queue, new String(abisIdentifyRequestDto.getReqText()),
 							abisInBoundAddress, inboundMessageTTL);
+					if (!isAddedToQueue)
+						internalRegStatusDto = getRegistrationStatus(internalRegStatusDto, regBioRefDto);
 					updateAbisRequest(isAddedToQueue, abisIdentifyRequestDto, internalRegStatusDto);
+					cacheCorrelation(isAddedToQueue, abisIdentifyRequestDto, null, regBioRefDto);
 				} else {
+					internalRegStatusDto = getRegistrationStatus(internalRegStatusDto, regBioRefDto);
 					internalRegStatusDto
 							.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
 					internalRegStatusDto.setStatusComment(
-							StatusUtil.INSERT_RESPONSE_FAILED.getMessage() + abisCommonRequestDto.getId()+"-"+abisInsertResponseDto.getFailureReason()+"-"+io.mosip.registartion.processor.abis.middleware.constants.FailureReason.getValueFromKey(abisInsertResponseDto.getFailureReason()));
+							StatusUtil.INSERT_RESPONSE_FAILED.getMessage() + abisCommonRequestDto.getId()+"-"+abisResponseDto.getFailureReason()+"-"+io.mosip.registartion.processor.abis.middleware.constants.FailureReason.getValueFromKey(abisResponseDto.getFailureReason()));
 					internalRegStatusDto.setSubStatusCode(StatusUtil.SYSTEM_EXCEPTION_OCCURED.getCode());
 					moduleId = PlatformErrorMessages.SYSTEM_EXCEPTION_OCCURED.getCode();
 					registrationStatusService.updateRegistrationStatus(internalRegStatusDto, moduleId, moduleName);
@@ -442,7 +665,7 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 					regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 							"",
 							"AbisMiddlewareStage::consumerListener()::Duplicate Insert Response received from abis for same request id ::"
-									+ requestId + " response " + inserOrIdentifyResponse);
+									+ requestId + " response " + response);
 					isTransactionSuccessful = false;
 					description.setMessage(PlatformErrorMessages.DUPLICATE_INSERT_RESPONSE.getMessage() + requestId);
 					description.setCode(PlatformErrorMessages.DUPLICATE_INSERT_RESPONSE.getCode());
@@ -455,27 +678,26 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 				if (AbisStatusCode.SENT.toString().equals(abisCommonRequestDto.getStatusCode())) {
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 						"AbisMiddlewareStage::consumerListener()::Identify Response received from abis ::"
-								+ inserOrIdentifyResponse);
+								+ response);
 
-				AbisIdentifyResponseDto abisIdentifyResponseDto = JsonUtil.readValueWithUnknownProperties(response,
-						AbisIdentifyResponseDto.class);
-				if (!abisIdentifyResponseDto.getReturnValue().equalsIgnoreCase("1")){
+				if (!abisResponseDto.getReturnValue().equalsIgnoreCase("1")){
+					internalRegStatusDto = getRegistrationStatus(internalRegStatusDto, regBioRefDto);
 					internalRegStatusDto
 							.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
 					internalRegStatusDto.setStatusComment(
-							StatusUtil.IDENTIFY_RESPONSE_FAILED.getMessage() + abisCommonRequestDto.getId()+"-"+abisIdentifyResponseDto.getFailureReason()+"-"+io.mosip.registartion.processor.abis.middleware.constants.FailureReason.getValueFromKey(abisIdentifyResponseDto.getFailureReason()));
+							StatusUtil.IDENTIFY_RESPONSE_FAILED.getMessage() + abisCommonRequestDto.getId()+"-"+abisResponseDto.getFailureReason()+"-"+io.mosip.registartion.processor.abis.middleware.constants.FailureReason.getValueFromKey(abisResponseDto.getFailureReason()));
 					internalRegStatusDto.setSubStatusCode(StatusUtil.SYSTEM_EXCEPTION_OCCURED.getCode());
 					moduleId = PlatformErrorMessages.SYSTEM_EXCEPTION_OCCURED.getCode();
 					registrationStatusService.updateRegistrationStatus(internalRegStatusDto, moduleId, moduleName);
 				}
-				AbisResponseDto abisResponseDto = updateAbisResponseEntity(abisIdentifyResponseDto, response);
-				if (abisIdentifyResponseDto.getCandidateList() != null) {
-					CandidatesDto[] candidatesDtos = abisIdentifyResponseDto.getCandidateList().getCandidates();
+				AbisResponseDto abisResponseEntityDto = updateAbisResponseEntity(abisResponseDto, response);
+				if (abisResponseDto.getCandidateList() != null) {
+					CandidatesDto[] candidatesDtos = abisResponseDto.getCandidateList().getCandidates();
 					if (!Arrays.isNullOrEmpty(candidatesDtos)) {
-						saveCandiateDtos(candidatesDtos, abisResponseDto, bioRefId.get(0));
+						saveCandiateDtos(candidatesDtos, abisResponseEntityDto, bioRefId.get(0));
 					}
 				}
-				updteAbisRequestProcessed(abisIdentifyResponseDto, abisCommonRequestDto);
+				updteAbisRequestProcessed(abisResponseDto, abisCommonRequestDto);
 
 				if (checkAllIdentifyRequestsProcessed(batchId)) {
 
@@ -483,15 +705,15 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 							"",
 							"AbisMiddlewareStage::consumerListener()::All identify are requests processed sending to Abis handler");
 
-					sendToAbisHandler(eventBus, bioRefId, registrationId, internalRegStatusDto.getRegistrationType(),
-							internalRegStatusDto.getIteration(), internalRegStatusDto.getWorkflowInstanceId());
+					sendToAbisHandler(eventBus, bioRefId, registrationId, regBioRefDto.getProcess(),
+							regBioRefDto.getIteration(), regBioRefDto.getWorkflowInstanceId());
 
 					}
 				} else {
 					regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 							"",
 							"AbisMiddlewareStage::consumerListener()::Duplicate Identify Response received from abis for same request id ::"
-									+ requestId + " response " + inserOrIdentifyResponse);
+									+ requestId + " response " + response);
 					isTransactionSuccessful = false;
 					description.setMessage(PlatformErrorMessages.DUPLICATE_IDENTITY_RESPONSE.getMessage() + requestId);
 					description.setCode(PlatformErrorMessages.DUPLICATE_IDENTITY_RESPONSE.getCode());
@@ -499,21 +721,9 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 				}
 			}
 
-		} catch (IOException e) {
-			if (internalRegStatusDto != null) {
-				internalRegStatusDto
-						.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
-				internalRegStatusDto.setStatusComment(trimExceptionMessage
-						.trimExceptionMessage(StatusUtil.IO_EXCEPTION.getMessage() + e.getMessage()));
-				internalRegStatusDto.setSubStatusCode(StatusUtil.SYSTEM_EXCEPTION_OCCURED.getCode());
-				moduleId = PlatformErrorMessages.SYSTEM_EXCEPTION_OCCURED.getCode();
-				registrationStatusService.updateRegistrationStatus(internalRegStatusDto, moduleId, moduleName);
-			}
-			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
-					registrationId, ExceptionUtils.getStackTrace(e));
-			throw new RegistrationProcessorCheckedException(PlatformErrorMessages.RPR_SYS_IO_EXCEPTION.getCode(),
-					PlatformErrorMessages.RPR_SYS_IO_EXCEPTION.getMessage(), e);
 		} catch (Exception e) {
+			if (internalRegStatusDto == null && correlation != null)
+				internalRegStatusDto = getRegistrationStatus(null, correlation.getRegBioRef());
 			if (internalRegStatusDto != null) {
 				internalRegStatusDto
 						.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
@@ -542,6 +752,40 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 				"AbisMiddlewareStage::consumerListener()::Exit()");
 	}
 
+	private InternalRegistrationStatusDto getRegistrationStatus(InternalRegistrationStatusDto internalRegStatusDto,
+			RegBioRefDto regBioRefDto) {
+		if (internalRegStatusDto != null)
+			return internalRegStatusDto;
+		return registrationStatusService.getRegistrationStatus(regBioRefDto.getRegId(), regBioRefDto.getProcess(),
+				regBioRefDto.getIteration(), regBioRefDto.getWorkflowInstanceId());
+	}
+
+	/**
+	 * Caches the request sent so that its response is correlated without reading
+	 * the database
+	 *
+	 * @param isAddedToQueue    whether the request was sent
+	 * @param abisRequestDto    the request sent
+	 * @param identifyRequests  the identify requests of the registration, the one
+	 *                          of the same ABIS is sent once an insert request is
+	 *                          processed
+	 * @param regBioRefDto      the registration of the request
+	 */
+	private void cacheCorrelation(boolean isAddedToQueue, AbisRequestDto abisRequestDto,
+			List<AbisRequestDto> identifyRequests, RegBioRefDto regBioRefDto) {
+		if (correlationCache == null || !isAddedToQueue)
+			return;
+		AbisRequestDto identifyRequest = null;
+		if (identifyRequests != null && AbisStatusCode.INSERT.toString().equals(abisRequestDto.getRequestType()))
+			identifyRequest = identifyRequests.stream()
+					.filter(dto -> dto.getAbisAppCode().equals(abisRequestDto.getAbisAppCode())).findFirst()
+					.orElse(null);
+		// the request as saved once sent
+		abisRequestDto.setStatusCode(AbisStatusCode.SENT.toString());
+		correlationCache.put(new Correlation(abisRequestDto.getReqBatchId(), regBioRefDto, abisRequestDto,
+				identifyRequest));
+	}
+
 	private void validateNullCheck(Object obj, String errorMessage) {
 		if (obj == null) {
 			throw new RegistrationProcessorUnCheckedException(PlatformErrorMessages.valueOf(errorMessage).getCode(),
@@ -584,6 +828,23 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 		return isAddedToQueue;
 	}
 
+	private boolean sendAllToQueue(MosipQueue queue, Map<String, Object> messages, int messageTTL)
+			throws RegistrationProcessorCheckedException {
+		boolean isAddedToQueue;
+		try {
+			isAddedToQueue = mosipQueueManager.sendAll(queue, messages, messageTTL);
+
+			regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"AbisMiddlewareStage:: sent to abis queues ::" + messages.keySet());
+		} catch (Exception e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", ExceptionUtils.getStackTrace(e));
+			throw new RegistrationProcessorCheckedException(PlatformErrorMessages.RPR_SYS_IO_EXCEPTION.getCode(),
+					PlatformErrorMessages.RPR_SYS_IO_EXCEPTION.getMessage(), e);
+		}
+		return isAddedToQueue;
+	}
+
 	private void updateAbisRequest(boolean isAddedToQueue, AbisRequestDto abisRequestDto,
 			InternalRegistrationStatusDto internalRegDto) {
 		AbisRequestEntity abisReqEntity = convertAbisRequestDtoToAbisRequestEntity(abisRequestDto);
@@ -729,11 +990,11 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 	}
 
 	private void updateAbisResponseDetail(CandidatesDto candidatesDto, AbisResponseDto abisResponseDto,
-			String bioRefId) {
+			String bioRefId, Map<String, String> candidateRegIds) {
 
 		if (!candidatesDto.getReferenceId().equalsIgnoreCase(bioRefId)) {
 
-				String candidateRegId = packetInfoDao.getRegIdByBioRefId(candidatesDto.getReferenceId().toLowerCase());
+				String candidateRegId = candidateRegIds.get(candidatesDto.getReferenceId().toLowerCase());
 				if (candidateRegId == null || candidateRegId.isEmpty())
 					return;
 				AbisResponseDetEntity abisResponseDetEntity = new AbisResponseDetEntity();
@@ -788,8 +1049,16 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 	}
 
 	private void saveCandiateDtos(CandidatesDto[] candidatesDtos, AbisResponseDto abisResponseDto, String bioRefId) {
+		// the reg ids of all the candidates are read at once instead of a query per candidate
+		List<String> candidateBioRefIds = new ArrayList<>(candidatesDtos.length);
+		for (CandidatesDto candidatesDto : candidatesDtos) {
+			if (!candidatesDto.getReferenceId().equalsIgnoreCase(bioRefId))
+				candidateBioRefIds.add(candidatesDto.getReferenceId());
+		}
+		Map<String, String> candidateRegIds = candidateBioRefIds.isEmpty() ? Collections.emptyMap()
+				: packetInfoDao.getRegIdsByBioRefIds(candidateBioRefIds);
 		for (CandidatesDto candidatesDto : candidatesDtos) {
-			updateAbisResponseDetail(candidatesDto, abisResponseDto, bioRefId);
+			updateAbisResponseDetail(candidatesDto, abisResponseDto, bioRefId, candidateRegIds);
 		}
 	}
 
@@ -815,4 +1084,38 @@ public class AbisMiddleWareStage extends MosipVerticleAPIManager {
 				&& abisInsertResponseDto.getFailureReason().equalsIgnoreCase("10"));
 	}
 
+	/**
+	 * A request to send to the queue of its abis
+	 */
+	private static class PendingRequest {
+
+		private final AbisRequestDto request;
+
+		private final AbisQueueDetails abisQueue;
+
+		private final List<AbisRequestDto> identifyRequests;
+
+		private PendingRequest(AbisRequestDto request, AbisQueueDetails abisQueue,
+				List<AbisRequestDto> identifyRequests) {
+			this.request = request;
+			this.abisQueue = abisQueue;
+			this.identifyRequests = identifyRequests;
+		}
+	}
+
+	/**
+	 * A response read from the abis queue
+	 */
+	private static class AbisResponse {
+
+		private final String response;
+
+		private final AbisIdentifyResponseDto responseDto;
+
+		private AbisResponse(String response, AbisIdentifyResponseDto responseDto) {
+			this.response = response;
+			this.responseDto = responseDto;
+		}
+	}
+
 }
\ No newline at end of file
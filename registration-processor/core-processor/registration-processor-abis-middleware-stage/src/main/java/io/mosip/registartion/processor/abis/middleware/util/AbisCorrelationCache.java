@@ -0,0 +1,177 @@
+package io.mosip.registartion.processor.abis.middleware.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.RegBioRefDto;
+
+/**
+ * In memory cache of the ABIS requests sent by the stage keyed by request id,
+ * so that the response of a request is correlated to its batch, its
+ * registration and its identify request without reading them from the
+ * database.
+ *
+ * An entry is added when the request is sent and is taken out by the first
+ * response of the request. A duplicate response is not found in the cache and
+ * is checked against the database as before. The entries of the requests never
+ * answered are dropped after the configured time to live.
+ *
+ * @author Vishwanath V
+ */
+public class AbisCorrelationCache implements MeterBinder {
+
+	private static final String METRIC_PREFIX = "mosip.regproc.abis.middleware.correlation.cache";
+
+	private final int maxSize;
+
+	private final long ttlMillis;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	/** Entries in insertion order, guarded by the instance lock */
+	private final LinkedHashMap<String, Correlation> entries = new LinkedHashMap<String, Correlation>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Correlation> eldest) {
+			if (size() <= maxSize)
+				return false;
+			evictions.incrementAndGet();
+			return true;
+		}
+	};
+
+	public AbisCorrelationCache(int maxSize, long ttlSeconds) {
+		this.maxSize = maxSize;
+		this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+	}
+
+	/**
+	 * Caches the correlation of a request sent to ABIS
+	 *
+	 * @param correlation the correlation of the request
+	 */
+	public void put(Correlation correlation) {
+		synchronized (this) {
+			entries.put(correlation.getRequest().getId(), correlation);
+		}
+	}
+
+	/**
+	 * Gives the batch id of the request without taking it out of the cache
+	 *
+	 * @param requestId the request id
+	 * @return the batch id, null when the request is not cached
+	 */
+	public String getBatchId(String requestId) {
+		Correlation correlation = get(requestId, false);
+		return correlation != null ? correlation.getBatchId() : null;
+	}
+
+	/**
+	 * Takes the correlation of the request out of the cache
+	 *
+	 * @param requestId the request id
+	 * @return the correlation, null when the request is not cached
+	 */
+	public Correlation take(String requestId) {
+		Correlation correlation = get(requestId, true);
+		if (correlation == null)
+			misses.incrementAndGet();
+		else
+			hits.incrementAndGet();
+		return correlation;
+	}
+
+	private Correlation get(String requestId, boolean remove) {
+		if (requestId == null)
+			return null;
+		synchronized (this) {
+			Correlation correlation = remove ? entries.remove(requestId) : entries.get(requestId);
+			if (correlation != null && System.currentTimeMillis() - correlation.createdMillis > ttlMillis) {
+				entries.remove(requestId);
+				evictions.incrementAndGet();
+				return null;
+			}
+			return correlation;
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", hits, AtomicLong::get).tag("result", "hit")
+				.description("ABIS responses correlated from the cache").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", misses, AtomicLong::get).tag("result", "miss")
+				.description("ABIS responses correlated from the database").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, AtomicLong::get)
+				.description("Requests dropped from the cache before their response").register(registry);
+		Gauge.builder(METRIC_PREFIX + ".size", this, AbisCorrelationCache::size)
+				.description("Requests waiting for their response in the cache").register(registry);
+	}
+
+	/**
+	 * A request sent to ABIS with its batch, its registration and, for an insert
+	 * request, the identify request sent to the same ABIS once inserted.
+	 */
+	public static class Correlation {
+
+		private final String batchId;
+
+		private final RegBioRefDto regBioRef;
+
+		private final AbisRequestDto request;
+
+		private final AbisRequestDto identifyRequest;
+
+		private final long createdMillis = System.currentTimeMillis();
+
+		public Correlation(String batchId, RegBioRefDto regBioRef, AbisRequestDto request,
+				AbisRequestDto identifyRequest) {
+			this.batchId = batchId;
+			this.regBioRef = regBioRef;
+			this.request = request;
+			this.identifyRequest = identifyRequest;
+		}
+
+		public String getBatchId() {
+			return batchId;
+		}
+
+		public RegBioRefDto getRegBioRef() {
+			return regBioRef;
+		}
+
+		public AbisRequestDto getRequest() {
+			return request;
+		}
+
+		public AbisRequestDto getIdentifyRequest() {
+			return identifyRequest;
+		}
+	}
+
+}
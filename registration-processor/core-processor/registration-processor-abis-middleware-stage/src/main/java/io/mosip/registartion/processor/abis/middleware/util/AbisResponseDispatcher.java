@@ -0,0 +1,100 @@
+package io.mosip.registartion.processor.abis.middleware.util;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Processes the ABIS responses on a fixed set of workers instead of the JMS
+ * listener thread.
+ *
+ * The responses of the same batch are processed by the same worker, one after
+ * the other, so that the responses of the requests of a registration sent to
+ * several ABIS do not race when checking whether all of them are processed.
+ * Each worker queues a bounded number of responses, the listener thread waits
+ * when the queue of the worker is full.
+ *
+ * @author Vishwanath V
+ */
+public class AbisResponseDispatcher implements MeterBinder {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(AbisResponseDispatcher.class);
+
+	private static final String METRIC_PREFIX = "mosip.regproc.abis.middleware.response";
+
+	private final ThreadPoolExecutor[] workers;
+
+	public AbisResponseDispatcher(int concurrency, int queueSize) {
+		workers = new ThreadPoolExecutor[concurrency];
+		for (int i = 0; i < concurrency; i++) {
+			String name = "abis-response-" + i;
+			workers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueSize),
+					runnable -> {
+						Thread thread = new Thread(runnable, name);
+						thread.setDaemon(true);
+						return thread;
+					});
+			workers[i].prestartAllCoreThreads();
+		}
+	}
+
+	/**
+	 * Queues the response to the worker of its batch, waiting while the queue of
+	 * the worker is full.
+	 *
+	 * @param batchId  the batch id of the response, the request id when the batch
+	 *                 is not known
+	 * @param response processes the response
+	 */
+	public void dispatch(String batchId, Runnable response) throws InterruptedException {
+		ThreadPoolExecutor worker = workers[Math.floorMod(batchId == null ? 0 : batchId.hashCode(), workers.length)];
+		if (worker.isShutdown())
+			throw new RejectedExecutionException("ABIS response workers are stopped");
+		// the core thread is started, the response is taken from the queue
+		worker.getQueue().put(() -> {
+			try {
+				response.run();
+			} catch (RuntimeException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), "", ExceptionUtils.getStackTrace(e));
+			}
+		});
+	}
+
+	/**
+	 * @return the responses queued and being processed
+	 */
+	public int getPendingCount() {
+		int pending = 0;
+		for (ThreadPoolExecutor worker : workers)
+			pending += worker.getQueue().size() + worker.getActiveCount();
+		return pending;
+	}
+
+	/**
+	 * Stops the workers once the responses queued are processed.
+	 */
+	public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		for (ThreadPoolExecutor worker : workers)
+			worker.shutdown();
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (ThreadPoolExecutor worker : workers)
+			worker.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + ".pending", this, AbisResponseDispatcher::getPendingCount)
+				.description("ABIS responses queued and being processed").register(registry);
+	}
+
+}
@@ -1,11 +1,17 @@
 package io.mosip.registartion.processor.abis.middleware.stage;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import io.mosip.registration.processor.core.util.PropertiesUtil;
 import org.apache.activemq.command.ActiveMQBytesMessage;
@@ -13,6 +19,7 @@ import org.apache.activemq.util.ByteSequence;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -24,6 +31,8 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.mosip.registartion.processor.abis.middleware.util.AbisCorrelationCache;
+import io.mosip.registartion.processor.abis.middleware.util.AbisCorrelationCache.Correlation;
 import io.mosip.registration.processor.abis.queue.dto.AbisQueueDetails;
 import io.mosip.registration.processor.core.abstractverticle.EventDTO;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
@@ -37,7 +46,9 @@ import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
 import io.mosip.registration.processor.core.packet.dto.abis.CandidateListDto;
 import io.mosip.registration.processor.core.packet.dto.abis.CandidatesDto;
 import io.mosip.registration.processor.core.packet.dto.abis.RegBioRefDto;
+import io.mosip.registration.processor.core.queue.factory.MosipActiveMq;
 import io.mosip.registration.processor.core.queue.factory.MosipQueue;
+import io.mosip.registration.processor.core.queue.factory.QueueListener;
 import io.mosip.registration.processor.core.queue.impl.exception.ConnectionUnavailableException;
 import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
 import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
@@ -596,6 +607,8 @@ public class AbisMiddleWareStageTest {
 		bioRefId.add("d1070375-0960-4e90-b12c-72ab6186764c");
 		Mockito.when(packetInfoManager.getReferenceIdByBatchId(Mockito.anyString())).thenReturn(bioRefId);
 		Mockito.when(packetInfoDao.getRegIdByBioRefId(ArgumentMatchers.any())).thenReturn("Test123");
+		Mockito.when(packetInfoDao.getRegIdsByBioRefIds(ArgumentMatchers.any()))
+				.thenReturn(Collections.singletonMap("d1070375-0960-4e90-b12c-72ab6186444d", "Test123"));
 		String duplicateIdentifySuccessResponse = "{\"id\":\"mosip.abis.identify\",\"requestId\":\"f4b1f6fd-466c-462f-aa8b-c218596542ec\",\"responsetime\":"
 				+ null
 				+ ",\"returnValue\":1,\"failureReason\":null,\"candidateList\":{\"count\":\"1\",\"candidates\":[{\"referenceId\":\"d1070375-0960-4e90-b12c-72ab6186444d\",\"analytics\":null,\"modalities\":null}]}}";
@@ -645,8 +658,14 @@ public class AbisMiddleWareStageTest {
 		PowerMockito.when(JsonUtil.readValueWithUnknownProperties(failedInsertResponse,
 				AbisIdentifyResponseDto.class)).thenReturn(abisIdentifyResponseDto);
 		Mockito.when(packetInfoDao.getRegIdByBioRefId(ArgumentMatchers.any())).thenReturn("Test123");
+		Mockito.when(packetInfoDao.getRegIdsByBioRefIds(ArgumentMatchers.any()))
+				.thenReturn(Collections.singletonMap("e1070375-0960-4e90-b12c-72ab6186444d", "Test123"));
 
 		stage.consumerListener(amq, "abis1_inboundAddress", queue, evenBus, messageTTL);
+
+		Mockito.verify(packetInfoDao, Mockito.times(1)).getRegIdsByBioRefIds(
+				Arrays.asList("e1070375-0960-4e90-b12c-72ab6186444d"));
+		Mockito.verify(abisResponseDetailRepositary).save(any(AbisResponseDetEntity.class));
 	}
 	
 	@Test(expected = RegistrationProcessorCheckedException.class)
@@ -681,4 +700,265 @@ public class AbisMiddleWareStageTest {
 		PowerMockito.when(JsonUtil.readValueWithUnknownProperties(response, AbisIdentifyResponseDto.class)).thenThrow(IOException.class);
 		stage.consumerListener(amq, "abis1_inboundAddress", queue, evenBus, messageTTL);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testResponsesCorrelatedFromCache() throws RegistrationProcessorCheckedException {
+		AbisCorrelationCache correlationCache = new AbisCorrelationCache(100, 600);
+		ReflectionTestUtils.setField(stage, "correlationCache", correlationCache);
+		AbisRequestDto insertRequest = new AbisRequestDto();
+		insertRequest.setId("insert-1");
+		insertRequest.setAbisAppCode("Abis1");
+		insertRequest.setBioRefId("d1070375-0960-4e90-b12c-72ab6186444d");
+		insertRequest.setReqBatchId("batch-1");
+		insertRequest.setRequestType("INSERT");
+		insertRequest.setStatusCode("IN_PROGRESS");
+		insertRequest.setReqText("insert".getBytes());
+		AbisRequestDto identifyRequest = new AbisRequestDto();
+		identifyRequest.setId("identify-1");
+		identifyRequest.setAbisAppCode("Abis1");
+		identifyRequest.setBioRefId("d1070375-0960-4e90-b12c-72ab6186444d");
+		identifyRequest.setReqBatchId("batch-1");
+		identifyRequest.setRequestType("IDENTIFY");
+		identifyRequest.setStatusCode("IN_PROGRESS");
+		identifyRequest.setReqText("identify".getBytes());
+		Mockito.when(packetInfoManager.getInsertOrIdentifyRequest(Mockito.anyString(), Mockito.anyString()))
+				.thenReturn(new ArrayList<>(Arrays.asList(insertRequest, identifyRequest)));
+		Mockito.when(mosipQueueManager.send(any(), any(byte[].class), anyString(), anyInt())).thenReturn(true);
+		Mockito.when(packetInfoManager.getBatchStatusbyBatchId("batch-1")).thenReturn(Arrays.asList("PROCESSED", "SENT"));
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		dto.setWorkflowInstanceId("workflowInstanceId");
+		dto.setReg_type("NEW");
+		dto.setIteration(1);
+		MosipEventBus eventBus = Mockito.mock(MosipEventBus.class);
+		MosipQueue queue = Mockito.mock(MosipQueue.class);
+
+		stage.deployVerticle();
+		stage.process(dto);
+		assertEquals(1, correlationCache.size());
+		AbisRequestDto sentInsertRequest = new AbisRequestDto();
+		sentInsertRequest.setRequestType("INSERT");
+		sentInsertRequest.setStatusCode("SENT");
+		AbisRequestDto sentIdentifyRequest = new AbisRequestDto();
+		sentIdentifyRequest.setRequestType("IDENTIFY");
+		sentIdentifyRequest.setStatusCode("SENT");
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("insert-1")).thenReturn(sentInsertRequest);
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("identify-1")).thenReturn(sentIdentifyRequest);
+
+		stage.consumerListener(bytesMessage("{\"id\":\"mosip.abis.insert\",\"requestId\":\"insert-1\",\"returnValue\":1}"),
+				"abis1-inbound-Queue", queue, eventBus, messageTTL);
+		stage.consumerListener(bytesMessage("{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-1\",\"returnValue\":1,\"candidateList\":null}"),
+				"abis1-inbound-Queue", queue, eventBus, messageTTL);
+
+		// the batch and registration of the requests are not read from the database,
+		// only the status of the requests
+		assertEquals(2, correlationCache.getHitCount());
+		assertEquals(0, correlationCache.size());
+		Mockito.verify(mosipQueueManager).send(queue, "identify".getBytes(), "abis1-inbound-Queue", messageTTL);
+		Mockito.verify(packetInfoManager).getBatchStatusbyBatchId("batch-1");
+		Mockito.verify(packetInfoManager, Mockito.never()).getBatchIdByRequestId(any());
+		Mockito.verify(packetInfoManager, Mockito.never()).getRegBioRefDataByBioRefIds(any());
+		Mockito.verify(packetInfoManager).getAbisRequestByRequestId("insert-1");
+		Mockito.verify(packetInfoManager).getAbisRequestByRequestId("identify-1");
+		Mockito.verify(packetInfoManager, Mockito.never()).getIdentifyReqListByTransactionId(any(), any());
+		Mockito.verify(registrationStatusService, Mockito.times(1)).getRegistrationStatus(any(), any(), any(), any());
+
+		// a duplicate response is checked against the database
+		AbisRequestDto processedRequest = new AbisRequestDto();
+		processedRequest.setRequestType("IDENTIFY");
+		processedRequest.setStatusCode("PROCESSED");
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("identify-1")).thenReturn(processedRequest);
+		stage.consumerListener(bytesMessage("{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-1\",\"returnValue\":1,\"candidateList\":null}"),
+				"abis1-inbound-Queue", queue, eventBus, messageTTL);
+		Mockito.verify(packetInfoManager, Mockito.times(2)).getAbisRequestByRequestId("identify-1");
+		Mockito.verify(packetInfoManager, Mockito.times(1)).getBatchStatusbyBatchId("batch-1");
+	}
+
+	@Test
+	public void testCachedResponseProcessedByAnotherInstanceNotProcessedAgain()
+			throws RegistrationProcessorCheckedException {
+		AbisCorrelationCache correlationCache = new AbisCorrelationCache(100, 600);
+		ReflectionTestUtils.setField(stage, "correlationCache", correlationCache);
+		AbisRequestDto identifyRequest = new AbisRequestDto();
+		identifyRequest.setId("identify-1");
+		identifyRequest.setReqBatchId("batch-1");
+		identifyRequest.setRequestType("IDENTIFY");
+		identifyRequest.setStatusCode("SENT");
+		RegBioRefDto regBioRef = new RegBioRefDto();
+		regBioRef.setRegId("10003100030001520190422074511");
+		regBioRef.setBioRefId("d1070375-0960-4e90-b12c-72ab6186444d");
+		correlationCache.put(new Correlation("batch-1", regBioRef, identifyRequest, null));
+		AbisRequestDto processedRequest = new AbisRequestDto();
+		processedRequest.setRequestType("IDENTIFY");
+		processedRequest.setStatusCode("PROCESSED");
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("identify-1")).thenReturn(processedRequest);
+
+		stage.consumerListener(bytesMessage("{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-1\",\"returnValue\":1,\"candidateList\":null}"),
+				"abis1-inbound-Queue", Mockito.mock(MosipQueue.class), Mockito.mock(MosipEventBus.class), messageTTL);
+
+		assertEquals(1, correlationCache.getHitCount());
+		Mockito.verify(packetInfoManager, Mockito.never()).getBatchStatusbyBatchId(any());
+		Mockito.verify(abisResponseRepositary, Mockito.never()).save(any());
+	}
+
+	@Test
+	public void testRequestsToSharedBrokerSentInOneTransaction() throws RegistrationProcessorCheckedException {
+		List<AbisQueueDetails> abisQueueList = new ArrayList<>();
+		for (String abis : Arrays.asList("Abis1", "Abis2")) {
+			AbisQueueDetails abisQueue = new AbisQueueDetails();
+			abisQueue.setMosipQueue(new MosipActiveMq(abis, "admin", "admin", "tcp://localhost:61616"));
+			abisQueue.setInboundQueueName(abis.toLowerCase() + "-inbound-Queue");
+			abisQueue.setOutboundQueueName(abis.toLowerCase() + "-outbound-Queue");
+			abisQueue.setName(abis);
+			abisQueue.setInboundMessageTTL(messageTTL);
+			abisQueueList.add(abisQueue);
+		}
+		Mockito.when(utility.getAbisQueueDetails()).thenReturn(abisQueueList);
+		List<AbisRequestDto> identifyRequests = new ArrayList<>();
+		for (String abis : Arrays.asList("Abis1", "Abis2")) {
+			AbisRequestDto identifyRequest = new AbisRequestDto();
+			identifyRequest.setId(abis + "-identify");
+			identifyRequest.setAbisAppCode(abis);
+			identifyRequest.setBioRefId("d1070375-0960-4e90-b12c-72ab6186444d");
+			identifyRequest.setRequestType("IDENTIFY");
+			identifyRequest.setStatusCode("IN_PROGRESS");
+			identifyRequest.setReqText(abis.getBytes());
+			identifyRequests.add(identifyRequest);
+		}
+		Mockito.when(packetInfoManager.getInsertOrIdentifyRequest(Mockito.anyString(), Mockito.anyString()))
+				.thenReturn(identifyRequests);
+		Mockito.when(mosipQueueManager.isSendAllTransacted(any())).thenReturn(true);
+		Mockito.when(mosipQueueManager.sendAll(any(), anyMap(), anyInt())).thenReturn(true);
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		dto.setWorkflowInstanceId("workflowInstanceId");
+		dto.setReg_type("NEW");
+
+		stage.deployVerticle();
+		stage.process(dto);
+
+		ArgumentCaptor<Map<String, Object>> messages = ArgumentCaptor.forClass(Map.class);
+		Mockito.verify(mosipQueueManager).sendAll(eq(abisQueueList.get(0).getMosipQueue()), messages.capture(),
+				eq(messageTTL));
+		assertEquals(Arrays.asList("abis1-inbound-Queue", "abis2-inbound-Queue"),
+				new ArrayList<>(messages.getValue().keySet()));
+		assertArrayEquals("Abis2".getBytes(), (byte[]) messages.getValue().get("abis2-inbound-Queue"));
+		Mockito.verify(mosipQueueManager, Mockito.never()).send(any(), any(byte[].class), anyString(), anyInt());
+		ArgumentCaptor<AbisRequestEntity> saved = ArgumentCaptor.forClass(AbisRequestEntity.class);
+		Mockito.verify(abisRequestRepositary, Mockito.times(2)).save(saved.capture());
+		assertEquals("SENT", saved.getAllValues().get(0).getStatusCode());
+		assertEquals("SENT", saved.getAllValues().get(1).getStatusCode());
+		assertTrue(dto.getIsValid());
+		assertFalse(dto.getInternalError());
+	}
+
+	@Test
+	public void testRequestsSentOneByOneWithoutTransaction() throws RegistrationProcessorCheckedException {
+		List<AbisQueueDetails> abisQueueList = new ArrayList<>();
+		for (String abis : Arrays.asList("Abis1", "Abis2")) {
+			AbisQueueDetails abisQueue = new AbisQueueDetails();
+			abisQueue.setMosipQueue(new MosipActiveMq(abis, "admin", "admin", "tcp://localhost:61616"));
+			abisQueue.setInboundQueueName(abis.toLowerCase() + "-inbound-Queue");
+			abisQueue.setOutboundQueueName(abis.toLowerCase() + "-outbound-Queue");
+			abisQueue.setName(abis);
+			abisQueue.setInboundMessageTTL(messageTTL);
+			abisQueueList.add(abisQueue);
+		}
+		Mockito.when(utility.getAbisQueueDetails()).thenReturn(abisQueueList);
+		List<AbisRequestDto> identifyRequests = new ArrayList<>();
+		for (String abis : Arrays.asList("Abis1", "Abis2")) {
+			AbisRequestDto identifyRequest = new AbisRequestDto();
+			identifyRequest.setId(abis + "-identify");
+			identifyRequest.setAbisAppCode(abis);
+			identifyRequest.setBioRefId("d1070375-0960-4e90-b12c-72ab6186444d");
+			identifyRequest.setRequestType("IDENTIFY");
+			identifyRequest.setStatusCode("IN_PROGRESS");
+			identifyRequest.setReqText(abis.getBytes());
+			identifyRequests.add(identifyRequest);
+		}
+		Mockito.when(packetInfoManager.getInsertOrIdentifyRequest(Mockito.anyString(), Mockito.anyString()))
+				.thenReturn(identifyRequests);
+		Mockito.when(mosipQueueManager.isSendAllTransacted(any())).thenReturn(false);
+		// the first request is delivered, the second one fails
+		Mockito.when(mosipQueueManager.send(any(), any(byte[].class), eq("abis1-inbound-Queue"), anyInt()))
+				.thenReturn(true);
+		Mockito.when(mosipQueueManager.send(any(), any(byte[].class), eq("abis2-inbound-Queue"), anyInt()))
+				.thenThrow(new ConnectionUnavailableException("connection lost"));
+		MessageDTO dto = new MessageDTO();
+		dto.setRid("10003100030001520190422074511");
+		dto.setWorkflowInstanceId("workflowInstanceId");
+		dto.setReg_type("NEW");
+
+		stage.deployVerticle();
+		stage.process(dto);
+
+		Mockito.verify(mosipQueueManager, Mockito.never()).sendAll(any(), anyMap(), anyInt());
+		ArgumentCaptor<AbisRequestEntity> saved = ArgumentCaptor.forClass(AbisRequestEntity.class);
+		Mockito.verify(abisRequestRepositary, Mockito.times(1)).save(saved.capture());
+		assertEquals("Abis1-identify", saved.getValue().getId().getId());
+		assertEquals("SENT", saved.getValue().getStatusCode());
+		assertTrue(dto.getInternalError());
+	}
+
+	@Test
+	public void testResponseAcknowledgedOnceProcessed() throws Exception {
+		ReflectionTestUtils.setField(stage, "responseConcurrency", 1);
+		ReflectionTestUtils.setField(stage, "responseQueueSize", 10);
+		ReflectionTestUtils.setField(stage, "responseShutdownTimeoutSeconds", 10L);
+		AbisRequestDto processedRequest = new AbisRequestDto();
+		processedRequest.setRequestType("IDENTIFY");
+		processedRequest.setStatusCode("PROCESSED");
+		Mockito.when(packetInfoManager.getAbisRequestByRequestId("identify-1")).thenReturn(processedRequest);
+		ArgumentCaptor<QueueListener> listeners = ArgumentCaptor.forClass(QueueListener.class);
+
+		stage.deployVerticle();
+		Mockito.verify(mosipQueueManager, Mockito.times(2)).consumeWithClientAcknowledge(any(), anyString(),
+				listeners.capture());
+		ActiveMQBytesMessage processed = Mockito.spy(bytesMessage(
+				"{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-1\",\"returnValue\":1,\"candidateList\":null}"));
+		listeners.getValue().setListener(processed);
+		Mockito.verify(processed, Mockito.timeout(10000)).acknowledge();
+
+		// the status of the registration can not be updated, the response is acknowledged
+		// so that it does not hold the listener
+		Mockito.doThrow(new IllegalStateException("database unavailable")).when(registrationStatusService)
+				.updateRegistrationStatus(any(), any(), any());
+		ActiveMQBytesMessage failed = Mockito.spy(bytesMessage(
+				"{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-2\",\"returnValue\":1,\"candidateList\":null}"));
+		listeners.getValue().setListener(failed);
+		Mockito.verify(failed, Mockito.timeout(10000)).acknowledge();
+		Mockito.verify(packetInfoManager).getAbisRequestByRequestId("identify-2");
+
+		// the batch of the response can not be read, the response is acknowledged
+		Mockito.when(packetInfoManager.getBatchIdByRequestId("identify-3"))
+				.thenThrow(new IllegalStateException("database unavailable"));
+		ActiveMQBytesMessage unknownBatch = Mockito.spy(bytesMessage(
+				"{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-3\",\"returnValue\":1,\"candidateList\":null}"));
+		listeners.getValue().setListener(unknownBatch);
+		Mockito.verify(unknownBatch).acknowledge();
+
+		// the workers are stopped, the response is received again once the session is closed
+		stage.stopResponseProcessing();
+		ActiveMQBytesMessage late = Mockito.spy(bytesMessage(
+				"{\"id\":\"mosip.abis.identify\",\"requestId\":\"identify-4\",\"returnValue\":1,\"candidateList\":null}"));
+		listeners.getValue().setListener(late);
+		Mockito.verify(late, Mockito.never()).acknowledge();
+		Mockito.verify(packetInfoManager, Mockito.never()).getAbisRequestByRequestId("identify-4");
+	}
+
+	@Test
+	public void testResponsesAutoAcknowledgedWithoutWorkers() throws Exception {
+		stage.deployVerticle();
+
+		Mockito.verify(mosipQueueManager, Mockito.times(2)).consume(any(), anyString(), any());
+		Mockito.verify(mosipQueueManager, Mockito.never()).consumeWithClientAcknowledge(any(), anyString(), any());
+	}
+
+	private ActiveMQBytesMessage bytesMessage(String response) {
+		ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+		ByteSequence byteSeq = new ByteSequence();
+		byteSeq.setData(response.getBytes());
+		message.setContent(byteSeq);
+		return message;
+	}
+}
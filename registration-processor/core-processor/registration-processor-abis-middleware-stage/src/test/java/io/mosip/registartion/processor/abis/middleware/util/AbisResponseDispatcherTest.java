@@ -0,0 +1,70 @@
+package io.mosip.registartion.processor.abis.middleware.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AbisResponseDispatcherTest {
+
+	private AbisResponseDispatcher dispatcher;
+
+	@Before
+	public void setup() {
+		dispatcher = new AbisResponseDispatcher(4, 10);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		dispatcher.shutdown(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testResponsesOfABatchProcessedInOrder() throws Exception {
+		Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		CountDownLatch allProcessed = new CountDownLatch(1000);
+		for (int i = 0; i < 1000; i++) {
+			String batchId = "batch-" + (i % 20);
+			int sequence = i;
+			dispatcher.dispatch(batchId, () -> {
+				threads.add(Thread.currentThread().getName());
+				processed.computeIfAbsent(batchId, key -> Collections.synchronizedList(new ArrayList<>()))
+						.add(sequence);
+				allProcessed.countDown();
+			});
+		}
+
+		assertTrue(allProcessed.await(10, TimeUnit.SECONDS));
+		assertEquals(20, processed.size());
+		for (List<Integer> sequences : processed.values()) {
+			assertEquals(50, sequences.size());
+			for (int i = 1; i < sequences.size(); i++)
+				assertTrue(sequences.get(i - 1) < sequences.get(i));
+		}
+		assertTrue(threads.size() > 1);
+	}
+
+	@Test
+	public void testFailedResponseDoesNotStopTheWorker() throws Exception {
+		CountDownLatch processed = new CountDownLatch(1);
+		dispatcher.dispatch("batch-1", () -> {
+			throw new IllegalStateException("response failed");
+		});
+		dispatcher.dispatch("batch-1", processed::countDown);
+
+		assertTrue(processed.await(10, TimeUnit.SECONDS));
+	}
+
+}
@@ -1,9 +1,16 @@
 package io.mosip.registration.processor.abis.messagequeue;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.jms.Message;
 import javax.jms.TextMessage;
 
@@ -15,10 +22,13 @@ import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.abis.exception.QueueConnectionNotFound;
 import io.mosip.registration.processor.abis.queue.dto.AbisQueueDetails;
 import io.mosip.registration.processor.abis.service.AbisService;
+import io.mosip.registration.processor.abis.simulator.AbisLatencyModel;
+import io.mosip.registration.processor.abis.simulator.AbisSimulatorStats;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.RegistrationProcessorCheckedException;
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
@@ -48,6 +58,41 @@ public class AbisMessageQueueImpl {
 	@Value("${activemq.message.format}")
 	private String messageFormat;
 
+	/** Median time to reply to a request, no delay when 0 */
+	@Value("${mosip.regproc.abis.simulator.latency.median-millis:0}")
+	private long latencyMedianMillis;
+
+	/** 99th percentile of the time to reply to a request */
+	@Value("${mosip.regproc.abis.simulator.latency.p99-millis:0}")
+	private long latencyP99Millis;
+
+	/** Share of the replies held back so that they are received out of order */
+	@Value("${mosip.regproc.abis.simulator.reorder-ratio:0}")
+	private double reorderRatio;
+
+	/** Extra delay of the replies held back */
+	@Value("${mosip.regproc.abis.simulator.reorder-delay-millis:0}")
+	private long reorderDelayMillis;
+
+	/** Threads sending the replies once their latency elapsed, replies sent by the listener when 0 */
+	@Value("${mosip.regproc.abis.simulator.reply-threads:0}")
+	private int replyThreads;
+
+	/** Interval of the throughput and latency logs, not logged when 0 */
+	@Value("${mosip.regproc.abis.simulator.report-interval-seconds:0}")
+	private long reportIntervalSeconds;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private AbisLatencyModel latencyModel = new AbisLatencyModel(0, 0, 0, 0);
+
+	private final AbisSimulatorStats stats = new AbisSimulatorStats();
+
+	private ScheduledThreadPoolExecutor replyScheduler;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
 	/** The utilities. */
 	@Autowired
 	Utilities utilities;
@@ -75,6 +120,33 @@ public class AbisMessageQueueImpl {
 	/** The is connection. */
 	boolean isConnection = false;
 
+	@PostConstruct
+	public void init() {
+		latencyModel = new AbisLatencyModel(latencyMedianMillis, latencyP99Millis, reorderRatio, reorderDelayMillis);
+		if (replyThreads > 0) {
+			AtomicInteger threadCount = new AtomicInteger();
+			replyScheduler = new ScheduledThreadPoolExecutor(replyThreads, runnable -> {
+				Thread thread = new Thread(runnable, "abis-simulator-reply-" + threadCount.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		if (meterRegistry != null)
+			stats.bindTo(meterRegistry);
+		stats.startReporting(reportIntervalSeconds);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (replyScheduler != null)
+			replyScheduler.shutdownNow();
+		stats.stopReporting();
+	}
+
+	public AbisSimulatorStats getStats() {
+		return stats;
+	}
+
 	/**
 	 * Run abis queue.
 	 *
@@ -125,6 +197,9 @@ public class AbisMessageQueueImpl {
 		boolean isrequestAddedtoQueue = false;
 		String response = null;
 		String request = null;
+		long receivedNanos = System.nanoTime();
+		boolean identify = false;
+		boolean duplicate = false;
 		try {
 			if (messageFormat.equalsIgnoreCase(TEXT_MESSAGE)) {
 				TextMessage textMessage = (TextMessage) message;
@@ -135,12 +210,11 @@ public class AbisMessageQueueImpl {
 			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), "",
 					"---request received from abis middle ware ---" + request);
 			JSONObject object = JsonUtil.objectMapperReadValue(request, JSONObject.class);
-			ObjectMapper obj = new ObjectMapper();
 			String id = (String) object.get(ID);
 			if (id.matches(ABIS_INSERT)) {
 				AbisInsertRequestDto abisInsertRequestDto = JsonUtil.objectMapperReadValue(request, AbisInsertRequestDto.class);
 				AbisInsertResponseDto abisInsertResponseDto = abisService.insert(abisInsertRequestDto);
-				response = obj.writeValueAsString(abisInsertResponseDto);
+				response = objectMapper.writeValueAsString(abisInsertResponseDto);
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), "",
 						"---Insert response sent to abis middle ware ---" + response);
@@ -149,7 +223,9 @@ public class AbisMessageQueueImpl {
 			else if (id.matches(ABIS_IDENTIFY)) {
 				AbisIdentifyRequestDto identifyRequestDto = JsonUtil.objectMapperReadValue(request, AbisIdentifyRequestDto.class);
 				AbisIdentifyResponseDto identifyResponseDto = abisService.identify(identifyRequestDto);
-				response = obj.writeValueAsString(identifyResponseDto);
+				identify = true;
+				duplicate = identifyResponseDto.getCandidateList() != null;
+				response = objectMapper.writeValueAsString(identifyResponseDto);
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), "",
 						"---Identify response sent to abis middle ware ---" + response);
@@ -157,16 +233,40 @@ public class AbisMessageQueueImpl {
 
 			else {
 				object.put("respoQueueConnectionNotFoundnse", "invalid request");
-				response = obj.writeValueAsString(object);
+				response = objectMapper.writeValueAsString(object);
 				regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(),
 						LoggerFileConstant.REGISTRATIONID.toString(), "", "---invalid request received ---" + response);
 			}
 
-			if (messageFormat.equalsIgnoreCase(TEXT_MESSAGE))
-				isrequestAddedtoQueue = mosipQueueManager.send(queue, response, abismiddlewareaddress);
-			else
-				isrequestAddedtoQueue = mosipQueueManager.send(queue, response.getBytes("UTF-8"), abismiddlewareaddress);
+			long delayMillis = latencyModel.nextDelayMillis();
+			if (replyScheduler != null) {
+				String reply = response;
+				boolean identifyReply = identify;
+				boolean duplicateReply = duplicate;
+				stats.replyScheduled();
+				// the reply thread does not wait for the broker to receive the reply
+				replyScheduler.schedule(() -> replyAsync(queue, reply, abismiddlewareaddress)
+						.whenComplete((sent, e) -> {
+							if (e == null)
+								stats.record(identifyReply, duplicateReply, elapsedMillis(receivedNanos));
+							else
+								regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+										LoggerFileConstant.REGISTRATIONID.toString(), e.getMessage(),
+										Arrays.toString(e.getStackTrace()));
+							stats.replySent();
+						}), delayMillis, TimeUnit.MILLISECONDS);
+				isrequestAddedtoQueue = true;
+			} else {
+				if (delayMillis > 0)
+					Thread.sleep(delayMillis);
+				isrequestAddedtoQueue = reply(queue, response, abismiddlewareaddress);
+				stats.record(identify, duplicate, elapsedMillis(receivedNanos));
+			}
 
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					e.getMessage(), Arrays.toString(e.getStackTrace()));
 		} catch (Exception e) {
 			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
 					e.getMessage(), Arrays.toString(e.getStackTrace()));
@@ -175,4 +275,29 @@ public class AbisMessageQueueImpl {
 		return isrequestAddedtoQueue;
 	}
 
+	private boolean reply(MosipQueue queue, String response, String abismiddlewareaddress) throws IOException {
+		if (messageFormat.equalsIgnoreCase(TEXT_MESSAGE))
+			return mosipQueueManager.send(queue, response, abismiddlewareaddress);
+		else
+			return mosipQueueManager.send(queue, response.getBytes("UTF-8"), abismiddlewareaddress);
+	}
+
+	private CompletableFuture<Boolean> replyAsync(MosipQueue queue, String response, String abismiddlewareaddress) {
+		try {
+			if (messageFormat.equalsIgnoreCase(TEXT_MESSAGE))
+				return mosipQueueManager.sendAsync(queue, response, abismiddlewareaddress, 0);
+			else
+				return mosipQueueManager.sendAsync(queue, response.getBytes(StandardCharsets.UTF_8),
+						abismiddlewareaddress, 0);
+		} catch (RuntimeException e) {
+			CompletableFuture<Boolean> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	private static long elapsedMillis(long startNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
 }
\ No newline at end of file
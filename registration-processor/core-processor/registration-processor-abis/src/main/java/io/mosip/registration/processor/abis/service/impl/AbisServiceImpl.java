@@ -5,6 +5,7 @@ import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.StringUtils;
 import io.mosip.registration.processor.abis.exception.MissingMandatoryFieldsException;
 import io.mosip.registration.processor.abis.service.AbisService;
+import io.mosip.registration.processor.abis.simulator.AbisReferenceStore;
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
@@ -28,6 +29,7 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import javax.annotation.PostConstruct;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -35,10 +37,8 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The Class AbisServiceImpl.
@@ -49,6 +49,9 @@ import java.util.Set;
 public class AbisServiceImpl implements AbisService {
 
 	private static final String duplicateSet = "dummy.abis.return.duplicate";
+
+	/** Share of the identify requests replied with duplicates, overrides the duplicate flag when set */
+	private static final String DUPLICATE_RATIO = "mosip.regproc.abis.simulator.duplicate-ratio";
 	/** The rest client service. */
 	@Autowired
 	private RegistrationProcessorRestClientService<Object> restClientService;
@@ -62,9 +65,15 @@ public class AbisServiceImpl implements AbisService {
 	/** The Constant IDENTIFY. */
 	private static final String ABIS_IDENTIFY = "mosip.abis.identify";
 
-	private static Set<String> storedRefId = new HashSet<>();
+	/** The reference ids inserted kept at most, the duplicates are drawn from them */
+	@Value("${mosip.regproc.abis.simulator.gallery-size:1000}")
+	private int gallerySize = 1000;
+
+	/** The duplicates replied at most to an identify request */
+	@Value("${mosip.regproc.abis.simulator.max-candidates:5}")
+	private int maxCandidates = 5;
 
-	private static Set<String> actualStoredRefId = new HashSet<>();
+	private AbisReferenceStore referenceStore = new AbisReferenceStore(gallerySize);
 
 	@Autowired
 	private Environment env;
@@ -84,6 +93,11 @@ public class AbisServiceImpl implements AbisService {
 	/** The reg proc logger. */
 	private static Logger regProcLogger = RegProcessorLogger.getLogger(AbisServiceImpl.class);
 
+	@PostConstruct
+	public void init() {
+		referenceStore = new AbisReferenceStore(gallerySize);
+	}
+
 	@Override
 	public AbisInsertResponseDto insert(AbisInsertRequestDto abisInsertRequestDto) {
 
@@ -91,11 +105,7 @@ public class AbisServiceImpl implements AbisService {
 		String referenceId = abisInsertRequestDto.getReferenceId();
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFERENCEID.toString(),
 				referenceId, "AbisServiceImpl::insert()::entry");
-		if (storedRefId.size() < 1000)
-			storedRefId.add(referenceId);
-
-		regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFERENCEID.toString(),
-				referenceId, " referenceId storeList " + storedRefId);
+		referenceStore.add(referenceId);
 
 		response.setId(ABIS_INSERT);
 		response.setRequestId(abisInsertRequestDto.getRequestId());
@@ -208,8 +218,6 @@ public class AbisServiceImpl implements AbisService {
 				"AbisServiceImpl::performDedupe()::entry");
 		AbisIdentifyResponseDto response = new AbisIdentifyResponseDto();
 		String identifyReqId = identifyRequest.getReferenceId();
-		if (storedRefId.size() < 1000)
-			storedRefId.add(identifyReqId);
 
 		//Document doc;
 		try {
@@ -220,8 +228,7 @@ public class AbisServiceImpl implements AbisService {
 			response.setResponsetime(identifyRequest.getRequesttime());
 
 			response.setReturnValue("1");
-			String duplicateIndicator = env.getProperty(duplicateSet);
-			if (duplicateIndicator!=null && StringUtils.isNotEmpty(duplicateIndicator) && duplicateIndicator.equalsIgnoreCase("true")) {
+			if (isDuplicate()) {
 				addCandidateList(identifyReqId, identifyRequest, response);
 			}
 
@@ -277,48 +284,42 @@ public class AbisServiceImpl implements AbisService {
 		return response;
 	}
 
-	private synchronized void addCandidateList(String identifyReqId, AbisIdentifyRequestDto identifyRequest,
+	/**
+	 * Whether the identify request is replied with duplicates, by the share of
+	 * the duplicate ratio or, when it is not set, by the duplicate flag.
+	 *
+	 * @return true, if duplicates are replied
+	 */
+	private boolean isDuplicate() {
+		Double duplicateRatio = env.getProperty(DUPLICATE_RATIO, Double.class);
+		if (duplicateRatio != null)
+			return duplicateRatio > 0 && ThreadLocalRandom.current().nextDouble() < duplicateRatio;
+		String duplicateIndicator = env.getProperty(duplicateSet);
+		return duplicateIndicator != null && StringUtils.isNotEmpty(duplicateIndicator)
+				&& duplicateIndicator.equalsIgnoreCase("true");
+	}
+
+	private void addCandidateList(String identifyReqId, AbisIdentifyRequestDto identifyRequest,
 			AbisIdentifyResponseDto response) {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"AbisServiceImpl::addCandidateList()::Entry");
-		int count = 0;
 
 		CandidateListDto cd = new CandidateListDto();
-		if (storedRefId != null && storedRefId.size() >= 1) {
-			for (String refId : storedRefId) {
-				if (refId != null && !identifyRequest.getReferenceId().equals(refId)) {
-					actualStoredRefId.add(refId);
-				}
-			}
-		}
-		regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
-				"AbisServiceImpl::addCandidateList()::storedRefId" + storedRefId);
-		regProcLogger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
-				"AbisServiceImpl::addCandidateList()::actualStoredRefId" + actualStoredRefId);
-		ArrayList<String> storedRefIdList = new ArrayList<>(actualStoredRefId);
-		Collections.shuffle(storedRefIdList);
 		List<CandidatesDto> candidatesDtoList = new ArrayList<>();
-		if (storedRefIdList.size() > 5) {
-			for (int i = 0; i < 5; i++) {
-				if (!(identifyRequest.getReferenceId().equals(storedRefIdList.get(i)))) {
-					if (StringUtils.isNotEmpty(storedRefIdList.get(i)) && !storedRefIdList.get(i).equalsIgnoreCase("null")) {
-						CandidatesDto candidatesDto = new CandidatesDto();
-						candidatesDto.setReferenceId(storedRefIdList.get(i));
-						candidatesDtoList.add(candidatesDto);
-						count++;
-					}
-				}
-			}
+		for (String refId : referenceStore.sample(maxCandidates, identifyReqId)) {
+			CandidatesDto candidatesDto = new CandidatesDto();
+			candidatesDto.setReferenceId(refId);
+			candidatesDtoList.add(candidatesDto);
 		}
-
+		int count = candidatesDtoList.size();
 
 		cd.setCount(count + "");
 		if (count != 0) {
-			cd.setCandidates(candidatesDtoList.isEmpty() ? null : getCandidateArray(candidatesDtoList));
+			cd.setCandidates(getCandidateArray(candidatesDtoList));
 			response.setCandidateList(cd);
 		}
-		if (storedRefId.size() < 1000)
-			storedRefId.add(identifyReqId);
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), identifyReqId,
+				"AbisServiceImpl::addCandidateList()::candidates " + count);
 
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"AbisServiceImpl::addCandidateList()::Exit");
@@ -0,0 +1,49 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time the dummy ABIS takes to answer a request.
+ *
+ * The latency follows a log-normal distribution of the configured median and
+ * 99th percentile, the long tail of a real matcher. A share of the replies is
+ * held back for an extra delay, so that they are received after the replies
+ * of the requests sent after them.
+ *
+ * @author Vishwanath V
+ */
+public class AbisLatencyModel {
+
+	/** The standard normal quantile of the 99th percentile */
+	private static final double Z_99 = 2.326348;
+
+	private final long medianMillis;
+
+	private final double sigma;
+
+	private final double reorderRatio;
+
+	private final long reorderDelayMillis;
+
+	public AbisLatencyModel(long medianMillis, long p99Millis, double reorderRatio, long reorderDelayMillis) {
+		this.medianMillis = Math.max(0, medianMillis);
+		this.sigma = medianMillis > 0 && p99Millis > medianMillis ? Math.log((double) p99Millis / medianMillis) / Z_99
+				: 0;
+		this.reorderRatio = reorderRatio;
+		this.reorderDelayMillis = Math.max(0, reorderDelayMillis);
+	}
+
+	/**
+	 * @return the delay of the next reply in milliseconds
+	 */
+	public long nextDelayMillis() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long delay = 0;
+		if (medianMillis > 0)
+			delay = sigma == 0 ? medianMillis : Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+		if (reorderRatio > 0 && random.nextDouble() < reorderRatio)
+			delay += reorderDelayMillis;
+		return delay;
+	}
+
+}
@@ -0,0 +1,74 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Gallery of the reference ids inserted in the dummy ABIS, from which the
+ * duplicates of an identify request are drawn.
+ *
+ * The gallery keeps the latest reference ids up to its size, the oldest one
+ * being replaced by each new insert, so that inserts and draws from many
+ * threads never wait on each other.
+ *
+ * @author Vishwanath V
+ */
+public class AbisReferenceStore {
+
+	private final AtomicReferenceArray<String> references;
+
+	private final AtomicLong inserted = new AtomicLong();
+
+	public AbisReferenceStore(int gallerySize) {
+		references = new AtomicReferenceArray<>(Math.max(1, gallerySize));
+	}
+
+	/**
+	 * Adds the reference id to the gallery, replacing the oldest one when the
+	 * gallery is full.
+	 *
+	 * @param referenceId the reference id
+	 */
+	public void add(String referenceId) {
+		if (referenceId == null || referenceId.equalsIgnoreCase("null"))
+			return;
+		references.set((int) (inserted.getAndIncrement() % references.length()), referenceId);
+	}
+
+	/**
+	 * Draws distinct reference ids of the gallery at random.
+	 *
+	 * @param count            the reference ids to draw at most
+	 * @param excludedReference the reference id of the request, never drawn
+	 * @return the reference ids drawn, fewer than the count when the gallery does
+	 *         not have enough
+	 */
+	public List<String> sample(int count, String excludedReference) {
+		int size = size();
+		if (size == 0 || count <= 0)
+			return Collections.emptyList();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Set<String> sampled = new LinkedHashSet<>();
+		// bounded, a small gallery may not have enough distinct reference ids
+		for (int attempt = 0; attempt < count * 4 && sampled.size() < count; attempt++) {
+			String referenceId = references.get(random.nextInt(size));
+			if (referenceId != null && !referenceId.equals(excludedReference))
+				sampled.add(referenceId);
+		}
+		return new ArrayList<>(sampled);
+	}
+
+	/**
+	 * @return the reference ids in the gallery
+	 */
+	public int size() {
+		return (int) Math.min(inserted.get(), references.length());
+	}
+
+}
@@ -0,0 +1,181 @@
+package io.mosip.registration.processor.abis.simulator;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * Throughput and latency of the dummy ABIS, from the receipt of a request to
+ * the send of its reply.
+ *
+ * The totals are published as meters. The throughput and the latency
+ * percentiles of each interval are logged when a report interval is set.
+ *
+ * @author Vishwanath V
+ */
+public class AbisSimulatorStats implements MeterBinder {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(AbisSimulatorStats.class);
+
+	private static final String METRIC_PREFIX = "mosip.regproc.abis.simulator";
+
+	/** Latencies of an interval by millisecond, the last bucket holds the longer ones */
+	private static final int LATENCY_BUCKETS = 60_001;
+
+	private final LongAdder inserts = new LongAdder();
+
+	private final LongAdder identifies = new LongAdder();
+
+	private final LongAdder duplicates = new LongAdder();
+
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicReference<Interval> interval = new AtomicReference<>(new Interval());
+
+	private volatile Timer latencyTimer;
+
+	private ScheduledExecutorService reporter;
+
+	/**
+	 * Records a reply sent.
+	 *
+	 * @param identify      whether the request is an identify request
+	 * @param duplicate     whether duplicates are replied
+	 * @param latencyMillis the time from the receipt of the request
+	 */
+	public void record(boolean identify, boolean duplicate, long latencyMillis) {
+		(identify ? identifies : inserts).increment();
+		if (duplicate)
+			duplicates.increment();
+		interval.get().record(latencyMillis);
+		Timer timer = latencyTimer;
+		if (timer != null)
+			timer.record(latencyMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void replyScheduled() {
+		pending.incrementAndGet();
+	}
+
+	public void replySent() {
+		pending.decrementAndGet();
+	}
+
+	public long getInsertCount() {
+		return inserts.sum();
+	}
+
+	public long getIdentifyCount() {
+		return identifies.sum();
+	}
+
+	public long getDuplicateCount() {
+		return duplicates.sum();
+	}
+
+	public int getPendingCount() {
+		return pending.get();
+	}
+
+	/**
+	 * Logs the throughput and the latency percentiles every interval.
+	 *
+	 * @param intervalSeconds the report interval
+	 */
+	public synchronized void startReporting(long intervalSeconds) {
+		if (reporter != null || intervalSeconds <= 0)
+			return;
+		reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "abis-simulator-report");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reporter.scheduleAtFixedRate(() -> regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+				LoggerFileConstant.USERID.toString(), "", report()), intervalSeconds, intervalSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	public synchronized void stopReporting() {
+		if (reporter != null)
+			reporter.shutdownNow();
+		reporter = null;
+	}
+
+	/**
+	 * Gives the throughput and the latency percentiles since the previous report.
+	 *
+	 * @return the report
+	 */
+	public String report() {
+		Interval previous = interval.getAndSet(new Interval());
+		double seconds = Math.max(1, System.nanoTime() - previous.startNanos) / 1_000_000_000d;
+		long count = previous.count.sum();
+		return String.format(
+				"ABIS simulator: %d replies in %.1f s (%.1f/s), latency p50 %d ms p95 %d ms p99 %d ms max %d ms, "
+						+ "%d replies pending, %d inserts %d identifies %d with duplicates in total",
+				count, seconds, count / seconds, previous.percentile(0.5), previous.percentile(0.95),
+				previous.percentile(0.99), previous.max(), getPendingCount(), getInsertCount(), getIdentifyCount(),
+				getDuplicateCount());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", inserts, LongAdder::sum).tag("type", "insert")
+				.description("Insert requests replied by the dummy ABIS").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", identifies, LongAdder::sum).tag("type", "identify")
+				.description("Identify requests replied by the dummy ABIS").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".duplicates", duplicates, LongAdder::sum)
+				.description("Identify requests replied with duplicates").register(registry);
+		Gauge.builder(METRIC_PREFIX + ".pending", pending, AtomicInteger::get)
+				.description("Replies waiting for their latency to elapse").register(registry);
+		latencyTimer = Timer.builder(METRIC_PREFIX + ".latency").publishPercentiles(0.5, 0.95, 0.99)
+				.description("Time from the receipt of a request to the send of its reply").register(registry);
+	}
+
+	private static class Interval {
+
+		private final long startNanos = System.nanoTime();
+
+		private final LongAdder count = new LongAdder();
+
+		private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+
+		private void record(long latencyMillis) {
+			count.increment();
+			latencies.incrementAndGet((int) Math.min(Math.max(0, latencyMillis), LATENCY_BUCKETS - 1));
+		}
+
+		private long percentile(double percentile) {
+			long rank = (long) Math.ceil(count.sum() * percentile);
+			long seen = 0;
+			for (int i = 0; i < LATENCY_BUCKETS; i++) {
+				seen += latencies.get(i);
+				if (seen >= rank && seen > 0)
+					return i;
+			}
+			return 0;
+		}
+
+		private long max() {
+			for (int i = LATENCY_BUCKETS - 1; i >= 0; i--) {
+				if (latencies.get(i) > 0)
+					return i;
+			}
+			return 0;
+		}
+	}
+
+}
@@ -0,0 +1,190 @@
+package io.mosip.registration.processor.abis;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.broker.BrokerService;
+import org.json.simple.JSONObject;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.abis.messagequeue.AbisMessageQueueImpl;
+import io.mosip.registration.processor.abis.service.impl.AbisServiceImpl;
+import io.mosip.registration.processor.core.queue.factory.MosipActiveMq;
+import io.mosip.registration.processor.core.queue.factory.QueueListener;
+import io.mosip.registration.processor.core.queue.impl.MosipActiveMqImpl;
+import io.mosip.registration.processor.core.util.JsonUtil;
+
+/**
+ * Drives the dummy ABIS through an embedded broker the way the ABIS middleware
+ * stage does: an insert request then an identify request per registration,
+ * sent at a target rate on the inbound queue, the replies read from the
+ * outbound queue. Reports the throughput, the round trip latency percentiles,
+ * the duplicates and the replies received out of order.
+ *
+ * The simulator is configured with the same properties as when deployed, as
+ * system properties, e.g. -Dmosip.regproc.abis.simulator.latency.median-millis=200.
+ * The arguments are the registrations to send and the registrations per
+ * second, 20000 at 500 per second by default. Not run as part of the unit
+ * tests, run the main method from the test classpath. To drive the handler
+ * and the middleware stages instead, deploy the simulator with the same
+ * properties on the queues of the ABIS configuration of the stages.
+ */
+public class AbisSimulatorLoadDriver {
+
+	private static final String BROKER_URL = "vm://abis-simulator?create=false";
+
+	private static final String INBOUND = "abis-simulator-inbound";
+
+	private static final String OUTBOUND = "abis-simulator-outbound";
+
+	private static final String PREFIX = "mosip.regproc.abis.simulator.";
+
+	public static void main(String[] args) throws Exception {
+		int registrations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int ratePerSecond = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+		BrokerService broker = new BrokerService();
+		broker.setBrokerName("abis-simulator");
+		broker.setPersistent(false);
+		broker.setUseJmx(false);
+		broker.start();
+		broker.waitUntilStarted();
+
+		MosipActiveMqImpl mosipActiveMq = new MosipActiveMqImpl();
+		ReflectionTestUtils.setField(mosipActiveMq, "sessionPoolEnabled", true);
+		ReflectionTestUtils.setField(mosipActiveMq, "maxSessions", 8);
+		ReflectionTestUtils.setField(mosipActiveMq, "acquisitionTimeoutMillis", 30000L);
+		MosipActiveMq queue = new MosipActiveMq("ACTIVEMQ", "admin", "admin", BROKER_URL);
+		AbisMessageQueueImpl simulator = simulator(mosipActiveMq);
+		mosipActiveMq.consume(queue, INBOUND, new QueueListener() {
+
+			@Override
+			public void setListener(Message message) {
+				simulator.consumeLogic(message, OUTBOUND, queue);
+			}
+		});
+
+		int requests = registrations * 2;
+		CountDownLatch allReplied = new CountDownLatch(requests);
+		Map<String, Long> sentNanos = new ConcurrentHashMap<>();
+		AtomicLong[] latencyBuckets = new AtomicLong[60_001];
+		for (int i = 0; i < latencyBuckets.length; i++)
+			latencyBuckets[i] = new AtomicLong();
+		AtomicInteger duplicates = new AtomicInteger();
+		AtomicInteger outOfOrder = new AtomicInteger();
+		AtomicInteger lastSequence = new AtomicInteger(-1);
+		mosipActiveMq.consume(queue, OUTBOUND, new QueueListener() {
+
+			@Override
+			public void setListener(Message message) {
+				try {
+					JSONObject reply = JsonUtil.objectMapperReadValue(((TextMessage) message).getText(), JSONObject.class);
+					String requestId = (String) reply.get("requestId");
+					long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentNanos.remove(requestId));
+					latencyBuckets[(int) Math.min(latencyMillis, latencyBuckets.length - 1)].incrementAndGet();
+					if (reply.get("candidateList") != null)
+						duplicates.incrementAndGet();
+					int sequence = Integer.parseInt(requestId.substring(requestId.lastIndexOf('-') + 1));
+					if (lastSequence.getAndAccumulate(sequence, Math::max) > sequence)
+						outOfOrder.incrementAndGet();
+				} catch (Exception e) {
+					e.printStackTrace();
+				} finally {
+					allReplied.countDown();
+				}
+			}
+		});
+
+		long start = System.nanoTime();
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+		for (int i = 0; i < registrations; i++) {
+			// paced on the start so that a late send does not lower the rate
+			long sleepNanos = start + i * intervalNanos - System.nanoTime();
+			if (sleepNanos > 0)
+				TimeUnit.NANOSECONDS.sleep(sleepNanos);
+			send(mosipActiveMq, queue, sentNanos, "mosip.abis.insert", i * 2, "ref-" + i);
+			send(mosipActiveMq, queue, sentNanos, "mosip.abis.identify", i * 2 + 1, "ref-" + i);
+		}
+		boolean completed = allReplied.await(10, TimeUnit.MINUTES);
+		double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+		System.out.println(String.format(
+				"%s: %d requests in %.1f s (%.1f/s), round trip p50 %d ms p95 %d ms p99 %d ms, "
+						+ "%d identify replies with duplicates, %d replies out of order",
+				completed ? "Completed" : "Timed out", requests - allReplied.getCount(), seconds,
+				(requests - allReplied.getCount()) / seconds, percentile(latencyBuckets, 0.5),
+				percentile(latencyBuckets, 0.95), percentile(latencyBuckets, 0.99), duplicates.get(),
+				outOfOrder.get()));
+		System.out.println(simulator.getStats().report());
+
+		simulator.destroy();
+		mosipActiveMq.close();
+		broker.stop();
+		broker.waitUntilStopped();
+	}
+
+	private static AbisMessageQueueImpl simulator(MosipActiveMqImpl mosipActiveMq) {
+		MockEnvironment env = new MockEnvironment();
+		String duplicateRatio = System.getProperty(PREFIX + "duplicate-ratio");
+		if (duplicateRatio != null)
+			env.setProperty(PREFIX + "duplicate-ratio", duplicateRatio);
+		AbisServiceImpl abisService = new AbisServiceImpl();
+		ReflectionTestUtils.setField(abisService, "env", env);
+		ReflectionTestUtils.setField(abisService, "gallerySize", Integer.getInteger(PREFIX + "gallery-size", 100_000));
+		ReflectionTestUtils.setField(abisService, "maxCandidates", Integer.getInteger(PREFIX + "max-candidates", 5));
+		abisService.init();
+
+		AbisMessageQueueImpl simulator = new AbisMessageQueueImpl();
+		ReflectionTestUtils.setField(simulator, "abisService", abisService);
+		ReflectionTestUtils.setField(simulator, "mosipQueueManager", mosipActiveMq);
+		ReflectionTestUtils.setField(simulator, "messageFormat", "text");
+		ReflectionTestUtils.setField(simulator, "latencyMedianMillis",
+				Long.getLong(PREFIX + "latency.median-millis", 200));
+		ReflectionTestUtils.setField(simulator, "latencyP99Millis", Long.getLong(PREFIX + "latency.p99-millis", 2000));
+		ReflectionTestUtils.setField(simulator, "reorderRatio",
+				Double.parseDouble(System.getProperty(PREFIX + "reorder-ratio", "0.05")));
+		ReflectionTestUtils.setField(simulator, "reorderDelayMillis",
+				Long.getLong(PREFIX + "reorder-delay-millis", 1000));
+		ReflectionTestUtils.setField(simulator, "replyThreads", Integer.getInteger(PREFIX + "reply-threads", 8));
+		ReflectionTestUtils.setField(simulator, "reportIntervalSeconds",
+				Long.getLong(PREFIX + "report-interval-seconds", 10));
+		simulator.init();
+		return simulator;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void send(MosipActiveMqImpl mosipActiveMq, MosipActiveMq queue, Map<String, Long> sentNanos,
+			String id, int sequence, String referenceId) {
+		String requestId = "request-" + sequence;
+		JSONObject request = new JSONObject();
+		request.put("id", id);
+		request.put("version", "1.1");
+		request.put("requestId", requestId);
+		request.put("requesttime", "2021-01-01T00:00:00.000Z");
+		request.put("referenceId", referenceId);
+		sentNanos.put(requestId, System.nanoTime());
+		mosipActiveMq.sendAsync(queue, request.toJSONString(), INBOUND, 0);
+	}
+
+	private static long percentile(AtomicLong[] latencyBuckets, double percentile) {
+		long count = Arrays.stream(latencyBuckets).mapToLong(AtomicLong::get).sum();
+		long rank = (long) Math.ceil(count * percentile);
+		long seen = 0;
+		for (int i = 0; i < latencyBuckets.length; i++) {
+			seen += latencyBuckets[i].get();
+			if (seen >= rank && seen > 0)
+				return i;
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,124 @@
+package io.mosip.registration.processor.abis.messagequeue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.TextMessage;
+
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.abis.service.impl.AbisServiceImpl;
+import io.mosip.registration.processor.core.queue.factory.MosipQueue;
+import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
+import io.mosip.registration.processor.core.util.JsonUtil;
+
+public class AbisMessageQueueImplTest {
+
+	private static final int REQUESTS = 200;
+
+	private AbisMessageQueueImpl abisMessageQueue;
+
+	@SuppressWarnings("unchecked")
+	private MosipQueueManager<MosipQueue, byte[]> mosipQueueManager = Mockito.mock(MosipQueueManager.class);
+
+	private MosipQueue queue = Mockito.mock(MosipQueue.class);
+
+	private List<String> replies = Collections.synchronizedList(new ArrayList<>());
+
+	private CountDownLatch allReplied = new CountDownLatch(REQUESTS);
+
+	@Before
+	public void setup() {
+		AbisServiceImpl abisService = new AbisServiceImpl();
+		ReflectionTestUtils.setField(abisService, "env", new MockEnvironment());
+		abisService.init();
+
+		abisMessageQueue = new AbisMessageQueueImpl();
+		ReflectionTestUtils.setField(abisMessageQueue, "abisService", abisService);
+		ReflectionTestUtils.setField(abisMessageQueue, "mosipQueueManager", mosipQueueManager);
+		ReflectionTestUtils.setField(abisMessageQueue, "messageFormat", "text");
+		Mockito.when(mosipQueueManager.send(Mockito.<MosipQueue>any(), Mockito.anyString(), Mockito.anyString()))
+				.thenAnswer(invocation -> received(invocation.getArgument(1)));
+		Mockito.when(mosipQueueManager.sendAsync(Mockito.<MosipQueue>any(), Mockito.anyString(), Mockito.anyString(),
+				Mockito.anyInt()))
+				.thenAnswer(invocation -> CompletableFuture.completedFuture(received(invocation.getArgument(1))));
+	}
+
+	@After
+	public void tearDown() {
+		abisMessageQueue.destroy();
+	}
+
+	@Test
+	public void testRepliesSentOnTheListenerByDefault() throws Exception {
+		abisMessageQueue.init();
+
+		for (int i = 0; i < REQUESTS; i++)
+			assertTrue(abisMessageQueue.consumeLogic(request(i), "abis-outbound", queue));
+
+		assertEquals(REQUESTS, replies.size());
+		for (int i = 0; i < REQUESTS; i++)
+			assertEquals("request-" + i, replies.get(i));
+		assertEquals(REQUESTS / 2, abisMessageQueue.getStats().getInsertCount());
+		assertEquals(REQUESTS / 2, abisMessageQueue.getStats().getIdentifyCount());
+	}
+
+	@Test
+	public void testRepliesDelayedOutOfOrder() throws Exception {
+		ReflectionTestUtils.setField(abisMessageQueue, "replyThreads", 4);
+		ReflectionTestUtils.setField(abisMessageQueue, "latencyMedianMillis", 5L);
+		ReflectionTestUtils.setField(abisMessageQueue, "latencyP99Millis", 20L);
+		ReflectionTestUtils.setField(abisMessageQueue, "reorderRatio", 0.2);
+		ReflectionTestUtils.setField(abisMessageQueue, "reorderDelayMillis", 100L);
+		abisMessageQueue.init();
+
+		for (int i = 0; i < REQUESTS; i++)
+			assertTrue(abisMessageQueue.consumeLogic(request(i), "abis-outbound", queue));
+
+		assertTrue(allReplied.await(10, TimeUnit.SECONDS));
+		Mockito.verify(mosipQueueManager, Mockito.never()).send(Mockito.<MosipQueue>any(), Mockito.anyString(),
+				Mockito.anyString());
+		List<String> sent = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++)
+			sent.add("request-" + i);
+		assertNotEquals(sent, replies);
+		Collections.sort(replies, (first, second) -> Integer.compare(Integer.parseInt(first.substring(8)),
+				Integer.parseInt(second.substring(8))));
+		assertEquals(sent, replies);
+		// the reply is recorded once sent
+		while (abisMessageQueue.getStats().getPendingCount() > 0)
+			Thread.sleep(10);
+		assertEquals(REQUESTS, abisMessageQueue.getStats().getInsertCount()
+				+ abisMessageQueue.getStats().getIdentifyCount());
+	}
+
+	private Boolean received(String response) throws Exception {
+		JSONObject reply = JsonUtil.objectMapperReadValue(response, JSONObject.class);
+		replies.add((String) reply.get("requestId"));
+		allReplied.countDown();
+		return true;
+	}
+
+	private static TextMessage request(int i) throws Exception {
+		TextMessage message = Mockito.mock(TextMessage.class);
+		String id = i % 2 == 0 ? "mosip.abis.insert" : "mosip.abis.identify";
+		Mockito.when(message.getText()).thenReturn("{\"id\":\"" + id + "\",\"version\":\"1.1\",\"requestId\":\"request-"
+				+ i + "\",\"requesttime\":\"2021-01-01T00:00:00.000Z\",\"referenceId\":\"ref-" + i / 2 + "\"}");
+		return message;
+	}
+
+}
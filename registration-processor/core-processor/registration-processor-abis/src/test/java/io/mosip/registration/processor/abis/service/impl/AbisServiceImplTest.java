@@ -0,0 +1,128 @@
+package io.mosip.registration.processor.abis.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisIdentifyResponseDto;
+import io.mosip.registration.processor.core.packet.dto.abis.AbisInsertRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.CandidatesDto;
+
+public class AbisServiceImplTest {
+
+	private AbisServiceImpl abisService;
+
+	private MockEnvironment env;
+
+	@Before
+	public void setup() {
+		env = new MockEnvironment();
+		abisService = new AbisServiceImpl();
+		ReflectionTestUtils.setField(abisService, "env", env);
+		ReflectionTestUtils.setField(abisService, "gallerySize", 100);
+		ReflectionTestUtils.setField(abisService, "maxCandidates", 5);
+		abisService.init();
+	}
+
+	@Test
+	public void testDuplicatesDrawnFromTheGallery() {
+		env.setProperty("mosip.regproc.abis.simulator.duplicate-ratio", "1");
+		for (int i = 0; i < 20; i++)
+			abisService.insert(insertRequest("ref-" + i));
+
+		AbisIdentifyResponseDto response = abisService.identify(identifyRequest("ref-3"));
+
+		assertEquals("1", response.getReturnValue());
+		assertNotNull(response.getCandidateList());
+		CandidatesDto[] candidates = response.getCandidateList().getCandidates();
+		assertEquals(String.valueOf(candidates.length), response.getCandidateList().getCount());
+		assertTrue(candidates.length > 0 && candidates.length <= 5);
+		Set<String> referenceIds = new HashSet<>();
+		for (CandidatesDto candidate : candidates) {
+			assertFalse("ref-3".equals(candidate.getReferenceId()));
+			assertTrue(referenceIds.add(candidate.getReferenceId()));
+		}
+	}
+
+	@Test
+	public void testDuplicateRatioOverridesTheDuplicateFlag() {
+		env.setProperty("dummy.abis.return.duplicate", "true");
+		env.setProperty("mosip.regproc.abis.simulator.duplicate-ratio", "0");
+		for (int i = 0; i < 20; i++)
+			abisService.insert(insertRequest("ref-" + i));
+
+		for (int i = 0; i < 20; i++)
+			assertNull(abisService.identify(identifyRequest("ref-" + i)).getCandidateList());
+	}
+
+	@Test
+	public void testDuplicateFlagWithoutRatio() {
+		env.setProperty("dummy.abis.return.duplicate", "true");
+		for (int i = 0; i < 20; i++)
+			abisService.insert(insertRequest("ref-" + i));
+
+		assertNotNull(abisService.identify(identifyRequest("ref-0")).getCandidateList());
+	}
+
+	@Test
+	public void testConcurrentInsertsAndIdentifies() throws Exception {
+		env.setProperty("mosip.regproc.abis.simulator.duplicate-ratio", "0.5");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int thread = t;
+				results.add(executor.submit(() -> {
+					int duplicates = 0;
+					for (int i = 0; i < 1000; i++) {
+						String referenceId = "ref-" + thread + "-" + i;
+						abisService.insert(insertRequest(referenceId));
+						if (abisService.identify(identifyRequest(referenceId)).getCandidateList() != null)
+							duplicates++;
+					}
+					return duplicates;
+				}));
+			}
+			int duplicates = 0;
+			for (Future<Integer> result : results)
+				duplicates += result.get();
+			// half of the 8000 identify requests, give or take
+			assertTrue(duplicates > 3000 && duplicates < 5000);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static AbisInsertRequestDto insertRequest(String referenceId) {
+		AbisInsertRequestDto request = new AbisInsertRequestDto();
+		request.setId("mosip.abis.insert");
+		request.setRequestId(referenceId + "-insert");
+		request.setReferenceId(referenceId);
+		return request;
+	}
+
+	private static AbisIdentifyRequestDto identifyRequest(String referenceId) {
+		AbisIdentifyRequestDto request = new AbisIdentifyRequestDto();
+		request.setId("mosip.abis.identify");
+		request.setRequestId(referenceId + "-identify");
+		request.setReferenceId(referenceId);
+		return request;
+	}
+
+}
@@ -1,9 +1,12 @@
 package io.mosip.registration.processor.stages.demodedupe;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
@@ -12,6 +15,7 @@ import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.packet.dto.demographicinfo.DemographicInfoDto;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
+import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
 import io.mosip.registration.processor.status.service.RegistrationStatusService;
 
 /**
@@ -37,6 +41,13 @@ public class DemoDedupe {
 	@Autowired
 	private PacketInfoDao packetInfoDao;
 
+	/**
+	 * Whether the candidates of the languages with a name, dob and gender are
+	 * looked up by their blocking key in a single query.
+	 */
+	@Value("${mosip.regproc.demo-dedupe.blocking-key.enabled:false}")
+	private boolean blockingKeyEnabled;
+
 	/**
 	 * Perform dedupe.
 	 *
@@ -51,10 +62,19 @@ public class DemoDedupe {
 		List<DemographicInfoDto> applicantDemoDto = packetInfoDao.findDemoById(refId);
 		List<DemographicInfoDto> demographicInfoDtos;
 		List<DemographicInfoDto> infoDtos = new ArrayList<>();
+		Set<String> dedupeKeys = new LinkedHashSet<>();
 		for (DemographicInfoDto demoDto : applicantDemoDto) {
-			infoDtos.addAll(packetInfoDao.getAllDemographicInfoDtos(demoDto.getName(), demoDto.getGenderCode(),
-					demoDto.getDob(), demoDto.getLangCode()));
+			String dedupeKey = blockingKeyEnabled ? PacketInfoMapper.getDedupeKey(demoDto.getName(),
+					demoDto.getDob(), demoDto.getGenderCode(), demoDto.getLangCode()) : null;
+			// a language without a name, dob or gender matches on the fields it has
+			if (dedupeKey != null)
+				dedupeKeys.add(dedupeKey);
+			else
+				infoDtos.addAll(packetInfoDao.getAllDemographicInfoDtos(demoDto.getName(), demoDto.getGenderCode(),
+						demoDto.getDob(), demoDto.getLangCode()));
 		}
+		if (!dedupeKeys.isEmpty())
+			infoDtos.addAll(packetInfoDao.getAllDemographicInfoDtos(dedupeKeys));
 		demographicInfoDtos = getAllDemographicInfoDtosWithUin(infoDtos);
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REFERENCEID.toString(), refId,
 				"DemoDedupe::performDedupe()::exit");
@@ -64,8 +84,14 @@ public class DemoDedupe {
 	private List<DemographicInfoDto> getAllDemographicInfoDtosWithUin(
 			List<DemographicInfoDto> duplicateDemographicDtos) {
 		List<DemographicInfoDto> demographicInfoDtosWithUin = new ArrayList<>();
+		if (duplicateDemographicDtos.isEmpty())
+			return demographicInfoDtosWithUin;
+		Set<String> regIds = new LinkedHashSet<>();
+		for (DemographicInfoDto demographicDto : duplicateDemographicDtos)
+			regIds.add(demographicDto.getRegId());
+		Set<String> regIdsWithUin = registrationStatusService.checkUinAvailabilityForRids(regIds);
 		for (DemographicInfoDto demographicDto : duplicateDemographicDtos) {
-			if (registrationStatusService.checkUinAvailabilityForRid(demographicDto.getRegId())) {
+			if (regIdsWithUin.contains(demographicDto.getRegId())) {
 				demographicInfoDtosWithUin.add(demographicDto);
 			}
 
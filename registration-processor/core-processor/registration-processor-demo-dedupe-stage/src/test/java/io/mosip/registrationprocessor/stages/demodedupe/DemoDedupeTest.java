@@ -6,6 +6,9 @@ import static org.mockito.Matchers.anyString;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 
 import org.apache.commons.io.IOUtils;
@@ -20,6 +23,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import io.mosip.kernel.core.util.HMACUtils2;
 import io.mosip.registration.processor.core.auth.dto.AuthResponseDTO;
@@ -29,6 +33,7 @@ import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
 import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
+import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
 import io.mosip.registration.processor.stages.demodedupe.DemoDedupe;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
 import io.mosip.registration.processor.status.dto.RegistrationStatusDto;
@@ -106,6 +111,8 @@ public class DemoDedupeTest {
 
 
 		Mockito.when(registrationStatusService.checkUinAvailabilityForRid(any())).thenReturn(true);
+		Mockito.when(registrationStatusService.checkUinAvailabilityForRids(any()))
+				.thenAnswer(invocation -> new HashSet<>((Collection<?>) invocation.getArgument(0)));
 
 		byte[] data = "1234567890".getBytes();
 		PowerMockito.mockStatic(IOUtils.class);
@@ -137,6 +144,58 @@ public class DemoDedupeTest {
 		assertEquals("Test for Dedupe Duplicate found", false, duplicates.isEmpty());
 	}
 
+	/**
+	 * Test the languages with a name, dob and gender looked up by their blocking
+	 * key in one query, the others on the fields they have, and the uin checked
+	 * once for all the candidates.
+	 */
+	@Test
+	public void testDedupeByBlockingKey() {
+		ReflectionTestUtils.setField(demoDedupe, "blockingKeyEnabled", true);
+		String regId = "1234567890";
+
+		List<DemographicInfoDto> applicantDtos = new ArrayList<>();
+		applicantDtos.add(demographicInfo(regId, "name-eng", "dob", "male-eng", "eng"));
+		applicantDtos.add(demographicInfo(regId, "name-ara", "dob", "male-ara", "ara"));
+		applicantDtos.add(demographicInfo(regId, "name-fra", null, "male-fra", "fra"));
+		Mockito.when(packetInfoDao.findDemoById(regId)).thenReturn(applicantDtos);
+
+		List<DemographicInfoDto> keyedCandidates = new ArrayList<>();
+		keyedCandidates.add(demographicInfo("rid-1", "name-eng", "dob", "male-eng", "eng"));
+		keyedCandidates.add(demographicInfo("rid-1", "name-ara", "dob", "male-ara", "ara"));
+		keyedCandidates.add(demographicInfo("rid-2", "name-eng", "dob", "male-eng", "eng"));
+		Mockito.when(packetInfoDao.getAllDemographicInfoDtos(Mockito.<Collection<String>>any()))
+				.thenReturn(keyedCandidates);
+		List<DemographicInfoDto> fieldCandidates = new ArrayList<>();
+		fieldCandidates.add(demographicInfo("rid-3", "name-fra", "other-dob", "male-fra", "fra"));
+		Mockito.when(packetInfoDao.getAllDemographicInfoDtos("name-fra", "male-fra", null, "fra"))
+				.thenReturn(fieldCandidates);
+		Mockito.doReturn(new HashSet<>(Arrays.asList("rid-1", "rid-3"))).when(registrationStatusService)
+				.checkUinAvailabilityForRids(any());
+
+		List<DemographicInfoDto> duplicates = demoDedupe.performDedupe(regId);
+
+		assertEquals(3, duplicates.size());
+		Mockito.verify(packetInfoDao).getAllDemographicInfoDtos(new HashSet<>(Arrays.asList(
+				PacketInfoMapper.getDedupeKey("name-eng", "dob", "male-eng", "eng"),
+				PacketInfoMapper.getDedupeKey("name-ara", "dob", "male-ara", "ara"))));
+		Mockito.verify(packetInfoDao, Mockito.times(1)).getAllDemographicInfoDtos(any(), any(), any(), any());
+		Mockito.verify(registrationStatusService).checkUinAvailabilityForRids(
+				new HashSet<>(Arrays.asList("rid-1", "rid-2", "rid-3")));
+		Mockito.verify(registrationStatusService, Mockito.never()).checkUinAvailabilityForRid(any());
+	}
+
+	private static DemographicInfoDto demographicInfo(String regId, String name, String dob, String gender,
+			String langCode) {
+		DemographicInfoDto dto = new DemographicInfoDto();
+		dto.setRegId(regId);
+		dto.setName(name);
+		dto.setDob(dob);
+		dto.setGenderCode(gender);
+		dto.setLangCode(langCode);
+		return dto;
+	}
+
 	/**
 	 * Test demodedupe empty.
 	 */
@@ -49,6 +49,7 @@ import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
 import io.mosip.registration.processor.packet.storage.dto.Document;
 import io.mosip.registration.processor.packet.storage.entity.ManualVerificationEntity;
 import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+import io.mosip.registration.processor.packet.storage.utils.DataSharePolicyCache;
 import io.mosip.registration.processor.packet.storage.utils.PriorityBasedPacketManagerService;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
@@ -137,6 +138,9 @@ public class ManualAdjudicationServiceImpl implements ManualAdjudicationService
 	@Autowired
 	private CbeffUtil cbeffutil;
 
+	@Autowired(required = false)
+	private DataSharePolicyCache dataSharePolicyCache;
+
 	@Autowired
 	private Utilities utility;
 
@@ -487,7 +491,7 @@ public class ManualAdjudicationServiceImpl implements ManualAdjudicationService
 		String url = null;
 
 		if (policy.get(PolicyConstant.DATASHARE_POLICIES) != null) {
-			LinkedHashMap<String, String> datasharePolicies = (LinkedHashMap<String, String>) policies.get(PolicyConstant.DATASHARE_POLICIES);
+			LinkedHashMap<String, String> datasharePolicies = (LinkedHashMap<String, String>) policy.get(PolicyConstant.DATASHARE_POLICIES);
 			if (!CollectionUtils.isEmpty(datasharePolicies) && datasharePolicies.get(PolicyConstant.SHAREDOMAIN_WRITE) != null)
 				url = datasharePolicies.get(PolicyConstant.SHAREDOMAIN_WRITE) + env.getProperty(ApiName.DATASHARECREATEURL.name());
 		}
@@ -562,11 +566,15 @@ public class ManualAdjudicationServiceImpl implements ManualAdjudicationService
 	}
 
 	private LinkedHashMap<String, Object> getPolicy() throws DataShareException, ApisResourceAccessException {
-		if (policies != null && policies.size() > 0)
+		// the shared policy cache refreshes the policy, else it is fetched once
+		if (dataSharePolicyCache == null && policies != null && policies.size() > 0)
 			return policies;
 
-		ResponseWrapper<?> policyResponse = (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(
-				ApiName.PMS, Lists.newArrayList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "", ResponseWrapper.class);
+		ResponseWrapper<?> policyResponse = dataSharePolicyCache != null
+				? dataSharePolicyCache.getPolicy(policyId, subscriberId)
+				: (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(ApiName.PMS,
+						Lists.newArrayList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "",
+						ResponseWrapper.class);
 		if (policyResponse == null || (policyResponse.getErrors() != null && !policyResponse.getErrors().isEmpty())) {
 			throw new DataShareException(policyResponse == null ? "Policy Response response is null" : policyResponse.getErrors().get(0).getMessage());
 		} else {
@@ -39,6 +39,7 @@ import io.mosip.registration.processor.packet.storage.entity.VerificationEntity;
 import io.mosip.registration.processor.packet.storage.entity.VerificationPKEntity;
 import io.mosip.registration.processor.packet.storage.exception.UnableToInsertData;
 import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+import io.mosip.registration.processor.packet.storage.utils.DataSharePolicyCache;
 import io.mosip.registration.processor.packet.storage.utils.PriorityBasedPacketManagerService;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
@@ -141,6 +142,9 @@ public class VerificationServiceImpl implements VerificationService {
 	@Autowired
 	private CbeffUtil cbeffutil;
 
+	@Autowired(required = false)
+	private DataSharePolicyCache dataSharePolicyCache;
+
 	@Autowired
 	private Utilities utility;
 
@@ -539,7 +543,7 @@ public class VerificationServiceImpl implements VerificationService {
 		String url = null;
 
 		if (policy.get(PolicyConstant.DATASHARE_POLICIES) != null) {
-			LinkedHashMap<String, String> datasharePolicies = (LinkedHashMap<String, String>) policies
+			LinkedHashMap<String, String> datasharePolicies = (LinkedHashMap<String, String>) policy
 					.get(PolicyConstant.DATASHARE_POLICIES);
 			if (!CollectionUtils.isEmpty(datasharePolicies)
 					&& datasharePolicies.get(PolicyConstant.SHAREDOMAIN_WRITE) != null)
@@ -574,12 +578,15 @@ public class VerificationServiceImpl implements VerificationService {
 	}
 
 	private LinkedHashMap<String, Object> getPolicy() throws DataShareException, ApisResourceAccessException {
-		if (policies != null && policies.size() > 0)
+		// the shared policy cache refreshes the policy, else it is fetched once
+		if (dataSharePolicyCache == null && policies != null && policies.size() > 0)
 			return policies;
 
-		ResponseWrapper<?> policyResponse = (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(
-				ApiName.PMS, Lists.newArrayList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "",
-				ResponseWrapper.class);
+		ResponseWrapper<?> policyResponse = dataSharePolicyCache != null
+				? dataSharePolicyCache.getPolicy(policyId, subscriberId)
+				: (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(ApiName.PMS,
+						Lists.newArrayList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "",
+						ResponseWrapper.class);
 		if (policyResponse == null || (policyResponse.getErrors() != null && policyResponse.getErrors().size() > 0)) {
 			throw new DataShareException(policyResponse == null ? "Policy Response response is null"
 					: policyResponse.getErrors().get(0).getMessage());
@@ -4,6 +4,8 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -42,6 +44,7 @@ import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.spi.filesystem.manager.FileManager;
 import io.mosip.registration.processor.core.status.util.StatusUtil;
 import io.mosip.registration.processor.core.status.util.TrimExceptionMessage;
+import io.mosip.registration.processor.core.util.ByteBufferInputStream;
 import io.mosip.registration.processor.core.util.RegistrationExceptionMapperUtil;
 import io.mosip.registration.processor.packet.manager.dto.DirectoryPathDto;
 import io.mosip.registration.processor.packet.receiver.constants.PacketReceiverConstant;
@@ -122,6 +125,10 @@ public class PacketReceiverServiceImpl implements PacketReceiverService<File, Me
 	@Autowired
 	private VirusScanner<Boolean, InputStream> virusScannerService;
 
+	/** Reads the packet from the memory mapped file instead of a copy in the heap */
+	@Value("${mosip.regproc.packet.receiver.streaming.enabled:false}")
+	private boolean streamingEnabled;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -152,12 +159,22 @@ public class PacketReceiverServiceImpl implements PacketReceiverService<File, Me
 
 			messageDTO.setRid(registrationId);
 			messageDTO.setWorkflowInstanceId(regEntity.getWorkflowInstanceId());
-			try (InputStream encryptedInputStream = FileUtils.newInputStream(file.getAbsolutePath())) {
-				byte[] encryptedByteArray = IOUtils.toByteArray(encryptedInputStream);
+			try {
 				messageDTO.setReg_type(regEntity.getRegistrationType());
-				validateHashCode(encryptedByteArray, regEntity, registrationId, description);
-				validatePacketFormat(fileOriginalName, registrationId, description);
-				validatePacketSize(file.length(), regEntity, registrationId, description);
+				if (streamingEnabled) {
+					// the size and format are checked first, as they do not read the packet
+					validatePacketFormat(fileOriginalName, registrationId, description);
+					validatePacketSize(file.length(), regEntity, registrationId, description);
+					validateHashCode(digestAsPlainText(file), regEntity, registrationId, description);
+				} else {
+					try (InputStream encryptedInputStream = FileUtils.newInputStream(file.getAbsolutePath())) {
+						byte[] encryptedByteArray = IOUtils.toByteArray(encryptedInputStream);
+						validateHashCode(HMACUtils2.digestAsPlainText(encryptedByteArray), regEntity,
+								registrationId, description);
+					}
+					validatePacketFormat(fileOriginalName, registrationId, description);
+					validatePacketSize(file.length(), regEntity, registrationId, description);
+				}
 				if (isDuplicatePacket(registrationId, regEntity) && !isExternalStatusResend(registrationId)) {
 					description.setMessage(PlatformErrorMessages.RPR_PKR_DUPLICATE_PACKET_RECIEVED.getMessage());
 					description.setCode(PlatformErrorMessages.RPR_PKR_DUPLICATE_PACKET_RECIEVED.getCode());
@@ -319,14 +336,13 @@ public class PacketReceiverServiceImpl implements PacketReceiverService<File, Me
 	/**
 	 * Scan file.
 	 *
-	 * @param input
-	 *            the input packet byte
+	 * @param inputStream
+	 *            the input packet stream
 	 * @param description
 	 */
-	private boolean scanFile(final byte[] input, RegistrationExceptionMapperUtil registrationExceptionMapperUtil,
+	private boolean scanFile(InputStream inputStream, RegistrationExceptionMapperUtil registrationExceptionMapperUtil,
 			String registrationId, InternalRegistrationStatusDto dto, LogDescription description) throws IOException {
 		try {
-			InputStream inputStream = new ByteArrayInputStream(input);
 			boolean isInputFileClean = virusScannerService.scanFile(inputStream);
 
 			if (!isInputFileClean) {
@@ -420,18 +436,14 @@ public class PacketReceiverServiceImpl implements PacketReceiverService<File, Me
 	/**
 	 * Validate hash code.
 	 *
+	 * @param hashSequence
+	 *            the hash of the packet
 	 * @param registrationId
 	 *            the registration id
-	 * @param inputStream
-	 *            the input stream
 	 * @param description
-	 * @throws IOException
-	 *             Signals that an I/O exception has occurred.
 	 */
-	private void validateHashCode(byte[] isbytearray, SyncRegistrationEntity regEntity, String registrationId,
-			LogDescription description) throws IOException, NoSuchAlgorithmException {
-		// TO-DO testing
-		String hashSequence = HMACUtils2.digestAsPlainText(isbytearray);
+	private void validateHashCode(String hashSequence, SyncRegistrationEntity regEntity, String registrationId,
+			LogDescription description) {
 		String packetHashSequence = regEntity.getPacketHashValue();
 		if (!(MessageDigest.isEqual(packetHashSequence.getBytes(), hashSequence.getBytes()))) {
 			description.setMessage(PlatformErrorMessages.UNEQUAL_PACKET_HASH_PR.getMessage());
@@ -443,6 +455,16 @@ public class PacketReceiverServiceImpl implements PacketReceiverService<File, Me
 		}
 	}
 
+	/**
+	 * Hash of the packet, the same as {@link HMACUtils2#digestAsPlainText(byte[])}
+	 * but read from the memory mapped file.
+	 */
+	private String digestAsPlainText(File file) throws IOException, NoSuchAlgorithmException {
+		MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+		messageDigest.update(ByteBufferInputStream.map(file));
+		return HMACUtils2.encodeBytesToHex(messageDigest.digest(), true, ByteOrder.BIG_ENDIAN);
+	}
+
 	/**
 	 * Validate packet size.
 	 *
@@ -501,13 +523,24 @@ public class PacketReceiverServiceImpl implements PacketReceiverService<File, Me
 		}
 		messageDTO.setSource(regEntity.getSource());
 		messageDTO.setWorkflowInstanceId(regEntity.getWorkflowInstanceId());
-		try (InputStream encryptedInputStream = FileUtils.newInputStream(file.getAbsolutePath())) {
-			final byte[] encryptedByteArray = IOUtils.toByteArray(encryptedInputStream);
-			scanningFlag = scanFile(encryptedByteArray, registrationExceptionMapperUtil,
-					registrationId, dto, description);
+		try {
+			if (streamingEnabled) {
+				ByteBuffer packet = ByteBufferInputStream.map(file);
+				scanningFlag = scanFile(new ByteBufferInputStream(packet), registrationExceptionMapperUtil,
+						registrationId, dto, description);
+				if (scanningFlag)
+					fileManager.put(packetId, new ByteBufferInputStream(packet), DirectoryPathDto.LANDING_ZONE);
+			} else {
+				try (InputStream encryptedInputStream = FileUtils.newInputStream(file.getAbsolutePath())) {
+					final byte[] encryptedByteArray = IOUtils.toByteArray(encryptedInputStream);
+					scanningFlag = scanFile(new ByteArrayInputStream(encryptedByteArray),
+							registrationExceptionMapperUtil, registrationId, dto, description);
+					if (scanningFlag)
+						fileManager.put(packetId, new ByteArrayInputStream(encryptedByteArray),
+								DirectoryPathDto.LANDING_ZONE);
+				}
+			}
 			if (scanningFlag) {
-				fileManager.put(packetId, new ByteArrayInputStream(encryptedByteArray),
-						DirectoryPathDto.LANDING_ZONE);
 				dto.setStatusCode(RegistrationStatusCode.PROCESSING.toString());
 				dto.setStatusComment(StatusUtil.PACKET_UPLOADED_TO_LANDING_ZONE.getMessage());
 				dto.setSubStatusCode(StatusUtil.PACKET_UPLOADED_TO_LANDING_ZONE.getCode());
@@ -2,6 +2,8 @@ package io.mosip.registration.processor.packet.receiver.stage;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -263,7 +265,9 @@ public class PacketReceiverStage extends MosipVerticleAPIManager {
 	}
 
 	/**
-	 * Gets the file from ctx.
+	 * Gets the file from ctx. The uploaded file is renamed to the packet name the
+	 * first time, instead of being copied, so the packet is written to the disk
+	 * only once.
 	 *
 	 * @param ctx the ctx
 	 * @return the file from ctx
@@ -271,9 +275,10 @@ public class PacketReceiverStage extends MosipVerticleAPIManager {
 	 */
 	private Map<FileUpload,File> getFileFromCtx(RoutingContext ctx) throws IOException {
 		FileUpload fileUpload = ctx.fileUploads().iterator().next();
-		FileUtils.copyFile(FileUtils.getFile(fileUpload.uploadedFileName()),
-				FileUtils.getFile(FileUtils.getFile(fileUpload.uploadedFileName()).getParent() + "/" + fileUpload.fileName()));
-		File file = FileUtils.getFile(FileUtils.getFile(fileUpload.uploadedFileName()).getParent() + "/" + fileUpload.fileName());
+		File uploadedFile = FileUtils.getFile(fileUpload.uploadedFileName());
+		File file = FileUtils.getFile(uploadedFile.getParent() + "/" + fileUpload.fileName());
+		if (uploadedFile.exists())
+			Files.move(uploadedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
 		Map<FileUpload,File> uploadedFileMap=new HashMap<>();
 		uploadedFileMap.put(fileUpload,file);
 		return uploadedFileMap;
@@ -0,0 +1,158 @@
+package io.mosip.registration.processor.packet.receiver.service;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.kernel.core.util.HMACUtils2;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.logger.LogDescription;
+import io.mosip.registration.processor.packet.receiver.service.impl.PacketReceiverServiceImpl;
+import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+import io.mosip.registration.processor.status.entity.SyncRegistrationEntity;
+import io.mosip.registration.processor.status.service.RegistrationStatusService;
+import io.mosip.registration.processor.status.service.SyncRegistrationService;
+import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
+import io.mosip.registration.processor.status.dto.RegistrationStatusDto;
+import io.mosip.registration.processor.status.dto.SyncRegistrationDto;
+import io.mosip.registration.processor.status.dto.SyncResponseDto;
+
+/**
+ * Validates concurrent uploads of large packets and reports the heap high-water
+ * mark per upload of the streaming and the in memory packet reads.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PacketReceiverLoadTest {
+
+	private static final int CONCURRENT_UPLOADS = 8;
+
+	private static final int PACKET_SIZE = 4 * 1024 * 1024;
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	@Mock
+	private RegistrationStatusService<String, InternalRegistrationStatusDto, RegistrationStatusDto> registrationStatusService;
+
+	@Mock
+	private SyncRegistrationService<SyncResponseDto, SyncRegistrationDto> syncRegistrationService;
+
+	@Mock
+	private AuditLogRequestBuilder auditLogRequestBuilder;
+
+	@Mock
+	private LogDescription description;
+
+	@InjectMocks
+	private PacketReceiverService<File, MessageDTO> packetReceiverService = new PacketReceiverServiceImpl();
+
+	private File directory;
+
+	private List<File> packets = new ArrayList<>();
+
+	@Before
+	public void setup() throws Exception {
+		ReflectionTestUtils.setField(packetReceiverService, "mainProcesses", Arrays.asList("NEW", "UPDATE"));
+		ReflectionTestUtils.setField(packetReceiverService, "extention", ".zip");
+		ReflectionTestUtils.setField(packetReceiverService, "fileSize", "5");
+
+		directory = Files.createTempDirectory("packet-receiver-load").toFile();
+		Random random = new Random(42);
+		for (int i = 0; i < CONCURRENT_UPLOADS; i++) {
+			byte[] content = new byte[PACKET_SIZE];
+			random.nextBytes(content);
+			File packet = new File(directory, "1000" + i + ".zip");
+			Files.write(packet.toPath(), content);
+			packets.add(packet);
+
+			SyncRegistrationEntity regEntity = new SyncRegistrationEntity();
+			regEntity.setWorkflowInstanceId("00" + i);
+			regEntity.setRegistrationId("1000" + i);
+			regEntity.setRegistrationType("NEW");
+			regEntity.setPacketHashValue(HMACUtils2.digestAsPlainText(content));
+			regEntity.setPacketSize(BigInteger.valueOf(PACKET_SIZE));
+			Mockito.when(syncRegistrationService.findByPacketId("1000" + i)).thenReturn(regEntity);
+		}
+		Mockito.when(registrationStatusService.getRegistrationStatus(any(), any(), any(), any())).thenReturn(null);
+		Mockito.when(syncRegistrationService.isPresent(anyString())).thenReturn(true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteDirectory(directory);
+	}
+
+	@Test
+	public void testConcurrentStreamingUploads() throws Exception {
+		ReflectionTestUtils.setField(packetReceiverService, "streamingEnabled", true);
+		long peak = validateConcurrently();
+		logger.info("Streaming packet receive heap high-water mark {} bytes per upload", peak / CONCURRENT_UPLOADS);
+	}
+
+	@Test
+	public void testConcurrentInMemoryUploads() throws Exception {
+		ReflectionTestUtils.setField(packetReceiverService, "streamingEnabled", false);
+		long peak = validateConcurrently();
+		logger.info("In memory packet receive heap high-water mark {} bytes per upload", peak / CONCURRENT_UPLOADS);
+	}
+
+	/**
+	 * @return the heap high-water mark above the heap used before the uploads
+	 */
+	private long validateConcurrently() throws Exception {
+		List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP)
+				heapPools.add(pool);
+		}
+		System.gc();
+		long used = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			pool.resetPeakUsage();
+			used += pool.getUsage().getUsed();
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_UPLOADS);
+		try {
+			List<Future<MessageDTO>> uploads = new ArrayList<>();
+			for (File packet : packets)
+				uploads.add(executor.submit(() -> packetReceiverService.validatePacket(packet, "PacketReceiverStage")));
+			for (Future<MessageDTO> upload : uploads)
+				assertTrue(upload.get().getIsValid());
+		} finally {
+			executor.shutdown();
+		}
+
+		long peak = 0;
+		for (MemoryPoolMXBean pool : heapPools)
+			peak += pool.getPeakUsage().getUsed();
+		return Math.max(0, peak - used);
+	}
+
+}
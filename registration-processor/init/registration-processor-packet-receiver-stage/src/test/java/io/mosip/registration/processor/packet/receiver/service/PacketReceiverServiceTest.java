@@ -2,7 +2,9 @@ package io.mosip.registration.processor.packet.receiver.service;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -17,6 +19,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,6 +30,7 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -528,4 +532,50 @@ public class PacketReceiverServiceTest {
 			}
 		}));
 	}
+
+	@Test
+	public void testStreamingPacketValidationSuccess() throws Exception {
+		ReflectionTestUtils.setField(packetReceiverService, "streamingEnabled", true);
+		PowerMockito.when(HMACUtils2.digestAsPlainText(any())).thenCallRealMethod();
+		PowerMockito.when(HMACUtils2.generateHash(any())).thenCallRealMethod();
+		PowerMockito.when(HMACUtils2.encodeBytesToHex(any(), anyBoolean(), any())).thenCallRealMethod();
+		regEntity.setPacketHashValue(HMACUtils2.digestAsPlainText(Files.readAllBytes(mockMultipartFile.toPath())));
+		regEntity.setPacketSize(BigInteger.valueOf(mockMultipartFile.length()));
+		Mockito.when(syncRegistrationService.findByPacketId(anyString())).thenReturn(regEntity);
+		Mockito.when(registrationStatusService.getRegistrationStatus(any(), any(), any(), any())).thenReturn(null);
+
+		MessageDTO successResult = packetReceiverService.validatePacket(mockMultipartFile, stageName);
+
+		assertEquals(true, successResult.getIsValid());
+	}
+
+	@Test(expected = UnequalHashSequenceException.class)
+	public void testStreamingHashSequence() {
+		ReflectionTestUtils.setField(packetReceiverService, "streamingEnabled", true);
+		PowerMockito.when(HMACUtils2.encodeBytesToHex(any(), anyBoolean(), any())).thenCallRealMethod();
+		regEntity.setPacketSize(BigInteger.valueOf(mockMultipartFile.length()));
+		Mockito.when(syncRegistrationService.findByPacketId(anyString())).thenReturn(regEntity);
+
+		packetReceiverService.validatePacket(mockMultipartFile, stageName);
+	}
+
+	@Test
+	public void testStreamingProcessPacketSuccess() throws Exception {
+		ReflectionTestUtils.setField(packetReceiverService, "streamingEnabled", true);
+		mockDto = new InternalRegistrationStatusDto();
+		Mockito.when(syncRegistrationService.findByPacketId(anyString())).thenReturn(regEntity);
+		Mockito.when(registrationStatusService.getRegistrationStatus(any(), any(), any(), any())).thenReturn(mockDto);
+		Mockito.when(virusScannerService.scanFile(any(InputStream.class))).thenReturn(Boolean.TRUE);
+
+		MessageDTO successResult = packetReceiverService.processPacket(mockMultipartFile);
+
+		assertEquals(true, successResult.getIsValid());
+		ArgumentCaptor<InputStream> scanned = ArgumentCaptor.forClass(InputStream.class);
+		verify(virusScannerService).scanFile(scanned.capture());
+		ArgumentCaptor<InputStream> stored = ArgumentCaptor.forClass(InputStream.class);
+		verify(fileManager).put(anyString(), stored.capture(), any(DirectoryPathDto.class));
+		byte[] packet = Files.readAllBytes(mockMultipartFile.toPath());
+		assertArrayEquals(packet, IOUtils.toByteArray(scanned.getValue()));
+		assertArrayEquals(packet, IOUtils.toByteArray(stored.getValue()));
+	}
 }
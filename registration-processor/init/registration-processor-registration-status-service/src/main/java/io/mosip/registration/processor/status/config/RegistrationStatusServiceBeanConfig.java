@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import io.mosip.kernel.dataaccess.hibernate.config.HibernateDaoConfig;
 import io.mosip.kernel.dataaccess.hibernate.repository.impl.HibernateRepositoryImpl;
+import io.mosip.registration.processor.rest.client.audit.builder.AsyncAuditLogSender;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.rest.client.utils.RestApiClient;
 import io.mosip.registration.processor.status.dao.RegistrationStatusDao;
@@ -48,6 +49,11 @@ public class RegistrationStatusServiceBeanConfig {
 		return new AuditLogRequestBuilder();
 	}
 
+	@Bean
+	public AsyncAuditLogSender getAsyncAuditLogSender() {
+		return new AsyncAuditLogSender();
+	}
+
 //	@Bean
 //	public RegistrationProcessorRestClientService<Object> getRegistrationProcessorRestClientService() {
 //		return new RegistrationProcessorRestClientServiceImpl();
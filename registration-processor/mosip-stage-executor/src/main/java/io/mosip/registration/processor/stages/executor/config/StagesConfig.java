@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
@@ -19,6 +20,8 @@ import org.springframework.core.env.MutablePropertySources;
 
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.abstractverticle.LocalStageRouter;
+import io.mosip.registration.processor.core.abstractverticle.SharedClusteredVertx;
 import io.mosip.registration.processor.core.config.ConfigurationUtil;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.vertx.config.ConfigRetriever;
@@ -140,6 +143,28 @@ public class StagesConfig {
 		return names!=null?Stream.of(names.split(",")).collect(Collectors.toList()):null;
 	}
 	
+	/**
+	 * The clustered Vert.x shared by the stages of the group, used when
+	 * mosip.regproc.stage-group.shared-vertx.enabled is true.
+	 *
+	 * @return the shared clustered Vert.x
+	 */
+	@Bean
+	public SharedClusteredVertx sharedClusteredVertx() {
+		return new SharedClusteredVertx();
+	}
+
+	/**
+	 * Hands the messages over between the stages of the group, used when
+	 * mosip.regproc.stage-group.local-routing.enabled is true.
+	 *
+	 * @return the local stage router
+	 */
+	@Bean
+	public LocalStageRouter localStageRouter() {
+		return new LocalStageRouter();
+	}
+
 	public String getStageGroupName() {
 		return environment.getProperty(PROP_STAGE_GROUP_NAME, DEFAULT_STAGE_GROUP_NAME);
 	}
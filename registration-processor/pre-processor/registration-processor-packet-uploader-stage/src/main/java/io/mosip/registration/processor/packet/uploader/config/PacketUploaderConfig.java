@@ -18,6 +18,7 @@ import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
 import io.mosip.registration.processor.packet.uploader.archiver.util.PacketArchiver;
 import io.mosip.registration.processor.packet.uploader.service.PacketUploaderService;
 import io.mosip.registration.processor.packet.uploader.service.impl.PacketUploaderServiceImpl;
+import io.mosip.registration.processor.packet.uploader.util.ParallelPacketUploader;
 
 
 /**
@@ -64,6 +65,11 @@ public class PacketUploaderConfig {
 		return new PacketUploaderServiceImpl();
 	}
 
+	@Bean
+	public ParallelPacketUploader parallelPacketUploader() {
+		return new ParallelPacketUploader();
+	}
+
 	/**
 	 * Virus scanner service. Load virus scanner during runtime from property mosip.regproc.virusscanner.provider
 	 *
@@ -2,6 +2,7 @@ package io.mosip.registration.processor.packet.uploader.service.impl;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -54,6 +55,8 @@ import io.mosip.registration.processor.packet.storage.dto.ConfigEnum;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.packet.uploader.exception.PacketNotFoundException;
 import io.mosip.registration.processor.packet.uploader.service.PacketUploaderService;
+import io.mosip.registration.processor.packet.uploader.util.ParallelPacketUploader;
+import io.mosip.registration.processor.packet.uploader.util.SpooledPacket;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
@@ -87,6 +90,7 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
     private static final String ZIP = ".zip";
     private static final String JSON = ".json";
     private static final String FORWARD_SLASH = "/";
+    private static final String PACKET_UPLOADER = "packet-uploader";
 
     @Value("${packet.manager.account.name}")
     private String packetManagerAccount;
@@ -109,6 +113,12 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
     @Value("${registration.processor.max.retry}")
     private int maxRetryCount;
 
+    /**
+     * Keeps the packet on the disk while it is uploaded instead of in memory.
+     */
+    @Value("${mosip.regproc.packet.uploader.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
     @Autowired
     private ObjectStoreAdapter objectStoreAdapter;
 
@@ -157,6 +167,9 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
     @Autowired
     private Utilities utility;
 
+    @Autowired(required = false)
+    private ParallelPacketUploader parallelPacketUploader;
+
 
     /**
      * The is transaction successful.
@@ -196,64 +209,31 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
             dto.setLatestTransactionTypeCode(RegistrationTransactionTypeCode.UPLOAD_PACKET.toString());
             dto.setRegistrationStageName(stageName);
 
-            final byte[] encryptedByteArray = getPakcetFromDMZ(regEntity.getPacketId());
-
-            if (encryptedByteArray != null) {
-
-                if (validateHashCode(new ByteArrayInputStream(encryptedByteArray), regEntity, registrationId, dto,
-                        description)) {
-                    InputStream decryptedPacket = decryptor.decrypt(
-                            registrationId,
-                            utility.getRefId(registrationId, regEntity.getReferenceId()),
-                            new ByteArrayInputStream(encryptedByteArray));
-                    final byte[] decryptedPacketBytes = IOUtils.toByteArray(decryptedPacket);
-                    if (scanFile(encryptedByteArray, registrationId,
-                            regEntity.getReferenceId(), ZipUtils.unzipAndGetFiles(new ByteArrayInputStream(
-                                    decryptedPacketBytes)), dto, description, messageDTO)) {
-                        int retrycount = (dto.getRetryCount() == null) ? 0 : dto.getRetryCount() + 1;
-                        dto.setRetryCount(retrycount);
-                        if (retrycount < getMaxRetryCount()) {
-
-                            messageDTO = uploadPacket(regEntity, dto, ZipUtils.unzipAndGetFiles(new ByteArrayInputStream(decryptedPacketBytes)), messageDTO, description);
-                            if (messageDTO.getIsValid()) {
-                                dto.setLatestTransactionStatusCode(
-                                        RegistrationTransactionStatusCode.SUCCESS.toString());
-                                isTransactionSuccessful = true;
-                                description.setMessage(PlatformSuccessMessages.RPR_PUM_PACKET_UPLOADER.getMessage());
-                                regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
-                                        LoggerFileConstant.REGISTRATIONID.toString(), registrationId,
-                                        description.getMessage());
-
-                            }
-                        } else {
-
-                        	messageDTO.setInternalError(Boolean.TRUE);
-                            description.setMessage(PlatformErrorMessages.RPR_PUM_PACKET_RETRY_CNT_FAILURE.getMessage());
-                            description.setCode(PlatformErrorMessages.RPR_PUM_PACKET_RETRY_CNT_FAILURE.getCode());
-                            dto.setLatestTransactionStatusCode(registrationStatusMapperUtil
-                                    .getStatusCode(RegistrationExceptionTypeCode.PACKET_UPLOAD_FAILED_ON_MAX_RETRY_CNT));
-                            dto.setStatusCode(RegistrationStatusCode.FAILED.toString());
-                            dto.setStatusComment(StatusUtil.PACKET_RETRY_CNT_EXCEEDED.getMessage());
-                            dto.setSubStatusCode(StatusUtil.PACKET_RETRY_CNT_EXCEEDED.getCode());
-                            dto.setUpdatedBy(USER);
-                            regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
-                                    LoggerFileConstant.REGISTRATIONID.toString(), registrationId,
-                                    description.getMessage());
+            if (streamingEnabled) {
+                messageDTO = streamAndUploadPacket(regEntity, dto, messageDTO, description);
+            } else {
+                final byte[] encryptedByteArray = getPakcetFromDMZ(regEntity.getPacketId());
+
+                if (encryptedByteArray != null) {
+
+                    if (validateHashCode(HMACUtils2.digestAsPlainText(encryptedByteArray), regEntity, registrationId,
+                            dto, description)) {
+                        InputStream decryptedPacket = decryptor.decrypt(
+                                registrationId,
+                                utility.getRefId(registrationId, regEntity.getReferenceId()),
+                                new ByteArrayInputStream(encryptedByteArray));
+                        final byte[] decryptedPacketBytes = IOUtils.toByteArray(decryptedPacket);
+                        if (scanFile(new ByteArrayInputStream(encryptedByteArray), registrationId,
+                                regEntity.getReferenceId(), ZipUtils.unzipAndGetFiles(new ByteArrayInputStream(
+                                        decryptedPacketBytes)), dto, description, messageDTO)) {
+                            messageDTO = uploadPacketWithinRetryCount(regEntity, dto, () -> ZipUtils
+                                    .unzipAndGetFiles(new ByteArrayInputStream(decryptedPacketBytes)), messageDTO,
+                                    description);
                         }
                     }
+                } else {
+                    updatePacketNotFound(dto, messageDTO, description);
                 }
-            } else {
-            	 messageDTO.setInternalError(Boolean.TRUE);
-
-                 dto.setLatestTransactionStatusCode(registrationStatusMapperUtil
-                         .getStatusCode(RegistrationExceptionTypeCode.PACKET_NOT_FOUND_EXCEPTION));
-                 dto.setStatusCode(RegistrationExceptionTypeCode.PACKET_NOT_FOUND_EXCEPTION.toString());
-                 dto.setStatusComment(StatusUtil.PACKET_NOT_FOUND_LANDING_ZONE.getMessage());
-                 dto.setSubStatusCode(StatusUtil.PACKET_NOT_FOUND_LANDING_ZONE.getCode());
-                 dto.setUpdatedBy(USER);
-                 description.setMessage(PlatformErrorMessages.RPR_PUM_PACKET_NOT_FOUND_EXCEPTION.getMessage());
-                 description.setCode(PlatformErrorMessages.RPR_PUM_PACKET_NOT_FOUND_EXCEPTION.getCode());
-
             }
 
         } catch (TablenotAccessibleException e) {
@@ -388,21 +368,108 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
         return messageDTO;
     }
 
+    /**
+     * Uploads the packet kept on the disk. The packet is hashed while it is
+     * downloaded, decrypted once and unzipped once, and the virus scanner and the
+     * object store read its entries from the disk.
+     */
+    private MessageDTO streamAndUploadPacket(SyncRegistrationEntity regEntity, InternalRegistrationStatusDto dto,
+                                             MessageDTO messageDTO, LogDescription description)
+            throws IOException, NoSuchAlgorithmException, ApisResourceAccessException,
+            PacketDecryptionFailureException, ObjectStoreNotAccessibleException {
+        String registrationId = messageDTO.getRid();
+        try (SpooledPacket packet = new SpooledPacket(PACKET_UPLOADER)) {
+            try (OutputStream packetOutputStream = packet.getPacketOutputStream()) {
+                getPacketFromDMZ(regEntity.getPacketId(), packetOutputStream);
+            }
+            if (packet.getSize() == 0) {
+                updatePacketNotFound(dto, messageDTO, description);
+                return messageDTO;
+            }
+            if (validateHashCode(packet.getHash(), regEntity, registrationId, dto, description)) {
+                packet.unzip(decryptor.decrypt(registrationId,
+                        utility.getRefId(registrationId, regEntity.getReferenceId()), packet.openPacket()));
+                if (scanFile(packet.openPacket(), registrationId, regEntity.getReferenceId(), packet.openEntries(),
+                        dto, description, messageDTO)) {
+                    messageDTO = uploadPacketWithinRetryCount(regEntity, dto, packet::openEntries, messageDTO,
+                            description);
+                }
+            }
+        }
+        return messageDTO;
+    }
+
+    /**
+     * Uploads the source packets unless the max retry count is reached.
+     *
+     * @param sourcePackets the source packets, read only when uploaded
+     */
+    private MessageDTO uploadPacketWithinRetryCount(SyncRegistrationEntity regEntity,
+                                                    InternalRegistrationStatusDto dto, SourcePackets sourcePackets,
+                                                    MessageDTO messageDTO, LogDescription description)
+            throws IOException, ObjectStoreNotAccessibleException {
+        String registrationId = messageDTO.getRid();
+        int retrycount = (dto.getRetryCount() == null) ? 0 : dto.getRetryCount() + 1;
+        dto.setRetryCount(retrycount);
+        if (retrycount < getMaxRetryCount()) {
+
+            messageDTO = uploadPacket(regEntity, dto, sourcePackets.get(), messageDTO, description);
+            if (messageDTO.getIsValid()) {
+                dto.setLatestTransactionStatusCode(
+                        RegistrationTransactionStatusCode.SUCCESS.toString());
+                isTransactionSuccessful = true;
+                description.setMessage(PlatformSuccessMessages.RPR_PUM_PACKET_UPLOADER.getMessage());
+                regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+                        LoggerFileConstant.REGISTRATIONID.toString(), registrationId,
+                        description.getMessage());
+
+            }
+        } else {
+
+            messageDTO.setInternalError(Boolean.TRUE);
+            description.setMessage(PlatformErrorMessages.RPR_PUM_PACKET_RETRY_CNT_FAILURE.getMessage());
+            description.setCode(PlatformErrorMessages.RPR_PUM_PACKET_RETRY_CNT_FAILURE.getCode());
+            dto.setLatestTransactionStatusCode(registrationStatusMapperUtil
+                    .getStatusCode(RegistrationExceptionTypeCode.PACKET_UPLOAD_FAILED_ON_MAX_RETRY_CNT));
+            dto.setStatusCode(RegistrationStatusCode.FAILED.toString());
+            dto.setStatusComment(StatusUtil.PACKET_RETRY_CNT_EXCEEDED.getMessage());
+            dto.setSubStatusCode(StatusUtil.PACKET_RETRY_CNT_EXCEEDED.getCode());
+            dto.setUpdatedBy(USER);
+            regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+                    LoggerFileConstant.REGISTRATIONID.toString(), registrationId,
+                    description.getMessage());
+        }
+        return messageDTO;
+    }
+
+    private void updatePacketNotFound(InternalRegistrationStatusDto dto, MessageDTO messageDTO,
+                                      LogDescription description) {
+        messageDTO.setInternalError(Boolean.TRUE);
+
+        dto.setLatestTransactionStatusCode(registrationStatusMapperUtil
+                .getStatusCode(RegistrationExceptionTypeCode.PACKET_NOT_FOUND_EXCEPTION));
+        dto.setStatusCode(RegistrationExceptionTypeCode.PACKET_NOT_FOUND_EXCEPTION.toString());
+        dto.setStatusComment(StatusUtil.PACKET_NOT_FOUND_LANDING_ZONE.getMessage());
+        dto.setSubStatusCode(StatusUtil.PACKET_NOT_FOUND_LANDING_ZONE.getCode());
+        dto.setUpdatedBy(USER);
+        description.setMessage(PlatformErrorMessages.RPR_PUM_PACKET_NOT_FOUND_EXCEPTION.getMessage());
+        description.setCode(PlatformErrorMessages.RPR_PUM_PACKET_NOT_FOUND_EXCEPTION.getCode());
+    }
+
     /**
      * Scan file.
      *
-     * @param input    the input stream
+     * @param packet   the input stream
      * @param refId
      * @param description
      * @return true, if successful
      * @throws IOException
      * @throws ApisResourceAccessException
      */
-    private boolean scanFile(final byte[] input, String id, String refId, final Map<String, InputStream> sourcePackets, InternalRegistrationStatusDto dto,
+    private boolean scanFile(InputStream packet, String id, String refId, final Map<String, InputStream> sourcePackets, InternalRegistrationStatusDto dto,
                              LogDescription description, MessageDTO messageDTO) throws ApisResourceAccessException, PacketDecryptionFailureException {
         boolean isInputFileClean = false;
         try {
-            InputStream packet = new ByteArrayInputStream(input);
             // scanning the top level packet
             isInputFileClean = virusScannerService.scanFile(packet);
 
@@ -452,17 +519,13 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
     /**
      * Validate hash code.
      *
+     * @param hashSequence   the hash of the packet
      * @param registrationId the registration id
-     * @param inputStream    the input stream
-     * @param registrationId
      * @param description
-     * @throws IOException Signals that an I/O exception has occurred.
      */
-    private boolean validateHashCode(InputStream inputStream, SyncRegistrationEntity regEntity, String registrationId,
-                                     InternalRegistrationStatusDto dto, LogDescription description) throws IOException, NoSuchAlgorithmException {
+    private boolean validateHashCode(String hashSequence, SyncRegistrationEntity regEntity, String registrationId,
+                                     InternalRegistrationStatusDto dto, LogDescription description) {
         boolean isValidHash = false;
-        byte[] isbytearray = IOUtils.toByteArray(inputStream);
-        String hashSequence = HMACUtils2.digestAsPlainText(isbytearray);
         String packetHashSequence = regEntity.getPacketHashValue();
         if (!(MessageDigest.isEqual(packetHashSequence.getBytes(), hashSequence.getBytes()))) {
             description.setMessage(PlatformErrorMessages.RPR_PKR_PACKET_HASH_NOT_EQUALS_SYNCED_HASH.getMessage());
@@ -500,31 +563,36 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
         String registrationId = dto.getRegistrationId();
         // upload packets
         try {
-            for (Map.Entry<String, InputStream> entry : sourcePackets.entrySet()) {
-                if (entry.getKey().endsWith(ZIP)) {
-                    String objStoreKey = isIterationAdditionEnabled ?
-                            getFinalKey(regEntity, entry.getKey().replace(ZIP, ""), object)
-                            :
-                            entry.getKey().replace(ZIP, "");
-                    boolean result = objectStoreAdapter.putObject(packetManagerAccount, registrationId,
-                            null, null, objStoreKey, entry.getValue());
-                    if (!result)
-                        throw new ObjectStoreNotAccessibleException("Failed to store packet : " + entry.getKey());
+            if (parallelPacketUploader != null && parallelPacketUploader.isEnabled()) {
+                parallelPacketUploader.upload(packetManagerAccount, registrationId,
+                        toSourcePackets(regEntity, sourcePackets, object));
+            } else {
+                for (Map.Entry<String, InputStream> entry : sourcePackets.entrySet()) {
+                    if (entry.getKey().endsWith(ZIP)) {
+                        String objStoreKey = isIterationAdditionEnabled ?
+                                getFinalKey(regEntity, entry.getKey().replace(ZIP, ""), object)
+                                :
+                                entry.getKey().replace(ZIP, "");
+                        boolean result = objectStoreAdapter.putObject(packetManagerAccount, registrationId,
+                                null, null, objStoreKey, entry.getValue());
+                        if (!result)
+                            throw new ObjectStoreNotAccessibleException("Failed to store packet : " + entry.getKey());
+                    }
                 }
-            }
 
-            // upload metadata
-            for (Map.Entry<String, InputStream> entry : sourcePackets.entrySet()) {
-                if (entry.getKey().endsWith(JSON)) {
-                    byte[] bytearray = IOUtils.toByteArray(entry.getValue());
-                    String jsonString = new String(bytearray);
-                    LinkedHashMap<String, Object> currentIdMap = (LinkedHashMap<String, Object>) mapper.readValue(jsonString, LinkedHashMap.class);
-                    String objStoreKey = isIterationAdditionEnabled ?
-                            getFinalKey(regEntity, entry.getKey().replace(JSON, ""), object)
-                            :
-                            entry.getKey().replace(JSON, "");
-                    objectStoreAdapter.addObjectMetaData(packetManagerAccount, registrationId,
-                            null, null, objStoreKey, currentIdMap);
+                // upload metadata
+                for (Map.Entry<String, InputStream> entry : sourcePackets.entrySet()) {
+                    if (entry.getKey().endsWith(JSON)) {
+                        byte[] bytearray = IOUtils.toByteArray(entry.getValue());
+                        String jsonString = new String(bytearray);
+                        LinkedHashMap<String, Object> currentIdMap = (LinkedHashMap<String, Object>) mapper.readValue(jsonString, LinkedHashMap.class);
+                        String objStoreKey = isIterationAdditionEnabled ?
+                                getFinalKey(regEntity, entry.getKey().replace(JSON, ""), object)
+                                :
+                                entry.getKey().replace(JSON, "");
+                        objectStoreAdapter.addObjectMetaData(packetManagerAccount, registrationId,
+                                null, null, objStoreKey, currentIdMap);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -553,6 +621,35 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
         return object;
     }
 
+    /**
+     * Groups each source packet with its metadata, under their object store key.
+     */
+    private List<ParallelPacketUploader.SourcePacket> toSourcePackets(SyncRegistrationEntity regEntity,
+            Map<String, InputStream> sourcePackets, MessageDTO object) throws IOException {
+        Map<String, ParallelPacketUploader.SourcePacket> packets = new LinkedHashMap<>();
+        for (Map.Entry<String, InputStream> entry : sourcePackets.entrySet()) {
+            if (entry.getKey().endsWith(ZIP)) {
+                String objStoreKey = isIterationAdditionEnabled ?
+                        getFinalKey(regEntity, entry.getKey().replace(ZIP, ""), object)
+                        :
+                        entry.getKey().replace(ZIP, "");
+                packets.computeIfAbsent(objStoreKey, ParallelPacketUploader.SourcePacket::new)
+                        .setPacket(entry.getValue());
+            } else if (entry.getKey().endsWith(JSON)) {
+                byte[] bytearray = IOUtils.toByteArray(entry.getValue());
+                String jsonString = new String(bytearray);
+                LinkedHashMap<String, Object> currentIdMap = (LinkedHashMap<String, Object>) mapper.readValue(jsonString, LinkedHashMap.class);
+                String objStoreKey = isIterationAdditionEnabled ?
+                        getFinalKey(regEntity, entry.getKey().replace(JSON, ""), object)
+                        :
+                        entry.getKey().replace(JSON, "");
+                packets.computeIfAbsent(objStoreKey, ParallelPacketUploader.SourcePacket::new)
+                        .setMetaData(currentIdMap);
+            }
+        }
+        return new ArrayList<>(packets.values());
+    }
+
     /**
      * Get max retry count.
      *
@@ -580,6 +677,23 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
         return packet;
     }
 
+    private void getPacketFromDMZ(String packetId, OutputStream packetOutputStream)
+            throws ApisResourceAccessException {
+        List<String> pathSegment = new ArrayList<>();
+        pathSegment.add(packetId + extention);
+
+        try {
+            restClient.getApi(ApiName.NGINXDMZURL, pathSegment, packetOutputStream);
+        } catch (ApisResourceAccessException e) {
+            if (e.getCause() instanceof HttpClientErrorException) {
+                HttpClientErrorException ex = (HttpClientErrorException) e.getCause();
+                if (ex.getStatusCode().equals(HttpStatus.NOT_FOUND))
+                    throw new PacketNotFoundException(PlatformErrorMessages.RPR_PUM_PACKET_NOT_FOUND_EXCEPTION.getMessage(), ex);
+            } else
+                throw e;
+        }
+    }
+
     /**
      * Modify process name to add iteration before uploading to object store.
      * @param regEntity
@@ -634,4 +748,13 @@ public class PacketUploaderServiceImpl implements PacketUploaderService<MessageD
         return true;
     }
 
-}
\ No newline at end of file
+    /**
+     * The source packets of the packet, read when they are uploaded.
+     */
+    @FunctionalInterface
+    private interface SourcePackets {
+
+        Map<String, InputStream> get() throws IOException;
+    }
+
+}
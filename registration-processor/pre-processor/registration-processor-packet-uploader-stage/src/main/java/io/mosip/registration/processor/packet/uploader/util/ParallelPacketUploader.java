@@ -0,0 +1,236 @@
+package io.mosip.registration.processor.packet.uploader.util;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ObjectStoreNotAccessibleException;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.util.MeterBinding;
+
+/**
+ * Uploads the source packets of a packet to the object store concurrently.
+ *
+ * Each source packet is uploaded and then its metadata is added, the source
+ * packets being uploaded by a bounded pool of threads shared by the packets
+ * being processed. The upload of a packet is all or nothing, when a source
+ * packet could not be uploaded the source packets already uploaded are deleted.
+ *
+ * The upload time and the size and throughput of each source packet are
+ * published as metrics.
+ *
+ * @author Vishwanath V
+ */
+public class ParallelPacketUploader implements MeterBinder {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(ParallelPacketUploader.class);
+
+	private static final String METRIC_PREFIX = "mosip.regproc.packet.uploader.object";
+
+	@Value("${mosip.regproc.packet.uploader.parallel.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.regproc.packet.uploader.parallel.concurrency:4}")
+	private int concurrency;
+
+	@Autowired
+	private ObjectStoreAdapter objectStoreAdapter;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private ThreadPoolExecutor executor;
+
+	private Timer uploadTimer;
+
+	private DistributionSummary uploadSize;
+
+	private DistributionSummary uploadThroughput;
+
+	private final MeterBinding metrics = new MeterBinding(this);
+
+	@PostConstruct
+	public void init() {
+		if (!enabled)
+			return;
+		AtomicInteger threadCount = new AtomicInteger();
+		// the packet thread uploads itself when the queue is full
+		executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(concurrency * 16), runnable -> {
+					Thread thread = new Thread(runnable, "packet-uploader-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		if (executor == null)
+			return;
+		executor.shutdown();
+		executor.awaitTermination(30, TimeUnit.SECONDS);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		uploadTimer = Timer.builder(METRIC_PREFIX + ".upload")
+				.description("Time taken to upload a source packet and its metadata").register(registry);
+		uploadSize = DistributionSummary.builder(METRIC_PREFIX + ".size").baseUnit("bytes")
+				.description("Size of the source packets uploaded").register(registry);
+		uploadThroughput = DistributionSummary.builder(METRIC_PREFIX + ".throughput").baseUnit("bytes/second")
+				.description("Upload throughput of the source packets").register(registry);
+	}
+
+	/**
+	 * Uploads the source packets of a packet.
+	 *
+	 * @param account        the object store account
+	 * @param registrationId the registration id
+	 * @param sourcePackets  the source packets
+	 * @throws ObjectStoreNotAccessibleException when a source packet could not be
+	 *                                           uploaded, the source packets
+	 *                                           uploaded are deleted
+	 */
+	public void upload(String account, String registrationId, List<SourcePacket> sourcePackets)
+			throws ObjectStoreNotAccessibleException {
+		metrics.bind(meterRegistry);
+		Set<String> uploaded = ConcurrentHashMap.newKeySet();
+		// the source packets not started are skipped once one failed
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Future<?>> uploads = new ArrayList<>(sourcePackets.size());
+		for (SourcePacket sourcePacket : sourcePackets) {
+			uploads.add(executor.submit(() -> {
+				if (failed.get())
+					return;
+				try {
+					upload(account, registrationId, sourcePacket, uploaded);
+				} catch (RuntimeException e) {
+					failed.set(true);
+					throw e;
+				}
+			}));
+		}
+
+		Throwable failure = null;
+		for (Future<?> upload : uploads) {
+			try {
+				upload.get();
+			} catch (ExecutionException e) {
+				if (failure == null)
+					failure = e.getCause();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failed.set(true);
+				if (failure == null)
+					failure = e;
+			}
+		}
+		if (failure != null) {
+			deleteUploaded(account, registrationId, uploaded);
+			throw new ObjectStoreNotAccessibleException(failure.getMessage(), failure);
+		}
+	}
+
+	private void upload(String account, String registrationId, SourcePacket sourcePacket, Set<String> uploaded) {
+		long start = System.nanoTime();
+		long size = 0;
+		if (sourcePacket.getPacket() != null) {
+			CountingInputStream packet = new CountingInputStream(sourcePacket.getPacket());
+			boolean result = objectStoreAdapter.putObject(account, registrationId, null, null, sourcePacket.getKey(),
+					packet);
+			if (!result)
+				throw new IllegalStateException("Failed to store packet : " + sourcePacket.getKey());
+			uploaded.add(sourcePacket.getKey());
+			size = packet.getByteCount();
+		}
+		if (sourcePacket.getMetaData() != null)
+			objectStoreAdapter.addObjectMetaData(account, registrationId, null, null, sourcePacket.getKey(),
+					sourcePacket.getMetaData());
+		long elapsed = System.nanoTime() - start;
+		if (uploadTimer != null) {
+			uploadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+			uploadSize.record(size);
+			if (elapsed > 0)
+				uploadThroughput.record(size * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+		}
+	}
+
+	private void deleteUploaded(String account, String registrationId, Set<String> uploaded) {
+		for (String key : uploaded) {
+			try {
+				objectStoreAdapter.deleteObject(account, registrationId, null, null, key);
+			} catch (RuntimeException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), registrationId,
+						"Source packet " + key + " could not be deleted " + ExceptionUtils.getStackTrace(e));
+			}
+		}
+	}
+
+	/**
+	 * A source packet and its metadata, uploaded under the same key.
+	 */
+	public static class SourcePacket {
+
+		private final String key;
+
+		private InputStream packet;
+
+		private Map<String, Object> metaData;
+
+		public SourcePacket(String key) {
+			this.key = key;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public InputStream getPacket() {
+			return packet;
+		}
+
+		public void setPacket(InputStream packet) {
+			this.packet = packet;
+		}
+
+		public Map<String, Object> getMetaData() {
+			return metaData;
+		}
+
+		public void setMetaData(Map<String, Object> metaData) {
+			this.metaData = metaData;
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+package io.mosip.registration.processor.packet.uploader.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import io.mosip.kernel.core.util.HMACUtils2;
+
+/**
+ * Packet kept in a temporary directory while it is uploaded, instead of in
+ * memory.
+ *
+ * The packet is hashed while it is written to the disk, and the decrypted
+ * packet is unzipped in one pass, each of its entries to a file of its own, so
+ * the entries can be read once for the virus scan and once more for the upload.
+ * The directory is deleted on close.
+ *
+ * @author Vishwanath V
+ */
+public class SpooledPacket implements Closeable {
+
+	private static final String PACKET = "packet";
+
+	private static final String ENTRY = "entry-";
+
+	private final Path directory;
+
+	private final Path packet;
+
+	private final Map<String, Path> entries = new LinkedHashMap<>();
+
+	private final List<InputStream> openStreams = new ArrayList<>();
+
+	private MessageDigest messageDigest;
+
+	public SpooledPacket(String prefix) throws IOException {
+		directory = Files.createTempDirectory(prefix);
+		packet = directory.resolve(PACKET);
+	}
+
+	/**
+	 * @return the output stream writing the packet, its hash is computed as it is
+	 *         written
+	 */
+	public OutputStream getPacketOutputStream() throws IOException, NoSuchAlgorithmException {
+		messageDigest = MessageDigest.getInstance("SHA-256");
+		return new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(packet)), messageDigest);
+	}
+
+	/**
+	 * @return the hash of the packet written, the same as
+	 *         {@link HMACUtils2#digestAsPlainText(byte[])}
+	 */
+	public String getHash() {
+		return HMACUtils2.encodeBytesToHex(messageDigest.digest(), true, ByteOrder.BIG_ENDIAN);
+	}
+
+	public long getSize() throws IOException {
+		return Files.size(packet);
+	}
+
+	public InputStream openPacket() throws IOException {
+		return open(packet);
+	}
+
+	/**
+	 * Unzips the decrypted packet in one pass. The entry files are named by their
+	 * position, not by the entry name.
+	 *
+	 * @param decryptedPacket the decrypted packet, closed once read
+	 */
+	public void unzip(InputStream decryptedPacket) throws IOException {
+		try (ZipInputStream zis = new ZipInputStream(decryptedPacket)) {
+			ZipEntry ze = zis.getNextEntry();
+			while (ze != null) {
+				Path entry = directory.resolve(ENTRY + entries.size());
+				try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(entry))) {
+					IOUtils.copy(zis, out);
+				}
+				entries.put(ze.getName(), entry);
+				zis.closeEntry();
+				ze = zis.getNextEntry();
+			}
+		}
+	}
+
+	/**
+	 * Opens the entries of the decrypted packet, each stream is read once.
+	 *
+	 * @return the entries by name
+	 */
+	public Map<String, InputStream> openEntries() throws IOException {
+		Map<String, InputStream> sourcePackets = new LinkedHashMap<>();
+		for (Map.Entry<String, Path> entry : entries.entrySet())
+			sourcePackets.put(entry.getKey(), open(entry.getValue()));
+		return sourcePackets;
+	}
+
+	private InputStream open(Path path) throws IOException {
+		InputStream inputStream = new BufferedInputStream(Files.newInputStream(path));
+		openStreams.add(inputStream);
+		return inputStream;
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (InputStream inputStream : openStreams)
+			IOUtils.closeQuietly(inputStream);
+		openStreams.clear();
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+
+}
@@ -1,28 +1,36 @@
 package io.mosip.registration.processor.packet.service;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -64,6 +72,7 @@ import io.mosip.registration.processor.packet.manager.utils.ZipUtils;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 import io.mosip.registration.processor.packet.uploader.service.PacketUploaderService;
 import io.mosip.registration.processor.packet.uploader.service.impl.PacketUploaderServiceImpl;
+import io.mosip.registration.processor.packet.uploader.util.ParallelPacketUploader;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditResponseDto;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
@@ -136,6 +145,9 @@ public class PacketUploaderServiceTest {
 	@Mock
     private Utilities utility;
 
+	@Mock
+	private ParallelPacketUploader parallelPacketUploader;
+
 	private File file;
 
 	@Before
@@ -210,6 +222,27 @@ public class PacketUploaderServiceTest {
 		assertTrue(result.getIsValid());
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testParallelUploadSuccess() throws Exception {
+		Mockito.when(registrationStatusService.getRegistrationStatus(Mockito.any(),Mockito.any(),Mockito.any(), Mockito.any())).thenReturn(entry);
+		ReflectionTestUtils.setField(packetuploaderservice, "maxRetryCount", 3);
+		ReflectionTestUtils.setField(packetuploaderservice, "isIterationAdditionEnabled", false);
+		Mockito.when(parallelPacketUploader.isEnabled()).thenReturn(true);
+		Mockito.when(virusScannerService.scanFile(Mockito.any(InputStream.class))).thenReturn(Boolean.TRUE);
+		Mockito.when(decryptor.decrypt(Mockito.any(), Mockito.any(),Mockito.any())).thenReturn(is);
+
+		MessageDTO result = packetuploaderservice.validateAndUploadPacket(dto, "PacketUploaderStage");
+
+		assertTrue(result.getIsValid());
+		ArgumentCaptor<List<ParallelPacketUploader.SourcePacket>> sourcePackets = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(parallelPacketUploader).upload(any(), any(), sourcePackets.capture());
+		assertEquals(1, sourcePackets.getValue().size());
+		assertEquals("id", sourcePackets.getValue().get(0).getKey());
+		assertEquals("2345", sourcePackets.getValue().get(0).getMetaData().get("id"));
+		Mockito.verify(objectStoreAdapter, Mockito.never()).putObject(any(), any(), any(), any(), any(), any());
+	}
+
 	@Test
 	public void testvalidateAndUploadPacketAdditionalInfoSuccess() throws Exception {
 
@@ -509,4 +542,78 @@ public class PacketUploaderServiceTest {
 		assertTrue(result.getIsValid());
 	}
 
+	@Test
+	public void testStreamingUploadSuccess() throws Exception {
+		byte[] packet = "encrypted packet".getBytes();
+		mockStreamingPacket(packet, true);
+		Map<String, String> uploaded = new HashMap<>();
+		Mockito.when(objectStoreAdapter.putObject(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			uploaded.put(invocation.getArgument(4), IOUtils.toString(invocation.<InputStream>getArgument(5), "UTF-8"));
+			return true;
+		});
+
+		MessageDTO result = packetuploaderservice.validateAndUploadPacket(dto, "PacketUploaderStage");
+
+		assertTrue(result.getIsValid());
+		assertFalse(result.getInternalError());
+		assertEquals("123", uploaded.get("id"));
+		// the packet and its source packet are decrypted once each
+		Mockito.verify(decryptor, Mockito.times(2)).decrypt(any(), any(), any());
+		Mockito.verify(virusScannerService, Mockito.times(3)).scanFile(any(InputStream.class));
+		Mockito.verify(objectStoreAdapter).addObjectMetaData(any(), any(), any(), any(), any(), any());
+	}
+
+	@Test
+	public void testStreamingHashCodeFailed() throws Exception {
+		mockStreamingPacket("encrypted packet".getBytes(), false);
+
+		MessageDTO result = packetuploaderservice.validateAndUploadPacket(dto, "PacketUploaderStage");
+
+		assertFalse(result.getIsValid());
+		assertFalse(result.getInternalError());
+		Mockito.verify(decryptor, Mockito.never()).decrypt(any(), any(), any());
+	}
+
+	@Test
+	public void testStreamingPacketNotFound() throws Exception {
+		mockStreamingPacket("encrypted packet".getBytes(), true);
+		Mockito.doThrow(new ApisResourceAccessException("exception", new HttpClientErrorException(HttpStatus.NOT_FOUND)))
+				.when(registrationProcessorRestService).getApi(any(), anyList(), any(OutputStream.class));
+		Mockito.when(registrationStatusMapperUtil.getStatusCode(RegistrationExceptionTypeCode.PACKET_NOT_FOUND_EXCEPTION))
+				.thenReturn("ERROR");
+
+		MessageDTO result = packetuploaderservice.validateAndUploadPacket(dto, "PacketUploaderStage");
+
+		assertFalse(result.getIsValid());
+		assertTrue(result.getInternalError());
+	}
+
+	private void mockStreamingPacket(byte[] packet, boolean validHash) throws Exception {
+		ReflectionTestUtils.setField(packetuploaderservice, "streamingEnabled", true);
+		ReflectionTestUtils.setField(packetuploaderservice, "maxRetryCount", 3);
+		PowerMockito.when(HMACUtils2.encodeBytesToHex(any(), anyBoolean(), any())).thenCallRealMethod();
+		PowerMockito.when(HMACUtils2.generateHash(any())).thenCallRealMethod();
+		PowerMockito.when(HMACUtils2.digestAsPlainText(any())).thenCallRealMethod();
+		regEntity.setPacketHashValue(validHash ? HMACUtils2.digestAsPlainText(packet) : "abcd1234");
+		Mockito.when(registrationStatusService.getRegistrationStatus(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenReturn(entry);
+		Mockito.doAnswer(invocation -> {
+			invocation.<OutputStream>getArgument(2).write(packet);
+			return null;
+		}).when(registrationProcessorRestService).getApi(any(), anyList(), any(OutputStream.class));
+
+		Map<String, Object> jsonObject = new LinkedHashMap<>();
+		jsonObject.put("id", "2345");
+		ByteArrayOutputStream decryptedPacket = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(decryptedPacket)) {
+			zos.putNextEntry(new ZipEntry("id.zip"));
+			zos.write("123".getBytes());
+			zos.putNextEntry(new ZipEntry("id.json"));
+			zos.write(JsonUtils.javaObjectToJsonString(jsonObject).getBytes());
+		}
+		Mockito.when(decryptor.decrypt(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenAnswer(invocation -> new ByteArrayInputStream(decryptedPacket.toByteArray()));
+		Mockito.when(virusScannerService.scanFile(Mockito.any(InputStream.class))).thenReturn(Boolean.TRUE);
+	}
+
 }
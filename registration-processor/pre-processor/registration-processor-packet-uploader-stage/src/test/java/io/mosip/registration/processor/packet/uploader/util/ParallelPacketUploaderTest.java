@@ -0,0 +1,109 @@
+package io.mosip.registration.processor.packet.uploader.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
+import io.mosip.registration.processor.core.exception.ObjectStoreNotAccessibleException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ParallelPacketUploaderTest {
+
+	private static final String ACCOUNT = "PACKET_MANAGER_ACCOUNT";
+
+	@Mock
+	private ObjectStoreAdapter objectStoreAdapter;
+
+	@InjectMocks
+	private ParallelPacketUploader parallelPacketUploader;
+
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.setField(parallelPacketUploader, "enabled", true);
+		ReflectionTestUtils.setField(parallelPacketUploader, "concurrency", 3);
+		ReflectionTestUtils.setField(parallelPacketUploader, "meterRegistry", meterRegistry);
+		parallelPacketUploader.init();
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		parallelPacketUploader.destroy();
+	}
+
+	@Test
+	public void testSourcePacketsUploadedConcurrently() throws Exception {
+		// each upload waits for the three uploads to be started
+		CountDownLatch started = new CountDownLatch(3);
+		Mockito.when(objectStoreAdapter.putObject(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			started.countDown();
+			IOUtils.toByteArray(invocation.<InputStream>getArgument(5));
+			return started.await(10, TimeUnit.SECONDS);
+		});
+
+		parallelPacketUploader.upload(ACCOUNT, "10001", sourcePackets("id", "evidence", "optional"));
+
+		Mockito.verify(objectStoreAdapter, Mockito.times(3)).putObject(any(), any(), any(), any(), any(), any());
+		Mockito.verify(objectStoreAdapter).addObjectMetaData(ACCOUNT, "10001", null, null,
+				"REGISTRATION_CLIENT/NEW/id", Collections.singletonMap("source", "id"));
+		assertEquals(3, meterRegistry.get("mosip.regproc.packet.uploader.object.upload").timer().count());
+		assertEquals(3 * "packet".length(),
+				meterRegistry.get("mosip.regproc.packet.uploader.object.size").summary().totalAmount(), 0);
+	}
+
+	@Test
+	public void testUploadedSourcePacketsDeletedOnFailure() throws Exception {
+		Mockito.when(objectStoreAdapter.putObject(any(), any(), any(), any(), any(), any())).thenReturn(true);
+		Mockito.when(objectStoreAdapter.putObject(any(), any(), any(), any(), eq("REGISTRATION_CLIENT/NEW/evidence"),
+				any())).thenReturn(false);
+
+		try {
+			parallelPacketUploader.upload(ACCOUNT, "10001", sourcePackets("id", "evidence"));
+			fail();
+		} catch (ObjectStoreNotAccessibleException e) {
+			assertTrue(e.getMessage().contains("REGISTRATION_CLIENT/NEW/evidence"));
+		}
+
+		Mockito.verify(objectStoreAdapter).deleteObject(ACCOUNT, "10001", null, null, "REGISTRATION_CLIENT/NEW/id");
+		Mockito.verify(objectStoreAdapter, Mockito.never()).deleteObject(ACCOUNT, "10001", null, null,
+				"REGISTRATION_CLIENT/NEW/evidence");
+	}
+
+	private List<ParallelPacketUploader.SourcePacket> sourcePackets(String... names) {
+		List<ParallelPacketUploader.SourcePacket> sourcePackets = new ArrayList<>();
+		for (String name : names) {
+			ParallelPacketUploader.SourcePacket sourcePacket = new ParallelPacketUploader.SourcePacket(
+					"REGISTRATION_CLIENT/NEW/" + name);
+			sourcePacket.setPacket(new ByteArrayInputStream("packet".getBytes()));
+			sourcePacket.setMetaData(Collections.singletonMap("source", name));
+			sourcePackets.add(sourcePacket);
+		}
+		return sourcePackets;
+	}
+
+}
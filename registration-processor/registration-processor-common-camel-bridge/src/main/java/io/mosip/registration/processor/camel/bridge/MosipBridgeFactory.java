@@ -24,13 +24,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.camel.bridge.codec.MessageDTOJsonCodec;
 import io.mosip.registration.processor.camel.bridge.intercepter.RouteIntercepter;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
 import io.mosip.registration.processor.core.abstractverticle.MosipEventBus;
 import io.mosip.registration.processor.core.abstractverticle.MosipRouter;
 import io.mosip.registration.processor.core.abstractverticle.MosipVerticleAPIManager;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.eventbus.MessageDTOCodec;
 import io.mosip.registration.processor.core.exception.UnsupportedEventBusTypeException;
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
@@ -68,6 +72,9 @@ public class MosipBridgeFactory extends MosipVerticleAPIManager {
 	@Autowired
 	private RouteIntercepter routeIntercepter;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	/** Mosip router for APIs */
 	@Autowired
 	MosipRouter router;
@@ -78,6 +85,9 @@ public class MosipBridgeFactory extends MosipVerticleAPIManager {
 	@Value("${mosip.regproc.eventbus.kafka.group.id}")
 	private String kafkaGroupId;
 
+	@Value("${mosip.regproc.eventbus.message-codec.enabled:false}")
+	private boolean messageCodecEnabled;
+
 	/**
 	 * Gets the event bus.
 	 *
@@ -150,6 +160,12 @@ public class MosipBridgeFactory extends MosipVerticleAPIManager {
 			// camelContext.addRouteDefinitions(routes.getRoutes());
 		}
 		if (eventBusType.equals("vertx")) {
+			if (messageCodecEnabled) {
+				// routes work on the json string, so codec messages from stages are decoded as json string
+				vertx.eventBus().unregisterDefaultCodec(MessageDTO.class);
+				vertx.eventBus().registerDefaultCodec(MessageDTO.class,
+						new MessageDTOJsonCodec(new MessageDTOCodec(objectMapper)));
+			}
 			VertxComponent vertxComponent = new VertxComponent();
 			vertxComponent.setVertx(vertx);
 			camelContext.addComponent("eventbus", vertxComponent);
@@ -0,0 +1,52 @@
+package io.mosip.registration.processor.camel.bridge.codec;
+
+import java.nio.charset.StandardCharsets;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.eventbus.MessageDTOCodec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Camel bridge side of the MessageDTO codec. Messages encoded by the stages
+ * with {@link MessageDTOCodec} are received here as the json string, since the
+ * camel routes, predicates and json paths work on the json string body.
+ *
+ * @author Vishwanath V
+ */
+public class MessageDTOJsonCodec implements MessageCodec<MessageDTO, String> {
+
+	private final MessageDTOCodec messageDTOCodec;
+
+	public MessageDTOJsonCodec(MessageDTOCodec messageDTOCodec) {
+		this.messageDTOCodec = messageDTOCodec;
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, MessageDTO messageDTO) {
+		messageDTOCodec.encodeToWire(buffer, messageDTO);
+	}
+
+	@Override
+	public String decodeFromWire(int pos, Buffer buffer) {
+		int length = buffer.getInt(pos);
+		int start = pos + 4;
+		return buffer.getString(start, start + length, StandardCharsets.UTF_8.name());
+	}
+
+	@Override
+	public String transform(MessageDTO messageDTO) {
+		return new String(messageDTOCodec.encode(messageDTO), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String name() {
+		return MessageDTOCodec.CODEC_NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+}
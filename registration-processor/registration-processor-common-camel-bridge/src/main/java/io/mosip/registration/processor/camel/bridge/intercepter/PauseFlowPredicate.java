@@ -5,7 +5,6 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import javax.annotation.PostConstruct;
 
@@ -16,31 +15,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.InvalidPathException;
-import com.jayway.jsonpath.JsonPath;
 
 import io.mosip.kernel.core.exception.BaseUncheckedException;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
-import io.mosip.registration.processor.camel.bridge.model.Setting;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
 import io.mosip.registration.processor.core.abstractverticle.WorkflowInternalActionDTO;
 import io.mosip.registration.processor.core.code.WorkflowInternalActionCode;
-import io.mosip.registration.processor.core.constant.JsonConstant;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.util.PlatformSuccessMessages;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
-import net.minidev.json.JSONArray;
+import io.mosip.registration.processor.core.workflow.PauseRuleEngine;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
 
 public class PauseFlowPredicate implements Predicate {
 
 	private static final Logger LOGGER = RegProcessorLogger.getLogger(PauseFlowPredicate.class);
 
+	private static final TypeReference<Map<String, Object>> DOCUMENT_TYPE = new TypeReference<Map<String, Object>>() {
+	};
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
-	Setting[] settings = null;
+	private PauseRuleEngine pauseRuleEngine;
 
 	@Value("${mosip.regproc.camelbridge.pause-settings}")
 	private String settingsString;
@@ -50,7 +51,8 @@ public class PauseFlowPredicate implements Predicate {
 		try {
 			String encodedSettings = StringUtils.toEncodedString(settingsString.getBytes(Charset.forName("ISO-8859-1")),
 					Charset.forName("UTF-8"));
-			settings = objectMapper.readValue(encodedSettings, Setting[].class);
+			Setting[] settings = objectMapper.readValue(encodedSettings, Setting[].class);
+			pauseRuleEngine = new PauseRuleEngine(settings);
 		} catch (IOException e) {
 			LOGGER.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 					"RoutePredicate::exception " + e.getMessage());
@@ -62,7 +64,8 @@ public class PauseFlowPredicate implements Predicate {
 	public boolean matches(Exchange exchange) {
         try {
 		String message = (String) exchange.getMessage().getBody();
-        MessageDTO messageDto = objectMapper.readValue(message, MessageDTO.class);
+		// parsed once, the document is matched by the rules and mapped to the message only when paused
+		Map<String, Object> document = objectMapper.readValue(message, DOCUMENT_TYPE);
 		LOGGER.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"exchange.getFromEndpoint().toString() " + exchange.getFromEndpoint().toString());
 
@@ -72,26 +75,21 @@ public class PauseFlowPredicate implements Predicate {
 		String ruleDescription ="";
 		long pauseFor = 0;
 		String defaultResumeAction=null;
-		Map<String,String> tags = messageDto.getTags();
-		for (Setting setting : settings) {
-			if(isRuleIdNotPresent(tags,setting.getRuleId())) {
-
-			JSONArray jsonArray = JsonPath.read(message, setting.getMatchExpression());
-			if (Pattern.matches(setting.getFromAddress(), fromAddress)
-					&& !jsonArray.isEmpty()) {
-				     matchedRuleIds.add(setting.getRuleId());
-				     if(ruleDescription.isBlank())
-				    	 ruleDescription = setting.getRuleDescription();
-				     else
-				    	 ruleDescription=ruleDescription+","+setting.getRuleDescription();
-				     if(setting.getPauseFor()>pauseFor) {
-				    	 pauseFor=setting.getPauseFor();
-				    	 defaultResumeAction = setting.getDefaultResumeAction();
-				     }
-				}
+		@SuppressWarnings("unchecked")
+		Map<String,String> tags = (Map<String, String>) document.get("tags");
+		for (Setting setting : pauseRuleEngine.match(fromAddress, () -> document, tags)) {
+			matchedRuleIds.add(setting.getRuleId());
+			if(ruleDescription.isBlank())
+				ruleDescription = setting.getRuleDescription();
+			else
+				ruleDescription=ruleDescription+","+setting.getRuleDescription();
+			if(setting.getPauseFor()>pauseFor) {
+				pauseFor=setting.getPauseFor();
+				defaultResumeAction = setting.getDefaultResumeAction();
 			}
 		}
 		if(!matchedRuleIds.isEmpty()) {
+			MessageDTO messageDto = objectMapper.convertValue(document, MessageDTO.class);
             workflowInternalActionDTO.setRid(messageDto.getRid());
 			workflowInternalActionDTO
 			.setEventTimestamp(DateUtils.formatToISOString(DateUtils.getUTCCurrentDateTime()));
@@ -128,15 +126,4 @@ public class PauseFlowPredicate implements Predicate {
 		return false;
 	}
 
-	private boolean isRuleIdNotPresent(Map<String, String> tags, String  ruleId) {
-		boolean isRuleIdNotPresent=true;
-		if(tags!=null) {
-			String pauseRuleImmunity = tags.get(JsonConstant.PAUSERULEIMMUNITYRULEIDS);
-            if(pauseRuleImmunity!=null && pauseRuleImmunity.contains(ruleId)) {
-            	isRuleIdNotPresent = false;
-           }
-		}
-		return isRuleIdNotPresent;
-	}
-
 }
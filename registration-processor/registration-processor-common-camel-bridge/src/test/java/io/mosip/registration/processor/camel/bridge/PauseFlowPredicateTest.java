@@ -27,16 +27,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.InvalidPathException;
 
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.registration.processor.camel.bridge.intercepter.PauseFlowPredicate;
-import io.mosip.registration.processor.camel.bridge.model.Setting;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
 import io.mosip.registration.processor.core.abstractverticle.WorkflowInternalActionDTO;
 import io.mosip.registration.processor.core.code.WorkflowInternalActionCode;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.workflow.PauseRuleEngine;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 
@@ -69,7 +71,7 @@ public class PauseFlowPredicateTest {
 			LOGGER.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 					"RoutePredicate::exception " + e.getMessage());
 		}
-		ReflectionTestUtils.setField(pauseFlowPredicate, "settings", settings);
+		ReflectionTestUtils.setField(pauseFlowPredicate, "pauseRuleEngine", new PauseRuleEngine(settings));
 		ReflectionTestUtils.setField(pauseFlowPredicate, "objectMapper", objectMapper);
 		
 		Endpoint endpoint = new DefaultEndpoint() {
@@ -215,4 +217,27 @@ public class PauseFlowPredicateTest {
 		assertEquals(1,
 				workflowInternalActionDTO.getMatchedRuleIds().size());
 	}
+
+	@Test
+	public void testRuleEngineFromAddressPattern() {
+		PauseRuleEngine pauseRuleEngine = new PauseRuleEngine(new Setting[] {
+				new Setting("HOTLISTED_OPERATOR", "$.tags[?(@['HOTLISTED'] == 'operator')]", 400, "STOP_PROCESSING",
+						"bio-.*-bus-out", "HotListed paused"),
+				new Setting("HOTLISTED_DEVICE", "$.tags[?(@['HOTLISTED'] == 'device')]", 400, "STOP_PROCESSING",
+						"demo-dedupe-bus-out", "HotListed paused") });
+		String message = "{\"rid\":\"10002100741000120201231071308\",\"tags\":{\"HOTLISTED\":\"operator\"}}";
+
+		assertEquals(1, pauseRuleEngine.match("bio-debup-bus-out", message, null).size());
+		assertEquals("HOTLISTED_OPERATOR",
+				pauseRuleEngine.match("bio-debup-bus-out", message, null).get(0).getRuleId());
+		assertTrue(pauseRuleEngine.match("demo-dedupe-bus-out", message, null).isEmpty());
+		// the message is not parsed when no rule applies to the address
+		assertTrue(pauseRuleEngine.match("packet-uploader-bus-out", "not a json", null).isEmpty());
+	}
+
+	@Test(expected = InvalidPathException.class)
+	public void testRuleEngineInvalidMatchExpression() {
+		new PauseRuleEngine(new Setting[] { new Setting("INVALID", "$.tags[?(@['HOTLISTED'] == ", 400,
+				"STOP_PROCESSING", "bio-debup-bus-out", "Invalid") });
+	}
 }
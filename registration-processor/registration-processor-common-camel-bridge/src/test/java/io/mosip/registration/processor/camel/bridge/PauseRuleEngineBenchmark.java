@@ -0,0 +1,124 @@
+package io.mosip.registration.processor.camel.bridge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.constant.JsonConstant;
+import io.mosip.registration.processor.core.workflow.PauseRuleEngine;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
+import net.minidev.json.JSONArray;
+
+/**
+ * Compares matching a message against 60 pause rules, 10 on each of 6 bus
+ * addresses, the way the pause flow predicate did, reading every match
+ * expression from the message string and matching every from address, against
+ * the compiled rule engine. The message matches one rule of its address. Not
+ * run as part of the unit tests, run the main method from the test classpath,
+ * allocations are reported by the gc profiler as gc.alloc.rate.norm (bytes per
+ * operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PauseRuleEngineBenchmark {
+
+	private static final String[] ADDRESSES = { "packet-validator-bus-out", "demo-dedupe-bus-out",
+			"bio-debup-bus-out", "uin-generator-bus-out", "manual-adjudication-bus-out", "verification-bus-out" };
+
+	private static final int RULES_PER_ADDRESS = 10;
+
+	private static final String FROM_ADDRESS = "bio-debup-bus-out";
+
+	private Setting[] settings;
+
+	private PauseRuleEngine pauseRuleEngine;
+
+	private String message;
+
+	private Map<String, String> tags;
+
+	@Setup
+	public void setup() throws Exception {
+		List<Setting> rules = new ArrayList<>();
+		for (String address : ADDRESSES) {
+			for (int i = 0; i < RULES_PER_ADDRESS; i++)
+				rules.add(new Setting(address + "-" + i,
+						"$.tags[?(@['HOTLISTED'] == 'operator-" + i + "' && @['AGE_GROUP'] == 'ADULT')]", 400,
+						"STOP_PROCESSING", address, "Rule " + i + " of " + address));
+		}
+		settings = rules.toArray(new Setting[0]);
+		pauseRuleEngine = new PauseRuleEngine(settings);
+
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid("10002100741000120201231071308");
+		messageDTO.setWorkflowInstanceId("a8b5c2d1-6f3e-4a7b-9c0d-1e2f3a4b5c6d");
+		messageDTO.setReg_type("NEW");
+		messageDTO.setIteration(1);
+		messageDTO.setSource("REGISTRATION_CLIENT");
+		tags = new HashMap<>();
+		tags.put("HOTLISTED", "operator-7");
+		tags.put("AGE_GROUP", "ADULT");
+		tags.put("ID_OBJECT-residenceStatus", "resident");
+		tags.put("ID_OBJECT-gender", "Female");
+		tags.put("META_INFO-CAPTURED_REGISTERED_DEVICES-Finger", "MOSIP-FINGER-01");
+		tags.put("PACKET_CREATION_DATE", "2021-01-01T00:00:00.000Z");
+		messageDTO.setTags(tags);
+		message = new ObjectMapper().writeValueAsString(messageDTO);
+	}
+
+	@Benchmark
+	public void jsonPathPerRule(Blackhole blackhole) {
+		List<String> matchedRuleIds = new ArrayList<>();
+		for (Setting setting : settings) {
+			String pauseRuleImmunity = tags.get(JsonConstant.PAUSERULEIMMUNITYRULEIDS);
+			if (pauseRuleImmunity == null || !pauseRuleImmunity.contains(setting.getRuleId())) {
+				JSONArray jsonArray = JsonPath.read(message, setting.getMatchExpression());
+				if (Pattern.matches(setting.getFromAddress(), FROM_ADDRESS) && !jsonArray.isEmpty())
+					matchedRuleIds.add(setting.getRuleId());
+			}
+		}
+		blackhole.consume(matchedRuleIds);
+	}
+
+	@Benchmark
+	public void compiledRules(Blackhole blackhole) {
+		blackhole.consume(pauseRuleEngine.match(FROM_ADDRESS, message, tags));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(PauseRuleEngineBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -2,6 +2,7 @@ package io.mosip.registration.processor.core.abstractverticle;
 
 import java.io.Serializable;
 
+import brave.Span;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -24,6 +25,12 @@ public class EventDTO implements Serializable {
 	/** The Json object body of an event. */
 	private JsonObject body;
 
+	/** The decoded message of an event, set when a MessageDTO codec is in use. */
+	private MessageDTO message;
+
+	/** The span of the consumed event, set when the event bus traces its events itself. */
+	private transient Span span;
+
 	
 	/**
 	 * Gets the body .
@@ -44,5 +51,41 @@ public class EventDTO implements Serializable {
 		this.body = body;
 	}
 
+	/**
+	 * Gets the decoded message.
+	 *
+	 * @return the message, null when the event carries only the json body
+	 */
+	public MessageDTO getMessage() {
+		return this.message;
+	}
+
+	/**
+	 * Sets the decoded message.
+	 *
+	 * @param message the decoded MessageDTO
+	 */
+	public void setMessage(MessageDTO message) {
+		this.message = message;
+	}
+
+	/**
+	 * Gets the span of the consumed event.
+	 *
+	 * @return the span, null when the event bus does not trace its events itself
+	 */
+	public Span getSpan() {
+		return this.span;
+	}
+
+	/**
+	 * Sets the span of the consumed event.
+	 *
+	 * @param span the span the messages sent for the event are traced with
+	 */
+	public void setSpan(Span span) {
+		this.span = span;
+	}
+
 	
 }
@@ -0,0 +1,235 @@
+package io.mosip.registration.processor.core.abstractverticle;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import brave.Span;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.exception.MessageExpiredException;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
+import io.mosip.registration.processor.core.tracing.ContextualData;
+import io.mosip.registration.processor.core.tracing.MDCHelper;
+import io.mosip.registration.processor.core.tracing.TracingConstant;
+import io.mosip.registration.processor.core.workflow.CamelRouteTable;
+import io.mosip.registration.processor.core.workflow.PauseRuleEngine;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Hands the messages of a stage over to the next stage when both run in the
+ * same stage group, instead of sending them through the camel bridge.
+ *
+ * A message is handed over when the camel route of the address it is sent to
+ * leads to an event bus address consumed by a stage of the group, and no pause
+ * rule of the camel bridge matches it. It is queued for the next stage in a
+ * bounded queue, and processed by as many workers as the worker pool of the
+ * stage. A message that can not be handed over, or finds the queue full, is
+ * sent on the event bus as before. The routes and the pause rules are the
+ * ones of the camel bridge, read when the first stage is registered. A
+ * handed over message keeps the span of the event it was processed for, so
+ * the trace goes on as through the event bus.
+ *
+ * The stage has updated the registration status when it sends its message,
+ * so a message lost with the stage group is sent again by the reprocessor to
+ * the address the stage sent it to.
+ *
+ * @author Vishwanath V
+ */
+public class LocalStageRouter {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(LocalStageRouter.class);
+
+	private static final String EVENT_BUS_SCHEME = "eventbus://";
+
+	@Value("${mosip.regproc.stage-group.local-routing.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.regproc.stage-group.local-routing.queue-size:100}")
+	private int queueSize;
+
+	@Value("${mosip.regproc.camelbridge.pause-settings:#{null}}")
+	private String pauseSettings;
+
+	@Autowired
+	private Environment environment;
+
+	private CamelRouteTable routeTable;
+
+	private PauseRuleEngine pauseRuleEngine;
+
+	private final Map<String, LocalStage> stages = new ConcurrentHashMap<>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Registers a stage, the messages routed to its address are handed over to
+	 * it from then on.
+	 *
+	 * @param fromAddress  the address the stage consumes
+	 * @param vertx        the vertx of the stage
+	 * @param workerCount  the messages processed at a time by the stage
+	 * @param eventHandler the handler processing a message of the stage
+	 */
+	public void register(MessageBusAddress fromAddress, Vertx vertx, int workerCount,
+			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
+		synchronized (this) {
+			if (routeTable == null)
+				loadRoutes();
+		}
+		stages.put(fromAddress.getAddress(),
+				new LocalStage(vertx.getOrCreateContext(), queueSize, Math.max(workerCount, 1), eventHandler));
+		regProcLogger.info("LocalStageRouter::register()::messages routed to {} are handed over in the stage group",
+				fromAddress.getAddress());
+	}
+
+	/**
+	 * Hands a message over to the stage its route leads to.
+	 *
+	 * @param toAddress the address the message is sent to, without the
+	 *                  registration type
+	 * @param message   the message
+	 * @param span      the span of the event the message was processed for, null
+	 *                  when not known
+	 * @return true when the message is queued for the next stage, false when it
+	 *         is to be sent on the event bus
+	 */
+	public boolean handOver(MessageBusAddress toAddress, MessageDTO message, Span span) {
+		if (routeTable == null || pauseRuleEngine == null || stages.isEmpty())
+			return false;
+		String fromAddress = new MessageBusAddress(toAddress, message.getReg_type()).getAddress();
+		Map<String, Object> document = JsonObject.mapFrom(message).getMap();
+		try {
+			if (!pauseRuleEngine.match(EVENT_BUS_SCHEME + fromAddress, () -> document, message.getTags()).isEmpty())
+				return false;
+		} catch (RuntimeException e) {
+			// the camel bridge decides how a failing pause rule is handled
+			return false;
+		}
+		String nextHop = routeTable.getNextHop(fromAddress, document);
+		LocalStage stage = nextHop != null ? stages.get(nextHop) : null;
+		if (stage == null)
+			return false;
+		EventDTO eventDTO = new EventDTO();
+		eventDTO.setMessage(message);
+		eventDTO.setSpan(span);
+		return stage.offer(eventDTO);
+	}
+
+	private void loadRoutes() {
+		CamelRouteTable routes = new CamelRouteTable();
+		try {
+			if (pauseSettings == null)
+				throw new IllegalStateException("mosip.regproc.camelbridge.pause-settings is not set");
+			String zone = environment.getProperty("registration.processor.zone");
+			String routeFileNames = "dmz".equalsIgnoreCase(zone)
+					? environment.getProperty("camel.dmz.active.flows.file.names")
+					: environment.getProperty("camel.secure.active.flows.file.names");
+			String routesBaseUrl = environment.getProperty("camel.routes.url");
+			if (routeFileNames == null || routesBaseUrl == null)
+				throw new IllegalStateException("camel route files are not configured");
+			RestTemplate restTemplate = new RestTemplate();
+			for (String routeFileName : Arrays.asList(routeFileNames.split(","))) {
+				byte[] routesXml = restTemplate.getForObject(routesBaseUrl + routeFileName.trim(), byte[].class);
+				if (routesXml == null)
+					throw new IOException("Response for " + routesBaseUrl + routeFileName + " is null");
+				routes.addRoutes(new ByteArrayInputStream(routesXml));
+			}
+			// read the same way as by the camel bridge
+			String encodedSettings = StringUtils.toEncodedString(
+					pauseSettings.getBytes(Charset.forName("ISO-8859-1")), StandardCharsets.UTF_8);
+			pauseRuleEngine = new PauseRuleEngine(new ObjectMapper().readValue(encodedSettings, Setting[].class));
+			routeTable = routes;
+		} catch (Exception e) {
+			enabled = false;
+			regProcLogger.error("LocalStageRouter::loadRoutes()::messages are sent through the camel bridge {}",
+					ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	private static class LocalStage {
+
+		private final Context context;
+
+		private final BlockingQueue<EventDTO> queue;
+
+		private final int workerCount;
+
+		private final EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler;
+
+		/* Messages being processed, only read and written on the context */
+		private int inProgress;
+
+		private LocalStage(Context context, int queueSize, int workerCount,
+				EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
+			this.context = context;
+			this.queue = new ArrayBlockingQueue<>(queueSize);
+			this.workerCount = workerCount;
+			this.eventHandler = eventHandler;
+		}
+
+		private boolean offer(EventDTO eventDTO) {
+			if (!queue.offer(eventDTO))
+				return false;
+			context.runOnContext(v -> drain());
+			return true;
+		}
+
+		private void drain() {
+			while (inProgress < workerCount) {
+				EventDTO eventDTO = queue.poll();
+				if (eventDTO == null)
+					return;
+				inProgress++;
+				if (eventDTO.getSpan() != null)
+					initializeContextWithTracing(eventDTO);
+				eventHandler.handle(eventDTO, res -> {
+					if (!res.succeeded() && res.cause() instanceof MessageExpiredException)
+						regProcLogger.warn("LocalStageRouter::drain()::event handling failed {}",
+								res.cause().getMessage());
+					else if (!res.succeeded())
+						regProcLogger.error("LocalStageRouter::drain()::event handling failed {}",
+								ExceptionUtils.getStackTrace(res.cause()));
+					context.runOnContext(v -> {
+						inProgress--;
+						drain();
+					});
+				});
+				MDCHelper.clearMDC();
+			}
+		}
+
+		/* As for an event read from the event bus, for the logs of the stage */
+		private void initializeContextWithTracing(EventDTO eventDTO) {
+			Span span = eventDTO.getSpan();
+			ContextualData.put(TracingConstant.TRACER, span);
+			ContextualData.put(TracingConstant.TRACE_ID_KEY, span.context().traceIdString());
+			String rid = eventDTO.getMessage().getRid();
+			ContextualData.put(TracingConstant.RID_KEY, rid != null ? rid : "-");
+			MDCHelper.addHeadersToMDC();
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package io.mosip.registration.processor.core.abstractverticle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Holds the objects that live only while a stage processes one message, like
+ * the packet data already fetched for the message. The scope is bound to the
+ * worker thread running the process method of the stage and is cleared when
+ * the hop completes.
+ *
+ * Outside of an open scope nothing is held, so the callers work as before.
+ *
+ * @author Vishwanath V
+ */
+public final class MessageProcessingScope {
+
+	private static final ThreadLocal<Map<Object, Object>> ATTRIBUTES = new ThreadLocal<>();
+
+	private MessageProcessingScope() {
+	}
+
+	/**
+	 * Opens the scope for the message processed by the current thread
+	 */
+	public static void open() {
+		ATTRIBUTES.set(new HashMap<>());
+	}
+
+	/**
+	 * Closes the scope of the current thread, dropping all its objects
+	 */
+	public static void close() {
+		ATTRIBUTES.remove();
+	}
+
+	public static boolean isOpen() {
+		return ATTRIBUTES.get() != null;
+	}
+
+	/**
+	 * Gives the object held in the scope for the key, creating it on the first
+	 * access
+	 *
+	 * @param key      The key of the object
+	 * @param supplier Creates the object when the scope does not have it yet
+	 * @return the scoped object, null when no scope is open
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(Object key, Supplier<T> supplier) {
+		Map<Object, Object> attributes = ATTRIBUTES.get();
+		if (attributes == null)
+			return null;
+		return (T) attributes.computeIfAbsent(key, k -> supplier.get());
+	}
+
+}
@@ -1,5 +1,6 @@
 package io.mosip.registration.processor.core.abstractverticle;
 
+import brave.Span;
 import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -52,5 +53,17 @@ public interface MosipEventBus {
 	 */
 	public void send(MessageBusAddress toAddress, MessageDTO message);
 
+	/**
+	 * Send the message of a consumed event to an address, traced with the span of
+	 * the event
+	 * 
+	 * @param toAddress - Address from to which message should be sent
+	 * @param message - actual message that needs to be sent
+	 * @param span - span of the consumed event, null when not known
+	 */
+	public default void send(MessageBusAddress toAddress, MessageDTO message, Span span) {
+		send(toAddress, message);
+	}
+
 
 }
@@ -9,6 +9,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
@@ -22,7 +24,9 @@ import io.vertx.micrometer.MicrometerMetricsOptions;
 import io.vertx.micrometer.VertxPrometheusOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.ClassUtils;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.UrlXmlConfig;
@@ -31,6 +35,7 @@ import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.kernel.core.util.JsonUtils;
 import io.mosip.kernel.core.util.exception.JsonProcessingException;
+import io.mosip.registration.processor.core.cache.PacketTagCache;
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.constant.HealthConstant;
 import io.mosip.registration.processor.core.eventbus.MosipEventBusFactory;
@@ -46,13 +51,21 @@ import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.packet.dto.packetmanager.InfoRequestDto;
 import io.mosip.registration.processor.core.packet.dto.packetmanager.InfoResponseDto;
 import io.mosip.registration.processor.core.spi.eventbus.EventBusManager;
+import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorAsyncRestClientService;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.core.util.PropertiesUtil;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.eventbus.EventBusOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.cluster.ClusterManager;
@@ -104,6 +117,34 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 	@Autowired
 	private MosipEventBusFactory mosipEventBusFactory;
 
+	@Autowired(required = false)
+	private PacketTagCache packetTagCache;
+
+	@Autowired(required = false)
+	private RegistrationProcessorAsyncRestClientService asyncRestApi;
+
+	/*
+	 * When enabled the tags are loaded with the non blocking rest client after the
+	 * worker thread is released
+	 */
+	@Value("${mosip.regproc.rest-client.async.enabled:false}")
+	private boolean asyncRestClientEnabled;
+
+	@Autowired(required = false)
+	private SharedClusteredVertx sharedClusteredVertx;
+
+	/*
+	 * The worker pool of the stage when it is deployed on the clustered Vert.x
+	 * shared by its stage group
+	 */
+	private WorkerExecutor workerExecutor;
+
+	@Autowired(required = false)
+	private LocalStageRouter localStageRouter;
+
+	/* The messages processed at a time by the stage */
+	private int workerPoolSize = 1;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -125,8 +166,68 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 	 */
 	@Override
 	public MosipEventBus getEventBus(Object verticleName, String clusterManagerUrl, int instanceNumber) {
+		workerPoolSize = instanceNumber;
+		if (sharedClusteredVertx != null && sharedClusteredVertx.isEnabled())
+			return getSharedEventBus(verticleName, clusterManagerUrl, instanceNumber);
 		CompletableFuture<Vertx> eventBus = new CompletableFuture<>();
 		MosipEventBus mosipEventBus = null;
+		VertxOptions options = createVertxOptions(clusterManagerUrl, instanceNumber, getEventBusPort());
+		Vertx.clusteredVertx(options, result -> {
+			if (result.succeeded()) {
+				result.result().deployVerticle((Verticle) verticleName,
+						new DeploymentOptions().setHa(false).setWorker(true).setWorkerPoolSize(instanceNumber));
+				eventBus.complete(result.result());
+				logger.debug(verticleName + " deployed successfully");
+			} else {
+				throw new DeploymentFailureException(PlatformErrorMessages.RPR_CMB_DEPLOYMENT_FAILURE.getMessage());
+			}
+		});
+
+		try {
+			Vertx vert = eventBus.get();
+			if (packetTagCache != null)
+				packetTagCache.bindMetrics(null);
+			mosipEventBus = mosipEventBusFactory.getEventBus(vert, getEventBusType(), getPropertyPrefix());
+		} catch (InterruptedException | ExecutionException | UnsupportedEventBusTypeException e) {
+			Thread.currentThread().interrupt();
+			throw new DeploymentFailureException(PlatformErrorMessages.RPR_CMB_DEPLOYMENT_FAILURE.getMessage(), e);
+		}
+		return mosipEventBus;
+	}
+
+	/**
+	 * Deploys the verticle on the clustered Vert.x shared by the stages of the
+	 * stage group, with a worker pool of the stage, and gets its event bus.
+	 *
+	 * @param verticleName      the verticle
+	 * @param clusterManagerUrl the cluster manager url, used by the first stage
+	 *                          deployed
+	 * @param instanceNumber    the worker pool size of the stage
+	 * @return the event bus of the stage
+	 */
+	private MosipEventBus getSharedEventBus(Object verticleName, String clusterManagerUrl, int instanceNumber) {
+		Integer eventBusPort = sharedClusteredVertx.getEventBusPort() != null ? sharedClusteredVertx.getEventBusPort()
+				: getEventBusPort();
+		String workerPoolName = ClassUtils.getUserClass(verticleName).getSimpleName() + "-worker";
+		try {
+			Vertx vert = sharedClusteredVertx.getVertx(() -> createVertxOptions(clusterManagerUrl,
+					VertxOptions.DEFAULT_WORKER_POOL_SIZE, eventBusPort)).get();
+			workerExecutor = vert.createSharedWorkerExecutor(workerPoolName, instanceNumber);
+			vert.deployVerticle((Verticle) verticleName, new DeploymentOptions().setHa(false).setWorker(true)
+					.setWorkerPoolName(workerPoolName).setWorkerPoolSize(instanceNumber));
+			logger.debug(verticleName + " deployed successfully on the shared clustered vertx");
+			if (packetTagCache != null)
+				packetTagCache.bindMetrics(null);
+			return mosipEventBusFactory.getEventBus(vert, getEventBusType(), getPropertyPrefix());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DeploymentFailureException(PlatformErrorMessages.RPR_CMB_DEPLOYMENT_FAILURE.getMessage(), e);
+		} catch (ExecutionException | UnsupportedEventBusTypeException e) {
+			throw new DeploymentFailureException(PlatformErrorMessages.RPR_CMB_DEPLOYMENT_FAILURE.getMessage(), e);
+		}
+	}
+
+	private VertxOptions createVertxOptions(String clusterManagerUrl, int workerPoolSize, Integer eventBusPort) {
 		Config config;
 		try {
 			config = new UrlXmlConfig(clusterManagerUrl);
@@ -146,29 +247,21 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 						.setEnabled(true))
 				.setEnabled(true);
 
-		VertxOptions options = new VertxOptions().setClustered(true).setClusterManager(clusterManager)
-				.setHAEnabled(false).setWorkerPoolSize(instanceNumber)
-				.setEventBusOptions(new EventBusOptions().setPort(getEventBusPort()).setHost(address))
+		return new VertxOptions().setClustered(true).setClusterManager(clusterManager)
+				.setHAEnabled(false).setWorkerPoolSize(workerPoolSize)
+				.setEventBusOptions(new EventBusOptions().setPort(eventBusPort).setHost(address))
 				.setMetricsOptions(micrometerMetricsOptions);
-		Vertx.clusteredVertx(options, result -> {
-			if (result.succeeded()) {
-				result.result().deployVerticle((Verticle) verticleName,
-						new DeploymentOptions().setHa(false).setWorker(true).setWorkerPoolSize(instanceNumber));
-				eventBus.complete(result.result());
-				logger.debug(verticleName + " deployed successfully");
-			} else {
-				throw new DeploymentFailureException(PlatformErrorMessages.RPR_CMB_DEPLOYMENT_FAILURE.getMessage());
-			}
-		});
+	}
 
-		try {
-			Vertx vert = eventBus.get();
-			mosipEventBus = mosipEventBusFactory.getEventBus(vert, getEventBusType(), getPropertyPrefix());
-		} catch (InterruptedException | ExecutionException | UnsupportedEventBusTypeException e) {
-			Thread.currentThread().interrupt();
-			throw new DeploymentFailureException(PlatformErrorMessages.RPR_CMB_DEPLOYMENT_FAILURE.getMessage(), e);
-		}
-		return mosipEventBus;
+	/*
+	 * Runs the processing of a message on the worker pool of the stage
+	 */
+	private <T> void executeBlocking(Handler<Promise<T>> blockingCodeHandler, boolean ordered,
+			Handler<AsyncResult<T>> resultHandler) {
+		if (workerExecutor != null)
+			workerExecutor.executeBlocking(blockingCodeHandler, ordered, resultHandler);
+		else
+			vertx.executeBlocking(blockingCodeHandler, ordered, resultHandler);
 	}
 
 	/*
@@ -184,23 +277,29 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 			consume(mosipEventBus, fromAddress, messageExpiryTimeLimit);
 			return;
 		}
-		mosipEventBus.consumeAndSend(fromAddress, toAddress, (msg, handler) -> {
+		boolean asyncTagLoading = isAsyncTagLoading();
+		EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler = (msg, handler) -> {
 			logger.debug("consumeAndSend received from {} {}",fromAddress.toString(), msg.getBody());
 			Map<String, String> mdc = MDC.getCopyOfContextMap();
-			vertx.executeBlocking(future -> {
+			Context context = vertx.getOrCreateContext();
+			Handler<AsyncResult<MessageDTO>> resultHandler = asyncTagLoading
+					? res -> addTagsToMessageDTOAsync(res, context, handler) : handler;
+			executeBlocking(future -> {
 				MessageDTO messageDTO =new MessageDTO();
 				try {
 				MDC.setContextMap(mdc);
-				JsonObject jsonObject = (JsonObject) msg.getBody();
-				messageDTO = objectMapper.readValue(objectMapper.writeValueAsString(jsonObject.getMap()), MessageDTO.class);
+				messageDTO = toMessageDTO(msg);
+				if (packetTagCache != null)
+					packetTagCache.put(messageDTO);
 				if(isMessageExpired(messageDTO, messageExpiryTimeLimit)) {
 					future.fail(new MessageExpiredException("rid: " + messageDTO.getRid() +
 						" lastHopTimestamp " + messageDTO.getLastHopTimestamp()));
 					return;
 				}
 				
-					MessageDTO result = process(messageDTO);
-					addTagsToMessageDTO(result);
+					MessageDTO result = processInScope(messageDTO);
+					if (!asyncTagLoading)
+						addTagsToMessageDTO(result);
 					result.setLastHopTimestamp(DateUtils.formatToISOString(DateUtils.getUTCCurrentDateTime()));
 					future.complete(result);
 				} catch (Exception e) {
@@ -210,14 +309,27 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 						e.getMessage(), ExceptionUtils.getStackTrace(e));
 					messageDTO.setIsValid(false);
 					messageDTO.setInternalError(true);
-					addTagsToMessageDTO(messageDTO);
+					if (!asyncTagLoading)
+						addTagsToMessageDTO(messageDTO);
 					messageDTO.setLastHopTimestamp(DateUtils.formatToISOString(DateUtils.getUTCCurrentDateTime()));
 					future.complete(messageDTO);
 				}
 
-			}, false, handler);
+			}, false, resultHandler);
 			MDC.clear();
-		});
+		};
+		if (localStageRouter != null && localStageRouter.isEnabled()) {
+			// the messages are sent here unless handed over to the next stage of the stage group
+			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> handOverHandler = (msg,
+					handler) -> eventHandler.handle(msg, res -> {
+						if (res.succeeded() && !localStageRouter.handOver(toAddress, res.result(), msg.getSpan()))
+							mosipEventBus.send(toAddress, res.result(), msg.getSpan());
+						handler.handle(res);
+					});
+			localStageRouter.register(fromAddress, mosipEventBus.getEventbus(), workerPoolSize, handOverHandler);
+			mosipEventBus.consume(fromAddress, handOverHandler);
+		} else
+			mosipEventBus.consumeAndSend(fromAddress, toAddress, eventHandler);
 	}
 
 	/**
@@ -253,19 +365,20 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 		mosipEventBus.consume(fromAddress, (msg, handler) -> {
 			logger.debug("Received from {} {}",fromAddress.toString(), msg.getBody());
 			Map<String, String> mdc = MDC.getCopyOfContextMap();
-			vertx.executeBlocking(future -> {
+			executeBlocking(future -> {
 				MessageDTO messageDTO=new MessageDTO();
 				try {
 				MDC.setContextMap(mdc);
-				JsonObject jsonObject = (JsonObject) msg.getBody();
-				messageDTO = objectMapper.readValue(objectMapper.writeValueAsString(jsonObject.getMap()), MessageDTO.class);
+				messageDTO = toMessageDTO(msg);
+				if (packetTagCache != null)
+					packetTagCache.put(messageDTO);
 				if(isMessageExpired(messageDTO, messageExpiryTimeLimit)) {
 					future.fail(new MessageExpiredException("rid: " + messageDTO.getRid() +
 						" lastHopTimestamp " + messageDTO.getLastHopTimestamp()));
 					return;
 				}
 				
-					MessageDTO result = process(messageDTO);
+					MessageDTO result = processInScope(messageDTO);
 					future.complete(result);
 				} catch (Exception e) {
 					logger.error("{} -- {} {} {}",
@@ -323,8 +436,16 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 			messageDTO.setTags(new HashMap<>());
 			return;
 		}
+		Map<String, String> cachedTags = packetTagCache != null ? packetTagCache.get(messageDTO) : null;
+		if (cachedTags != null) {
+			messageDTO.setTags(cachedTags);
+			return;
+		}
 		try {
-			messageDTO.setTags(getTagsFromPacket(messageDTO.getRid()));
+			Map<String, String> tags = getTagsFromPacket(messageDTO.getRid());
+			if (packetTagCache != null)
+				packetTagCache.put(messageDTO, tags);
+			messageDTO.setTags(tags);
 		} catch (ApisResourceAccessException | PacketManagerException |
 				JsonProcessingException | IOException e) {
 			logger.error(PlatformErrorMessages.RPR_SYS_PACKET_TAGS_COPYING_FAILED.getCode() +
@@ -335,6 +456,69 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 		}
 	}
 
+	private boolean isAsyncTagLoading() {
+		return asyncRestClientEnabled && asyncRestApi != null;
+	}
+
+	/**
+	 * Adds the tags to the processed message without holding a worker thread
+	 * while packet manager responds, the handler is called back on the context
+	 * of the verticle once the tags are added
+	 */
+	private void addTagsToMessageDTOAsync(AsyncResult<MessageDTO> result, Context context,
+			Handler<AsyncResult<MessageDTO>> handler) {
+		if (result.failed()) {
+			handler.handle(result);
+			return;
+		}
+		MessageDTO messageDTO = result.result();
+		if (isTagLoadingDisabled()) {
+			messageDTO.setTags(new HashMap<>());
+			handler.handle(result);
+			return;
+		}
+		Map<String, String> cachedTags = packetTagCache != null ? packetTagCache.get(messageDTO) : null;
+		if (cachedTags != null) {
+			messageDTO.setTags(cachedTags);
+			handler.handle(result);
+			return;
+		}
+		getTagsFromPacketAsync(messageDTO.getRid()).whenComplete((tags, e) -> context.runOnContext(v -> {
+			if (e != null) {
+				Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+				logger.error(PlatformErrorMessages.RPR_SYS_PACKET_TAGS_COPYING_FAILED.getCode() +
+					" -- " + PlatformErrorMessages.RPR_SYS_PACKET_TAGS_COPYING_FAILED.getMessage() +
+					cause.getMessage() + ExceptionUtils.getStackTrace(cause));
+				messageDTO.setInternalError(true);
+				messageDTO.setTags(new HashMap<>());
+			} else {
+				if (packetTagCache != null)
+					packetTagCache.put(messageDTO, tags);
+				messageDTO.setTags(tags);
+			}
+			handler.handle(Future.succeededFuture(messageDTO));
+		}));
+	}
+
+	private CompletionStage<Map<String, String>> getTagsFromPacketAsync(String id) {
+		RequestWrapper<TagRequestDto> request = new RequestWrapper<>();
+		request.setId(ID);
+		request.setVersion(VERSION);
+		request.setRequesttime(DateUtils.getUTCCurrentDateTime());
+		request.setRequest(new TagRequestDto(id, null));
+		JavaType responseType = objectMapper.getTypeFactory().constructParametricType(ResponseWrapper.class,
+				TagResponseDto.class);
+		return asyncRestApi.<ResponseWrapper<TagResponseDto>>postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "",
+				request, responseType).thenApply(response -> {
+					if (response.getErrors() != null && response.getErrors().size() > 0) {
+						logger.error("Registration Id : {} errors: {}", id, response.getErrors());
+						throw new CompletionException(new PacketManagerException(
+								response.getErrors().get(0).getErrorCode(), response.getErrors().get(0).getMessage()));
+					}
+					return response.getResponse() != null ? response.getResponse().getTags() : null;
+				});
+	}
+
 	private Map<String, String> getTagsFromPacket(String id) throws ApisResourceAccessException,
 			PacketManagerException, JsonProcessingException, IOException {
 		TagRequestDto tagRequestDto = new TagRequestDto(id, null);
@@ -355,11 +539,27 @@ public abstract class MosipVerticleManager extends AbstractVerticle
 
 		TagResponseDto tagResponseDto = null;
 		if (response.getResponse() != null)
-			tagResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), TagResponseDto.class);
+			tagResponseDto = objectMapper.convertValue(response.getResponse(), TagResponseDto.class);
 
 		return tagResponseDto != null ? tagResponseDto.getTags() : null;
 	}
 
+	private MessageDTO processInScope(MessageDTO messageDTO) {
+		MessageProcessingScope.open();
+		try {
+			return process(messageDTO);
+		} finally {
+			MessageProcessingScope.close();
+		}
+	}
+
+	private MessageDTO toMessageDTO(EventDTO eventDTO) throws IOException {
+		if (eventDTO.getMessage() != null)
+			return eventDTO.getMessage();
+		JsonObject jsonObject = eventDTO.getBody();
+		return objectMapper.readValue(objectMapper.writeValueAsString(jsonObject.getMap()), MessageDTO.class);
+	}
+
 	private boolean isMessageExpired(MessageDTO messageDTO, long messageExpiryTimeLimit) {
 		if(messageExpiryTimeLimit <= 0)
 			return false;
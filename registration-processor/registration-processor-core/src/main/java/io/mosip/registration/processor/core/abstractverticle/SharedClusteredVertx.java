@@ -0,0 +1,68 @@
+package io.mosip.registration.processor.core.abstractverticle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+
+/**
+ * The clustered Vert.x shared by the stages of a stage group.
+ *
+ * When enabled, the first stage deployed in the JVM creates the clustered
+ * Vert.x and every stage of the group, the first one included, is deployed on
+ * it as a verticle with a worker pool of its own. The group then is one
+ * Hazelcast member with one event bus port and one event loop pool, instead of
+ * one of each per stage. The event bus port is the one of the stage group
+ * property, or the one of the first stage deployed when it is not set.
+ *
+ * @author Vishwanath V
+ */
+public class SharedClusteredVertx {
+
+	@Value("${mosip.regproc.stage-group.shared-vertx.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.regproc.stage-group.eventbus.port:#{null}}")
+	private Integer eventBusPort;
+
+	private CompletableFuture<Vertx> vertx;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Gets the event bus port of the stage group.
+	 *
+	 * @return the port, null when the port of the first stage is used
+	 */
+	public Integer getEventBusPort() {
+		return eventBusPort;
+	}
+
+	/**
+	 * Gets the shared clustered Vert.x, creating it on the first call.
+	 *
+	 * @param optionsSupplier the options of the clustered Vert.x, only called
+	 *                        when it is created
+	 * @return the clustered Vert.x, completed exceptionally when it could not
+	 *         join the cluster
+	 */
+	public synchronized CompletableFuture<Vertx> getVertx(Supplier<VertxOptions> optionsSupplier) {
+		if (vertx == null) {
+			CompletableFuture<Vertx> clusteredVertx = new CompletableFuture<>();
+			Vertx.clusteredVertx(optionsSupplier.get(), result -> {
+				if (result.succeeded())
+					clusteredVertx.complete(result.result());
+				else
+					clusteredVertx.completeExceptionally(result.cause());
+			});
+			vertx = clusteredVertx;
+		}
+		return vertx;
+	}
+
+}
@@ -0,0 +1,246 @@
+package io.mosip.registration.processor.core.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.util.MeterBinding;
+
+/**
+ * In memory cache of the packet tags keyed by RID, so that the tags added to
+ * the outgoing message at the end of every hop are not fetched from packet
+ * manager again when they are already known to the stage.
+ *
+ * Entries are populated from the tags of the incoming message and are kept up
+ * to date by the tag updates done through packet manager service in the same
+ * JVM. An entry is served only for the same iteration and workflow instance id
+ * of the message, and is dropped after the configured time to live, so that the
+ * tags modified out of band are picked up from packet manager again.
+ *
+ * @author Vishwanath V
+ */
+public class PacketTagCache implements MeterBinder {
+
+	private static final String METRIC_PREFIX = "mosip.regproc.packet.tag.cache";
+
+	/*
+	 * Disabled by default, the tags updated out of band are served stale until
+	 * the entry expires
+	 */
+	@Value("${mosip.regproc.packet.tag.cache.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.regproc.packet.tag.cache.max-size:10000}")
+	private int maxSize;
+
+	@Value("${mosip.regproc.packet.tag.cache.ttl-seconds:600}")
+	private long ttlSeconds;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	private final MeterBinding metrics = new MeterBinding(this);
+
+	/** Entries in least recently accessed order, guarded by the instance lock */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() <= maxSize)
+				return false;
+			evictions.incrementAndGet();
+			return true;
+		}
+	};
+
+	public PacketTagCache() {
+	}
+
+	public PacketTagCache(boolean enabled, int maxSize, long ttlSeconds) {
+		this.enabled = enabled;
+		this.maxSize = maxSize;
+		this.ttlSeconds = ttlSeconds;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Caches the tags carried by the incoming message. When the message has no
+	 * tags the cached entry of the RID is dropped, as the tags are not known
+	 *
+	 * @param messageDTO The message received by the stage
+	 */
+	public void put(MessageDTO messageDTO) {
+		if (messageDTO.getTags() == null || messageDTO.getTags().isEmpty())
+			invalidate(messageDTO.getRid());
+		else
+			put(messageDTO, messageDTO.getTags());
+	}
+
+	/**
+	 * Caches the complete set of tags of the packet for the message
+	 *
+	 * @param messageDTO The message for which the tags are cached
+	 * @param tags       All the tags of the packet
+	 */
+	public void put(MessageDTO messageDTO, Map<String, String> tags) {
+		if (!enabled || messageDTO.getRid() == null || tags == null)
+			return;
+		synchronized (this) {
+			entries.put(messageDTO.getRid(), new Entry(messageDTO.getIteration(),
+					messageDTO.getWorkflowInstanceId(), new HashMap<>(tags), System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * Gives the cached tags of the message
+	 *
+	 * @param messageDTO The message for which the tags are needed
+	 * @return copy of the cached tags, null when the tags are not cached
+	 */
+	public Map<String, String> get(MessageDTO messageDTO) {
+		if (!enabled || messageDTO.getRid() == null)
+			return null;
+		synchronized (this) {
+			Entry entry = entries.get(messageDTO.getRid());
+			if (entry != null && isExpired(entry)) {
+				entries.remove(messageDTO.getRid());
+				evictions.incrementAndGet();
+				entry = null;
+			}
+			if (entry == null || entry.iteration != messageDTO.getIteration()
+					|| !Objects.equals(entry.workflowInstanceId, messageDTO.getWorkflowInstanceId())) {
+				misses.incrementAndGet();
+				return null;
+			}
+			hits.incrementAndGet();
+			return new HashMap<>(entry.tags);
+		}
+	}
+
+	/**
+	 * Applies the tags added or updated in packet manager to the cached entry
+	 *
+	 * @param rid  The registration id
+	 * @param tags The tags that are added or updated
+	 */
+	public void addOrUpdate(String rid, Map<String, String> tags) {
+		if (!enabled || rid == null || tags == null)
+			return;
+		synchronized (this) {
+			Entry entry = entries.get(rid);
+			if (entry != null)
+				entry.tags.putAll(tags);
+		}
+	}
+
+	/**
+	 * Applies the tags deleted in packet manager to the cached entry
+	 *
+	 * @param rid      The registration id
+	 * @param tagNames The names of the tags that are deleted
+	 */
+	public void delete(String rid, List<String> tagNames) {
+		if (!enabled || rid == null || tagNames == null)
+			return;
+		synchronized (this) {
+			Entry entry = entries.get(rid);
+			if (entry != null)
+				tagNames.forEach(entry.tags::remove);
+		}
+	}
+
+	/**
+	 * Drops the cached entry of the RID
+	 *
+	 * @param rid The registration id
+	 */
+	public void invalidate(String rid) {
+		if (!enabled || rid == null)
+			return;
+		synchronized (this) {
+			entries.remove(rid);
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Binds the meters of the cache unless they are already bound by another
+	 * stage sharing the cache.
+	 *
+	 * @param fallbackRegistry the registry used when the vertx metrics are not set
+	 *                         up, can be null
+	 */
+	public void bindMetrics(MeterRegistry fallbackRegistry) {
+		metrics.bind(fallbackRegistry);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", hits, AtomicLong::get)
+				.tag("result", "hit").description("Packet tag lookups served from the cache")
+				.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", misses, AtomicLong::get)
+				.tag("result", "miss").description("Packet tag lookups fetched from packet manager")
+				.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, AtomicLong::get)
+				.description("Packet tag cache entries evicted for size or expiry").register(registry);
+		Gauge.builder(METRIC_PREFIX + ".size", this, PacketTagCache::size)
+				.description("Packet tag cache entries").register(registry);
+	}
+
+	private boolean isExpired(Entry entry) {
+		return System.currentTimeMillis() - entry.cachedTime > ttlSeconds * 1000;
+	}
+
+	private static class Entry {
+
+		private final int iteration;
+
+		private final String workflowInstanceId;
+
+		private final Map<String, String> tags;
+
+		private final long cachedTime;
+
+		Entry(int iteration, String workflowInstanceId, Map<String, String> tags, long cachedTime) {
+			this.iteration = iteration;
+			this.workflowInstanceId = workflowInstanceId;
+			this.tags = tags;
+			this.cachedTime = cachedTime;
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import brave.Tracing;
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.abstractverticle.MosipRouter;
+import io.mosip.registration.processor.core.cache.PacketTagCache;
 import io.mosip.registration.processor.core.eventbus.MosipEventBusFactory;
 import io.mosip.registration.processor.core.logger.LogDescription;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
@@ -188,6 +189,11 @@ public class CoreConfigBean {
 		return new MosipEventBusFactory();
 	}
 
+	@Bean
+	public PacketTagCache getPacketTagCache() {
+		return new PacketTagCache();
+	}
+
 	@Bean
 	public Tracing tracing() {
 		return Tracing.newBuilder().build();
@@ -1,7 +1,9 @@
 package io.mosip.registration.processor.core.eventbus;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +25,7 @@ import io.mosip.registration.processor.core.exception.MessageExpiredException;
 import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
@@ -53,9 +56,9 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	/** The vertx instance that will be used by this event bus */
 	private Vertx vertx = null;
 
-	private KafkaProducer<String, String> kafkaProducer;
+	private KafkaProducer<String, Object> kafkaProducer;
 
-	private KafkaConsumer<String, String> kafkaConsumer;
+	private KafkaConsumer<String, Object> kafkaConsumer;
 
 	private String commitType;
 
@@ -63,6 +66,27 @@ public class KafkaMosipEventBus implements MosipEventBus {
 
 	private EventTracingHandler eventTracingHandler;
 
+	/** Flag to read and write record values as MessageDTO instead of json strings */
+	private boolean messageCodecEnabled;
+
+	/** Maximum records of a partition processed concurrently in ordered-window commit type */
+	private int orderedWindowSize = 10;
+
+	/** Number of completed records after which offset is committed in ordered-window commit type */
+	private int orderedWindowCommitRecords = 10;
+
+	/** Interval in milli sec after which offset is committed in ordered-window commit type */
+	private long orderedWindowCommitInterval = 1000;
+
+	/** Retries of a failed record before it is skipped in ordered-window commit type */
+	private int orderedWindowMaxRetries = 3;
+
+	/** Delay in milli sec before the first retry of a failed record, doubled on each retry */
+	private long orderedWindowRetryBackoff = 1000;
+
+	/** Windows of the partitions being processed in ordered-window commit type */
+	private Map<TopicPartition, OrderedWindow> orderedWindows = new HashMap<>();
+
 	/**
 	 * Instantiates a new kafka mosip event bus.
 	 *
@@ -72,25 +96,54 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	 * @param groupId          The group id that consumer should use to associate to
 	 *                         a consumer group
 	 * @param commitType       The commit type that should be used by kafka
-	 *                         consumer, supported types: auto, batch and single
+	 *                         consumer, supported types: auto, batch, single and
+	 *                         ordered-window
 	 * @param maxPollRecords   Maximum records that can be received in one poll to kafka
 	 * @param pollFrequency    Interval between each poll calls to kafka in milli sec
 	 * @param eventTracingHandler
 	 */
 	public KafkaMosipEventBus(Vertx vertx, String bootstrapServers, String groupId,
 			String commitType, String maxPollRecords, int pollFrequency, EventTracingHandler eventTracingHandler) {
+		this(vertx, bootstrapServers, groupId, commitType, maxPollRecords, pollFrequency,
+				eventTracingHandler, false);
+	}
+
+	/**
+	 * Instantiates a new kafka mosip event bus.
+	 *
+	 * @param vertx               The vertx instance
+	 * @param bootstrapServers    Kafka cluster server, that producer and consumer
+	 *                            should connect to
+	 * @param groupId             The group id that consumer should use to
+	 *                            associate to a consumer group
+	 * @param commitType          The commit type that should be used by kafka
+	 *                            consumer, supported types: auto, batch, single
+	 *                            and ordered-window
+	 * @param maxPollRecords      Maximum records that can be received in one poll
+	 *                            to kafka
+	 * @param pollFrequency       Interval between each poll calls to kafka in milli
+	 *                            sec
+	 * @param eventTracingHandler
+	 * @param messageCodecEnabled Record values are read and written with the
+	 *                            MessageDTO serializer and deserializer when true
+	 */
+	public KafkaMosipEventBus(Vertx vertx, String bootstrapServers, String groupId,
+			String commitType, String maxPollRecords, int pollFrequency, EventTracingHandler eventTracingHandler,
+			boolean messageCodecEnabled) {
 
 		validateCommitType(commitType);
 		this.vertx = vertx;
 		this.commitType = commitType;
 		this.pollFrequency = pollFrequency;
 		this.eventTracingHandler = eventTracingHandler;
+		this.messageCodecEnabled = messageCodecEnabled;
 
 		Map<String, String> consumerConfig = new HashMap<>();
 		consumerConfig.put("bootstrap.servers", bootstrapServers);
 		consumerConfig.put("key.deserializer", 
 			"org.apache.kafka.common.serialization.StringDeserializer");
-		consumerConfig.put("value.deserializer", 
+		consumerConfig.put("value.deserializer", messageCodecEnabled ?
+			MessageDTODeserializer.class.getName() :
 			"org.apache.kafka.common.serialization.StringDeserializer");
 		consumerConfig.put("group.id", groupId);
 		consumerConfig.put("auto.offset.reset", "latest");
@@ -105,13 +158,59 @@ public class KafkaMosipEventBus implements MosipEventBus {
 		producerConfig.put("bootstrap.servers", bootstrapServers);
 		producerConfig.put("key.serializer", 
 			"org.apache.kafka.common.serialization.StringSerializer");
-		producerConfig.put("value.serializer", 
+		producerConfig.put("value.serializer", messageCodecEnabled ?
+			MessageDTOSerializer.class.getName() :
 			"org.apache.kafka.common.serialization.StringSerializer");
 		producerConfig.put("acks", "1");
 		this.kafkaProducer = KafkaProducer.create(vertx, producerConfig);
 
-		logger.info("KafkaMosipEventBus loaded with configuration: bootstrapServers: {} groupId: {} commitType: {}",
-				bootstrapServers , groupId , commitType);
+		logger.info("KafkaMosipEventBus loaded with configuration: bootstrapServers: {} groupId: {} commitType: {} messageCodecEnabled: {}",
+				bootstrapServers , groupId , commitType, messageCodecEnabled);
+	}
+
+	/**
+	 * Configures the processing of ordered-window commit type
+	 *
+	 * @param windowSize    Maximum records of a partition that are processed
+	 *                      concurrently
+	 * @param commitRecords Number of completed records after which the offset
+	 *                      is committed
+	 * @param commitInterval Interval in milli sec after which the offset is
+	 *                      committed, if there are completed records
+	 */
+	public void configureOrderedWindow(int windowSize, int commitRecords, long commitInterval) {
+		configureOrderedWindow(windowSize, commitRecords, commitInterval, orderedWindowMaxRetries,
+				orderedWindowRetryBackoff);
+	}
+
+	/**
+	 * Configures the processing of ordered-window commit type
+	 *
+	 * @param windowSize    Maximum records of a partition that are processed
+	 *                      concurrently
+	 * @param commitRecords Number of completed records after which the offset
+	 *                      is committed
+	 * @param commitInterval Interval in milli sec after which the offset is
+	 *                      committed, if there are completed records
+	 * @param maxRetries    Retries of a failed record, after which the record is
+	 *                      skipped and the offset committed past it
+	 * @param retryBackoff  Delay in milli sec before the first retry of a failed
+	 *                      record, doubled on each retry
+	 */
+	public void configureOrderedWindow(int windowSize, int commitRecords, long commitInterval,
+			int maxRetries, long retryBackoff) {
+		if (windowSize <= 0 || commitRecords <= 0 || commitInterval <= 0 || maxRetries < 0 || retryBackoff <= 0)
+			throw new ConfigurationServerFailureException(
+				"Ordered window configuration not supported for size: " + windowSize +
+				" commitRecords: " + commitRecords + " commitInterval: " + commitInterval +
+				" maxRetries: " + maxRetries + " retryBackoff: " + retryBackoff);
+		this.orderedWindowSize = windowSize;
+		this.orderedWindowCommitRecords = commitRecords;
+		this.orderedWindowCommitInterval = commitInterval;
+		this.orderedWindowMaxRetries = maxRetries;
+		this.orderedWindowRetryBackoff = retryBackoff;
+		logger.info("KafkaMosipEventBus ordered window configuration: size: {} commitRecords: {} commitInterval: {} "
+				+ "maxRetries: {} retryBackoff: {}", windowSize, commitRecords, commitInterval, maxRetries, retryBackoff);
 	}
 
 	/*
@@ -161,14 +260,27 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	 */
 	@Override
 	public void send(MessageBusAddress toAddress, MessageDTO message) {
+		send(toAddress, message, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.core.abstractverticle.MosipEventBus#
+	 * send(MessageBusAddress, MessageDTO, Span)
+	 */
+	@Override
+	public void send(MessageBusAddress toAddress, MessageDTO message, Span span) {
 		MessageBusAddress messageBusAddress = 
 			new MessageBusAddress(toAddress, message.getReg_type());
-		JsonObject jsonObject = JsonObject.mapFrom(message);
-		logger.info("send called with toAddress {}, for message {}", toAddress.getAddress(), jsonObject);
-		KafkaProducerRecord<String, String> producerRecord = 
+		logger.info("send called with toAddress {}, for message {}", toAddress.getAddress(), message);
+		KafkaProducerRecord<String, Object> producerRecord = 
 			KafkaProducerRecord.create(messageBusAddress.getAddress(), message.getRid(), 
-				jsonObject.toString());
-		this.eventTracingHandler.writeHeaderOnKafkaProduce(producerRecord);
+				toRecordValue(message));
+		if (span != null)
+			this.eventTracingHandler.writeHeaderOnKafkaProduce(producerRecord, span);
+		else
+			this.eventTracingHandler.writeHeaderOnKafkaProduce(producerRecord);
 		Map<String, String> mdc = MDC.getCopyOfContextMap();
   		kafkaProducer.write(producerRecord, handler -> {
 			MDC.setContextMap(mdc);
@@ -183,13 +295,13 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	private void poll(MessageBusAddress toAddress,
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
 		this.kafkaConsumer.poll(100, pollResult -> {
-			KafkaConsumerRecords<String, String> kafkaConsumerRecords = pollResult.result();
+			KafkaConsumerRecords<String, Object> kafkaConsumerRecords = pollResult.result();
 			logger.debug("Records size is {}", kafkaConsumerRecords.size());
 
 			Set<org.apache.kafka.common.TopicPartition> topicPartitions = 
 				kafkaConsumerRecords.records().partitions();
 			topicPartitions.forEach(topicPartition -> {
-				KafkaConsumerRecords<String, String> consumerRecords = 
+				KafkaConsumerRecords<String, Object> consumerRecords = 
 					getPartitionKafkaConsumerRecords(topicPartition, kafkaConsumerRecords);
 				logger.debug("Partition: {} recordSize: {}", topicPartition.partition(), consumerRecords.size());
 
@@ -203,6 +315,9 @@ public class KafkaMosipEventBus implements MosipEventBus {
 				else if(this.commitType.equals("auto"))
 					processingFuture = setupAutoCommitProcessing(consumerRecords, 
 						toAddress, eventHandler);
+				else if(this.commitType.equals("ordered-window"))
+					processingFuture = setupOrderedWindowCommitProcessing(consumerRecords, 
+						toAddress, eventHandler);
 
 				processingFuture.onSuccess(any -> {
 					logger.debug("{} messages processed for partition: {}", consumerRecords.size(),
@@ -212,6 +327,9 @@ public class KafkaMosipEventBus implements MosipEventBus {
 				});
 			});
 
+			if(this.commitType.equals("ordered-window"))
+				commitOrderedWindowsOnInterval();
+
 			vertx.setTimer(pollFrequency, result -> {
 				poll(toAddress, eventHandler);
 			});
@@ -219,7 +337,7 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	}
 
 	Future<Void> setupSingleCommitProcessing(
-			KafkaConsumerRecords<String, String> consumerRecords,
+			KafkaConsumerRecords<String, Object> consumerRecords,
 			MessageBusAddress toAddress, 
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
 
@@ -244,7 +362,7 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	}
 
 	Future<Void> setupBatchCommitProcessing(
-			KafkaConsumerRecords<String, String> consumerRecords,
+			KafkaConsumerRecords<String, Object> consumerRecords,
 			MessageBusAddress toAddress, 
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
 
@@ -281,7 +399,7 @@ public class KafkaMosipEventBus implements MosipEventBus {
 	}
 
 	Future<Void> setupAutoCommitProcessing(
-			KafkaConsumerRecords<String, String> consumerRecords,
+			KafkaConsumerRecords<String, Object> consumerRecords,
 			MessageBusAddress toAddress, 
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
 		
@@ -302,14 +420,30 @@ public class KafkaMosipEventBus implements MosipEventBus {
 		return promise.future();
 	}
 
+	Future<Void> setupOrderedWindowCommitProcessing(
+			KafkaConsumerRecords<String, Object> consumerRecords,
+			MessageBusAddress toAddress, 
+			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
+
+		TopicPartition vertxTopicPartition = new TopicPartition(
+				consumerRecords.recordAt(0).topic(), consumerRecords.recordAt(0).partition());
+		OrderedWindow window = orderedWindows.computeIfAbsent(vertxTopicPartition,
+			topicPartition -> new OrderedWindow(topicPartition, toAddress, eventHandler));
+		return window.add(consumerRecords);
+	}
+
 	Future<Void> processRecord(MessageBusAddress toAddress,
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler,
-		KafkaConsumerRecord<String, String> record, boolean commitRecord) {
+		KafkaConsumerRecord<String, Object> record, boolean commitRecord) {
 		Span span = this.eventTracingHandler.readHeaderOnKafkaConsume(record);
 		logger.debug("Processing key={},value={},partition={},offset={}",
 				record.key(), record.value(), record.partition(), record.offset());
 		EventDTO eventDTO = new EventDTO();
-		eventDTO.setBody((JsonObject) new JsonObject(record.value()));
+		eventDTO.setSpan(span);
+		if (record.value() instanceof MessageDTO)
+			eventDTO.setMessage((MessageDTO) record.value());
+		else
+			eventDTO.setBody((JsonObject) new JsonObject((String) record.value()));
 		Promise<Void> promise = Promise.promise();
 		Map<String,String> mdc = MDC.getCopyOfContextMap();
 		eventHandler.handle(eventDTO, res -> {
@@ -328,10 +462,9 @@ public class KafkaMosipEventBus implements MosipEventBus {
 					MessageDTO messageDTO = res.result();
 					MessageBusAddress messageBusToAddress = 
 						new MessageBusAddress(toAddress, messageDTO.getReg_type());
-					JsonObject jsonObject = JsonObject.mapFrom(messageDTO);
-					KafkaProducerRecord<String, String> producerRecord = 
+					KafkaProducerRecord<String, Object> producerRecord = 
 						KafkaProducerRecord.create(messageBusToAddress.getAddress(), 
-							messageDTO.getRid(), jsonObject.toString());
+							messageDTO.getRid(), toRecordValue(messageDTO));
 					this.eventTracingHandler.writeHeaderOnKafkaProduce(producerRecord, span);
 					kafkaProducer.write(producerRecord, handler -> {
 						MDC.setContextMap(mdc);
@@ -353,6 +486,45 @@ public class KafkaMosipEventBus implements MosipEventBus {
 		return promise.future();
 	}
 
+	private Future<Void> commitTrackedOffset(TopicPartition topicPartition,
+			PartitionOffsetTracker tracker) {
+		Promise<Void> promise = Promise.promise();
+		if(!tracker.hasUncommittedOffset()) {
+			promise.complete();
+			return promise.future();
+		}
+		long offset = tracker.getCommittableOffset();
+		tracker.commitRequested(offset);
+		//offset is already the next offset to start from, so offset-1 is passed
+		kafkaConsumer.commit(getTopicPartitionOffsetMap(topicPartition, offset - 1), result -> {
+			logger.debug("Commit status for partition: {} offset: {} status: {}",
+				topicPartition.getPartition(), offset, result.succeeded());
+			if(result.succeeded()) {
+				tracker.committed(offset);
+				promise.complete();
+			} else {
+				tracker.commitFailed(offset);
+				promise.fail("Commit failed for partition: " + topicPartition.getPartition() + 
+					" offset: " + offset);
+			}
+		});
+		return promise.future();
+	}
+
+	private void commitOrderedWindowsOnInterval() {
+		long now = System.currentTimeMillis();
+		orderedWindows.forEach((topicPartition, window) -> {
+			if(now - window.tracker.getLastCommitTime() >= orderedWindowCommitInterval)
+				window.commit();
+		});
+	}
+
+	private Object toRecordValue(MessageDTO messageDTO) {
+		if (messageCodecEnabled)
+			return messageDTO;
+		return JsonObject.mapFrom(messageDTO).toString();
+	}
+
 	private void commitOffset(String topic, int partition, long offset, 
 			Promise<Void> promise) {
 		
@@ -379,32 +551,32 @@ public class KafkaMosipEventBus implements MosipEventBus {
 		return topicPartitionOffsetMap;
 	}
 
-	private KafkaConsumerRecords<String, String> getPartitionKafkaConsumerRecords(
+	private KafkaConsumerRecords<String, Object> getPartitionKafkaConsumerRecords(
 			org.apache.kafka.common.TopicPartition topicPartition, 
-			KafkaConsumerRecords<String, String> kafkaConsumerRecords) {
-		List<ConsumerRecord<String,String>> partitionRecordList = 
+			KafkaConsumerRecords<String, Object> kafkaConsumerRecords) {
+		List<ConsumerRecord<String,Object>> partitionRecordList = 
 			new ArrayList<>(kafkaConsumerRecords.records().records(topicPartition));
 		partitionRecordList.sort((r1, r2) -> Long.compare(r1.offset(),r2.offset()));
 
-		for(ConsumerRecord<String,String> consumerRecord : partitionRecordList) {
+		for(ConsumerRecord<String,Object> consumerRecord : partitionRecordList) {
 			logger.info("Message picked from kafka. Message key: {} Partition: {} Offset: {}",
 				consumerRecord.key(), consumerRecord.partition(), consumerRecord.offset());
 		}
 
 		Map<org.apache.kafka.common.TopicPartition, 
-		List<ConsumerRecord<String, String>>> topicPartitionConsumerRecordsMap = 
+		List<ConsumerRecord<String, Object>>> topicPartitionConsumerRecordsMap = 
 			new HashMap<org.apache.kafka.common.TopicPartition, 
-			List<ConsumerRecord<String, String>>>();
+			List<ConsumerRecord<String, Object>>>();
 		topicPartitionConsumerRecordsMap.put(topicPartition, partitionRecordList);
 
-		KafkaConsumerRecords<String, String> partitionConsumerRecords = 
-			new KafkaConsumerRecordsImpl<String, String>(
-				new ConsumerRecords<String, String>(topicPartitionConsumerRecordsMap));
+		KafkaConsumerRecords<String, Object> partitionConsumerRecords = 
+			new KafkaConsumerRecordsImpl<String, Object>(
+				new ConsumerRecords<String, Object>(topicPartitionConsumerRecordsMap));
 		return partitionConsumerRecords;
 	}
 
 	private void validateCommitType(String commitType) {
-		String[] supportedCommitTyes = {"auto", "batch", "single"};
+		String[] supportedCommitTyes = {"auto", "batch", "single", "ordered-window"};
 		if(!Arrays.asList(supportedCommitTyes).contains(commitType))
 			throw new ConfigurationServerFailureException(
 				"Commit type configuration not supported for "+ commitType);
@@ -429,4 +601,112 @@ public class KafkaMosipEventBus implements MosipEventBus {
 				promise.fail("Partition resuming failed for " + topicPartition.getPartition());
 		});
 	}
+
+	/**
+	 * Processes the records of one partition across the polls, keeping up to
+	 * orderedWindowSize records in flight. The records of a poll that do not fit
+	 * in the window wait for a free slot and the partition is paused until all of
+	 * them are dispatched, so that the next poll brings new records while the
+	 * window is still busy. Offsets are committed up to the highest contiguous
+	 * completed record every orderedWindowCommitRecords completions, on the poll
+	 * interval and whenever the window is idle. A failed record keeps its slot
+	 * and is retried alone after orderedWindowRetryBackoff, doubled on each retry,
+	 * while the records after it go on. Once orderedWindowMaxRetries retries
+	 * failed, the record is logged and skipped so that the offset is committed
+	 * past it.
+	 *
+	 * All the callbacks run on the kafka consumer context.
+	 */
+	private class OrderedWindow {
+
+		private final TopicPartition topicPartition;
+
+		private final MessageBusAddress toAddress;
+
+		private final EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler;
+
+		private final PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+
+		private final Deque<KafkaConsumerRecord<String, Object>> waitingRecords = new ArrayDeque<>();
+
+		private final Context context = vertx.getOrCreateContext();
+
+		/** Offset after the last record taken, the records before it are not taken again */
+		private long nextOffset = -1;
+
+		private int inFlight;
+
+		private boolean paused;
+
+		OrderedWindow(TopicPartition topicPartition, MessageBusAddress toAddress,
+				EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
+			this.topicPartition = topicPartition;
+			this.toAddress = toAddress;
+			this.eventHandler = eventHandler;
+		}
+
+		Future<Void> add(KafkaConsumerRecords<String, Object> consumerRecords) {
+			for(int i = 0; i < consumerRecords.size(); i++) {
+				KafkaConsumerRecord<String, Object> record = consumerRecords.recordAt(i);
+				if(record.offset() >= nextOffset) {
+					waitingRecords.add(record);
+					nextOffset = record.offset() + 1;
+				}
+			}
+			Promise<Void> pausePromise = Promise.promise();
+			if(!paused && waitingRecords.size() > orderedWindowSize - inFlight) {
+				paused = true;
+				pausePartition(topicPartition, pausePromise);
+			} else
+				pausePromise.complete();
+			fillWindow();
+			return pausePromise.future();
+		}
+
+		private void fillWindow() {
+			while(inFlight < orderedWindowSize && !waitingRecords.isEmpty()) {
+				KafkaConsumerRecord<String, Object> record = waitingRecords.poll();
+				tracker.dispatched(record.offset());
+				inFlight++;
+				dispatch(record, 0);
+			}
+			if(paused && waitingRecords.isEmpty()) {
+				paused = false;
+				Promise<Void> resumePromise = Promise.promise();
+				resumePartition(topicPartition, resumePromise);
+				resumePromise.future().onFailure(cause -> logger.error("Error resuming partition: ", cause));
+			}
+		}
+
+		private void dispatch(KafkaConsumerRecord<String, Object> record, int retries) {
+			processRecord(toAddress, eventHandler, record, false)
+				.onComplete(result -> onProcessed(record, retries, result));
+		}
+
+		private void onProcessed(KafkaConsumerRecord<String, Object> record, int retries,
+				AsyncResult<Void> result) {
+			if(result.failed() && retries < orderedWindowMaxRetries) {
+				long backoff = orderedWindowRetryBackoff << Math.min(retries, 16);
+				logger.warn("Record processing failed for partition: {} offset: {}, retry {} in {} ms",
+					record.partition(), record.offset(), retries + 1, backoff);
+				vertx.setTimer(backoff, id -> context.runOnContext(any -> dispatch(record, retries + 1)));
+				return;
+			}
+			inFlight--;
+			if(result.failed())
+				logger.error("Record processing failed for partition: {} offset: {} key: {} after {} retries, "
+					+ "the record is skipped", record.partition(), record.offset(), record.key(), retries,
+					result.cause());
+			tracker.completed(record.offset());
+			if(tracker.getCompletedSinceCommit() >= orderedWindowCommitRecords
+					|| (inFlight == 0 && waitingRecords.isEmpty()))
+				commit();
+			fillWindow();
+		}
+
+		void commit() {
+			commitTrackedOffset(topicPartition, tracker)
+				.onFailure(cause -> logger.error("Error committing messages: ", cause));
+		}
+	}
 }
@@ -0,0 +1,177 @@
+package io.mosip.registration.processor.core.eventbus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.exception.RegistrationProcessorUnCheckedException;
+import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Vert.x message codec that moves {@link MessageDTO} between verticles without
+ * the intermediate JsonObject and Map representations.
+ *
+ * On the wire the message is a length prefixed UTF-8 JSON document, which is
+ * the same content that was sent as a String earlier, so that the json form of
+ * the message stays readable by the camel bridge. Local delivery hands over the
+ * same instance, so the sender should not modify the message after sending it.
+ *
+ * @author Vishwanath V
+ */
+public class MessageDTOCodec implements MessageCodec<MessageDTO, MessageDTO> {
+
+	/** Name with which the codec is registered on the event bus */
+	public static final String CODEC_NAME = "mosip-message-dto";
+
+	private final ObjectReader reader;
+
+	private final ObjectWriter writer;
+
+	/**
+	 * Instantiates the codec with the default object mapper configuration
+	 */
+	public MessageDTOCodec() {
+		this(defaultObjectMapper());
+	}
+
+	/**
+	 * Instantiates the codec with the given object mapper, the message is
+	 * written without indentation whatever the configuration of the mapper
+	 *
+	 * @param objectMapper The object mapper used to read and write the message
+	 */
+	public MessageDTOCodec(ObjectMapper objectMapper) {
+		this.reader = objectMapper.readerFor(MessageDTO.class)
+				.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		this.writer = objectMapper.writerFor(MessageDTO.class).without(SerializationFeature.INDENT_OUTPUT);
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, MessageDTO messageDTO) {
+		int lengthPos = buffer.length();
+		buffer.appendInt(0);
+		try {
+			writer.writeValue(new BufferOutputStream(buffer), messageDTO);
+		} catch (IOException e) {
+			throw new RegistrationProcessorUnCheckedException(
+					PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION, e);
+		}
+		buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+	}
+
+	@Override
+	public MessageDTO decodeFromWire(int pos, Buffer buffer) {
+		int length = buffer.getInt(pos);
+		int start = pos + 4;
+		ByteBuf byteBuf = buffer.getByteBuf();
+		if (!byteBuf.hasArray())
+			return decode(buffer.getBytes(start, start + length));
+		try {
+			return reader.readValue(byteBuf.array(), byteBuf.arrayOffset() + start, length);
+		} catch (IOException e) {
+			throw new RegistrationProcessorUnCheckedException(
+					PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION, e);
+		}
+	}
+
+	@Override
+	public MessageDTO transform(MessageDTO messageDTO) {
+		return messageDTO;
+	}
+
+	@Override
+	public String name() {
+		return CODEC_NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	/**
+	 * Writes the message as UTF-8 json bytes
+	 *
+	 * @param messageDTO The message to be written
+	 * @return json bytes of the message
+	 */
+	public byte[] encode(MessageDTO messageDTO) {
+		try {
+			return writer.writeValueAsBytes(messageDTO);
+		} catch (IOException e) {
+			throw new RegistrationProcessorUnCheckedException(
+					PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION, e);
+		}
+	}
+
+	/**
+	 * Reads the message straight from UTF-8 json bytes
+	 *
+	 * @param bytes json bytes of the message
+	 * @return The decoded message
+	 */
+	public MessageDTO decode(byte[] bytes) {
+		try {
+			return reader.readValue(bytes);
+		} catch (IOException e) {
+			throw new RegistrationProcessorUnCheckedException(
+					PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION, e);
+		}
+	}
+
+	/**
+	 * Reads the message straight from its json string form, used for the
+	 * messages sent as String by the camel bridge
+	 *
+	 * @param json json string of the message
+	 * @return The decoded message
+	 */
+	public MessageDTO decode(String json) {
+		try {
+			return reader.readValue(json);
+		} catch (IOException e) {
+			throw new RegistrationProcessorUnCheckedException(
+					PlatformErrorMessages.RPR_SYS_JSON_PARSING_EXCEPTION, e);
+		}
+	}
+
+	static ObjectMapper defaultObjectMapper() {
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new AfterburnerModule());
+		objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		return objectMapper;
+	}
+
+	/**
+	 * Appends the json bytes to the event bus buffer as they are generated
+	 */
+	private static class BufferOutputStream extends OutputStream {
+
+		private final Buffer buffer;
+
+		BufferOutputStream(Buffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) {
+			buffer.appendByte((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			buffer.appendBytes(bytes, offset, length);
+		}
+
+	}
+
+}
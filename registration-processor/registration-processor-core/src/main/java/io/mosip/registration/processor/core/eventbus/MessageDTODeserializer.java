@@ -0,0 +1,44 @@
+package io.mosip.registration.processor.core.eventbus;
+
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+
+/**
+ * Kafka deserializer that reads {@link MessageDTO} straight from the UTF-8 json
+ * bytes of the record value, without the intermediate String and JsonObject
+ *
+ * @author Vishwanath V
+ */
+public class MessageDTODeserializer implements Deserializer<MessageDTO> {
+
+	private final MessageDTOCodec codec;
+
+	public MessageDTODeserializer() {
+		this(new MessageDTOCodec());
+	}
+
+	public MessageDTODeserializer(MessageDTOCodec codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public void configure(Map<String, ?> configs, boolean isKey) {
+		// nothing to configure
+	}
+
+	@Override
+	public MessageDTO deserialize(String topic, byte[] data) {
+		if (data == null)
+			return null;
+		return codec.decode(data);
+	}
+
+	@Override
+	public void close() {
+		// nothing to close
+	}
+
+}
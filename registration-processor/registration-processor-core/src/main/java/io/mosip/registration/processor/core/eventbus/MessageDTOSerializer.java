@@ -0,0 +1,44 @@
+package io.mosip.registration.processor.core.eventbus;
+
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+
+/**
+ * Kafka serializer that writes {@link MessageDTO} straight to UTF-8 json bytes,
+ * the produced record value is the same as the earlier String serialized json
+ *
+ * @author Vishwanath V
+ */
+public class MessageDTOSerializer implements Serializer<MessageDTO> {
+
+	private final MessageDTOCodec codec;
+
+	public MessageDTOSerializer() {
+		this(new MessageDTOCodec());
+	}
+
+	public MessageDTOSerializer(MessageDTOCodec codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public void configure(Map<String, ?> configs, boolean isKey) {
+		// nothing to configure
+	}
+
+	@Override
+	public byte[] serialize(String topic, MessageDTO messageDTO) {
+		if (messageDTO == null)
+			return null;
+		return codec.encode(messageDTO);
+	}
+
+	@Override
+	public void close() {
+		// nothing to close
+	}
+
+}
@@ -1,8 +1,12 @@
 package io.mosip.registration.processor.core.eventbus;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import brave.Tracing;
 import io.mosip.registration.processor.core.abstractverticle.MosipEventBus;
 import io.mosip.registration.processor.core.exception.UnsupportedEventBusTypeException;
@@ -26,6 +30,16 @@ public class MosipEventBusFactory {
 
 	private static final String EVENTBUS_KAFKA_COMMIT_TYPE = "eventbus.kafka.commit.type";
 
+	private static final String EVENTBUS_KAFKA_ORDERED_WINDOW_SIZE = "eventbus.kafka.ordered.window.size";
+
+	private static final String EVENTBUS_KAFKA_ORDERED_WINDOW_COMMIT_RECORDS = "eventbus.kafka.ordered.window.commit.records";
+
+	private static final String EVENTBUS_KAFKA_ORDERED_WINDOW_COMMIT_INTERVAL = "eventbus.kafka.ordered.window.commit.interval";
+
+	private static final String EVENTBUS_KAFKA_ORDERED_WINDOW_MAX_RETRIES = "eventbus.kafka.ordered.window.max.retries";
+
+	private static final String EVENTBUS_KAFKA_ORDERED_WINDOW_RETRY_BACKOFF = "eventbus.kafka.ordered.window.retry.backoff";
+
 	private static final String MOSIP_REGPROC_EVENTBUS_KAFKA_BOOTSTRAP_SERVERS = "mosip.regproc.eventbus.kafka.bootstrap.servers";
 
 	@Autowired
@@ -34,6 +48,16 @@ public class MosipEventBusFactory {
     @Autowired
     private PropertiesUtil propertiesUtil;
 
+    @Autowired(required = false)
+    private ObjectMapper objectMapper;
+
+    /*
+     * Messages are moved as MessageDTO through the registered codec (vertx) or
+     * serializer (kafka) instead of json strings, false keeps the json string path
+     */
+    @Value("${mosip.regproc.eventbus.message-codec.enabled:false}")
+    private boolean messageCodecEnabled;
+
     /**
      * Instantiate and return event bus of a particular type
      * @param vertx The vertx instance to which this event bus object should be attached
@@ -46,15 +70,24 @@ public class MosipEventBusFactory {
         EventTracingHandler eventTracingHandler = new EventTracingHandler(tracing, eventBusType);
         switch (eventBusType) {
             case "vertx":
-                return new VertxMosipEventBus(vertx, eventTracingHandler);
+                return new VertxMosipEventBus(vertx, eventTracingHandler, getMessageCodec());
             case "kafka":
-                return new KafkaMosipEventBus(vertx, 
+                KafkaMosipEventBus kafkaMosipEventBus = new KafkaMosipEventBus(vertx, 
                 		getKafkaBootstrapServers(), 
                 		getKafkaGroupId(propertyPrefix), 
                 		getKafkaCommitType(propertyPrefix), 
                 		getMaxPollRecords(propertyPrefix), 
                 		getPollFrequency(propertyPrefix), 
-                		eventTracingHandler);
+                		eventTracingHandler,
+                		messageCodecEnabled);
+                if ("ordered-window".equals(getKafkaCommitType(propertyPrefix)))
+                	kafkaMosipEventBus.configureOrderedWindow(
+                			getOrderedWindowSize(propertyPrefix),
+                			getOrderedWindowCommitRecords(propertyPrefix),
+                			getOrderedWindowCommitInterval(propertyPrefix),
+                			getOrderedWindowMaxRetries(propertyPrefix),
+                			getOrderedWindowRetryBackoff(propertyPrefix));
+                return kafkaMosipEventBus;
             /*case "amqp":
                 return new AmqpMosipEventBus(vertx);*/
             default:
@@ -62,6 +95,15 @@ public class MosipEventBusFactory {
         }
     }
 
+    private MessageDTOCodec getMessageCodec() {
+        if (!messageCodecEnabled)
+            return null;
+        if (objectMapper == null)
+            return new MessageDTOCodec();
+        // the primary object mapper indents its output, the codec writes every message
+        return new MessageDTOCodec(objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT));
+    }
+
     public Tracing getTracing() {
         return tracing;
     }
@@ -89,4 +131,24 @@ public class MosipEventBusFactory {
 	public int getPollFrequency(String propertyPrefix) {
 		return propertiesUtil.getProperty(propertyPrefix + EVENTBUS_KAFKA_POLL_FREQUENCY, Integer.class, 0);
 	}
+
+	public int getOrderedWindowSize(String propertyPrefix) {
+		return propertiesUtil.getProperty(propertyPrefix + EVENTBUS_KAFKA_ORDERED_WINDOW_SIZE, Integer.class, 10);
+	}
+
+	public int getOrderedWindowCommitRecords(String propertyPrefix) {
+		return propertiesUtil.getProperty(propertyPrefix + EVENTBUS_KAFKA_ORDERED_WINDOW_COMMIT_RECORDS, Integer.class, 10);
+	}
+
+	public long getOrderedWindowCommitInterval(String propertyPrefix) {
+		return propertiesUtil.getProperty(propertyPrefix + EVENTBUS_KAFKA_ORDERED_WINDOW_COMMIT_INTERVAL, Long.class, 1000L);
+	}
+
+	public int getOrderedWindowMaxRetries(String propertyPrefix) {
+		return propertiesUtil.getProperty(propertyPrefix + EVENTBUS_KAFKA_ORDERED_WINDOW_MAX_RETRIES, Integer.class, 3);
+	}
+
+	public long getOrderedWindowRetryBackoff(String propertyPrefix) {
+		return propertiesUtil.getProperty(propertyPrefix + EVENTBUS_KAFKA_ORDERED_WINDOW_RETRY_BACKOFF, Long.class, 1000L);
+	}
 }
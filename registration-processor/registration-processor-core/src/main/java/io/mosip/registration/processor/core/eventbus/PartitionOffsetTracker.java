@@ -0,0 +1,80 @@
+package io.mosip.registration.processor.core.eventbus;
+
+import java.util.TreeSet;
+
+/**
+ * Tracks the records of one kafka partition that are processed concurrently in
+ * the ordered-window commit mode and gives the offset that can be committed
+ * safely, which is the one after the highest contiguous completed offset. Records
+ * being retried stay pending, so the committed offset never moves past them.
+ *
+ * Not thread safe, it is used only from the kafka consumer context.
+ *
+ * @author Vishwanath V
+ */
+class PartitionOffsetTracker {
+
+	/** Offsets dispatched for processing and not yet completed successfully */
+	private final TreeSet<Long> pendingOffsets = new TreeSet<>();
+
+	/** Offset after the highest dispatched record */
+	private long nextOffset = -1;
+
+	/** Offset committed last to kafka, -1 when nothing is committed yet */
+	private long committedOffset = -1;
+
+	/** Offset of the commit in progress, so that it is not requested again */
+	private long requestedOffset = -1;
+
+	private int completedSinceCommit;
+
+	private long lastCommitTime = System.currentTimeMillis();
+
+	void dispatched(long offset) {
+		pendingOffsets.add(offset);
+		nextOffset = Math.max(nextOffset, offset + 1);
+	}
+
+	void completed(long offset) {
+		pendingOffsets.remove(offset);
+		completedSinceCommit++;
+	}
+
+	/**
+	 * @return the offset to be committed to kafka, that is the next offset the
+	 *         consumer should start from, -1 when nothing is dispatched
+	 */
+	long getCommittableOffset() {
+		if (pendingOffsets.isEmpty())
+			return nextOffset;
+		return pendingOffsets.first();
+	}
+
+	boolean hasUncommittedOffset() {
+		return getCommittableOffset() > Math.max(committedOffset, requestedOffset);
+	}
+
+	void commitRequested(long offset) {
+		requestedOffset = Math.max(requestedOffset, offset);
+	}
+
+	void commitFailed(long offset) {
+		if (requestedOffset == offset)
+			requestedOffset = committedOffset;
+	}
+
+	void committed(long offset) {
+		committedOffset = Math.max(committedOffset, offset);
+		completedSinceCommit = 0;
+		lastCommitTime = System.currentTimeMillis();
+	}
+
+	int getCompletedSinceCommit() {
+		return completedSinceCommit;
+	}
+
+	long getLastCommitTime() {
+		return lastCommitTime;
+	}
+
+}
@@ -32,6 +32,9 @@ public class VertxMosipEventBus implements MosipEventBus {
 
 	private EventTracingHandler eventTracingHandler;
 
+	/** The codec used for MessageDTO, null when messages are sent as json strings */
+	private MessageDTOCodec messageCodec;
+
 	/**
 	 * Instantiates a new vertx mosip event bus.
 	 *
@@ -39,10 +42,29 @@ public class VertxMosipEventBus implements MosipEventBus {
 	 *            The vertx instance
 	 */
 	public VertxMosipEventBus(Vertx vertx, EventTracingHandler eventTracingHandler) {
+		this(vertx, eventTracingHandler, null);
+	}
+
+	/**
+	 * Instantiates a new vertx mosip event bus.
+	 *
+	 * @param vertx
+	 *            The vertx instance
+	 * @param eventTracingHandler
+	 *            The tracing handler
+	 * @param messageCodec
+	 *            The codec to be registered for MessageDTO, null to keep
+	 *            sending the messages as json strings
+	 */
+	public VertxMosipEventBus(Vertx vertx, EventTracingHandler eventTracingHandler,
+			MessageDTOCodec messageCodec) {
 		this.vertx = vertx;
 		this.eventTracingHandler = eventTracingHandler;
+		this.messageCodec = messageCodec;
 		this.eventTracingHandler.writeHeaderOnProduce(vertx.eventBus());
 		this.eventTracingHandler.readHeaderOnConsume(vertx.eventBus());
+		if (messageCodec != null)
+			registerMessageCodec();
 	}
 
 	/*
@@ -66,8 +88,7 @@ public class VertxMosipEventBus implements MosipEventBus {
 	public void consume(MessageBusAddress fromAddress,
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
 		vertx.eventBus().consumer(fromAddress.getAddress(), msg -> {
-			EventDTO eventDTO = new EventDTO();
-			eventDTO.setBody(new JsonObject((String)msg.body()));
+			EventDTO eventDTO = toEventDTO(msg.body());
 			eventHandler.handle(eventDTO, res -> {
 				if (!res.succeeded() && res.cause() instanceof MessageExpiredException) {
 					logger.warn("Event handling failed {}", res.cause().getMessage());
@@ -89,8 +110,7 @@ public class VertxMosipEventBus implements MosipEventBus {
 	public void consumeAndSend(MessageBusAddress fromAddress, MessageBusAddress toAddress, 
 			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler) {
 		vertx.eventBus().consumer(fromAddress.getAddress(), msg -> {
-			EventDTO eventDTO = new EventDTO();
-			eventDTO.setBody(new JsonObject((String) msg.body()));
+			EventDTO eventDTO = toEventDTO(msg.body());
 			eventHandler.handle(eventDTO, res -> {
 				if (!res.succeeded() && res.cause() instanceof MessageExpiredException) {
 					logger.warn("Event handling failed {}", res.cause().getMessage());
@@ -99,8 +119,7 @@ public class VertxMosipEventBus implements MosipEventBus {
 				} else {
 					MessageDTO messageDTO = res.result();
 					MessageBusAddress messageBusToAddress = new MessageBusAddress(toAddress, messageDTO.getReg_type());
-					JsonObject jsonObject = JsonObject.mapFrom(messageDTO);
-					vertx.eventBus().send(messageBusToAddress.getAddress(), jsonObject.toString());
+					vertx.eventBus().send(messageBusToAddress.getAddress(), toBody(messageDTO));
 				}
 				MDCHelper.clearMDC();
 			});
@@ -116,9 +135,34 @@ public class VertxMosipEventBus implements MosipEventBus {
 	@Override
 	public void send(MessageBusAddress toAddress, MessageDTO message) {
 		MessageBusAddress messageBusAddress = new MessageBusAddress(toAddress, message.getReg_type());
-		JsonObject jsonObject = JsonObject.mapFrom(message);
-		logger.debug("send called with toAddress {} for message {}",messageBusAddress.getAddress(), jsonObject.toString());
-		this.vertx.eventBus().send(messageBusAddress.getAddress(), jsonObject.toString());
+		logger.debug("send called with toAddress {} for message {}",messageBusAddress.getAddress(), message);
+		this.vertx.eventBus().send(messageBusAddress.getAddress(), toBody(message));
+	}
+
+	private void registerMessageCodec() {
+		try {
+			vertx.eventBus().registerDefaultCodec(MessageDTO.class, messageCodec);
+		} catch (IllegalStateException e) {
+			// codec is already registered by another event bus sharing the same vertx instance
+			logger.debug("MessageDTO codec already registered {}", e.getMessage());
+		}
+	}
+
+	private EventDTO toEventDTO(Object body) {
+		EventDTO eventDTO = new EventDTO();
+		if (body instanceof MessageDTO)
+			eventDTO.setMessage((MessageDTO) body);
+		else if (messageCodec != null)
+			eventDTO.setMessage(messageCodec.decode((String) body));
+		else
+			eventDTO.setBody(new JsonObject((String) body));
+		return eventDTO;
+	}
+
+	private Object toBody(MessageDTO messageDTO) {
+		if (messageCodec != null)
+			return messageDTO;
+		return JsonObject.mapFrom(messageDTO).toString();
 	}
 
 }
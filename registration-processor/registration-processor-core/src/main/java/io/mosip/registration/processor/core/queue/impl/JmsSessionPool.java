@@ -0,0 +1,458 @@
+package io.mosip.registration.processor.core.queue.impl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQMessageProducer;
+import org.apache.activemq.AsyncCallback;
+import org.springframework.jms.core.MessageCreator;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.util.MeterBinding;
+
+/**
+ * Pool of JMS sessions of one ActiveMQ connection, shared by the threads
+ * sending to the broker.
+ *
+ * A session is used by one thread at a time, it is borrowed for a send and
+ * returned to the pool once the message is handed over to the broker. Each
+ * session caches a producer per destination, so that sending to a queue does
+ * not create a producer every time. The batches sent to several queues at once
+ * use transacted sessions of their own, pooled the same way. Consumers get a
+ * session each, as a listener owns the session it is registered on.
+ *
+ * A session failing a send is closed instead of being returned to the pool, and
+ * the connection is created again when it is found closed.
+ *
+ * @author Vishwanath V
+ */
+public class JmsSessionPool implements MeterBinder {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(JmsSessionPool.class);
+
+	private static final String METRIC_PREFIX = "mosip.regproc.queue";
+
+	/** Producers cached per session, the least recently used one is closed */
+	private static final int MAX_PRODUCERS = 100;
+
+	private final ActiveMQConnectionFactory connectionFactory;
+
+	private final String brokerUrl;
+
+	private final int maxSessions;
+
+	private final long acquisitionTimeoutMillis;
+
+	private final Sessions sessions = new Sessions("producer", false);
+
+	private final Sessions transactedSessions = new Sessions("transacted", true);
+
+	private final List<Session> consumerSessions = new CopyOnWriteArrayList<>();
+
+	private volatile ActiveMQConnection connection;
+
+	private volatile boolean closed;
+
+	private final MeterBinding metrics = new MeterBinding(this);
+
+	private Timer acquisitionTimer;
+
+	private Timer sendTimer;
+
+	private Timer asyncSendTimer;
+
+	private Timer batchSendTimer;
+
+	public JmsSessionPool(ActiveMQConnectionFactory connectionFactory, String brokerUrl, int maxSessions,
+			long acquisitionTimeoutMillis) {
+		this.connectionFactory = connectionFactory;
+		this.brokerUrl = brokerUrl;
+		this.maxSessions = maxSessions;
+		this.acquisitionTimeoutMillis = acquisitionTimeoutMillis;
+	}
+
+	/**
+	 * Binds the meters of the pool unless they are already bound.
+	 *
+	 * @param fallbackRegistry the registry used when the vertx metrics are not set
+	 *                         up, can be null
+	 */
+	public void bindMetrics(MeterRegistry fallbackRegistry) {
+		metrics.bind(fallbackRegistry);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Sessions pool : new Sessions[] { sessions, transactedSessions }) {
+			Gauge.builder(METRIC_PREFIX + ".session.pool.active", pool, p -> p.active.get())
+					.description("Sessions borrowed from the pool").tag("broker", brokerUrl).tag("type", pool.type)
+					.register(registry);
+			Gauge.builder(METRIC_PREFIX + ".session.pool.idle", pool, p -> p.idle.size())
+					.description("Sessions waiting in the pool").tag("broker", brokerUrl).tag("type", pool.type)
+					.register(registry);
+			Gauge.builder(METRIC_PREFIX + ".session.pool.max", pool, p -> maxSessions)
+					.description("Max sessions of the pool").tag("broker", brokerUrl).tag("type", pool.type)
+					.register(registry);
+		}
+		acquisitionTimer = Timer.builder(METRIC_PREFIX + ".session.pool.acquisition")
+				.description("Wait for a session of the pool").tag("broker", brokerUrl).register(registry);
+		sendTimer = sendTimer(registry, "sync");
+		asyncSendTimer = sendTimer(registry, "async");
+		batchSendTimer = sendTimer(registry, "batch");
+	}
+
+	private Timer sendTimer(MeterRegistry registry, String mode) {
+		return Timer.builder(METRIC_PREFIX + ".send").description("Time taken to send messages to the broker")
+				.tag("broker", brokerUrl).tag("mode", mode).register(registry);
+	}
+
+	/**
+	 * Sends a message and waits for the broker to receive it.
+	 *
+	 * @param address    the queue name
+	 * @param creator    creates the message with the session it is sent on
+	 * @param timeToLive the time to live of the message in millis, 0 for no expiry
+	 */
+	public void send(String address, MessageCreator creator, long timeToLive) throws JMSException {
+		long start = System.nanoTime();
+		PooledSession session = borrow(sessions);
+		boolean failed = true;
+		try {
+			ActiveMQMessageProducer producer = session.getProducer(address);
+			producer.send(creator.createMessage(session.session), producer.getDeliveryMode(), producer.getPriority(),
+					timeToLive);
+			failed = false;
+		} finally {
+			release(sessions, session, failed);
+		}
+		record(sendTimer, start);
+	}
+
+	/**
+	 * Sends a message without waiting for the broker to receive it. The session is
+	 * returned to the pool as soon as the message is written.
+	 *
+	 * @param address    the queue name
+	 * @param creator    creates the message with the session it is sent on
+	 * @param timeToLive the time to live of the message in millis, 0 for no expiry
+	 * @return completed once the broker received the message
+	 */
+	public CompletableFuture<Void> sendAsync(String address, MessageCreator creator, long timeToLive) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		long start = System.nanoTime();
+		PooledSession session;
+		try {
+			session = borrow(sessions);
+		} catch (JMSException e) {
+			future.completeExceptionally(e);
+			return future;
+		}
+		boolean failed = true;
+		try {
+			ActiveMQMessageProducer producer = session.getProducer(address);
+			producer.send(creator.createMessage(session.session), producer.getDeliveryMode(), producer.getPriority(),
+					timeToLive, new AsyncCallback() {
+
+						@Override
+						public void onSuccess() {
+							record(asyncSendTimer, start);
+							future.complete(null);
+						}
+
+						@Override
+						public void onException(JMSException exception) {
+							future.completeExceptionally(exception);
+						}
+					});
+			failed = false;
+		} catch (JMSException | RuntimeException e) {
+			future.completeExceptionally(e);
+		} finally {
+			release(sessions, session, failed);
+		}
+		return future;
+	}
+
+	/**
+	 * Sends the messages in one transaction, either all of them are received by
+	 * the broker or none.
+	 *
+	 * @param messages   the messages by queue name
+	 * @param timeToLive the time to live of the messages in millis, 0 for no
+	 *                   expiry
+	 */
+	public void sendAll(Map<String, MessageCreator> messages, long timeToLive) throws JMSException {
+		long start = System.nanoTime();
+		PooledSession session = borrow(transactedSessions);
+		boolean failed = true;
+		try {
+			for (Map.Entry<String, MessageCreator> message : messages.entrySet()) {
+				ActiveMQMessageProducer producer = session.getProducer(message.getKey());
+				producer.send(message.getValue().createMessage(session.session), producer.getDeliveryMode(),
+						producer.getPriority(), timeToLive);
+			}
+			session.session.commit();
+			failed = false;
+		} finally {
+			// closing the session rolls back the messages not committed
+			release(transactedSessions, session, failed);
+		}
+		record(batchSendTimer, start);
+	}
+
+	/**
+	 * Registers a listener on a session of its own.
+	 *
+	 * @param address  the queue name
+	 * @param listener the message listener
+	 */
+	public MessageConsumer createConsumer(String address, MessageListener listener) throws JMSException {
+		return createConsumer(address, listener, Session.AUTO_ACKNOWLEDGE);
+	}
+
+	/**
+	 * Registers a listener on a session of its own.
+	 *
+	 * @param address         the queue name
+	 * @param listener        the message listener
+	 * @param acknowledgeMode the acknowledge mode of the session
+	 */
+	public MessageConsumer createConsumer(String address, MessageListener listener, int acknowledgeMode)
+			throws JMSException {
+		Session session = getConnection().createSession(false, acknowledgeMode);
+		try {
+			MessageConsumer consumer = session.createConsumer(session.createQueue(address));
+			consumer.setMessageListener(listener);
+			consumerSessions.add(session);
+			return consumer;
+		} catch (JMSException | RuntimeException e) {
+			closeQuietly(session);
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes the sessions and the connection, the sessions borrowed are closed
+	 * with the connection.
+	 */
+	public synchronized void close() {
+		closed = true;
+		sessions.closeIdle();
+		transactedSessions.closeIdle();
+		for (Session session : consumerSessions)
+			closeQuietly(session);
+		consumerSessions.clear();
+		if (connection != null) {
+			try {
+				connection.close();
+			} catch (JMSException e) {
+				logError("Connection could not be closed", e);
+			}
+		}
+	}
+
+	private PooledSession borrow(Sessions pool) throws JMSException {
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquisitionTimeoutMillis);
+		PooledSession session = null;
+		while (session == null) {
+			session = pool.idle.poll();
+			if (session == null)
+				session = createIfBelowMax(pool);
+			if (session == null) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					throw new JMSException("No session of the pool available for " + brokerUrl + " within "
+							+ acquisitionTimeoutMillis + " ms");
+				try {
+					session = pool.idle.poll(remaining, TimeUnit.NANOSECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new JMSException("Interrupted while waiting for a session of the pool");
+				}
+			}
+			if (session != null && session.connection != connection) {
+				// created before the connection was reopened
+				discard(pool, session);
+				session = null;
+			}
+		}
+		pool.active.incrementAndGet();
+		record(acquisitionTimer, start);
+		return session;
+	}
+
+	private PooledSession createIfBelowMax(Sessions pool) throws JMSException {
+		int created = pool.created.get();
+		while (created < maxSessions) {
+			if (pool.created.compareAndSet(created, created + 1)) {
+				try {
+					ActiveMQConnection current = getConnection();
+					return new PooledSession(current, current.createSession(pool.transacted,
+							pool.transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE));
+				} catch (JMSException | RuntimeException e) {
+					pool.created.decrementAndGet();
+					throw e;
+				}
+			}
+			created = pool.created.get();
+		}
+		return null;
+	}
+
+	private void release(Sessions pool, PooledSession session, boolean failed) {
+		pool.active.decrementAndGet();
+		if (failed || closed || session.connection != connection)
+			discard(pool, session);
+		else
+			pool.idle.offer(session);
+	}
+
+	private void discard(Sessions pool, PooledSession session) {
+		pool.created.decrementAndGet();
+		closeQuietly(session.session);
+	}
+
+	private ActiveMQConnection getConnection() throws JMSException {
+		ActiveMQConnection current = connection;
+		if (current != null && !current.isClosed() && !current.isTransportFailed())
+			return current;
+		synchronized (this) {
+			if (closed)
+				throw new JMSException("Session pool of " + brokerUrl + " is closed");
+			current = connection;
+			if (current == null || current.isClosed() || current.isTransportFailed()) {
+				if (current != null) {
+					regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+							"", "JmsSessionPool::getConnection():: reopening the connection to " + brokerUrl);
+					closeQuietly(current);
+				}
+				current = (ActiveMQConnection) connectionFactory.createConnection();
+				current.addTransportListener(new TransportExceptionListener());
+				current.start();
+				connection = current;
+			}
+			return current;
+		}
+	}
+
+	private void record(Timer timer, long start) {
+		if (timer != null)
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private static void closeQuietly(Session session) {
+		try {
+			session.close();
+		} catch (JMSException | RuntimeException e) {
+			logError("Session could not be closed", e);
+		}
+	}
+
+	private static void closeQuietly(ActiveMQConnection connection) {
+		try {
+			connection.close();
+		} catch (JMSException | RuntimeException e) {
+			logError("Connection could not be closed", e);
+		}
+	}
+
+	private static void logError(String message, Exception e) {
+		regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"JmsSessionPool:: " + message + " " + ExceptionUtils.getStackTrace(e));
+	}
+
+	/**
+	 * Sessions of the same acknowledge mode.
+	 */
+	private static class Sessions {
+
+		private final String type;
+
+		private final boolean transacted;
+
+		private final BlockingQueue<PooledSession> idle = new LinkedBlockingQueue<>();
+
+		/** Sessions open, borrowed or idle */
+		private final AtomicInteger created = new AtomicInteger();
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private Sessions(String type, boolean transacted) {
+			this.type = type;
+			this.transacted = transacted;
+		}
+
+		private void closeIdle() {
+			PooledSession session;
+			while ((session = idle.poll()) != null) {
+				created.decrementAndGet();
+				closeQuietly(session.session);
+			}
+		}
+	}
+
+	/**
+	 * A session with its producers, used by one thread at a time.
+	 */
+	private static class PooledSession {
+
+		private final ActiveMQConnection connection;
+
+		private final Session session;
+
+		private final Map<String, ActiveMQMessageProducer> producers = new LinkedHashMap<String, ActiveMQMessageProducer>(
+				16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ActiveMQMessageProducer> eldest) {
+				if (size() <= MAX_PRODUCERS)
+					return false;
+				try {
+					eldest.getValue().close();
+				} catch (JMSException e) {
+					logError("Producer could not be closed", e);
+				}
+				return true;
+			}
+		};
+
+		private PooledSession(ActiveMQConnection connection, Session session) {
+			this.connection = connection;
+			this.session = session;
+		}
+
+		private ActiveMQMessageProducer getProducer(String address) throws JMSException {
+			ActiveMQMessageProducer producer = producers.get(address);
+			if (producer == null) {
+				producer = (ActiveMQMessageProducer) session.createProducer(session.createQueue(address));
+				producers.put(address, producer);
+			}
+			return producer;
+		}
+	}
+
+}
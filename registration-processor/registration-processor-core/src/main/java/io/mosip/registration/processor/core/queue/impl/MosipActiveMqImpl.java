@@ -1,5 +1,6 @@
 package io.mosip.registration.processor.core.queue.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
@@ -14,9 +15,13 @@ import io.mosip.registration.processor.core.queue.impl.exception.QueueConnection
 import io.mosip.registration.processor.core.spi.queue.MosipQueueManager;
 import org.apache.activemq.ActiveMQConnection;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQSession;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.core.MessageCreator;
 
+import javax.annotation.PreDestroy;
 import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.Destination;
@@ -25,6 +30,13 @@ import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 
 /**
@@ -47,6 +59,25 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
     @Value("${registration.processor.queue.connection.retry.count:10}")
     private int retryCount;
 
+    /**
+     * When enabled, the messages are sent with sessions and producers pooled per
+     * broker instead of the shared session
+     */
+    @Value("${mosip.regproc.queue.session-pool.enabled:false}")
+    private boolean sessionPoolEnabled;
+    @Value("${mosip.regproc.queue.session-pool.max-sessions:8}")
+    private int maxSessions;
+    @Value("${mosip.regproc.queue.session-pool.acquisition-timeout-millis:30000}")
+    private long acquisitionTimeoutMillis;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    /** The session pools by broker url and user */
+    private final Map<String, JmsSessionPool> sessionPools = new ConcurrentHashMap<>();
+
+    /** The sessions of the consumers acknowledging their messages, when the session pool is not enabled */
+    private final List<Session> consumerSessions = new CopyOnWriteArrayList<>();
+
     /**
      * The method to set up session and destination
      *
@@ -112,6 +143,8 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
         regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
                 "", "MosipActiveMqImpl::send()::entry");
 
+        if (sessionPoolEnabled)
+            return sendPooled(mosipQueue, bytesMessage(message), address, messageTTL);
         boolean flag = false;
         initialSetup(mosipQueue);
         try {
@@ -145,6 +178,8 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
 
     @Override
     public Boolean send(MosipQueue mosipQueue, String message, String address, int messageTTL) {
+        if (sessionPoolEnabled)
+            return sendPooled(mosipQueue, textMessage(message), address, messageTTL);
         boolean flag = false;
         initialSetup(mosipQueue);
         try {
@@ -174,6 +209,69 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
         return flag;
     }
 
+    @Override
+    public CompletableFuture<Boolean> sendAsync(MosipQueue mosipQueue, byte[] message, String address, int messageTTL) {
+        return sendAsync(mosipQueue, bytesMessage(message), address, messageTTL,
+                () -> send(mosipQueue, message, address, messageTTL));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendAsync(MosipQueue mosipQueue, String message, String address, int messageTTL) {
+        return sendAsync(mosipQueue, textMessage(message), address, messageTTL,
+                () -> send(mosipQueue, message, address, messageTTL));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#sendAll(java.
+     * lang.Object, java.util.Map, int)
+     *
+     * The messages are sent one after the other when the session pool is not
+     * enabled.
+     */
+    @Override
+    public Boolean sendAll(MosipQueue mosipQueue, Map<String, ?> messages, int messageTTL) {
+        if (!sessionPoolEnabled) {
+            boolean flag = true;
+            for (Map.Entry<String, ?> message : messages.entrySet()) {
+                if (message.getValue() instanceof String)
+                    flag &= send(mosipQueue, (String) message.getValue(), message.getKey(), messageTTL);
+                else
+                    flag &= send(mosipQueue, (byte[]) message.getValue(), message.getKey(), messageTTL);
+            }
+            return flag;
+        }
+        Map<String, MessageCreator> messageCreators = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> message : messages.entrySet()) {
+            if (message.getValue() instanceof String)
+                messageCreators.put(message.getKey(), textMessage((String) message.getValue()));
+            else
+                messageCreators.put(message.getKey(), bytesMessage((byte[]) message.getValue()));
+        }
+        try {
+            getSessionPool(mosipQueue).sendAll(messageCreators, timeToLive(messageTTL));
+        } catch (JMSException e) {
+            throw sendFailed(e);
+        }
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#
+     * isSendAllTransacted(java.lang.Object)
+     *
+     * Only the session pool sends the messages in a transacted session.
+     */
+    @Override
+    public boolean isSendAllTransacted(MosipQueue mosipQueue) {
+        return sessionPoolEnabled;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -195,6 +293,20 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
 
             throw new InvalidConnectionException(PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
         }
+        if (sessionPoolEnabled) {
+            try {
+                getSessionPool(mosipQueue).createConsumer(address,
+                        QueueListenerFactory.getListener(mosipQueue.getQueueName(), object));
+            } catch (JMSException e) {
+                regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+                        "", "MosipActiveMqImpl::consume():: error with error message "
+                                + PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage()
+                                + ExceptionUtils.getFullStackTrace(e));
+                throw new ConnectionUnavailableException(
+                        PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage(), e);
+            }
+            return null;
+        }
         if (destination == null) {
             setup(mosipActiveMq);
         }
@@ -230,6 +342,41 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
         return null;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * io.mosip.registration.processor.core.spi.queue.MosipQueueManager#
+     * consumeWithClientAcknowledge(java.lang.Object, java.lang.String,
+     * io.mosip.registration.processor.core.queue.factory.QueueListener)
+     *
+     * The messages are acknowledged one by one, a message acknowledged does not
+     * acknowledge the messages received before it.
+     */
+    @Override
+    public void consumeWithClientAcknowledge(MosipQueue mosipQueue, String address, QueueListener object) {
+        try {
+            if (sessionPoolEnabled) {
+                getSessionPool(mosipQueue).createConsumer(address,
+                        QueueListenerFactory.getListener(mosipQueue.getQueueName(), object),
+                        ActiveMQSession.INDIVIDUAL_ACKNOWLEDGE);
+                return;
+            }
+            initialSetup(mosipQueue);
+            Session consumerSession = connection.createSession(false, ActiveMQSession.INDIVIDUAL_ACKNOWLEDGE);
+            consumerSessions.add(consumerSession);
+            consumerSession.createConsumer(consumerSession.createQueue(address))
+                    .setMessageListener(QueueListenerFactory.getListener(mosipQueue.getQueueName(), object));
+        } catch (JMSException e) {
+            regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+                    "", "MosipActiveMqImpl::consumeWithClientAcknowledge():: error with error message "
+                            + PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage()
+                            + ExceptionUtils.getFullStackTrace(e));
+            throw new ConnectionUnavailableException(
+                    PlatformErrorMessages.RPR_MQI_UNABLE_TO_CONSUME_FROM_QUEUE.getMessage(), e);
+        }
+    }
+
     private void initialSetup(MosipQueue mosipQueue) {
         regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
                 "", "MosipActiveMqImpl::send()::entry");
@@ -245,4 +392,94 @@ public class MosipActiveMqImpl implements MosipQueueManager<MosipQueue, byte[]>
         setup(mosipActiveMq);
     }
 
+    /**
+     * Closes the session pools and the sessions of the consumers acknowledging
+     * their messages, the messages they did not acknowledge are received again.
+     */
+    @PreDestroy
+    public void close() {
+        for (Session consumerSession : consumerSessions) {
+            try {
+                consumerSession.close();
+            } catch (JMSException e) {
+                regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+                        "", "MosipActiveMqImpl::close():: " + e.getMessage());
+            }
+        }
+        consumerSessions.clear();
+        for (JmsSessionPool sessionPool : sessionPools.values())
+            sessionPool.close();
+        sessionPools.clear();
+    }
+
+    private Boolean sendPooled(MosipQueue mosipQueue, MessageCreator messageCreator, String address, int messageTTL) {
+        try {
+            getSessionPool(mosipQueue).send(address, messageCreator, timeToLive(messageTTL));
+        } catch (JMSException e) {
+            throw sendFailed(e);
+        }
+        return true;
+    }
+
+    private CompletableFuture<Boolean> sendAsync(MosipQueue mosipQueue, MessageCreator messageCreator, String address,
+            int messageTTL, Supplier<Boolean> sender) {
+        CompletableFuture<Boolean> sent = new CompletableFuture<>();
+        if (!sessionPoolEnabled) {
+            try {
+                sent.complete(sender.get());
+            } catch (RuntimeException e) {
+                sent.completeExceptionally(e);
+            }
+            return sent;
+        }
+        getSessionPool(mosipQueue).sendAsync(address, messageCreator, timeToLive(messageTTL))
+                .whenComplete((result, e) -> {
+                    if (e == null)
+                        sent.complete(true);
+                    else
+                        sent.completeExceptionally(sendFailed(e));
+                });
+        return sent;
+    }
+
+    private JmsSessionPool getSessionPool(MosipQueue mosipQueue) {
+        MosipActiveMq mosipActiveMq = (MosipActiveMq) mosipQueue;
+        if (mosipActiveMq.getActiveMQConnectionFactory() == null) {
+            regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+                    "", "MosipActiveMqImpl::getSessionPool():: error with error message "
+                            + PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
+            throw new InvalidConnectionException(PlatformErrorMessages.RPR_MQI_INVALID_CONNECTION.getMessage());
+        }
+        JmsSessionPool sessionPool = sessionPools.computeIfAbsent(
+                mosipActiveMq.getUsername() + "@" + mosipActiveMq.getBrokerUrl(),
+                key -> new JmsSessionPool(mosipActiveMq.getActiveMQConnectionFactory(), mosipActiveMq.getBrokerUrl(),
+                        maxSessions, acquisitionTimeoutMillis));
+        sessionPool.bindMetrics(meterRegistry);
+        return sessionPool;
+    }
+
+    private ConnectionUnavailableException sendFailed(Throwable e) {
+        regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+                "", "MosipActiveMqImpl::send():: error with error message "
+                        + PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getMessage()
+                        + ExceptionUtils.getFullStackTrace(e));
+        return new ConnectionUnavailableException(PlatformErrorMessages.RPR_MQI_UNABLE_TO_SEND_TO_QUEUE.getMessage(), e);
+    }
+
+    private static long timeToLive(int messageTTL) {
+        return messageTTL > 0 ? messageTTL * (long) 1000 : 0;
+    }
+
+    private static MessageCreator bytesMessage(byte[] message) {
+        return pooledSession -> {
+            BytesMessage byteMessage = pooledSession.createBytesMessage();
+            byteMessage.writeObject(message);
+            return byteMessage;
+        };
+    }
+
+    private static MessageCreator textMessage(String message) {
+        return pooledSession -> pooledSession.createTextMessage(message);
+    }
+
 }
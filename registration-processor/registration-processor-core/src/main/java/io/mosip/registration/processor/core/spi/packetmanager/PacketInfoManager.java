@@ -201,6 +201,15 @@ public interface PacketInfoManager<T, /** D, M, */
 	 */
 	public List<RegBioRefDto> getBioRefIdByRegId(String regId);
 
+	/**
+	 * Gets the bio refs of all the reg ids at once, the latest first.
+	 *
+	 * @param regIds
+	 *            the reg ids
+	 * @return the bio refs of the reg ids
+	 */
+	public List<RegBioRefDto> getBioRefsByRegIds(List<String> regIds);
+
 	/**
 	 * Gets the bio ref ids list by bioRefId.
 	 *
@@ -233,6 +242,18 @@ public interface PacketInfoManager<T, /** D, M, */
 	 */
 	public void saveAbisRequest(AbisRequestDto abisRequestDto, String moduleId, String moduleName);
 
+	/**
+	 * Save the bio ref and the abis requests of a packet together, in one
+	 * transaction, audited once.
+	 *
+	 * @param regBioRefDto
+	 *            the reg bio ref dto, null when only requests are saved
+	 * @param abisRequestDtos
+	 *            the abis request dtos
+	 */
+	public void saveAbisRequests(RegBioRefDto regBioRefDto, List<AbisRequestDto> abisRequestDtos, String moduleId,
+			String moduleName);
+
 	/**
 	 * Gets the demo list by transaction id.
 	 *
@@ -311,6 +332,21 @@ public interface PacketInfoManager<T, /** D, M, */
 	 */
 	public List<AbisResponseDetDto> getAbisResponseDetails(String abisResponseId);
 
+	/**
+	 * Gets the abis response details of all the responses of the requests of a
+	 * transaction at once.
+	 *
+	 * @param abisRefId
+	 *            the abis ref id
+	 * @param latestTransactionId
+	 *            the latest transaction id
+	 * @param requestType
+	 *            the request type
+	 * @return the abis response details
+	 */
+	public List<AbisResponseDetDto> getAbisResponseDetails(String abisRefId, String latestTransactionId,
+			String requestType);
+
 	/**
 	 * Save individual demographic dedupe update packet.
 	 *
@@ -1,5 +1,8 @@
 package io.mosip.registration.processor.core.spi.queue;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import io.mosip.registration.processor.core.queue.factory.QueueListener;
 
 /**
@@ -52,6 +55,53 @@ public interface MosipQueueManager<T, V>{
 	 */
 	public Boolean send(T mosipQueue, String message, String address, int messageTTL);
 
+	/**
+	 * This method sends a message on a given Address without waiting for it to be
+	 * received
+	 *
+	 * @param mosipQueue The mosipQueue instance
+	 * @param message    The message
+	 * @param address    The address
+	 * @param messageTTL The timeToLive in seconds for message
+	 * @return completed with true once the message is received, exceptionally if
+	 *         it could not be sent
+	 */
+	public CompletableFuture<Boolean> sendAsync(T mosipQueue, V message, String address, int messageTTL);
+
+	/**
+	 * This method sends a json string message on a given Address without waiting
+	 * for it to be received
+	 *
+	 * @param mosipQueue The mosipQueue instance
+	 * @param message    The message
+	 * @param address    The address
+	 * @param messageTTL The timeToLive in seconds for message
+	 * @return completed with true once the message is received, exceptionally if
+	 *         it could not be sent
+	 */
+	public CompletableFuture<Boolean> sendAsync(T mosipQueue, String message, String address, int messageTTL);
+
+	/**
+	 * This method sends messages on several Addresses at once, all of them are
+	 * sent or none
+	 *
+	 * @param mosipQueue The mosipQueue instance
+	 * @param messages   The messages by address, a json string or a message of
+	 *                   type V
+	 * @param messageTTL The timeToLive in seconds for messages
+	 * @return True if messages are sent, false otherwise
+	 */
+	public Boolean sendAll(T mosipQueue, Map<String, ?> messages, int messageTTL);
+
+	/**
+	 * This method tells whether sendAll sends the messages in one transaction,
+	 * rather than one after the other
+	 *
+	 * @param mosipQueue The mosipQueue instance
+	 * @return True if all the messages are sent or none, false otherwise
+	 */
+	public boolean isSendAllTransacted(T mosipQueue);
+
 	/**
 	 * This method consumes a message from a given address
 	 * 
@@ -61,4 +111,16 @@ public interface MosipQueueManager<T, V>{
 	 */
 	public V consume(T mosipQueue, String address, QueueListener object);
 
+	/**
+	 * This method consumes the messages from a given address, the listener
+	 * acknowledges each message with {@link javax.jms.Message#acknowledge()} once
+	 * processed, from any thread. The messages not acknowledged are received
+	 * again once the consumer is closed.
+	 *
+	 * @param mosipQueue The mosipQueue instance
+	 * @param address    The address
+	 * @param object     The listener
+	 */
+	public void consumeWithClientAcknowledge(T mosipQueue, String address, QueueListener object);
+
 }
@@ -0,0 +1,49 @@
+package io.mosip.registration.processor.core.spi.restclient;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import io.mosip.registration.processor.core.code.ApiName;
+
+/**
+ * The non blocking variant of {@link RegistrationProcessorRestClientService}.
+ * The urls are resolved from the {@link ApiName} the same way, but the calls
+ * do not park the calling thread, the response is given through the returned
+ * completion stage.
+ *
+ * The stage completes exceptionally with ApisResourceAccessException when the
+ * api could not be called or responded with an error status.
+ *
+ * @author Vishwanath V
+ */
+public interface RegistrationProcessorAsyncRestClientService {
+
+	/**
+	 * Get api.
+	 *
+	 * @param apiName         the api name
+	 * @param pathsegments    the pathsegments of the uri
+	 * @param queryParamName  the comma separated query param names
+	 * @param queryParamValue the comma separated query param values
+	 * @param responseType    the response type, including its generic parameters
+	 * @return the completion stage of the response
+	 */
+	public <R> CompletionStage<R> getApi(ApiName apiName, List<String> pathsegments, String queryParamName,
+			String queryParamValue, JavaType responseType);
+
+	/**
+	 * Post api.
+	 *
+	 * @param apiName         the api name
+	 * @param queryParamName  the comma separated query param names
+	 * @param queryParamValue the comma separated query param values
+	 * @param requestedData   the requested data
+	 * @param responseType    the response type, including its generic parameters
+	 * @return the completion stage of the response
+	 */
+	public <R> CompletionStage<R> postApi(ApiName apiName, String queryParamName, String queryParamValue,
+			Object requestedData, JavaType responseType);
+
+}
@@ -1,8 +1,13 @@
 package io.mosip.registration.processor.core.spi.restclient;
 
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.JavaType;
 
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
@@ -51,6 +56,18 @@ import io.mosip.registration.processor.core.exception.ApisResourceAccessExceptio
 	public T getApi(ApiName apiName, List<String> pathsegments, List<String> queryParam, List<Object> queryParamValue,
 					Class<?> responseType) throws ApisResourceAccessException;
 
+	/**
+	 * Gets the api, the response body is written to the output stream as it is
+	 * received instead of being read in memory.
+	 *
+	 * @param apiName the api name
+	 * @param pathsegments the pathsegments
+	 * @param outputStream the output stream the response body is written to
+	 * @throws ApisResourceAccessException the apis resource access exception
+	 */
+	public void getApi(ApiName apiName, List<String> pathsegments, OutputStream outputStream)
+			throws ApisResourceAccessException;
+
 	/**
 	 * Post api.
 	 *
@@ -93,6 +110,28 @@ import io.mosip.registration.processor.core.exception.ApisResourceAccessExceptio
 	 */
 	public T postApi(ApiName apiName, String queryParamName, String queryParamValue, T requestedData,
 			Class<?> responseType, MediaType mediaType) throws ApisResourceAccessException ;
+	/**
+	 * Post api, reading the response body directly into the given type, so that
+	 * typed responses like ResponseWrapper of a dto are not converted from an
+	 * intermediate map afterwards.
+	 *
+	 * @param apiName
+	 *            the api name
+	 * @param queryParamName
+	 *            the query param
+	 * @param queryParamValue
+	 *            the query param value
+	 * @param requestedData
+	 *            the requested data
+	 * @param responseType
+	 *            the response type, including its generic parameters
+	 * @return the response
+	 * @throws ApisResourceAccessException
+	 *             the apis resource access exception
+	 */
+	public <R> R postApiForType(ApiName apiName, String queryParamName, String queryParamValue, T requestedData,
+			JavaType responseType) throws ApisResourceAccessException;
+
 	/**
 	 * Post api.
 	 *
@@ -186,5 +225,24 @@ import io.mosip.registration.processor.core.exception.ApisResourceAccessExceptio
 	public T postApi(String url, MediaType mediaType, List<String> pathsegments, List<String> queryParam, List<Object> queryParamValue,
 			 T requestedData, Class<?> responseType) throws ApisResourceAccessException;
 
+	/**
+	 * Post api with a multipart form data body, the content of the file part is
+	 * written to the request by the given writer instead of being held in
+	 * memory.
+	 *
+	 * @param url the url
+	 * @param pathsegments the pathsegments
+	 * @param formFields the text parts, by name
+	 * @param filePartName the name of the file part
+	 * @param fileName the file name of the file part
+	 * @param file writes the content of the file part
+	 * @param responseType the response type
+	 * @return the t
+	 * @throws ApisResourceAccessException the apis resource access exception
+	 */
+	public T postMultipartApi(String url, List<String> pathsegments, Map<String, String> formFields,
+			String filePartName, String fileName, StreamingHttpOutputMessage.Body file, Class<?> responseType)
+			throws ApisResourceAccessException;
+
 	public Integer headApi(ApiName apiName, List<String> pathsegments, List<String> queryParamName, List<Object> queryParamValue) throws ApisResourceAccessException;
 }
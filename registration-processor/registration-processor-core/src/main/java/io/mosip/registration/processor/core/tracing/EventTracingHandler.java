@@ -137,14 +137,14 @@ public class EventTracingHandler {
         });
     }
 
-    public Span readHeaderOnKafkaConsume(KafkaConsumerRecord<String, String> consumerRecord) {
+    public Span readHeaderOnKafkaConsume(KafkaConsumerRecord<String, ?> consumerRecord) {
         Span span = nextSpan(consumerRecord.headers());
         initializeContextWithTracing(span, consumerRecord.key());
         MDCHelper.addHeadersToMDC();
         return span;
     }
 
-    public void writeHeaderOnKafkaProduce(KafkaProducerRecord<String, String> producerRecord) {
+    public void writeHeaderOnKafkaProduce(KafkaProducerRecord<String, ?> producerRecord) {
         Object tracer = ContextualData.getOrDefault(TracingConstant.TRACER);
         Span span = (tracer instanceof TracingHandler) ? ((TracingHandler)tracer).span : (Span)tracer;
         if(span == null) {
@@ -158,7 +158,7 @@ public class EventTracingHandler {
         producerRecord.addHeader(TracingConstant.RID_KEY, producerRecord.key());
     }
 
-    public void writeHeaderOnKafkaProduce(KafkaProducerRecord<String, String> producerRecord, Span span) {
+    public void writeHeaderOnKafkaProduce(KafkaProducerRecord<String, ?> producerRecord, Span span) {
        producerRecord.addHeader(TracingConstant.SINGLE_LINE_B3_HEADER,
                 String.format("%s-%s", span.context().traceIdString(),
                         span.context().spanIdString()));
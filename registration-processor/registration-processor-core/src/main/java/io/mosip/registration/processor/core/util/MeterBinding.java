@@ -0,0 +1,60 @@
+package io.mosip.registration.processor.core.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+/**
+ * Binds the meters of a component once to the registry of the vertx metrics
+ * of the stage, or to the registry of the application context when the vertx
+ * metrics are not enabled. The components are created before the vertx
+ * instance of the stage, so the binding is attempted on use until a registry is
+ * found.
+ */
+public class MeterBinding {
+
+	private final MeterBinder binder;
+
+	private volatile boolean bound;
+
+	public MeterBinding(MeterBinder binder) {
+		this.binder = binder;
+	}
+
+	/**
+	 * Binds the meters unless they are already bound. Does nothing while no
+	 * registry is set up.
+	 *
+	 * @param fallbackRegistry the registry of the application context, can be
+	 *                         null
+	 */
+	public void bind(MeterRegistry fallbackRegistry) {
+		if (bound)
+			return;
+		MeterRegistry registry = getRegistry(fallbackRegistry);
+		if (registry == null)
+			return;
+		synchronized (this) {
+			if (!bound) {
+				binder.bindTo(registry);
+				bound = true;
+			}
+		}
+	}
+
+	public boolean isBound() {
+		return bound;
+	}
+
+	/**
+	 * @param fallbackRegistry the registry of the application context, can be
+	 *                         null
+	 * @return the registry of the vertx metrics, the fallback registry when the
+	 *         vertx metrics are not set up
+	 */
+	public static MeterRegistry getRegistry(MeterRegistry fallbackRegistry) {
+		MeterRegistry registry = BackendRegistries.getDefaultNow();
+		return registry != null ? registry : fallbackRegistry;
+	}
+
+}
@@ -0,0 +1,74 @@
+package io.mosip.registration.processor.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import io.mosip.kernel.biometrics.commons.CbeffValidator;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.cbeffutil.container.impl.CbeffContainerImpl;
+import io.mosip.kernel.core.cbeffutil.exception.CbeffException;
+
+/**
+ * Writes the CBEFF xml of biometric segments to an output stream, the same xml
+ * CbeffUtil.createXML gives, without holding the xml in memory. The BDB of the
+ * segments are base64 encoded as they are written, so a packet of biometrics
+ * is not copied in memory as bytes and as base64 text before it is sent.
+ *
+ * The segments are checked the way CbeffUtil checks them before the xml is
+ * written, so that an invalid segment fails before anything is sent. The xml
+ * is not validated against the CBEFF xsd of the config server, it is written
+ * from the same JAXB model the xsd describes.
+ *
+ * @author Vishwanath V
+ */
+public class StreamingCbeffWriter {
+
+	private static final JAXBContext JAXB_CONTEXT;
+
+	static {
+		try {
+			JAXB_CONTEXT = JAXBContext.newInstance(BIR.class);
+		} catch (JAXBException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private StreamingCbeffWriter() {
+	}
+
+	/**
+	 * Wraps the segments in the CBEFF root and checks them.
+	 *
+	 * @param segments the biometric segments
+	 * @return the CBEFF root to write
+	 * @throws CbeffException when a segment is not valid
+	 */
+	public static BIR createBIR(List<BIR> segments) throws CbeffException {
+		BIR bir = new CbeffContainerImpl().createBIRType(segments);
+		CbeffValidator.validateXML(bir);
+		return bir;
+	}
+
+	/**
+	 * Writes the CBEFF xml, the output stream is not closed.
+	 *
+	 * @param bir          the CBEFF root given by createBIR
+	 * @param outputStream the output stream
+	 * @throws IOException when the xml can not be written
+	 */
+	public static void write(BIR bir, OutputStream outputStream) throws IOException {
+		try {
+			Marshaller marshaller = JAXB_CONTEXT.createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+			marshaller.marshal(bir, outputStream);
+		} catch (JAXBException e) {
+			throw new IOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+package io.mosip.registration.processor.core.workflow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * The next hops of the camel routes of the workflow, read from the route xml
+ * of the camel bridge.
+ *
+ * Only the routes the camel bridge would run as a plain hand-over are kept: a
+ * route from an event bus address to an event bus address, directly or
+ * through a choice of jsonpath conditions. The next hop of a message is the
+ * address of the first condition it matches, as camel does. A message whose
+ * matched branch does anything else, a workflow command or several
+ * endpoints, has no next hop here and is left to the camel bridge, as are the
+ * messages of the routes using other expressions or processors.
+ *
+ * @author Vishwanath V
+ */
+public class CamelRouteTable {
+
+	private static final String EVENT_BUS_SCHEME = "eventbus://";
+
+	private final Configuration configuration = Configuration.defaultConfiguration();
+
+	/*
+	 * The branches of the routes by their from address, a route with a null
+	 * branch list is left to the camel bridge for all its messages
+	 */
+	private final Map<String, List<Branch>> routes = new HashMap<>();
+
+	/**
+	 * Adds the routes of a route xml of the camel bridge.
+	 *
+	 * @param routesXml the route xml
+	 * @throws IOException when the xml can not be read
+	 */
+	public void addRoutes(InputStream routesXml) throws IOException {
+		Element root;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			root = builder.parse(routesXml).getDocumentElement();
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IOException(e);
+		}
+		List<Element> routeElements = "route".equals(root.getLocalName()) ? Collections.singletonList(root)
+				: getChildElements(root);
+		for (Element route : routeElements) {
+			if ("route".equals(route.getLocalName()))
+				addRoute(route);
+		}
+	}
+
+	/**
+	 * Gets the address a message is routed to.
+	 *
+	 * @param fromAddress the event bus address the message is sent to
+	 * @param document    the json document of the message, as given by the
+	 *                    json provider
+	 * @return the event bus address of the next hop, null when the message is
+	 *         to be routed by the camel bridge
+	 */
+	public String getNextHop(String fromAddress, Object document) {
+		List<Branch> branches = routes.get(fromAddress);
+		if (branches == null)
+			return null;
+		for (Branch branch : branches) {
+			if (branch.condition == null)
+				return branch.toAddress;
+			Object result;
+			try {
+				result = branch.condition.read(document, configuration);
+			} catch (RuntimeException e) {
+				// the camel bridge decides how a failing condition is handled
+				return null;
+			}
+			if (matches(result))
+				return branch.toAddress;
+		}
+		return null;
+	}
+
+	private void addRoute(Element route) {
+		List<Element> elements = new ArrayList<>();
+		for (Element element : getChildElements(route)) {
+			if (!"description".equals(element.getLocalName()))
+				elements.add(element);
+		}
+		if (elements.isEmpty() || !"from".equals(elements.get(0).getLocalName()))
+			return;
+		String fromAddress = getEventBusAddress(elements.get(0));
+		if (fromAddress == null)
+			return;
+		List<Element> processors = elements.subList(1, elements.size());
+		List<Branch> branches = null;
+		if (processors.size() == 1 && "choice".equals(processors.get(0).getLocalName()))
+			branches = getBranches(processors.get(0));
+		else if (!processors.isEmpty())
+			branches = Collections.singletonList(new Branch(null, getToAddress(processors)));
+		// a from address of several routes is left to the camel bridge
+		if (routes.containsKey(fromAddress))
+			branches = null;
+		routes.put(fromAddress, branches);
+	}
+
+	private List<Branch> getBranches(Element choice) {
+		List<Branch> branches = new ArrayList<>();
+		for (Element element : getChildElements(choice)) {
+			List<Element> processors = getChildElements(element);
+			if ("when".equals(element.getLocalName())) {
+				if (processors.isEmpty() || !"jsonpath".equals(processors.get(0).getLocalName()))
+					return null;
+				JsonPath condition;
+				try {
+					condition = JsonPath.compile(processors.get(0).getTextContent().trim());
+				} catch (RuntimeException e) {
+					return null;
+				}
+				branches.add(new Branch(condition, getToAddress(processors.subList(1, processors.size()))));
+			} else if ("otherwise".equals(element.getLocalName())) {
+				branches.add(new Branch(null, getToAddress(processors)));
+			} else {
+				return null;
+			}
+		}
+		return branches;
+	}
+
+	private String getToAddress(List<Element> processors) {
+		if (processors.size() != 1 || !"to".equals(processors.get(0).getLocalName()))
+			return null;
+		return getEventBusAddress(processors.get(0));
+	}
+
+	private String getEventBusAddress(Element endpoint) {
+		String uri = endpoint.getAttribute("uri").trim();
+		if (!uri.startsWith(EVENT_BUS_SCHEME) || uri.indexOf('?') >= 0)
+			return null;
+		return uri.substring(EVENT_BUS_SCHEME.length());
+	}
+
+	private static List<Element> getChildElements(Element parent) {
+		List<Element> elements = new ArrayList<>();
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node.getNodeType() == Node.ELEMENT_NODE)
+				elements.add((Element) node);
+		}
+		return elements;
+	}
+
+	/*
+	 * A jsonpath predicate of camel matches as per the value it reads
+	 */
+	private static boolean matches(Object result) {
+		if (result == null)
+			return false;
+		if (result instanceof Boolean)
+			return (Boolean) result;
+		if (result instanceof String) {
+			String value = ((String) result).trim();
+			if ("false".equalsIgnoreCase(value))
+				return false;
+			return "true".equalsIgnoreCase(value) || !value.isEmpty();
+		}
+		if (result instanceof Collection)
+			return !((Collection<?>) result).isEmpty();
+		if (result instanceof Map)
+			return !((Map<?, ?>) result).isEmpty();
+		return true;
+	}
+
+	private static class Branch {
+
+		private final JsonPath condition;
+
+		private final String toAddress;
+
+		private Branch(JsonPath condition, String toAddress) {
+			this.condition = condition;
+			this.toAddress = toAddress;
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package io.mosip.registration.processor.core.workflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+
+import io.mosip.registration.processor.core.constant.JsonConstant;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
+import net.minidev.json.JSONArray;
+
+/**
+ * The pause rules of the camel bridge, compiled once. Also used by the stages
+ * of a stage group handing messages over to each other without the camel
+ * bridge.
+ *
+ * The from address pattern and the match expression of every rule are
+ * compiled when the engine is created, so an invalid rule fails then instead
+ * of on every message. The rules applicable to a from address are looked up
+ * once per address, the addresses being the few bus addresses of the routes,
+ * and the message is parsed once, only when a rule applies to its address.
+ *
+ * @author Vishwanath V
+ */
+public class PauseRuleEngine {
+
+	private final List<PauseRule> rules;
+
+	private final Map<String, List<PauseRule>> rulesByFromAddress = new ConcurrentHashMap<>();
+
+	private final Configuration configuration = Configuration.defaultConfiguration();
+
+	/**
+	 * Compiles the rules.
+	 *
+	 * @param settings the pause rules, in the order they are matched
+	 * @throws com.jayway.jsonpath.InvalidPathException   when a match expression
+	 *                                                    is not valid
+	 * @throws java.util.regex.PatternSyntaxException when a from address is not
+	 *                                                    valid
+	 */
+	public PauseRuleEngine(Setting[] settings) {
+		List<PauseRule> compiledRules = new ArrayList<>(settings.length);
+		for (Setting setting : settings)
+			compiledRules.add(new PauseRule(setting));
+		this.rules = compiledRules;
+	}
+
+	/**
+	 * Gets the rules the message matches.
+	 *
+	 * @param fromAddress the address the message is from
+	 * @param message     the message
+	 * @param tags        the tags of the message, the rules of its pause
+	 *                    immunity rule ids are skipped
+	 * @return the rules matched, in the order of the rules
+	 */
+	public List<Setting> match(String fromAddress, String message, Map<String, String> tags) {
+		return match(fromAddress, () -> configuration.jsonProvider().parse(message), tags);
+	}
+
+	/**
+	 * Gets the rules the message matches.
+	 *
+	 * @param fromAddress the address the message is from
+	 * @param document    gives the json document of the message, a map as
+	 *                    given by the json provider, called once when a rule
+	 *                    applies to the address
+	 * @param tags        the tags of the message, the rules of its pause
+	 *                    immunity rule ids are skipped
+	 * @return the rules matched, in the order of the rules
+	 */
+	public List<Setting> match(String fromAddress, Supplier<Object> document, Map<String, String> tags) {
+		List<PauseRule> applicableRules = rulesByFromAddress.computeIfAbsent(fromAddress, this::getApplicableRules);
+		if (applicableRules.isEmpty())
+			return Collections.emptyList();
+		String pauseRuleImmunity = tags != null ? tags.get(JsonConstant.PAUSERULEIMMUNITYRULEIDS) : null;
+		Object json = null;
+		List<Setting> matchedRules = new ArrayList<>();
+		for (PauseRule rule : applicableRules) {
+			if (pauseRuleImmunity != null && pauseRuleImmunity.contains(rule.setting.getRuleId()))
+				continue;
+			if (json == null)
+				json = document.get();
+			JSONArray jsonArray = rule.matchExpression.read(json, configuration);
+			if (!jsonArray.isEmpty())
+				matchedRules.add(rule.setting);
+		}
+		return matchedRules;
+	}
+
+	private List<PauseRule> getApplicableRules(String fromAddress) {
+		List<PauseRule> applicableRules = new ArrayList<>();
+		for (PauseRule rule : rules) {
+			if (rule.fromAddress.matcher(fromAddress).matches())
+				applicableRules.add(rule);
+		}
+		return applicableRules;
+	}
+
+	private static class PauseRule {
+
+		private final Setting setting;
+
+		private final Pattern fromAddress;
+
+		private final JsonPath matchExpression;
+
+		private PauseRule(Setting setting) {
+			this.setting = setting;
+			this.fromAddress = Pattern.compile(setting.getFromAddress());
+			this.matchExpression = JsonPath.compile(setting.getMatchExpression());
+		}
+	}
+
+}
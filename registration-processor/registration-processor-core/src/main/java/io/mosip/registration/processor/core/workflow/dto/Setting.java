@@ -1,4 +1,4 @@
-package io.mosip.registration.processor.camel.bridge.model;
+package io.mosip.registration.processor.core.workflow.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
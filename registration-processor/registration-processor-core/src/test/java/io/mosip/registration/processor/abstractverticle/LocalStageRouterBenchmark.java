@@ -0,0 +1,225 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.jayway.jsonpath.Configuration;
+
+import io.mosip.registration.processor.core.abstractverticle.EventDTO;
+import io.mosip.registration.processor.core.abstractverticle.LocalStageRouter;
+import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
+import io.mosip.registration.processor.core.workflow.CamelRouteTable;
+import io.mosip.registration.processor.core.workflow.PauseRuleEngine;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.EventBusOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+
+/**
+ * Compares the end to end latency of a packet going through the 4 stages of a
+ * stage group, one packet at a time, when every hop goes through the camel
+ * bridge and when the stages hand the packet over to each other. The stage
+ * group and the camel bridge are clustered Vert.x members on the loopback
+ * interface, the camel bridge checks the pause rules and the route of the
+ * message as the camel bridge does. The stages do nothing but decode and
+ * encode the message, so the difference is the cost of the hops alone, a
+ * broker round trip of a kafka event bus would be added to every hop through
+ * the camel bridge.
+ *
+ * Not run as part of the unit tests, run the main method from the test
+ * classpath.
+ */
+public class LocalStageRouterBenchmark {
+
+	private static final int STAGES = 4;
+
+	private static final int WARMUP_PACKETS = 2000;
+
+	private static final int PACKETS = 5000;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final Configuration CONFIGURATION = Configuration.defaultConfiguration();
+
+	public static void main(String[] args) throws Exception {
+		StringBuilder routesXml = new StringBuilder("<routes xmlns=\"http://camel.apache.org/schema/spring\">");
+		for (int i = 0; i < STAGES - 1; i++)
+			routesXml.append("<route><from uri=\"eventbus://stage").append(i).append("-new-bus-out\"/><choice><when>")
+					.append("<jsonpath>$.[?(@['isValid'] == true &amp;&amp; @['internalError'] == false)]</jsonpath>")
+					.append("<to uri=\"eventbus://stage").append(i + 1).append("-bus-in\"/></when>")
+					.append("<otherwise><to uri=\"workflow-cmd://mark-as-reprocess\"/></otherwise></choice></route>");
+		routesXml.append("</routes>");
+		CamelRouteTable routeTable = new CamelRouteTable();
+		routeTable.addRoutes(new ByteArrayInputStream(routesXml.toString().getBytes(StandardCharsets.UTF_8)));
+		PauseRuleEngine pauseRuleEngine = new PauseRuleEngine(new Setting[] {
+				new Setting("HOTLISTED_OPERATOR", "$.tags[?(@['HOTLISTED'] == 'operator')]", 432000,
+						"STOP_PROCESSING", ".*", "Hotlisted operator paused"),
+				new Setting("HOTLISTED_DEVICE", "$.tags[?(@['HOTLISTED'] == 'device')]", 432000, "STOP_PROCESSING",
+						".*", "Hotlisted device paused"),
+				new Setting("NON_RESIDENT_CHILD_APPLICANT",
+						"$.tags[?(@['AGE_GROUP'] == 'CHILD' && @['ID_OBJECT-residenceStatus'] == 'nonResident')]",
+						400, "RESUME_PROCESSING", ".*", "Non resident child applicant paused") });
+
+		Vertx stageGroup = clusteredVertx(5711);
+		Vertx camelBridge = clusteredVertx(5712);
+		for (int i = 0; i < STAGES - 1; i++) {
+			String fromAddress = "stage" + i + "-new-bus-out";
+			camelBridge.eventBus().<String>consumer(fromAddress, msg -> {
+				Object document = CONFIGURATION.jsonProvider().parse(msg.body());
+				Map<String, String> tags = decode(msg.body()).getTags();
+				if (pauseRuleEngine.match("eventbus://" + fromAddress, msg.body(), tags).isEmpty())
+					camelBridge.eventBus().send(routeTable.getNextHop(fromAddress, document), msg.body());
+			});
+		}
+
+		LocalStageRouter localStageRouter = new LocalStageRouter();
+		ReflectionTestUtils.setField(localStageRouter, "enabled", true);
+		ReflectionTestUtils.setField(localStageRouter, "queueSize", 100);
+		ReflectionTestUtils.setField(localStageRouter, "routeTable", routeTable);
+		ReflectionTestUtils.setField(localStageRouter, "pauseRuleEngine", pauseRuleEngine);
+
+		Stages stages = new Stages(stageGroup, localStageRouter);
+		for (int i = 0; i < STAGES; i++)
+			stages.deploy(i);
+
+		System.out.println("mode             p50 us   p99 us  mean us");
+		stages.handOver = false;
+		run(stages, WARMUP_PACKETS);
+		report("camel bridge", run(stages, PACKETS));
+		stages.handOver = true;
+		run(stages, WARMUP_PACKETS);
+		report("hand-over", run(stages, PACKETS));
+		System.exit(0);
+	}
+
+	private static long[] run(Stages stages, int packets) throws Exception {
+		long[] latencies = new long[packets];
+		for (int i = 0; i < packets; i++) {
+			stages.completed = new CompletableFuture<>();
+			long start = System.nanoTime();
+			stages.vertx.eventBus().send("stage0-bus-in", JsonObject.mapFrom(packet(i)).toString());
+			stages.completed.get(10, TimeUnit.SECONDS);
+			latencies[i] = System.nanoTime() - start;
+		}
+		return latencies;
+	}
+
+	private static void report(String mode, long[] latencies) {
+		Arrays.sort(latencies);
+		long mean = (long) Arrays.stream(latencies).average().orElse(0);
+		System.out.println(String.format("%-14s %8d %8d %8d", mode,
+				TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+				TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length * 99 / 100]),
+				TimeUnit.NANOSECONDS.toMicros(mean)));
+	}
+
+	private static MessageDTO packet(int i) {
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid(String.format("10002100741000120201231%06d", i));
+		messageDTO.setWorkflowInstanceId("a8b5c2d1-6f3e-4a7b-9c0d-1e2f3a4b5c6d");
+		messageDTO.setReg_type("NEW");
+		messageDTO.setIteration(1);
+		messageDTO.setSource("REGISTRATION_CLIENT");
+		messageDTO.setIsValid(true);
+		messageDTO.setInternalError(false);
+		Map<String, String> tags = new HashMap<>();
+		tags.put("AGE_GROUP", "ADULT");
+		tags.put("ID_OBJECT-residenceStatus", "resident");
+		tags.put("ID_OBJECT-gender", "Female");
+		tags.put("META_INFO-CAPTURED_REGISTERED_DEVICES-Finger", "MOSIP-FINGER-01");
+		tags.put("PACKET_CREATION_DATE", "2021-01-01T00:00:00.000Z");
+		messageDTO.setTags(tags);
+		return messageDTO;
+	}
+
+	private static MessageDTO decode(String body) {
+		try {
+			return OBJECT_MAPPER.readValue(body, MessageDTO.class);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Vertx clusteredVertx(int eventBusPort) throws Exception {
+		Config config = new Config();
+		config.getGroupConfig().setName("local-stage-router-benchmark");
+		JoinConfig join = config.getNetworkConfig().getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+		config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+		VertxOptions options = new VertxOptions().setClustered(true)
+				.setClusterManager(new HazelcastClusterManager(config)).setHAEnabled(false)
+				.setEventBusOptions(new EventBusOptions().setPort(eventBusPort).setHost("127.0.0.1"));
+		CompletableFuture<Vertx> vertx = new CompletableFuture<>();
+		Vertx.clusteredVertx(options, result -> {
+			if (result.succeeded())
+				vertx.complete(result.result());
+			else
+				vertx.completeExceptionally(result.cause());
+		});
+		return vertx.get();
+	}
+
+	/*
+	 * The stages of the group, processing a message the way the stages do, on
+	 * a worker, and sending it out on the event bus unless handed over
+	 */
+	private static class Stages {
+
+		private final Vertx vertx;
+
+		private final LocalStageRouter localStageRouter;
+
+		private volatile boolean handOver;
+
+		private volatile CompletableFuture<MessageDTO> completed;
+
+		private Stages(Vertx vertx, LocalStageRouter localStageRouter) {
+			this.vertx = vertx;
+			this.localStageRouter = localStageRouter;
+		}
+
+		private void deploy(int stage) {
+			MessageBusAddress fromAddress = new MessageBusAddress("stage" + stage + "-bus-in");
+			MessageBusAddress toAddress = new MessageBusAddress("stage" + stage + "-bus-out");
+			boolean last = stage == STAGES - 1;
+			EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler = (event, handler) -> vertx
+					.<MessageDTO>executeBlocking(future -> {
+						MessageDTO messageDTO = event.getMessage() != null ? event.getMessage()
+								: decode(event.getBody().encode());
+						future.complete(messageDTO);
+					}, false, res -> {
+						if (last)
+							completed.complete(res.result());
+						else if (!handOver || !localStageRouter.handOver(toAddress, res.result(), null))
+							vertx.eventBus().send(new MessageBusAddress(toAddress, "NEW").getAddress(),
+									JsonObject.mapFrom(res.result()).toString());
+						handler.handle(res);
+					});
+			localStageRouter.register(fromAddress, vertx, 10, eventHandler);
+			vertx.eventBus().<String>consumer(fromAddress.getAddress(), msg -> {
+				EventDTO eventDTO = new EventDTO();
+				eventDTO.setBody(new JsonObject(msg.body()));
+				eventHandler.handle(eventDTO, res -> {
+				});
+			});
+		}
+	}
+
+}
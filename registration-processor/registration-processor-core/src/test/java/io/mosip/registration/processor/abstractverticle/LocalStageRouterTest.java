@@ -0,0 +1,125 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import brave.Span;
+import brave.Tracing;
+import io.mosip.registration.processor.core.abstractverticle.EventDTO;
+import io.mosip.registration.processor.core.abstractverticle.LocalStageRouter;
+import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.workflow.CamelRouteTable;
+import io.mosip.registration.processor.core.workflow.PauseRuleEngine;
+import io.mosip.registration.processor.core.workflow.dto.Setting;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+public class LocalStageRouterTest {
+
+	private LocalStageRouter localStageRouter;
+
+	private Vertx vertx;
+
+	private BlockingQueue<EventDTO> received;
+
+	private BlockingQueue<Handler<AsyncResult<MessageDTO>>> pending;
+
+	@Before
+	public void setup() throws Exception {
+		CamelRouteTable camelRouteTable = new CamelRouteTable();
+		try (InputStream routesXml = getClass().getClassLoader().getResourceAsStream("camel-routes-new.xml")) {
+			camelRouteTable.addRoutes(routesXml);
+		}
+		localStageRouter = new LocalStageRouter();
+		ReflectionTestUtils.setField(localStageRouter, "enabled", true);
+		ReflectionTestUtils.setField(localStageRouter, "queueSize", 2);
+		ReflectionTestUtils.setField(localStageRouter, "routeTable", camelRouteTable);
+		ReflectionTestUtils.setField(localStageRouter, "pauseRuleEngine",
+				new PauseRuleEngine(new Setting[] { new Setting("HOTLISTED_OPERATOR",
+						"$.tags[?(@['HOTLISTED'] == 'operator')]", 400, "STOP_PROCESSING", ".*packet-validator.*",
+						"Hotlisted operator paused") }));
+		vertx = Vertx.vertx();
+		received = new LinkedBlockingQueue<>();
+		pending = new LinkedBlockingQueue<>();
+		localStageRouter.register(MessageBusAddress.PACKET_CLASSIFIER_BUS_IN, vertx, 1,
+				(EventDTO event, Handler<AsyncResult<MessageDTO>> handler) -> {
+					pending.add(handler);
+					received.add(event);
+				});
+	}
+
+	@After
+	public void tearDown() {
+		vertx.close();
+	}
+
+	@Test
+	public void testMessageHandedOverToNextStage() throws Exception {
+		MessageDTO message = message(true, null);
+
+		assertTrue(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message, null));
+		assertSame(message, received.poll(10, TimeUnit.SECONDS).getMessage());
+	}
+
+	@Test
+	public void testSpanCarriedOnHandedOverMessage() throws Exception {
+		Span span = Tracing.newBuilder().build().tracer().nextSpan().start();
+
+		assertTrue(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(true, null), span));
+		assertSame(span, received.poll(10, TimeUnit.SECONDS).getSpan());
+	}
+
+	@Test
+	public void testPausedMessageNotHandedOver() throws Exception {
+		Map<String, String> tags = new HashMap<>();
+		tags.put("HOTLISTED", "operator");
+
+		assertFalse(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(true, tags), null));
+		assertFalse(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(false, null), null));
+		// a pause rule failing on the message
+		MessageDTO message = message(true, null);
+		message.setTags(null);
+		assertFalse(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message, null));
+		assertTrue(received.isEmpty());
+	}
+
+	@Test
+	public void testMessageSentOnBusWhenQueueFull() throws Exception {
+		assertTrue(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(true, null), null));
+		received.poll(10, TimeUnit.SECONDS);
+		// the only worker is busy, two messages are queued
+		assertTrue(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(true, null), null));
+		assertTrue(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(true, null), null));
+		assertFalse(localStageRouter.handOver(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, message(true, null), null));
+
+		pending.poll(10, TimeUnit.SECONDS).handle(Future.succeededFuture());
+		assertTrue(received.poll(10, TimeUnit.SECONDS) != null);
+	}
+
+	private MessageDTO message(boolean isValid, Map<String, String> tags) {
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid("10002100741000120201231071308");
+		messageDTO.setReg_type("NEW");
+		messageDTO.setIsValid(isValid);
+		messageDTO.setInternalError(false);
+		messageDTO.setTags(tags != null ? tags : new HashMap<>());
+		return messageDTO;
+	}
+
+}
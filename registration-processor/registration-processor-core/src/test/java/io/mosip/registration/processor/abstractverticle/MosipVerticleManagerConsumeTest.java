@@ -1,5 +1,10 @@
 package io.mosip.registration.processor.abstractverticle;
 
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.junit.Assert.assertTrue;
 
 import io.mosip.registration.processor.core.tracing.EventTracingHandler;
@@ -12,15 +17,21 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import io.mosip.registration.processor.core.abstractverticle.LocalStageRouter;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.abstractverticle.SharedClusteredVertx;
 import io.mosip.registration.processor.core.constant.RegistrationType;
+import io.mosip.registration.processor.core.util.PropertiesUtil;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RunWith(VertxUnitRunner.class)
 public class MosipVerticleManagerConsumeTest {
@@ -62,6 +73,55 @@ public class MosipVerticleManagerConsumeTest {
 		assertTrue(vertx.isClustered());
 	}
 
+	@Test
+	public void testStagesShareClusteredVertx() {
+		vertx.close();
+		SharedClusteredVertx sharedClusteredVertx = new SharedClusteredVertx();
+		ReflectionTestUtils.setField(sharedClusteredVertx, "enabled", true);
+		ReflectionTestUtils.setField(sharedClusteredVertx, "eventBusPort", 0);
+		ConsumerVerticle firstStage = new ConsumerVerticle();
+		ReflectionTestUtils.setField(firstStage, "sharedClusteredVertx", sharedClusteredVertx);
+		ConsumerVerticle secondStage = new ConsumerVerticle();
+		ReflectionTestUtils.setField(secondStage, "sharedClusteredVertx", sharedClusteredVertx);
+
+		Vertx firstVertx = firstStage.deployVerticle().getEventbus();
+		Vertx secondVertx = secondStage.deployVerticle().getEventbus();
+		assertTrue(firstVertx.isClustered());
+		assertSame(firstVertx, secondVertx);
+		firstVertx.close();
+	}
+
+	@Test
+	public void testConsumeAndSendHandsOverToNextStage(TestContext testContext) {
+		LocalStageRouter localStageRouter = Mockito.mock(LocalStageRouter.class);
+		Mockito.when(localStageRouter.isEnabled()).thenReturn(true);
+		// the first message is handed over, the second one is not
+		Mockito.when(localStageRouter.handOver(any(), any(), any())).thenReturn(true, false);
+		PropertiesUtil propertiesUtil = Mockito.mock(PropertiesUtil.class);
+		Mockito.when(propertiesUtil.getProperty(anyString(), eq(Boolean.class), any())).thenReturn(true);
+		ConsumerVerticle stage = new ConsumerVerticle();
+		ReflectionTestUtils.setField(stage, "localStageRouter", localStageRouter);
+		ReflectionTestUtils.setField(stage, "propertiesUtil", propertiesUtil);
+		ReflectionTestUtils.setField(stage, "objectMapper", new ObjectMapper());
+		final Async deployed = testContext.async();
+		vertx.deployVerticle(stage, testContext.asyncAssertSuccess(id -> deployed.complete()));
+		deployed.awaitSuccess();
+
+		final Async sent = testContext.async();
+		vertx.eventBus().consumer("packet-validator-new-bus-out", msg -> sent.complete());
+		stage.consumeAndSend(stage.mosipEventBus, MessageBusAddress.PACKET_VALIDATOR_BUS_IN,
+				MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, 0);
+		String message = JsonObject.mapFrom(this.messageDTO).toString();
+		vertx.eventBus().send(MessageBusAddress.PACKET_VALIDATOR_BUS_IN.getAddress(), message);
+		vertx.eventBus().send(MessageBusAddress.PACKET_VALIDATOR_BUS_IN.getAddress(), message);
+		sent.awaitSuccess();
+
+		Mockito.verify(localStageRouter).register(eq(MessageBusAddress.PACKET_VALIDATOR_BUS_IN), any(),
+				anyInt(), any());
+		Mockito.verify(localStageRouter, Mockito.times(2)).handOver(eq(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT),
+				any(), any());
+	}
+
 	@Test
 	public void checkSend(TestContext testContext) {
 		final Async async = testContext.async();
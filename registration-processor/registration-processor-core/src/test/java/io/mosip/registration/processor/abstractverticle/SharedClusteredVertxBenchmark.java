@@ -0,0 +1,178 @@
+package io.mosip.registration.processor.abstractverticle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.EventBusOptions;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+
+/**
+ * Compares the startup time and the resident memory of the stages of each
+ * stage group deployed the way the stage executor deploys them, a clustered
+ * Vert.x with its Hazelcast member per stage, against a clustered Vert.x
+ * shared by the stages of the group. Each stage consumes its bus address and
+ * gets a worker pool of its own. The Hazelcast members join on the loopback
+ * interface, the stages themselves, their Spring context and their clients,
+ * are the same whatever the mode and are not started.
+ *
+ * Not run as part of the unit tests, run the main method from the test
+ * classpath, each stage group and mode is run in a JVM of its own.
+ */
+public class SharedClusteredVertxBenchmark {
+
+	/*
+	 * The stages of registration-processor-stage-group-1 to 7
+	 */
+	private static final Map<String, Integer> STAGE_GROUPS = new LinkedHashMap<>();
+
+	static {
+		STAGE_GROUPS.put("stage-group-1", 1);
+		STAGE_GROUPS.put("stage-group-2", 3);
+		STAGE_GROUPS.put("stage-group-3", 4);
+		STAGE_GROUPS.put("stage-group-4", 2);
+		STAGE_GROUPS.put("stage-group-5", 5);
+		STAGE_GROUPS.put("stage-group-6", 3);
+		STAGE_GROUPS.put("stage-group-7", 4);
+	}
+
+	private static final int WORKER_POOL_SIZE = 10;
+
+	private static final int EVENT_BUS_PORT = 5711;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 2) {
+			deployStages(Boolean.parseBoolean(args[0]), Integer.parseInt(args[1]));
+			return;
+		}
+		System.out.println("group          stages  per-stage ms  per-stage MB  shared ms  shared MB");
+		for (Map.Entry<String, Integer> stageGroup : STAGE_GROUPS.entrySet()) {
+			String[] perStage = fork(false, stageGroup.getValue());
+			String[] shared = fork(true, stageGroup.getValue());
+			System.out.println(String.format("%-14s %6d %13s %13s %10s %10s", stageGroup.getKey(),
+					stageGroup.getValue(), perStage[0], perStage[1], shared[0], shared[1]));
+		}
+	}
+
+	private static String[] fork(boolean shared, int stages) throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.add("-Xmx512m");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(SharedClusteredVertxBenchmark.class.getName());
+		command.add(Boolean.toString(shared));
+		command.add(Integer.toString(stages));
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+		String result = null;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine())
+				if (line.startsWith("result "))
+					result = line.substring("result ".length());
+		}
+		process.waitFor();
+		return result != null ? result.split(" ") : new String[] { "-", "-" };
+	}
+
+	private static void deployStages(boolean shared, int stages) throws Exception {
+		long start = System.nanoTime();
+		// the stages are deployed in parallel, as by the stage executor
+		ExecutorService executorService = Executors.newFixedThreadPool(stages);
+		CompletableFuture<Vertx> sharedVertx = new CompletableFuture<>();
+		if (shared)
+			sharedVertx = CompletableFuture.supplyAsync(() -> clusteredVertx(EVENT_BUS_PORT), executorService);
+		List<Future<?>> deployments = new ArrayList<>();
+		for (int i = 0; i < stages; i++) {
+			String stageName = "stage-" + i;
+			int eventBusPort = EVENT_BUS_PORT + i;
+			CompletableFuture<Vertx> stageVertx = sharedVertx;
+			deployments.add(executorService.submit(() -> {
+				if (shared) {
+					Vertx vertx = stageVertx.join();
+					vertx.createSharedWorkerExecutor(stageName + "-worker", WORKER_POOL_SIZE);
+					deploy(vertx, stageName, new DeploymentOptions().setWorker(true)
+							.setWorkerPoolName(stageName + "-worker").setWorkerPoolSize(WORKER_POOL_SIZE));
+				} else {
+					deploy(clusteredVertx(eventBusPort), stageName,
+							new DeploymentOptions().setWorker(true).setWorkerPoolSize(WORKER_POOL_SIZE));
+				}
+				return null;
+			}));
+		}
+		for (Future<?> deployment : deployments)
+			deployment.get();
+		long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		// let the members settle before the memory is read
+		Thread.sleep(5000);
+		System.gc();
+		System.out.println("result " + startupMillis + " " + residentMegabytes());
+		System.exit(0);
+	}
+
+	private static Vertx clusteredVertx(int eventBusPort) {
+		Config config = new Config();
+		config.getGroupConfig().setName("shared-clustered-vertx-benchmark");
+		JoinConfig join = config.getNetworkConfig().getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+		config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+		VertxOptions options = new VertxOptions().setClustered(true)
+				.setClusterManager(new HazelcastClusterManager(config)).setHAEnabled(false)
+				.setWorkerPoolSize(WORKER_POOL_SIZE)
+				.setEventBusOptions(new EventBusOptions().setPort(eventBusPort).setHost("127.0.0.1"))
+				.setMetricsOptions(new MicrometerMetricsOptions()
+						.setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true)).setEnabled(true));
+		CompletableFuture<Vertx> vertx = new CompletableFuture<>();
+		Vertx.clusteredVertx(options, result -> {
+			if (result.succeeded())
+				vertx.complete(result.result());
+			else
+				vertx.completeExceptionally(result.cause());
+		});
+		return vertx.join();
+	}
+
+	private static void deploy(Vertx vertx, String stageName, DeploymentOptions deploymentOptions) throws Exception {
+		CompletableFuture<String> deployed = new CompletableFuture<>();
+		vertx.deployVerticle(new AbstractVerticle() {
+			@Override
+			public void start() {
+				vertx.eventBus().consumer(stageName + "-bus-in", message -> message.reply(message.body()));
+			}
+		}, deploymentOptions, result -> {
+			if (result.succeeded())
+				deployed.complete(result.result());
+			else
+				deployed.completeExceptionally(result.cause());
+		});
+		deployed.get();
+	}
+
+	private static long residentMegabytes() throws Exception {
+		for (String line : Files.readAllLines(Paths.get("/proc/self/status")))
+			if (line.startsWith("VmRSS:"))
+				return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+		return -1;
+	}
+
+}
@@ -0,0 +1,127 @@
+package io.mosip.registration.processor.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+
+public class PacketTagCacheTest {
+
+	private PacketTagCache packetTagCache;
+
+	@Before
+	public void setup() {
+		packetTagCache = new PacketTagCache(true, 2, 600);
+	}
+
+	@Test
+	public void testGetFromIncomingMessageTags() {
+		MessageDTO messageDTO = getMessageDTO("10001", 1, "wf1");
+		packetTagCache.put(messageDTO);
+
+		Map<String, String> tags = packetTagCache.get(getMessageDTO("10001", 1, "wf1"));
+		assertEquals("NEW", tags.get("REGISTRATION_TYPE"));
+		assertEquals(1, packetTagCache.getHitCount());
+		assertEquals(0, packetTagCache.getMissCount());
+	}
+
+	@Test
+	public void testMissForDifferentIterationOrWorkflowInstance() {
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+
+		assertNull(packetTagCache.get(getMessageDTO("10001", 2, "wf1")));
+		assertNull(packetTagCache.get(getMessageDTO("10001", 1, "wf2")));
+		assertNull(packetTagCache.get(getMessageDTO("10002", 1, "wf1")));
+		assertEquals(3, packetTagCache.getMissCount());
+	}
+
+	@Test
+	public void testIncomingMessageWithoutTagsInvalidates() {
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+		MessageDTO messageDTO = getMessageDTO("10001", 1, "wf1");
+		messageDTO.setTags(null);
+		packetTagCache.put(messageDTO);
+
+		assertNull(packetTagCache.get(messageDTO));
+	}
+
+	@Test
+	public void testWriteThrough() {
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+		Map<String, String> updatedTags = new HashMap<>();
+		updatedTags.put("AGE_GROUP", "ADULT");
+		packetTagCache.addOrUpdate("10001", updatedTags);
+		packetTagCache.delete("10001", Arrays.asList("REGISTRATION_TYPE"));
+
+		Map<String, String> tags = packetTagCache.get(getMessageDTO("10001", 1, "wf1"));
+		assertEquals(1, tags.size());
+		assertEquals("ADULT", tags.get("AGE_GROUP"));
+	}
+
+	@Test
+	public void testEvictionBySize() {
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+		packetTagCache.put(getMessageDTO("10002", 1, "wf1"));
+		packetTagCache.get(getMessageDTO("10001", 1, "wf1"));
+		packetTagCache.put(getMessageDTO("10003", 1, "wf1"));
+
+		assertEquals(2, packetTagCache.size());
+		assertEquals(1, packetTagCache.getEvictionCount());
+		assertNull(packetTagCache.get(getMessageDTO("10002", 1, "wf1")));
+	}
+
+	@Test
+	public void testEvictionByExpiry() throws InterruptedException {
+		packetTagCache = new PacketTagCache(true, 10, 0);
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+		Thread.sleep(5);
+
+		assertNull(packetTagCache.get(getMessageDTO("10001", 1, "wf1")));
+		assertEquals(1, packetTagCache.getEvictionCount());
+		assertEquals(0, packetTagCache.size());
+	}
+
+	@Test
+	public void testDisabled() {
+		packetTagCache = new PacketTagCache(false, 10, 600);
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+
+		assertNull(packetTagCache.get(getMessageDTO("10001", 1, "wf1")));
+		assertEquals(0, packetTagCache.getMissCount());
+	}
+
+	@Test
+	public void testMetrics() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		packetTagCache.bindTo(registry);
+		packetTagCache.put(getMessageDTO("10001", 1, "wf1"));
+		packetTagCache.get(getMessageDTO("10001", 1, "wf1"));
+		packetTagCache.get(getMessageDTO("10002", 1, "wf1"));
+
+		assertEquals(1.0, registry.get("mosip.regproc.packet.tag.cache.requests")
+				.tag("result", "hit").functionCounter().count(), 0);
+		assertEquals(1.0, registry.get("mosip.regproc.packet.tag.cache.requests")
+				.tag("result", "miss").functionCounter().count(), 0);
+		assertEquals(1.0, registry.get("mosip.regproc.packet.tag.cache.size").gauge().value(), 0);
+	}
+
+	private MessageDTO getMessageDTO(String rid, int iteration, String workflowInstanceId) {
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid(rid);
+		messageDTO.setIteration(iteration);
+		messageDTO.setWorkflowInstanceId(workflowInstanceId);
+		Map<String, String> tags = new HashMap<>();
+		tags.put("REGISTRATION_TYPE", "NEW");
+		messageDTO.setTags(tags);
+		return messageDTO;
+	}
+
+}
@@ -1,5 +1,6 @@
 package io.mosip.registration.processor.core.eventbus;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -10,12 +11,17 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import brave.Span;
 import brave.Tracing;
 import io.mosip.registration.processor.core.tracing.EventTracingHandler;
+import io.mosip.registration.processor.core.tracing.TracingConstant;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.TopicPartition;
@@ -41,6 +47,7 @@ import io.mosip.registration.processor.core.constant.RegistrationType;
 import io.mosip.registration.processor.core.exception.MessageExpiredException;
 import io.mosip.registration.processor.core.spi.eventbus.EventHandler;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
@@ -51,6 +58,7 @@ import io.vertx.kafka.client.consumer.KafkaConsumer;
 import io.vertx.kafka.client.consumer.KafkaConsumerRecords;
 import io.vertx.kafka.client.consumer.OffsetAndMetadata;
 import io.vertx.kafka.client.consumer.impl.KafkaConsumerRecordsImpl;
+import io.vertx.kafka.client.producer.KafkaHeader;
 import io.vertx.kafka.client.producer.KafkaProducer;
 import io.vertx.kafka.client.producer.KafkaProducerRecord;
 
@@ -107,6 +115,24 @@ public class KafkaMosipEventBusTest {
 		verify(kafkaProducer, times(1)).write(any(KafkaProducerRecord.class),any(Handler.class));
 	}
 
+	@Test
+	public void testSendWithSpanOfConsumedEvent(TestContext testContext) {
+		kafkaMosipEventBus = new KafkaMosipEventBus(vertx, "localhost:9091", "group_1", 
+			"auto", "100", 60000, eventTracingHandler);
+		Span span = tracing.tracer().nextSpan().start();
+
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid("1001");
+		messageDTO.setReg_type(RegistrationType.NEW.name());
+		kafkaMosipEventBus.send(MessageBusAddress.PACKET_VALIDATOR_BUS_OUT, messageDTO, span);
+
+		ArgumentCaptor<KafkaProducerRecord> producerRecord = ArgumentCaptor.forClass(KafkaProducerRecord.class);
+		verify(kafkaProducer, times(1)).write(producerRecord.capture(), any(Handler.class));
+		List<KafkaHeader> headers = producerRecord.getValue().headers();
+		assertTrue(headers.stream().anyMatch(header -> header.key().equals(TracingConstant.SINGLE_LINE_B3_HEADER)
+			&& header.value().toString().equals(span.context().traceIdString() + "-" + span.context().spanIdString())));
+	}
+
 	@Test
 	public void testConsumeAndSendWithAutoCommitType(TestContext testContext) {
 		int testDataCount = 20;
@@ -605,9 +631,242 @@ public class KafkaMosipEventBusTest {
 		verify(kafkaProducer, times(0)).write(any(), any());
 	}
 
+	@Test
+	public void testConsumeWithOrderedWindowCommitType(TestContext testContext) {
+		int testDataCount = 20;
+		kafkaMosipEventBus = new KafkaMosipEventBus(Vertx.vertx(), "localhost:9091", "group_1", 
+			"ordered-window", "100", 60000, eventTracingHandler);
+		kafkaMosipEventBus.configureOrderedWindow(5, 5, 60000);
+		final Async async = testContext.async();
+			
+		AsyncResult<KafkaConsumerRecords<String, String>> asyncResult = 
+			Mockito.mock(AsyncResult.class);
+  		Mockito.when(asyncResult.succeeded()).thenReturn(true);
+  		Mockito.when(asyncResult.result()).thenReturn(prepareKafkaConsumerRecords(testDataCount));
+		doAnswer((Answer<AsyncResult<KafkaConsumerRecords<String, String>>>) arguments -> {
+			((Handler<AsyncResult<KafkaConsumerRecords<String, String>>>) arguments.getArgument(1))
+				.handle(asyncResult);
+            return null;
+		}).when(kafkaConsumer).poll(anyLong(), any());
+
+		AsyncResult<Void> voidAsyncResult = Mockito.mock(AsyncResult.class);
+		Mockito.when(voidAsyncResult.succeeded()).thenReturn(true);
+		  
+		doAnswer((Answer<AsyncResult<Void>>) arguments -> {
+            ((Handler<AsyncResult<Void>>) arguments.getArgument(1)).handle(voidAsyncResult);
+            return null;
+		}).when(kafkaConsumer).pause(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		doAnswer((Answer<AsyncResult<Void>>) arguments -> {
+            ((Handler<AsyncResult<Void>>) arguments.getArgument(1)).handle(voidAsyncResult);
+			if (!async.isCompleted())
+				async.complete();
+            return null;
+		}).when(kafkaConsumer).resume(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		doAnswer((Answer<AsyncResult<Void>>) arguments -> {
+            ((Handler<AsyncResult<Void>>) arguments.getArgument(1)).handle(voidAsyncResult);
+            return null;
+		}).when(kafkaConsumer).commit(anyMap(), any());
+
+		EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler = 
+			Mockito.mock(EventHandler.class);
+
+		doAnswer((Answer<AsyncResult<MessageDTO>>) arguments -> {
+			AsyncResult<MessageDTO> asyncResultForMessageDTO = Mockito.mock(AsyncResult.class);
+			Mockito.when(asyncResultForMessageDTO.succeeded()).thenReturn(true);
+			JsonObject jsonObject = (JsonObject) ((EventDTO) arguments.getArgument(0)).getBody();
+			MessageDTO messageDTO = jsonObject.mapTo(MessageDTO.class);
+			Mockito.when(asyncResultForMessageDTO.result()).thenReturn(messageDTO);
+			((Handler<AsyncResult<MessageDTO>>) arguments.getArgument(1))
+				.handle(asyncResultForMessageDTO);
+            return null;
+		}).when(eventHandler).handle(any(), any());
+		
+		kafkaMosipEventBus.consume(MessageBusAddress.PACKET_VALIDATOR_BUS_IN, eventHandler);
+		async.await();
+
+		verify(eventHandler, times(testDataCount)).handle(any(), any());
+
+		InOrder inOrder = Mockito.inOrder(kafkaConsumer);
+		inOrder.verify(kafkaConsumer, times(1)).pause(
+			any(io.vertx.kafka.client.common.TopicPartition.class), any());
+		inOrder.verify(kafkaConsumer, times(testDataCount / 5)).commit(anyMap(), any());
+		inOrder.verify(kafkaConsumer, times(1)).resume(
+			any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		ArgumentCaptor<Map<io.vertx.kafka.client.common.TopicPartition,OffsetAndMetadata>> argument = 
+			ArgumentCaptor.forClass(Map.class);
+		verify(kafkaConsumer, atLeastOnce()).commit(argument.capture(), any());
+		List<Map<io.vertx.kafka.client.common.TopicPartition,OffsetAndMetadata>> values = 
+			argument.getAllValues();
+		for(int i=0; i<values.size(); i++){
+			assertTrue("Commit method should be called once for every 5 completed records", 
+				values.get(i).entrySet().iterator().next().getValue().getOffset() == (i+1)*5);
+		}
+		verify(kafkaConsumer, times(0)).seek(
+			any(io.vertx.kafka.client.common.TopicPartition.class), anyLong(), any());
+		verify(kafkaProducer, times(0)).write(any(), any());
+	}
+
+	@Test
+	public void testConsumeWithOrderedWindowCommitTypeAndFailure(TestContext testContext) {
+		int testDataCount = 20;
+		kafkaMosipEventBus = new KafkaMosipEventBus(Vertx.vertx(), "localhost:9091", "group_1",
+			"ordered-window", "100", 60000, eventTracingHandler);
+		kafkaMosipEventBus.configureOrderedWindow(5, 5, 60000, 2, 10);
+		final Async async = testContext.async();
+		mockOrderedWindowConsumer(testDataCount, async, testDataCount);
+
+		EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler =
+			Mockito.mock(EventHandler.class);
+		doAnswer((Answer<AsyncResult<MessageDTO>>) arguments -> {
+			MessageDTO messageDTO = ((JsonObject) ((EventDTO) arguments.getArgument(0)).getBody())
+				.mapTo(MessageDTO.class);
+			((Handler<AsyncResult<MessageDTO>>) arguments.getArgument(1)).handle(
+				messageDTO.getRid().equals("10007") ? Future.failedFuture(new RuntimeException("failed"))
+					: Future.succeededFuture(messageDTO));
+            return null;
+		}).when(eventHandler).handle(any(), any());
+
+		kafkaMosipEventBus.consume(MessageBusAddress.PACKET_VALIDATOR_BUS_IN, eventHandler);
+		async.await();
+
+		//the failed record is retried alone, the records after it are not processed again
+		verify(eventHandler, times(testDataCount + 2)).handle(any(), any());
+		assertEquals("Commit should stop before the failed record until it is skipped",
+			Arrays.asList(5L, 7L, 20L), committedOffsets());
+		verify(kafkaConsumer, times(0)).seek(
+			any(io.vertx.kafka.client.common.TopicPartition.class), anyLong(), any());
+	}
+
+	@Test
+	public void testConsumeWithOrderedWindowCommitTypeAndRetry(TestContext testContext) {
+		int testDataCount = 20;
+		kafkaMosipEventBus = new KafkaMosipEventBus(Vertx.vertx(), "localhost:9091", "group_1",
+			"ordered-window", "100", 60000, eventTracingHandler);
+		kafkaMosipEventBus.configureOrderedWindow(5, 5, 60000, 2, 10);
+		final Async async = testContext.async();
+		mockOrderedWindowConsumer(testDataCount, async, testDataCount);
+
+		AtomicInteger failedRecordAttempts = new AtomicInteger();
+		EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler =
+			Mockito.mock(EventHandler.class);
+		doAnswer((Answer<AsyncResult<MessageDTO>>) arguments -> {
+			MessageDTO messageDTO = ((JsonObject) ((EventDTO) arguments.getArgument(0)).getBody())
+				.mapTo(MessageDTO.class);
+			boolean failed = messageDTO.getRid().equals("10007") && failedRecordAttempts.getAndIncrement() == 0;
+			((Handler<AsyncResult<MessageDTO>>) arguments.getArgument(1)).handle(
+				failed ? Future.failedFuture(new RuntimeException("failed")) : Future.succeededFuture(messageDTO));
+            return null;
+		}).when(eventHandler).handle(any(), any());
+
+		kafkaMosipEventBus.consume(MessageBusAddress.PACKET_VALIDATOR_BUS_IN, eventHandler);
+		async.await();
+
+		verify(eventHandler, times(testDataCount + 1)).handle(any(), any());
+		assertEquals(2, failedRecordAttempts.get());
+		assertEquals(Arrays.asList(5L, 7L, 20L), committedOffsets());
+	}
+
+	@Test
+	public void testOrderedWindowSpansPolls(TestContext testContext) {
+		kafkaMosipEventBus = new KafkaMosipEventBus(vertx, "localhost:9091", "group_1",
+			"ordered-window", "100", 60000, eventTracingHandler);
+		kafkaMosipEventBus.configureOrderedWindow(5, 100, 60000);
+		mockOrderedWindowConsumer(0, null, -1);
+
+		List<String> rids = new ArrayList<>();
+		List<Handler<AsyncResult<MessageDTO>>> handlers = new ArrayList<>();
+		EventHandler<EventDTO, Handler<AsyncResult<MessageDTO>>> eventHandler =
+			Mockito.mock(EventHandler.class);
+		doAnswer((Answer<AsyncResult<MessageDTO>>) arguments -> {
+			rids.add(((JsonObject) ((EventDTO) arguments.getArgument(0)).getBody()).getString("rid"));
+			handlers.add(arguments.getArgument(1));
+            return null;
+		}).when(eventHandler).handle(any(), any());
+
+		kafkaMosipEventBus.setupOrderedWindowCommitProcessing(
+			(KafkaConsumerRecords) prepareKafkaConsumerRecords(0, 8), null, eventHandler);
+		//the partition is paused while records of the poll wait for the window
+		assertEquals(5, rids.size());
+		verify(kafkaConsumer, times(1)).pause(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+		verify(kafkaConsumer, times(0)).resume(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		for(int i = 0; i < 5; i++)
+			handlers.get(i).handle(Future.succeededFuture(new MessageDTO()));
+		//and resumed once they are all taken, before they complete
+		assertEquals(8, rids.size());
+		verify(kafkaConsumer, times(1)).resume(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		kafkaMosipEventBus.setupOrderedWindowCommitProcessing(
+			(KafkaConsumerRecords) prepareKafkaConsumerRecords(8, 8), null, eventHandler);
+		//the records of the next poll fill the window along the records of the previous poll
+		assertEquals(Arrays.asList("10005", "10006", "10007", "10008", "10009"), rids.subList(5, 10));
+		verify(kafkaConsumer, times(2)).pause(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		//the records already taken are not taken again
+		kafkaMosipEventBus.setupOrderedWindowCommitProcessing(
+			(KafkaConsumerRecords) prepareKafkaConsumerRecords(0, 10), null, eventHandler);
+		assertEquals(10, rids.size());
+
+		for(int i = 5; i < handlers.size(); i++)
+			handlers.get(i).handle(Future.succeededFuture(new MessageDTO()));
+		assertEquals(16, rids.size());
+		verify(kafkaConsumer, times(2)).resume(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+		assertEquals(Arrays.asList(16L), committedOffsets());
+	}
+
+	/**
+	 * Mocks the consumer polling the records once and completing the async once
+	 * the offset is committed
+	 */
+	private void mockOrderedWindowConsumer(int recordCount, Async async, long lastOffset) {
+		AsyncResult<KafkaConsumerRecords<String, String>> asyncResult =
+			Mockito.mock(AsyncResult.class);
+  		Mockito.when(asyncResult.succeeded()).thenReturn(true);
+  		Mockito.when(asyncResult.result()).thenReturn(prepareKafkaConsumerRecords(recordCount));
+		doAnswer((Answer<AsyncResult<KafkaConsumerRecords<String, String>>>) arguments -> {
+			((Handler<AsyncResult<KafkaConsumerRecords<String, String>>>) arguments.getArgument(1))
+				.handle(asyncResult);
+            return null;
+		}).when(kafkaConsumer).poll(anyLong(), any());
+
+		doAnswer((Answer<AsyncResult<Void>>) arguments -> {
+            ((Handler<AsyncResult<Void>>) arguments.getArgument(1)).handle(Future.succeededFuture());
+            return null;
+		}).when(kafkaConsumer).pause(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		doAnswer((Answer<AsyncResult<Void>>) arguments -> {
+            ((Handler<AsyncResult<Void>>) arguments.getArgument(1)).handle(Future.succeededFuture());
+            return null;
+		}).when(kafkaConsumer).resume(any(io.vertx.kafka.client.common.TopicPartition.class), any());
+
+		doAnswer((Answer<AsyncResult<Void>>) arguments -> {
+			Map<io.vertx.kafka.client.common.TopicPartition,OffsetAndMetadata> offsets = arguments.getArgument(0);
+            ((Handler<AsyncResult<Void>>) arguments.getArgument(1)).handle(Future.succeededFuture());
+			if (async != null && offsets.values().iterator().next().getOffset() == lastOffset)
+				async.complete();
+            return null;
+		}).when(kafkaConsumer).commit(anyMap(), any());
+	}
+
+	private List<Long> committedOffsets() {
+		ArgumentCaptor<Map<io.vertx.kafka.client.common.TopicPartition,OffsetAndMetadata>> argument =
+			ArgumentCaptor.forClass(Map.class);
+		verify(kafkaConsumer, atLeastOnce()).commit(argument.capture(), any());
+		return argument.getAllValues().stream()
+			.map(offsets -> offsets.values().iterator().next().getOffset())
+			.collect(Collectors.toList());
+	}
+
 	private KafkaConsumerRecords<String, String> prepareKafkaConsumerRecords(int recordCount) {
+		return prepareKafkaConsumerRecords(0, recordCount);
+	}
+
+	private KafkaConsumerRecords<String, String> prepareKafkaConsumerRecords(int firstOffset, int recordCount) {
 		List<ConsumerRecord<String,String>> consumerRecordList = new ArrayList<>();
-		for(int i=0; i<recordCount; i++)
+		for(int i=firstOffset; i<firstOffset+recordCount; i++)
 			consumerRecordList.add(
 				new ConsumerRecord<String,String>(
 					MessageBusAddress.PACKET_VALIDATOR_BUS_IN.getAddress(), 0, i, "1000"+i,
@@ -0,0 +1,141 @@
+package io.mosip.registration.processor.core.eventbus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.constant.RegistrationType;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares the time and allocations of one stage hop (decode of the incoming
+ * message and encode of the outgoing message) between the json string path and
+ * the MessageDTO codec. Not run as part of the unit tests, run the main method
+ * from the test classpath, allocations are reported by the gc profiler as
+ * gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageDTOCodecBenchmark {
+
+	@Param({ "10", "50", "100" })
+	private int tagCount;
+
+	private ObjectMapper objectMapper;
+
+	private MessageDTOCodec codec;
+
+	private MessageDTO messageDTO;
+
+	private String jsonMessage;
+
+	private Buffer wireMessage;
+
+	@Setup
+	public void setup() {
+		objectMapper = new ObjectMapper().registerModule(new AfterburnerModule());
+		objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		codec = new MessageDTOCodec(objectMapper);
+
+		messageDTO = new MessageDTO();
+		messageDTO.setRid("10001100010001920210101010101");
+		messageDTO.setReg_type(RegistrationType.NEW.name());
+		messageDTO.setIsValid(true);
+		messageDTO.setInternalError(false);
+		messageDTO.setRetryCount(0);
+		messageDTO.setIteration(1);
+		messageDTO.setSource("REGISTRATION_CLIENT");
+		messageDTO.setWorkflowInstanceId("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+		messageDTO.setLastHopTimestamp("2021-01-01T10:10:10.100Z");
+		messageDTO.setMessageBusAddress(MessageBusAddress.PACKET_VALIDATOR_BUS_IN);
+		Map<String, String> tags = new HashMap<>();
+		for (int i = 0; i < tagCount; i++)
+			tags.put("META_INFO-OPERATIONS_DATA-TAG_" + i, "VALUE_OF_THE_PACKET_TAG_" + i);
+		messageDTO.setTags(tags);
+
+		jsonMessage = JsonObject.mapFrom(messageDTO).toString();
+		wireMessage = Buffer.buffer();
+		codec.encodeToWire(wireMessage, messageDTO);
+	}
+
+	@Benchmark
+	public MessageDTO jsonStringDecode() throws Exception {
+		JsonObject jsonObject = new JsonObject(jsonMessage);
+		return objectMapper.readValue(objectMapper.writeValueAsString(jsonObject.getMap()), MessageDTO.class);
+	}
+
+	@Benchmark
+	public String jsonStringEncode() {
+		return JsonObject.mapFrom(messageDTO).toString();
+	}
+
+	@Benchmark
+	public String jsonStringHop() throws Exception {
+		return jsonStringEncode(jsonStringDecode());
+	}
+
+	@Benchmark
+	public MessageDTO codecDecode() {
+		return codec.decodeFromWire(0, wireMessage);
+	}
+
+	@Benchmark
+	public MessageDTO codecDecodeFromString() {
+		return codec.decode(jsonMessage);
+	}
+
+	@Benchmark
+	public Buffer codecEncode() {
+		Buffer buffer = Buffer.buffer(jsonMessage.length() + 4);
+		codec.encodeToWire(buffer, messageDTO);
+		return buffer;
+	}
+
+	@Benchmark
+	public Buffer codecHop() {
+		Buffer buffer = Buffer.buffer(jsonMessage.length() + 4);
+		codec.encodeToWire(buffer, codec.decodeFromWire(0, wireMessage));
+		return buffer;
+	}
+
+	private String jsonStringEncode(MessageDTO message) {
+		return JsonObject.mapFrom(message).toString();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(MessageDTOCodecBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,141 @@
+package io.mosip.registration.processor.core.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.mosip.registration.processor.core.constant.RegistrationType;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+public class MessageDTOCodecTest {
+
+	private MessageDTOCodec codec;
+
+	private MessageDTO messageDTO;
+
+	@Before
+	public void setup() {
+		codec = new MessageDTOCodec();
+		messageDTO = new MessageDTO();
+		messageDTO.setRid("10001100010001920210101010101");
+		messageDTO.setReg_type(RegistrationType.NEW.name());
+		messageDTO.setIsValid(true);
+		messageDTO.setInternalError(false);
+		messageDTO.setRetryCount(1);
+		messageDTO.setIteration(2);
+		messageDTO.setSource("REGISTRATION_CLIENT");
+		messageDTO.setWorkflowInstanceId("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+		messageDTO.setLastHopTimestamp("2021-01-01T10:10:10.100Z");
+		messageDTO.setMessageBusAddress(MessageBusAddress.PACKET_VALIDATOR_BUS_IN);
+		Map<String, String> tags = new HashMap<>();
+		tags.put("AGE_GROUP", "ADULT");
+		tags.put("ID_OBJECT-gender", "Male");
+		messageDTO.setTags(tags);
+	}
+
+	@Test
+	public void testWireRoundTrip() {
+		Buffer buffer = Buffer.buffer();
+		buffer.appendString("header");
+		codec.encodeToWire(buffer, messageDTO);
+
+		MessageDTO decoded = codec.decodeFromWire("header".length(), buffer);
+
+		assertMessageEquals(messageDTO, decoded);
+	}
+
+	@Test
+	public void testTransformReturnsSameInstance() {
+		assertSame(messageDTO, codec.transform(messageDTO));
+	}
+
+	@Test
+	public void testDecodeLegacyJsonString() {
+		String json = JsonObject.mapFrom(messageDTO).toString();
+
+		assertMessageEquals(messageDTO, codec.decode(json));
+	}
+
+	@Test
+	public void testDecodeIgnoresUnknownProperties() {
+		MessageDTO decoded = codec.decode("{\"rid\":\"1001\", \"reg_type\": \"NEW\", \"unknown\": 1}");
+
+		assertEquals("1001", decoded.getRid());
+		assertEquals("NEW", decoded.getReg_type());
+	}
+
+	@Test
+	public void testKafkaSerializerCompatibleWithStringDeserializer() {
+		MessageDTOSerializer serializer = new MessageDTOSerializer();
+		StringDeserializer stringDeserializer = new StringDeserializer();
+
+		String json = stringDeserializer.deserialize("topic", serializer.serialize("topic", messageDTO));
+
+		assertMessageEquals(messageDTO, new JsonObject(json).mapTo(MessageDTO.class));
+	}
+
+	@Test
+	public void testKafkaDeserializerCompatibleWithStringSerializer() {
+		MessageDTODeserializer deserializer = new MessageDTODeserializer();
+		StringSerializer stringSerializer = new StringSerializer();
+
+		byte[] bytes = stringSerializer.serialize("topic", JsonObject.mapFrom(messageDTO).toString());
+
+		assertMessageEquals(messageDTO, deserializer.deserialize("topic", bytes));
+	}
+
+	@Test
+	public void testKafkaNullValue() {
+		assertNull(new MessageDTOSerializer().serialize("topic", null));
+		assertNull(new MessageDTODeserializer().deserialize("topic", null));
+	}
+
+	@Test
+	public void testEncodeIsUtf8Json() {
+		String json = new String(codec.encode(messageDTO), StandardCharsets.UTF_8);
+
+		assertEquals(messageDTO.getRid(), new JsonObject(json).getString("rid"));
+	}
+
+	@Test
+	public void testEncodeNotIndentedWithIndentingObjectMapper() {
+		MessageDTOCodec indentingCodec = new MessageDTOCodec(
+				new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+
+		String json = new String(indentingCodec.encode(messageDTO), StandardCharsets.UTF_8);
+
+		assertFalse(json.contains("\n"));
+		assertMessageEquals(messageDTO, indentingCodec.decode(json));
+	}
+
+	private void assertMessageEquals(MessageDTO expected, MessageDTO actual) {
+		assertEquals(expected.getRid(), actual.getRid());
+		assertEquals(expected.getReg_type(), actual.getReg_type());
+		assertEquals(expected.getIsValid(), actual.getIsValid());
+		assertEquals(expected.getInternalError(), actual.getInternalError());
+		assertEquals(expected.getRetryCount(), actual.getRetryCount());
+		assertEquals(expected.getIteration(), actual.getIteration());
+		assertEquals(expected.getSource(), actual.getSource());
+		assertEquals(expected.getWorkflowInstanceId(), actual.getWorkflowInstanceId());
+		assertEquals(expected.getLastHopTimestamp(), actual.getLastHopTimestamp());
+		assertEquals(expected.getMessageBusAddress().getAddress(), actual.getMessageBusAddress().getAddress());
+		assertEquals(expected.getTags(), actual.getTags());
+	}
+
+}
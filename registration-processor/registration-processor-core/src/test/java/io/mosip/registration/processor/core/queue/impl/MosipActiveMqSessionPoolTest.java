@@ -0,0 +1,225 @@
+package io.mosip.registration.processor.core.queue.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.broker.BrokerService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.registration.processor.core.queue.factory.MosipActiveMq;
+import io.mosip.registration.processor.core.queue.factory.QueueListener;
+
+/**
+ * Sends messages through the session pool of {@link MosipActiveMqImpl} to an
+ * embedded broker from many threads.
+ */
+public class MosipActiveMqSessionPoolTest {
+
+	private static final String BROKER_URL = "vm://regproc-test?create=false";
+
+	private static final int THREADS = 16;
+
+	private static final int MESSAGES_PER_THREAD = 2000;
+
+	private static final int MAX_SESSIONS = 4;
+
+	private BrokerService broker;
+
+	private MosipActiveMqImpl mosipActiveMq;
+
+	private MosipActiveMq queue;
+
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Before
+	public void setup() throws Exception {
+		broker = new BrokerService();
+		broker.setBrokerName("regproc-test");
+		broker.setPersistent(false);
+		broker.setUseJmx(false);
+		broker.start();
+		broker.waitUntilStarted();
+
+		mosipActiveMq = new MosipActiveMqImpl();
+		ReflectionTestUtils.setField(mosipActiveMq, "sessionPoolEnabled", true);
+		ReflectionTestUtils.setField(mosipActiveMq, "maxSessions", MAX_SESSIONS);
+		ReflectionTestUtils.setField(mosipActiveMq, "acquisitionTimeoutMillis", 30000L);
+		ReflectionTestUtils.setField(mosipActiveMq, "meterRegistry", meterRegistry);
+		queue = new MosipActiveMq("ACTIVEMQ", "admin", "admin", BROKER_URL);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		mosipActiveMq.close();
+		broker.stop();
+		broker.waitUntilStopped();
+	}
+
+	@Test
+	public void testConcurrentSendsFromManyThreads() throws Exception {
+		int total = THREADS * MESSAGES_PER_THREAD;
+		Map<String, AtomicInteger> received = new ConcurrentHashMap<>();
+		CountDownLatch allReceived = new CountDownLatch(total);
+		for (int i = 0; i < 4; i++)
+			consume("abis-" + i, received, allReceived);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> senders = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				senders.add(executor.submit(() -> {
+					for (int i = 0; i < MESSAGES_PER_THREAD; i++) {
+						String address = "abis-" + (i % 4);
+						if (i % 2 == 0)
+							assertTrue(mosipActiveMq.send(queue, "{\"id\":" + i + "}", address, 60));
+						else
+							assertTrue(mosipActiveMq.send(queue, ("{\"id\":" + i + "}").getBytes(), address));
+					}
+				}));
+			}
+			for (Future<?> sender : senders)
+				sender.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertTrue(allReceived.await(60, TimeUnit.SECONDS));
+		for (int i = 0; i < 4; i++)
+			assertEquals(total / 4, received.get("abis-" + i).get());
+		assertEquals(total, meterRegistry.get("mosip.regproc.queue.send").tag("mode", "sync").timer().count());
+		// every session was returned and no more than the max were opened
+		assertEquals(0, meterRegistry.get("mosip.regproc.queue.session.pool.active").tag("type", "producer").gauge()
+				.value(), 0);
+		double idle = meterRegistry.get("mosip.regproc.queue.session.pool.idle").tag("type", "producer").gauge()
+				.value();
+		assertTrue(idle > 0 && idle <= MAX_SESSIONS);
+	}
+
+	@Test
+	public void testAsyncSends() throws Exception {
+		Map<String, AtomicInteger> received = new ConcurrentHashMap<>();
+		CountDownLatch allReceived = new CountDownLatch(1000);
+		consume("abis-async", received, allReceived);
+
+		List<CompletableFuture<Boolean>> sent = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+			sent.add(mosipActiveMq.sendAsync(queue, "{\"id\":" + i + "}", "abis-async", 0));
+		CompletableFuture.allOf(sent.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+
+		for (CompletableFuture<Boolean> future : sent)
+			assertTrue(future.get());
+		assertTrue(allReceived.await(60, TimeUnit.SECONDS));
+		assertEquals(1000, meterRegistry.get("mosip.regproc.queue.send").tag("mode", "async").timer().count());
+	}
+
+	@Test
+	public void testSendAllToSeveralQueues() throws Exception {
+		Map<String, AtomicInteger> received = new ConcurrentHashMap<>();
+		CountDownLatch allReceived = new CountDownLatch(3);
+		Map<String, Object> messages = new LinkedHashMap<>();
+		for (int i = 0; i < 3; i++) {
+			consume("abis-fan-out-" + i, received, allReceived);
+			messages.put("abis-fan-out-" + i, i == 0 ? "{\"id\":0}".getBytes() : "{\"id\":" + i + "}");
+		}
+
+		assertTrue(mosipActiveMq.sendAll(queue, messages, 60));
+
+		assertTrue(allReceived.await(60, TimeUnit.SECONDS));
+		for (int i = 0; i < 3; i++)
+			assertEquals(1, received.get("abis-fan-out-" + i).get());
+		assertEquals(1, meterRegistry.get("mosip.regproc.queue.send").tag("mode", "batch").timer().count());
+	}
+
+	@Test
+	public void testMessagesNotAcknowledgedReceivedAgain() throws Exception {
+		assertMessagesNotAcknowledgedReceivedAgain("abis-ack-pooled");
+	}
+
+	@Test
+	public void testMessagesNotAcknowledgedReceivedAgainWithoutPool() throws Exception {
+		ReflectionTestUtils.setField(mosipActiveMq, "sessionPoolEnabled", false);
+		assertMessagesNotAcknowledgedReceivedAgain("abis-ack");
+	}
+
+	private void assertMessagesNotAcknowledgedReceivedAgain(String address) throws Exception {
+		List<String> received = new CopyOnWriteArrayList<>();
+		CountDownLatch allReceived = new CountDownLatch(3);
+		mosipActiveMq.consumeWithClientAcknowledge(queue, address, new QueueListener() {
+
+			@Override
+			public void setListener(Message message) {
+				try {
+					String text = ((TextMessage) message).getText();
+					received.add(text);
+					// the second message is not processed
+					if (!text.contains("1"))
+						message.acknowledge();
+				} catch (JMSException e) {
+					throw new IllegalStateException(e);
+				}
+				allReceived.countDown();
+			}
+		});
+		for (int i = 0; i < 3; i++)
+			assertTrue(mosipActiveMq.send(queue, "{\"id\":" + i + "}", address));
+		assertTrue(allReceived.await(60, TimeUnit.SECONDS));
+
+		mosipActiveMq.close();
+		List<String> receivedAgain = new CopyOnWriteArrayList<>();
+		CountDownLatch receivedOnce = new CountDownLatch(1);
+		mosipActiveMq.consume(queue, address, new QueueListener() {
+
+			@Override
+			public void setListener(Message message) {
+				try {
+					receivedAgain.add(((TextMessage) message).getText());
+				} catch (JMSException e) {
+					throw new IllegalStateException(e);
+				}
+				receivedOnce.countDown();
+			}
+		});
+		assertTrue(receivedOnce.await(60, TimeUnit.SECONDS));
+		Thread.sleep(500);
+		assertEquals(Arrays.asList("{\"id\":1}"), receivedAgain);
+	}
+
+	private void consume(String address, Map<String, AtomicInteger> received, CountDownLatch allReceived) {
+		received.put(address, new AtomicInteger());
+		mosipActiveMq.consume(queue, address, new QueueListener() {
+
+			@Override
+			public void setListener(Message message) {
+				assertTrue(message instanceof TextMessage || message instanceof BytesMessage);
+				received.get(address).incrementAndGet();
+				allReceived.countDown();
+			}
+		});
+	}
+
+}
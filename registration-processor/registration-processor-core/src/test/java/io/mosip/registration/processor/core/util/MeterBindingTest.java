@@ -0,0 +1,45 @@
+package io.mosip.registration.processor.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MeterBindingTest {
+
+	@Test
+	public void testBoundOnceToFallbackRegistry() {
+		AtomicInteger bindings = new AtomicInteger();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MeterBinding binding = new MeterBinding(r -> {
+			assertEquals(registry, r);
+			bindings.incrementAndGet();
+		});
+
+		binding.bind(registry);
+		binding.bind(registry);
+
+		assertTrue(binding.isBound());
+		assertEquals(1, bindings.get());
+	}
+
+	@Test
+	public void testNotBoundWithoutRegistry() {
+		AtomicInteger bindings = new AtomicInteger();
+		MeterBinding binding = new MeterBinding(r -> bindings.incrementAndGet());
+
+		binding.bind(null);
+		assertFalse(binding.isBound());
+		assertEquals(0, bindings.get());
+
+		binding.bind(new SimpleMeterRegistry());
+		assertTrue(binding.isBound());
+		assertEquals(1, bindings.get());
+	}
+
+}
@@ -0,0 +1,51 @@
+package io.mosip.registration.processor.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.mosip.kernel.biometrics.commons.CbeffValidator;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.core.cbeffutil.exception.CbeffException;
+
+public class StreamingCbeffWriterTest {
+
+	@Test
+	public void testWrittenXmlReadBack() throws Exception {
+		List<BIR> segments = new ArrayList<>();
+		segments.add(segment(BiometricType.FINGER, "7", Arrays.asList("Left", "Thumb"), new byte[] { 1, 2, 3 }));
+		segments.add(segment(BiometricType.FACE, "8", new ArrayList<>(), new byte[4096]));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		StreamingCbeffWriter.write(StreamingCbeffWriter.createBIR(segments), outputStream);
+
+		BIR written = CbeffValidator.getBIRFromXML(outputStream.toByteArray());
+		assertEquals(2, written.getBirs().size());
+		assertEquals(BiometricType.FINGER, written.getBirs().get(0).getBdbInfo().getType().get(0));
+		assertEquals(Arrays.asList("Left", "Thumb"), written.getBirs().get(0).getBdbInfo().getSubtype());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, written.getBirs().get(0).getBdb());
+		assertArrayEquals(new byte[4096], written.getBirs().get(1).getBdb());
+	}
+
+	@Test(expected = CbeffException.class)
+	public void testInvalidSegmentFailsBeforeWriting() throws Exception {
+		StreamingCbeffWriter
+				.createBIR(Arrays.asList(segment(BiometricType.FINGER, "7", Arrays.asList("Left", "Thumb"), null)));
+	}
+
+	private static BIR segment(BiometricType type, String format, List<String> subtype, byte[] bdb) {
+		BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder().withType(Arrays.asList(type)).withSubtype(subtype)
+				.withFormat(new RegistryIDType("Mosip", format)).build();
+		return new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(bdb).build();
+	}
+
+}
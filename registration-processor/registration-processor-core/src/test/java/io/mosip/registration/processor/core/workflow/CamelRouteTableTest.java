@@ -0,0 +1,65 @@
+package io.mosip.registration.processor.core.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
+import io.vertx.core.json.JsonObject;
+
+public class CamelRouteTableTest {
+
+	private CamelRouteTable camelRouteTable;
+
+	@Before
+	public void setup() throws Exception {
+		camelRouteTable = new CamelRouteTable();
+		try (InputStream routesXml = getClass().getClassLoader().getResourceAsStream("camel-routes-new.xml")) {
+			camelRouteTable.addRoutes(routesXml);
+		}
+	}
+
+	@Test
+	public void testNextHopOfMatchedCondition() {
+		assertEquals("packet-classifier-bus-in",
+				camelRouteTable.getNextHop("packet-validator-new-bus-out", document(true, false)));
+	}
+
+	@Test
+	public void testWorkflowCommandLeftToCamelBridge() {
+		assertNull(camelRouteTable.getNextHop("packet-validator-new-bus-out", document(false, false)));
+		// otherwise branch
+		assertNull(camelRouteTable.getNextHop("packet-validator-new-bus-out", document(true, true)));
+	}
+
+	@Test
+	public void testRouteWithoutChoice() {
+		assertEquals("quality-classifier-bus-in",
+				camelRouteTable.getNextHop("packet-classifier-new-bus-out", document(false, true)));
+	}
+
+	@Test
+	public void testRoutesNotHandedOverLeftToCamelBridge() {
+		// simple expression
+		assertNull(camelRouteTable.getNextHop("quality-classifier-new-bus-out", document(true, false)));
+		// other processor
+		assertNull(camelRouteTable.getNextHop("osi-validator-new-bus-out", document(true, false)));
+		// no route
+		assertNull(camelRouteTable.getNextHop("demo-dedupe-new-bus-out", document(true, false)));
+	}
+
+	private Map<String, Object> document(boolean isValid, boolean internalError) {
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid("10002100741000120201231071308");
+		messageDTO.setReg_type("NEW");
+		messageDTO.setIsValid(isValid);
+		messageDTO.setInternalError(internalError);
+		return JsonObject.mapFrom(messageDTO).getMap();
+	}
+
+}
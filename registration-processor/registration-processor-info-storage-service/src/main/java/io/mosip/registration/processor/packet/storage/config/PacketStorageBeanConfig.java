@@ -34,6 +34,8 @@ import io.mosip.registration.processor.packet.storage.dto.ApplicantInfoDto;
 import io.mosip.registration.processor.packet.storage.service.impl.PacketInfoManagerImpl;
 import io.mosip.registration.processor.packet.storage.utils.ABISHandlerUtil;
 import io.mosip.registration.processor.packet.storage.utils.AuthUtil;
+import io.mosip.registration.processor.packet.storage.utils.ConfigServerFileCache;
+import io.mosip.registration.processor.packet.storage.utils.DataSharePolicyCache;
 import io.mosip.registration.processor.packet.storage.utils.IdSchemaUtil;
 import io.mosip.registration.processor.packet.storage.utils.Utilities;
 
@@ -83,6 +85,16 @@ public class PacketStorageBeanConfig {
 		return new Utilities();
 	}
 
+	@Bean
+	public ConfigServerFileCache configServerFileCache() {
+		return new ConfigServerFileCache();
+	}
+
+	@Bean
+	public DataSharePolicyCache dataSharePolicyCache() {
+		return new DataSharePolicyCache();
+	}
+
 	@Bean
 	public PacketManagerService packetManagerService() {
 		return new PacketManagerService();
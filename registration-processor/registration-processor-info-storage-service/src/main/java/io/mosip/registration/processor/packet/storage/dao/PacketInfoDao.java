@@ -1,12 +1,22 @@
 package io.mosip.registration.processor.packet.storage.dao;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
+import javax.sql.DataSource;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDetDto;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDto;
@@ -54,6 +64,14 @@ public class PacketInfoDao {
 	@Autowired
 	private RegistrationRepositary<BaseRegistrationEntity, String> registrationRepositary;
 
+	/** The data source, the abis requests are written with it in JDBC batches. */
+	@Autowired(required = false)
+	private DataSource dataSource;
+
+	/** The transaction manager, the abis requests of a packet are written in its transaction. */
+	@Autowired(required = false)
+	private PlatformTransactionManager transactionManager;
+
 	/** The applicant info. */
 	private List<Object[]> applicantInfo = new ArrayList<>();
 
@@ -78,6 +96,20 @@ public class PacketInfoDao {
 	/** The Constant IS_ACTIVE_TRUE. */
 	private static final boolean IS_ACTIVE_TRUE = true;
 
+	/** The maximum number of values bound to a single IN clause. */
+	private static final int IN_CLAUSE_SIZE = 1000;
+
+	/** The Constant INSERT_BIO_REF. */
+	private static final String INSERT_BIO_REF = "INSERT INTO regprc.reg_bio_ref (reg_id, bio_ref_id, is_active, cr_by,"
+			+ " cr_dtimes, upd_by, upd_dtimes, is_deleted, del_dtimes, workflow_instance_id, process, iteration)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/** The Constant INSERT_ABIS_REQUEST. */
+	private static final String INSERT_ABIS_REQUEST = "INSERT INTO regprc.abis_request (id, req_batch_id, abis_app_code,"
+			+ " request_type, request_dtimes, bio_ref_id, ref_regtrn_id, req_text, status_code, status_comment,"
+			+ " lang_code, cr_by, cr_dtimes, upd_by, upd_dtimes, is_deleted, del_dtimes)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
 	/**
 	 * Gets the packetsfor QC user.
 	 *
@@ -233,6 +265,33 @@ public class PacketInfoDao {
 		return demographicInfoDtos;
 	}
 
+	/**
+	 * Gets the active demographic dedupe records matching any of the blocking
+	 * keys, all the languages of an applicant in a single query.
+	 *
+	 * @param dedupeKeys
+	 *            the blocking keys of the name, dob, gender and language
+	 * @return the demographic info dtos
+	 */
+	public List<DemographicInfoDto> getAllDemographicInfoDtos(Collection<String> dedupeKeys) {
+		List<DemographicInfoDto> demographicInfoDtos = new ArrayList<>();
+		for (List<String> dedupeKeyChunk : partition(dedupeKeys)) {
+			for (Object[] demo : demographicDedupeRepository.getDemographicDedupesByDedupeKeys(dedupeKeyChunk)) {
+				DemographicInfoDto demographicInfoDto = new DemographicInfoDto();
+				demographicInfoDto.setRegId((String) demo[0]);
+				demographicInfoDto.setLangCode((String) demo[1]);
+				demographicInfoDto.setName((String) demo[2]);
+				demographicInfoDto.setGenderCode((String) demo[3]);
+				demographicInfoDto.setDob((String) demo[4]);
+				demographicInfoDto.setPhone((String) demo[5]);
+				demographicInfoDto.setEmail((String) demo[6]);
+				demographicInfoDto.setPostalcode((String) demo[7]);
+				demographicInfoDtos.add(demographicInfoDto);
+			}
+		}
+		return demographicInfoDtos;
+	}
+
 	/**
 	 * Gets the reg id by UIN.
 	 *
@@ -403,6 +462,42 @@ public class PacketInfoDao {
 		return abisRequestRepository.getBioRefIdByRegIds(regId);
 	}
 
+	/**
+	 * Gets the bio refs of the reg ids, the latest first, querying at most
+	 * {@value #IN_CLAUSE_SIZE} reg ids at a time.
+	 *
+	 * @param regIds
+	 *            the reg ids
+	 * @return the bio refs of the reg ids
+	 */
+	public List<RegBioRefEntity> getBioRefsByRegIds(Collection<String> regIds) {
+		List<RegBioRefEntity> regBioRefEntities = new ArrayList<>();
+		for (List<String> regIdChunk : partition(regIds))
+			regBioRefEntities.addAll(regBioRefRepository.getBioRefsByRegIds(regIdChunk));
+		return regBioRefEntities;
+	}
+
+	/**
+	 * Gets the reg ids of the bio ref ids, querying at most
+	 * {@value #IN_CLAUSE_SIZE} bio ref ids at a time.
+	 *
+	 * @param bioRefIds
+	 *            the bio ref ids
+	 * @return the reg ids by lower case bio ref id, the bio ref ids not found are
+	 *         absent
+	 */
+	public Map<String, String> getRegIdsByBioRefIds(Collection<String> bioRefIds) {
+		List<String> lowerCaseBioRefIds = new ArrayList<>(bioRefIds.size());
+		for (String bioRefId : bioRefIds)
+			lowerCaseBioRefIds.add(bioRefId.toLowerCase());
+		Map<String, String> regIds = new HashMap<>();
+		for (List<String> bioRefIdChunk : partition(lowerCaseBioRefIds)) {
+			for (Object[] bioRef : regBioRefRepository.getRegIdsByBioRefIds(bioRefIdChunk))
+				regIds.putIfAbsent(((String) bioRef[0]).toLowerCase(), (String) bioRef[1]);
+		}
+		return regIds;
+	}
+
 	/**
 	 * Gets the demo list by transaction id.
 	 *
@@ -458,8 +553,12 @@ public class PacketInfoDao {
 	 * @return the abis ref reg ids by matched ref ids
 	 */
 	public List<String> getAbisRefRegIdsByMatchedRefIds(List<String> matchRefIds) {
-		return regBioRefRepository.getAbisRefRegIdsByMatchedRefIds(matchRefIds);
-
+		if (matchRefIds.size() <= IN_CLAUSE_SIZE)
+			return regBioRefRepository.getAbisRefRegIdsByMatchedRefIds(matchRefIds);
+		List<String> regIds = new ArrayList<>();
+		for (List<String> matchRefIdChunk : partition(matchRefIds))
+			regIds.addAll(regBioRefRepository.getAbisRefRegIdsByMatchedRefIds(matchRefIdChunk));
+		return regIds;
 	}
 
 	/**
@@ -544,6 +643,25 @@ public class PacketInfoDao {
 		return abisResponseDetDtoList;
 	}
 
+	/**
+	 * Gets the abis response details of the requests of a transaction, the
+	 * requests, their responses and the response details joined in a single
+	 * query.
+	 *
+	 * @param abisRefId
+	 *            the abis ref id
+	 * @param latestTransactionId
+	 *            the latest transaction id
+	 * @param requestType
+	 *            the request type
+	 * @return the abis response details
+	 */
+	public List<AbisResponseDetDto> getAbisResponseDetailedRecords(String abisRefId, String latestTransactionId,
+			String requestType) {
+		return PacketInfoMapper.convertAbisResponseDetEntityListToDto(abisRequestRepository
+				.getAbisResponseDetailsByTransaction(abisRefId, latestTransactionId, requestType));
+	}
+
 	/**
 	 * Gets the abis requests by bio ref id.
 	 *
@@ -684,6 +802,60 @@ public class PacketInfoDao {
 		return convertEntityToDemographicDto(demographicDedupeRepository.createQuerySelect(query.toString(), params));
 	}
 
+	/**
+	 * Saves the bio ref and the abis requests of a packet in one transaction,
+	 * the abis requests as one JDBC batch. Saved with the repositories when no
+	 * data source is configured.
+	 *
+	 * @param regBioRefEntity
+	 *            the reg bio ref entity, null when only requests are saved
+	 * @param abisRequestEntities
+	 *            the abis request entities
+	 */
+	public void saveAbisRequests(RegBioRefEntity regBioRefEntity, List<AbisRequestEntity> abisRequestEntities) {
+		if (dataSource == null) {
+			if (regBioRefEntity != null)
+				regBioRefRepository.save(regBioRefEntity);
+			abisRequestRepository.saveAll(abisRequestEntities);
+			return;
+		}
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		new TransactionTemplate(transactionManager != null ? transactionManager
+				: new DataSourceTransactionManager(dataSource)).execute(transactionStatus -> {
+					if (regBioRefEntity != null)
+						jdbcTemplate.update(INSERT_BIO_REF, regBioRefEntity.getRegId(),
+								regBioRefEntity.getId().getBioRefId(), regBioRefEntity.getIsActive(),
+								regBioRefEntity.getCrBy(), timestamp(regBioRefEntity.getCrDtimes()),
+								regBioRefEntity.getUpdBy(), timestamp(regBioRefEntity.getUpdDtimes()),
+								regBioRefEntity.getIsDeleted(), timestamp(regBioRefEntity.getDelDtimes()),
+								regBioRefEntity.getId().getWorkflowInstanceId(), regBioRefEntity.getProcess(),
+								regBioRefEntity.getIteration());
+					List<Object[]> rows = new ArrayList<>(abisRequestEntities.size());
+					for (AbisRequestEntity entity : abisRequestEntities)
+						rows.add(new Object[] { entity.getId().getId(), entity.getReqBatchId(),
+								entity.getAbisAppCode(), entity.getRequestType(), timestamp(entity.getRequestDtimes()),
+								entity.getBioRefId(), entity.getRefRegtrnId(), entity.getReqText(),
+								entity.getStatusCode(), entity.getStatusComment(), entity.getLangCode(),
+								entity.getCrBy(), timestamp(entity.getCrDtimes()), entity.getUpdBy(),
+								timestamp(entity.getUpdDtimes()), entity.getIsDeleted(),
+								timestamp(entity.getDelDtimes()) });
+					if (!rows.isEmpty())
+						jdbcTemplate.batchUpdate(INSERT_ABIS_REQUEST, rows);
+					return null;
+				});
+	}
+
+	/**
+	 * Converts the date time to a JDBC timestamp.
+	 *
+	 * @param dateTime
+	 *            the date time
+	 * @return the timestamp, null when the date time is null
+	 */
+	private static Timestamp timestamp(LocalDateTime dateTime) {
+		return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+	}
+
 	/**
 	 * Convert entity to demographic dto.
 	 *
@@ -700,4 +872,20 @@ public class PacketInfoDao {
 		}
 		return demographicInfoDtos;
 	}
+
+	/**
+	 * Splits the distinct values in chunks bound to a single IN clause.
+	 *
+	 * @param values
+	 *            the values
+	 * @return the chunks
+	 */
+	private static List<List<String>> partition(Collection<String> values) {
+		List<String> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+		List<List<String>> chunks = new ArrayList<>();
+		for (int from = 0; from < distinctValues.size(); from += IN_CLAUSE_SIZE)
+			chunks.add(distinctValues.subList(from, Math.min(from + IN_CLAUSE_SIZE, distinctValues.size())));
+		return chunks;
+	}
+
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.CryptoUtil;
@@ -182,6 +184,29 @@ public class PacketInfoMapper {
 
 	}
 
+	/**
+	 * Gets the demographic dedupe blocking key, the hex SHA-256 of the hashed
+	 * name, dob and gender and the language separated by '|'. It is the key the
+	 * database sets on the rows of individual_demographic_dedup with
+	 * encode(sha256(convert_to(name || '|' || dob || '|' || gender || '|' ||
+	 * lang_code, 'UTF8')), 'hex').
+	 *
+	 * @param name
+	 *            the hashed name
+	 * @param dob
+	 *            the hashed dob
+	 * @param gender
+	 *            the hashed gender
+	 * @param langCode
+	 *            the lang code
+	 * @return the blocking key, null when the name, dob or gender is missing
+	 */
+	public static String getDedupeKey(String name, String dob, String gender, String langCode) {
+		if (name == null || dob == null || gender == null)
+			return null;
+		return DigestUtils.sha256Hex(name + "|" + dob + "|" + gender + "|" + langCode);
+	}
+
 	public static List<AbisRequestDto> convertAbisRequestEntityListToDto(
 			List<AbisRequestEntity> abisRequestEntityList) {
 		List<AbisRequestDto> abisRequestDtoList = new ArrayList<>();
@@ -14,6 +14,7 @@ import io.mosip.registration.processor.packet.storage.entity.AbisRequestEntity;
 import io.mosip.registration.processor.packet.storage.entity.AbisResponseDetEntity;
 import io.mosip.registration.processor.packet.storage.entity.AbisResponseEntity;
 import io.mosip.registration.processor.packet.storage.entity.BasePacketEntity;
+import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeEntity;
 import io.mosip.registration.processor.packet.storage.entity.ManualVerificationEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegBioRefEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegDemoDedupeListEntity;
@@ -50,6 +51,19 @@ public interface BasePacketRepository<E extends BasePacketEntity<?>, T> extends
 	@Query("SELECT demo FROM IndividualDemographicDedupeEntity demo WHERE demo.regId=:regId")
 	public List<E> findDemoById(@Param("regId") String regId);
 
+	/**
+	 * Gets the active demographic dedupe records of the blocking keys. The
+	 * dedupe_key column is set by the database and not mapped by the entity, so
+	 * that the entity is usable before the column is added.
+	 *
+	 * @param dedupeKeys
+	 *            the blocking keys of the name, dob, gender and language
+	 * @return the reg id, lang code, name, gender, dob, mobile number, email and
+	 *         pincode of the records
+	 */
+	@Query(value = "SELECT reg_id, lang_code, name, gender, dob, mobile_number, email, pincode FROM regprc.individual_demographic_dedup WHERE dedupe_key IN (:dedupeKeys) AND is_active = true", nativeQuery = true)
+	public List<Object[]> getDemographicDedupesByDedupeKeys(@Param("dedupeKeys") List<String> dedupeKeys);
+
 	/**
 	 * This method gets the first created registration record
 	 * {@link ManualVerificationEntity} with the specified status.
@@ -416,6 +430,42 @@ public interface BasePacketRepository<E extends BasePacketEntity<?>, T> extends
 	@Query("SELECT bioRef FROM RegBioRefEntity bioRef WHERE bioRef.regId =:regId")
 	public List<RegBioRefEntity> getBioRefIdByRegId(@Param("regId") String regId);
 
+	/**
+	 * Gets the bio refs of the reg ids, the latest first.
+	 *
+	 * @param regIds
+	 *            the reg ids
+	 * @return the bio refs of the reg ids
+	 */
+	@Query("SELECT bioRef FROM RegBioRefEntity bioRef WHERE bioRef.regId in :regIds order by bioRef.crDtimes desc")
+	public List<RegBioRefEntity> getBioRefsByRegIds(@Param("regIds") List<String> regIds);
+
+	/**
+	 * Gets the bio ref id and the reg id of the bio ref ids.
+	 *
+	 * @param bioRefIds
+	 *            the bio ref ids in lower case
+	 * @return the bio ref id and the reg id pairs
+	 */
+	@Query("SELECT bioRef.id.bioRefId, bioRef.regId FROM RegBioRefEntity bioRef WHERE LOWER(bioRef.id.bioRefId) in :bioRefIds")
+	public List<Object[]> getRegIdsByBioRefIds(@Param("bioRefIds") List<String> bioRefIds);
+
+	/**
+	 * Gets the abis response details of the requests of a transaction in a single
+	 * query.
+	 *
+	 * @param bioRefId
+	 *            the bio ref id
+	 * @param refRegtrnId
+	 *            the ref regtrn id
+	 * @param requestType
+	 *            the request type
+	 * @return the abis response details
+	 */
+	@Query("SELECT abisRespDet FROM AbisResponseDetEntity abisRespDet, AbisResponseEntity abisresp, AbisRequestEntity abisreq WHERE abisRespDet.id.abisRespId = abisresp.id.id and abisresp.abisRequest = abisreq.id.id and abisreq.bioRefId =:bioRefId and abisreq.refRegtrnId =:refRegtrnId and abisreq.requestType =:requestType")
+	public List<AbisResponseDetEntity> getAbisResponseDetailsByTransaction(@Param("bioRefId") String bioRefId,
+			@Param("refRegtrnId") String refRegtrnId, @Param("requestType") String requestType);
+
 	/**
 	 * Gets the demo list by transaction id.
 	 *
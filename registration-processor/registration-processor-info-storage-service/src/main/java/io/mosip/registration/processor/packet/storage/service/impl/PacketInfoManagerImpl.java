@@ -18,6 +18,7 @@ import org.json.simple.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -699,6 +700,18 @@ public class PacketInfoManagerImpl implements PacketInfoManager<Identity, Applic
 		return PacketInfoMapper.convertRegBioRefEntityListToDto(regBioRefEntityList);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager#
+	 * getBioRefsByRegIds(java.util.List)
+	 */
+	@Override
+	public List<RegBioRefDto> getBioRefsByRegIds(List<String> regIds) {
+		return PacketInfoMapper.convertRegBioRefEntityListToDto(packetInfoDao.getBioRefsByRegIds(regIds));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -801,6 +814,57 @@ public class PacketInfoManagerImpl implements PacketInfoManager<Identity, Applic
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager#
+	 * saveAbisRequests(io.mosip.registration.processor.core.packet.dto.abis.
+	 * RegBioRefDto, java.util.List)
+	 */
+	@Override
+	public void saveAbisRequests(RegBioRefDto regBioRefDto, List<AbisRequestDto> abisRequestDtos, String moduleId,
+			String moduleName) {
+		boolean isTransactionSuccessful = false;
+		LogDescription description = new LogDescription();
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"PacketInfoManagerImpl::saveAbisRequests()::entry");
+
+		try {
+			RegBioRefEntity regBioRefEntity = regBioRefDto != null
+					? PacketInfoMapper.convertBioRefDtoToEntity(regBioRefDto)
+					: null;
+			List<AbisRequestEntity> abisRequestEntities = new ArrayList<>(abisRequestDtos.size());
+			for (AbisRequestDto abisRequestDto : abisRequestDtos)
+				abisRequestEntities.add(PacketInfoMapper.convertAbisRequestDtoToEntity(abisRequestDto));
+			packetInfoDao.saveAbisRequests(regBioRefEntity, abisRequestEntities);
+			isTransactionSuccessful = true;
+			description.setMessage((regBioRefEntity != null ? "Bio ref and " : "") + abisRequestEntities.size()
+					+ " ABIS Request data saved successfully");
+		} catch (DataAccessLayerException | DataAccessException e) {
+			description.setMessage("DataAccessLayerException while saving ABIS data" + "::" + e.getMessage());
+
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", e.getMessage() + ExceptionUtils.getStackTrace(e));
+			throw new UnableToInsertData(PlatformErrorMessages.RPR_PIS_UNABLE_TO_INSERT_DATA.getMessage()
+					+ (regBioRefDto != null ? regBioRefDto.getRegId() : ""), e);
+		} finally {
+
+			String eventId = isTransactionSuccessful ? EventId.RPR_407.toString() : EventId.RPR_405.toString();
+			String eventName = eventId.equalsIgnoreCase(EventId.RPR_407.toString()) ? EventName.ADD.toString()
+					: EventName.EXCEPTION.toString();
+			String eventType = eventId.equalsIgnoreCase(EventId.RPR_407.toString()) ? EventType.BUSINESS.toString()
+					: EventType.SYSTEM.toString();
+
+			auditLogRequestBuilder.createAuditRequestBuilder(description.getMessage(), eventId, eventName, eventType,
+					moduleId, moduleName, AuditLogConstant.NO_ID.toString());
+
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"PacketInfoManagerImpl::saveAbisRequests()::exit");
+
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -930,6 +994,20 @@ public class PacketInfoManagerImpl implements PacketInfoManager<Identity, Applic
 				.convertAbisResponseDetEntityListToDto(packetInfoDao.getAbisResponseDetails(abisResponseId));
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager#
+	 * getAbisResponseDetails(java.lang.String, java.lang.String,
+	 * java.lang.String)
+	 */
+	@Override
+	public List<AbisResponseDetDto> getAbisResponseDetails(String abisRefId, String latestTransactionId,
+			String requestType) {
+		return packetInfoDao.getAbisResponseDetailedRecords(abisRefId, latestTransactionId, requestType);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -26,7 +26,6 @@ import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.packet.dto.Identity;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDetDto;
-import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDto;
 import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
 import io.mosip.registration.processor.packet.manager.idreposervice.IdRepoService;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
@@ -84,15 +83,12 @@ public class ABISHandlerUtil {
 
 		List<String> machedRefIds = new ArrayList<>();
 		Set<String> uniqueRIDs = new HashSet<>();
-		List<AbisResponseDetDto> abisResponseDetDtoList = new ArrayList<>();
 
 		if (!regBioRefIds.isEmpty()) {
-			List<AbisResponseDto> abisResponseDtoList = packetInfoManager.getAbisResponseRecords(regBioRefIds.get(0),
-					latestTransactionId, AbisConstant.IDENTIFY);
-			for (AbisResponseDto abisResponseDto : abisResponseDtoList) {
-				abisResponseDetDtoList.addAll(packetInfoManager.getAbisResponseDetails(abisResponseDto.getId()));
-			}
-			if (!abisResponseDetDtoList.isEmpty()) {
+			// the identify requests, their responses and the response details in a single query
+			List<AbisResponseDetDto> abisResponseDetDtoList = packetInfoManager.getAbisResponseDetails(
+					regBioRefIds.get(0), latestTransactionId, AbisConstant.IDENTIFY);
+			if (!CollectionUtils.isEmpty(abisResponseDetDtoList)) {
 				for (AbisResponseDetDto abisResponseDetDto : abisResponseDetDtoList) {
 					machedRefIds.add(abisResponseDetDto.getMatchedBioRefId());
 				}
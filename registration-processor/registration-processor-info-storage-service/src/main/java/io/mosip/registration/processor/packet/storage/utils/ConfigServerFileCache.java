@@ -0,0 +1,195 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+
+/**
+ * The files read from the config server, for example the identity mapping json
+ * and the abis json. Each file is fetched once and kept with the values parsed
+ * from it, so they are not fetched and parsed again for every packet.
+ *
+ * The cached files are revalidated in the background with the ETag and
+ * Last-Modified sent by the config server. A file is replaced only when its
+ * content changed, and the values parsed from it are parsed again on first use
+ * after that.
+ *
+ * @author Vishwanath V
+ */
+public class ConfigServerFileCache {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(ConfigServerFileCache.class);
+
+	@Value("${mosip.regproc.config-file.cache.refresh-interval-millis:60000}")
+	private long refreshIntervalMillis;
+
+	@Value("${registration.processor.httpclient.connections.max.per.host:20}")
+	private int maxConnectionPerRoute;
+
+	private final Map<String, ConfigFile> files = new ConcurrentHashMap<>();
+
+	private RestTemplate restTemplate;
+
+	private ScheduledExecutorService refresher;
+
+	@PostConstruct
+	public void init() {
+		restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+				.setMaxConnPerRoute(maxConnectionPerRoute).setMaxConnTotal(maxConnectionPerRoute).build()));
+		if (refreshIntervalMillis > 0) {
+			refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "config-file-cache-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+			refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (refresher != null)
+			refresher.shutdownNow();
+	}
+
+	/**
+	 * Gets the file, it is fetched from the config server when not cached yet.
+	 *
+	 * @param configServerFileStorageURL the config server file storage URL
+	 * @param uri                        the file name
+	 * @return the file
+	 */
+	public ConfigFile get(String configServerFileStorageURL, String uri) {
+		String url = configServerFileStorageURL + uri;
+		ConfigFile file = files.get(url);
+		if (file == null)
+			file = files.computeIfAbsent(url, k -> fetch(k, null));
+		return file;
+	}
+
+	/**
+	 * Revalidates all the cached files with the config server
+	 */
+	public void refresh() {
+		for (Map.Entry<String, ConfigFile> entry : files.entrySet()) {
+			try {
+				ConfigFile file = fetch(entry.getKey(), entry.getValue());
+				if (file != entry.getValue()) {
+					files.put(entry.getKey(), file);
+					regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+							LoggerFileConstant.APPLICATIONID.toString(), entry.getKey(),
+							"ConfigServerFileCache::refresh()::config file changed");
+				}
+			} catch (RuntimeException e) {
+				regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(), entry.getKey(),
+						"ConfigServerFileCache::refresh()::config file could not be refreshed "
+								+ ExceptionUtils.getStackTrace(e));
+			}
+		}
+	}
+
+	/**
+	 * Fetches the file, only when it changed if a cached file is given.
+	 *
+	 * @return the fetched file, or the cached file when not modified
+	 */
+	private ConfigFile fetch(String url, ConfigFile cached) {
+		HttpHeaders headers = new HttpHeaders();
+		if (cached != null) {
+			if (cached.eTag != null)
+				headers.setIfNoneMatch(cached.eTag);
+			if (cached.lastModified > 0)
+				headers.setIfModifiedSince(cached.lastModified);
+		}
+		ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers),
+				String.class);
+		if (cached != null && (response.getStatusCode() == HttpStatus.NOT_MODIFIED
+				|| Objects.equals(cached.content, response.getBody())))
+			return cached;
+		return new ConfigFile(response.getBody(), response.getHeaders().getETag(),
+				response.getHeaders().getLastModified());
+	}
+
+	/**
+	 * A file read from the config server, with the values parsed from it.
+	 */
+	public static class ConfigFile {
+
+		private final String content;
+
+		private final String eTag;
+
+		private final long lastModified;
+
+		private final Map<Object, Object> values = new ConcurrentHashMap<>();
+
+		ConfigFile(String content, String eTag, long lastModified) {
+			this.content = content;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+		}
+
+		public String getContent() {
+			return content;
+		}
+
+		/**
+		 * Gets a value parsed from the file, it is parsed once for the file content.
+		 * The value is shared by all the callers, so it must not be changed.
+		 *
+		 * @param key    the key of the value
+		 * @param parser parses the value from the file content
+		 * @return the value
+		 * @throws IOException when the value could not be parsed
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T getValue(Object key, ContentParser<T> parser) throws IOException {
+			Object value = values.get(key);
+			if (value != null)
+				return (T) value;
+			try {
+				return (T) values.computeIfAbsent(key, k -> {
+					try {
+						return parser.parse(content);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	@FunctionalInterface
+	public interface ContentParser<T> {
+
+		T parse(String content) throws IOException;
+	}
+
+}
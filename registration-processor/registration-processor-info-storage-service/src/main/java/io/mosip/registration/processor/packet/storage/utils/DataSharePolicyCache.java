@@ -0,0 +1,138 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.constant.PolicyConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+
+/**
+ * The data share policies of partner management, shared by the stages that
+ * share data through the data share service, so that the policy is not fetched
+ * for every packet nor kept forever.
+ *
+ * A policy is fetched again once its time to live is over, by one thread while
+ * the others still get the cached policy. When the policy can not be fetched
+ * the cached one is kept for another time to live, only the successful
+ * responses are cached. The callers are expected to derive what they need
+ * from the response only when they get another response instance.
+ *
+ * @author Vishwanath V
+ */
+public class DataSharePolicyCache {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(DataSharePolicyCache.class);
+
+	@Value("${mosip.regproc.data-share.policy-cache.ttl-seconds:600}")
+	private long ttlSeconds;
+
+	@Autowired
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestClientService;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the policy of the subscriber, fetched from partner management when
+	 * not cached or expired.
+	 *
+	 * @param policyId     the policy id
+	 * @param subscriberId the subscriber id
+	 * @return the policy response, with its errors when it could not be fetched
+	 *         and no policy is cached
+	 * @throws ApisResourceAccessException when partner management can not be
+	 *                                     reached and no policy is cached
+	 */
+	public ResponseWrapper<?> getPolicy(String policyId, String subscriberId) throws ApisResourceAccessException {
+		String key = policyId + "/" + subscriberId;
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			if (!entry.isExpired() || !entry.refreshing.compareAndSet(false, true))
+				return entry.policy;
+			return fetch(key, policyId, subscriberId, entry);
+		}
+		synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+			entry = entries.get(key);
+			if (entry != null)
+				return entry.policy;
+			return fetch(key, policyId, subscriberId, null);
+		}
+	}
+
+	/**
+	 * Drops the cached policies, they are fetched again on next use.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	private ResponseWrapper<?> fetch(String key, String policyId, String subscriberId, Entry cached)
+			throws ApisResourceAccessException {
+		try {
+			ResponseWrapper<?> policy;
+			try {
+				policy = (ResponseWrapper<?>) registrationProcessorRestClientService.getApi(ApiName.PMS,
+						Arrays.asList(policyId, PolicyConstant.PARTNER_ID, subscriberId), "", "",
+						ResponseWrapper.class);
+			} catch (ApisResourceAccessException e) {
+				if (cached == null)
+					throw e;
+				keepStale(key, cached, ExceptionUtils.getStackTrace(e));
+				return cached.policy;
+			}
+			if (policy == null || (policy.getErrors() != null && !policy.getErrors().isEmpty())) {
+				if (cached == null)
+					return policy;
+				keepStale(key, cached,
+						policy == null ? "Policy response is null" : policy.getErrors().get(0).getMessage());
+				return cached.policy;
+			}
+			if (ttlSeconds > 0)
+				entries.put(key, new Entry(policy, ttlSeconds));
+			return policy;
+		} finally {
+			if (cached != null)
+				cached.refreshing.set(false);
+		}
+	}
+
+	private void keepStale(String key, Entry entry, String reason) {
+		entries.put(key, new Entry(entry.policy, ttlSeconds));
+		regProcLogger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(), key,
+				"DataSharePolicyCache::getPolicy()::policy could not be refreshed, the cached policy is kept "
+						+ reason);
+	}
+
+	private static class Entry {
+
+		private final ResponseWrapper<?> policy;
+
+		private final long expiryNanos;
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private Entry(ResponseWrapper<?> policy, long ttlSeconds) {
+			this.policy = policy;
+			this.expiryNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+		}
+
+		private boolean isExpired() {
+			return System.nanoTime() - expiryNanos >= 0;
+		}
+	}
+
+}
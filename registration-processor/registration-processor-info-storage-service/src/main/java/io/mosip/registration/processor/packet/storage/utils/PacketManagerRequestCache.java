@@ -0,0 +1,82 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.registration.processor.packet.storage.dto.InfoResponseDto;
+
+/**
+ * Packet data already fetched from packet manager while a stage processes one
+ * message. Packet content does not change during a hop, so the same info,
+ * fields, meta info and biometrics are served from here instead of calling
+ * packet manager again. Values are copied when handed out, so callers can
+ * change them freely.
+ *
+ * Lives in the message processing scope, so it is used by one thread only.
+ */
+class PacketManagerRequestCache {
+
+	private final Map<String, InfoResponseDto> infos = new HashMap<>();
+
+	/** Field values by id, source and process, a field present here was fetched */
+	private final Map<List<Object>, Map<String, String>> fields = new HashMap<>();
+
+	private final Map<List<Object>, Map<String, String>> metaInfos = new HashMap<>();
+
+	private final Map<List<Object>, BiometricRecord> biometrics = new HashMap<>();
+
+	InfoResponseDto getInfo(String id) {
+		return infos.get(id);
+	}
+
+	void putInfo(String id, InfoResponseDto infoResponseDto) {
+		infos.put(id, infoResponseDto);
+	}
+
+	/**
+	 * @return the fetched field values of the packet container, the returned map
+	 *         is updated with the newly fetched fields
+	 */
+	Map<String, String> getFields(String id, String source, String process) {
+		return fields.computeIfAbsent(Arrays.asList(id, source, process), k -> new HashMap<>());
+	}
+
+	Map<String, String> getMetaInfo(String id, String source, String process) {
+		Map<String, String> metaInfo = metaInfos.get(Arrays.asList(id, source, process));
+		return metaInfo != null ? new HashMap<>(metaInfo) : null;
+	}
+
+	void putMetaInfo(String id, String source, String process, Map<String, String> metaInfo) {
+		if (metaInfo != null)
+			metaInfos.put(Arrays.asList(id, source, process), new HashMap<>(metaInfo));
+	}
+
+	BiometricRecord getBiometrics(String id, String person, List<String> modalities, String source,
+			String process) {
+		return copy(biometrics.get(Arrays.asList(id, person, modalities, source, process)));
+	}
+
+	void putBiometrics(String id, String person, List<String> modalities, String source, String process,
+			BiometricRecord biometricRecord) {
+		if (biometricRecord != null)
+			biometrics.put(Arrays.asList(id, person, modalities == null ? null : new ArrayList<>(modalities),
+					source, process), copy(biometricRecord));
+	}
+
+	private BiometricRecord copy(BiometricRecord biometricRecord) {
+		if (biometricRecord == null)
+			return null;
+		BiometricRecord copy = new BiometricRecord(biometricRecord.getVersion(), biometricRecord.getCbeffversion(),
+				biometricRecord.getBirInfo());
+		if (biometricRecord.getSegments() != null)
+			copy.setSegments(new ArrayList<>(biometricRecord.getSegments()));
+		if (biometricRecord.getOthers() != null)
+			copy.setOthers(new HashMap<>(biometricRecord.getOthers()));
+		return copy;
+	}
+
+}
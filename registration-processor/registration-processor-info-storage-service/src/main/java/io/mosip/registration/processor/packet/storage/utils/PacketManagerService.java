@@ -4,6 +4,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import javax.annotation.PostConstruct;
 
@@ -14,9 +17,11 @@ import io.mosip.registration.processor.packet.storage.exception.ObjectDoesnotExi
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
@@ -24,6 +29,7 @@ import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.kernel.core.util.JsonUtils;
 import io.mosip.kernel.core.util.exception.JsonProcessingException;
+import io.mosip.registration.processor.core.cache.PacketTagCache;
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.common.rest.dto.ErrorDTO;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
@@ -32,6 +38,7 @@ import io.mosip.registration.processor.core.exception.PacketManagerException;
 import io.mosip.registration.processor.core.http.RequestWrapper;
 import io.mosip.registration.processor.core.http.ResponseWrapper;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorAsyncRestClientService;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.packet.storage.dto.BiometricRequestDto;
 import io.mosip.registration.processor.packet.storage.dto.DeleteTagRequestDTO;
@@ -64,6 +71,15 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
     @Autowired
     private Utilities utilities;
 
+    @Autowired(required = false)
+    private PacketTagCache packetTagCache;
+
+    @Autowired(required = false)
+    private RegistrationProcessorAsyncRestClientService asyncRestApi;
+
+    @Value("${mosip.regproc.rest-client.async.enabled:false}")
+    private boolean asyncRestClientEnabled;
+
     @PostConstruct
     private void setObjectMapper() {
         objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
@@ -77,7 +93,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<FieldResponseDto> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_SEARCH_FIELD, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<FieldResponseDto> response = postApi(ApiName.PACKETMANAGER_SEARCH_FIELD, request, FieldResponseDto.class);
 
         if (response.getErrors() != null && response.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(response));
@@ -88,7 +104,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
 
-        FieldResponseDto fieldResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), FieldResponseDto.class);
+        FieldResponseDto fieldResponseDto = response.getResponse();
 
         String responseField = fieldResponseDto.getFields().get(field);
         if (StringUtils.isNotEmpty(responseField) && responseField.equalsIgnoreCase("null"))
@@ -104,7 +120,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<FieldResponseDto> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_SEARCH_FIELDS, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<FieldResponseDto> response = postApi(ApiName.PACKETMANAGER_SEARCH_FIELDS, request, FieldResponseDto.class);
 
         if (response.getErrors() != null && response.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(response));
@@ -115,7 +131,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
 
-        FieldResponseDto fieldResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), FieldResponseDto.class);
+        FieldResponseDto fieldResponseDto = response.getResponse();
 
         return fieldResponseDto.getFields();
     }
@@ -132,7 +148,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<Document> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_SEARCH_DOCUMENT, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<Document> response = postApi(ApiName.PACKETMANAGER_SEARCH_DOCUMENT, request, Document.class);
 
         if (response.getErrors() != null && response.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(response));
@@ -143,9 +159,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
 
-        Document document = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), Document.class);
-
-        return document;
+        return response.getResponse();
     }
 
     protected ValidatePacketResponse validate(String id, String source, String process) throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
@@ -156,7 +170,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<ValidatePacketResponse> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_VALIDATE, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<ValidatePacketResponse> response = postApi(ApiName.PACKETMANAGER_VALIDATE, request, ValidatePacketResponse.class);
 
         if (response.getErrors() != null && response.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(response));
@@ -166,9 +180,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
             else
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
-        ValidatePacketResponse validatePacketResponse = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), ValidatePacketResponse.class);
-
-        return validatePacketResponse;
+        return response.getResponse();
     }
 
     protected List<FieldResponseDto> getAudits(String id, String source, String process) throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
@@ -181,7 +193,8 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<List<FieldResponseDto>> responseObj = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_SEARCH_AUDITS, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<List<FieldResponseDto>> responseObj = postApi(ApiName.PACKETMANAGER_SEARCH_AUDITS, request,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, FieldResponseDto.class));
 
         if (responseObj.getErrors() != null && responseObj.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(responseObj));
@@ -192,10 +205,8 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
 
-        for (Object o : responseObj.getResponse()) {
-            FieldResponseDto fieldResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(o), FieldResponseDto.class);
-            response.add(fieldResponseDto);
-        }
+        if (responseObj.getResponse() != null)
+            response.addAll(responseObj.getResponse());
 
         return response;
     }
@@ -209,7 +220,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<BiometricRecord> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_SEARCH_BIOMETRICS, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<BiometricRecord> response = postApi(ApiName.PACKETMANAGER_SEARCH_BIOMETRICS, request, BiometricRecord.class);
 
         if (response.getErrors() != null && response.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(response));
@@ -219,11 +230,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
             else
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
-        if (response.getResponse() != null) {
-            BiometricRecord biometricRecord = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), BiometricRecord.class);
-            return biometricRecord;
-        }
-        return null;
+        return response.getResponse();
 
     }
 
@@ -235,7 +242,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(fieldDto);
-        ResponseWrapper<FieldResponseDto> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_SEARCH_METAINFO, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<FieldResponseDto> response = postApi(ApiName.PACKETMANAGER_SEARCH_METAINFO, request, FieldResponseDto.class);
 
         if (CollectionUtils.isNotEmpty(response.getErrors())) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -247,7 +254,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
 
-        FieldResponseDto fieldResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), FieldResponseDto.class);
+        FieldResponseDto fieldResponseDto = response.getResponse();
 
         return fieldResponseDto.getFields();
     }
@@ -260,7 +267,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(infoRequestDto);
-        ResponseWrapper<InfoResponseDto> response = (ResponseWrapper) restApi.postApi(ApiName.PACKETMANAGER_INFO, "", "", request, ResponseWrapper.class);
+        ResponseWrapper<InfoResponseDto> response = postApi(ApiName.PACKETMANAGER_INFO, request, InfoResponseDto.class);
 
         if (response.getErrors() != null && response.getErrors().size() > 0) {
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), id, JsonUtils.javaObjectToJsonString(response));
@@ -271,9 +278,20 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
 
-        InfoResponseDto infoResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), InfoResponseDto.class);
+        return response.getResponse();
+    }
+
+    /**
+     * Posts the request to packet manager, reading the response directly into
+     * the response wrapper of the given type
+     */
+    private <T> ResponseWrapper<T> postApi(ApiName apiName, RequestWrapper<?> request, Class<T> responseType) throws ApisResourceAccessException {
+        return postApi(apiName, request, objectMapper.getTypeFactory().constructType(responseType));
+    }
 
-        return infoResponseDto;
+    private <T> ResponseWrapper<T> postApi(ApiName apiName, RequestWrapper<?> request, JavaType responseType) throws ApisResourceAccessException {
+        return restApi.postApiForType(apiName, "", "", request,
+                objectMapper.getTypeFactory().constructParametricType(ResponseWrapper.class, responseType));
     }
 
     public void addOrUpdateTags(String id, Map<String, String> tags) throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
@@ -294,6 +312,8 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
             else
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
         }
+        if (packetTagCache != null)
+            packetTagCache.addOrUpdate(id, tags);
     }
 
 	@SuppressWarnings("unchecked")
@@ -318,7 +338,8 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
             else
                 throw new PacketManagerException(errorDTO.getErrorCode(), errorDTO.getMessage());
 		}
-
+		if (packetTagCache != null)
+			packetTagCache.delete(id, tags);
 
 	}
 
@@ -327,16 +348,51 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
     }
 
     public Map<String, String> getTags(String id, List<String> tagNames) throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
+        ResponseWrapper<TagResponseDto> response = postApi(ApiName.PACKETMANAGER_GET_TAGS, getTagRequest(id, tagNames), TagResponseDto.class);
+        return toTags(id, response);
+    }
+
+    public CompletionStage<Map<String, String>> getAllTagsAsync(String id) {
+        return getTagsAsync(id, null);
+    }
+
+    /**
+     * Reads the tags without parking the calling thread, the returned stage
+     * completes exceptionally with the same exceptions getTags throws. Without
+     * the async rest client the tags are read with the blocking call.
+     */
+    public CompletionStage<Map<String, String>> getTagsAsync(String id, List<String> tagNames) {
+        if (!asyncRestClientEnabled || asyncRestApi == null) {
+            CompletableFuture<Map<String, String>> result = new CompletableFuture<>();
+            try {
+                result.complete(getTags(id, tagNames));
+            } catch (ApisResourceAccessException | PacketManagerException | JsonProcessingException | IOException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        JavaType responseType = objectMapper.getTypeFactory().constructParametricType(ResponseWrapper.class, TagResponseDto.class);
+        return asyncRestApi.<ResponseWrapper<TagResponseDto>>postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "",
+                getTagRequest(id, tagNames), responseType).thenApply(response -> {
+                    try {
+                        return toTags(id, response);
+                    } catch (PacketManagerException | JsonProcessingException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    private RequestWrapper<TagRequestDto> getTagRequest(String id, List<String> tagNames) {
         TagRequestDto tagRequestDto = new TagRequestDto(id, tagNames);
         RequestWrapper<TagRequestDto> request = new RequestWrapper<>();
         request.setId(ID);
         request.setVersion(VERSION);
         request.setRequesttime(DateUtils.getUTCCurrentDateTime());
         request.setRequest(tagRequestDto);
-        ResponseWrapper<TagResponseDto> response = (ResponseWrapper<TagResponseDto>) restApi
-                .postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "",
-                        request, ResponseWrapper.class);
+        return request;
+    }
 
+    private Map<String, String> toTags(String id, ResponseWrapper<TagResponseDto> response) throws PacketManagerException, JsonProcessingException {
         if (response.getErrors() != null && response.getErrors().size() > 0) {
         	ErrorDTO error=response.getErrors().get(0);
             regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
@@ -353,12 +409,7 @@ public class PacketManagerService extends PriorityBasedPacketManagerService {
             }
         }
 
-        TagResponseDto tagResponseDto = null;
-        if (response.getResponse() != null) {
-            tagResponseDto = objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()), TagResponseDto.class);
-
-        }
-
+        TagResponseDto tagResponseDto = response.getResponse();
         return tagResponseDto != null ? tagResponseDto.getTags() : null;
     }
 }
@@ -2,8 +2,10 @@ package io.mosip.registration.processor.packet.storage.utils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,21 +20,26 @@ import org.springframework.util.CollectionUtils;
 
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
 import io.mosip.kernel.core.util.exception.JsonProcessingException;
+import io.mosip.registration.processor.core.abstractverticle.MessageProcessingScope;
 import io.mosip.registration.processor.core.constant.MappingJsonConstants;
 import io.mosip.registration.processor.core.constant.ProviderStageName;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
 import io.mosip.registration.processor.core.exception.PacketManagerException;
 import io.mosip.registration.processor.core.util.JsonUtil;
+import io.mosip.registration.processor.core.util.MeterBinding;
 import io.mosip.registration.processor.packet.storage.dto.ContainerInfoDto;
 import io.mosip.registration.processor.packet.storage.dto.Document;
 import io.mosip.registration.processor.packet.storage.dto.FieldResponseDto;
 import io.mosip.registration.processor.packet.storage.dto.InfoResponseDto;
 import io.mosip.registration.processor.packet.storage.dto.ValidatePacketResponse;
 import io.mosip.registration.processor.packet.storage.helper.PacketManagerHelper;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Component
 public class PriorityBasedPacketManagerService {
 
+    private static final String PACKET_MANAGER_CALLS_AVOIDED = "mosip.regproc.packet.manager.calls.avoided";
+
     @Autowired
     private Utilities utilities;
 
@@ -71,15 +78,7 @@ public class PriorityBasedPacketManagerService {
     }
     
     public Map<String, String> getAllFieldsByMappingJsonKeys(String id, String process, ProviderStageName stageName) throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
-        JSONObject regProcessorIdentityJson = utilities.getRegistrationProcessorMappingJson(MappingJsonConstants.IDENTITY);
-        List<String> fields=new ArrayList<>();
-        for(Object key:regProcessorIdentityJson.keySet()) {
-        String field = JsonUtil.getJSONValue(
-                JsonUtil.getJSONObject(regProcessorIdentityJson, key),
-                MappingJsonConstants.VALUE);
-        fields.addAll(List.of(field.split(",")));
-        }
-        Map<String, String> idValuesMap=getFields(id,fields,process,stageName);
+        Map<String, String> idValuesMap=getFields(id,utilities.getIdentityMappedFields(),process,stageName);
         return idValuesMap;
     }
 
@@ -136,7 +135,7 @@ public class PriorityBasedPacketManagerService {
 
         // get fields for which priority is not set in config
         if (!CollectionUtils.isEmpty(nonPriorityList))
-            fieldMap.putAll(packetManagerService.getFields(id, nonPriorityList, null, process));
+            fieldMap.putAll(fetchFields(id, nonPriorityList, null, process, stageName));
 
         return fieldMap;
     }
@@ -155,8 +154,8 @@ public class PriorityBasedPacketManagerService {
      */
     public Map<String, String> getMetaInfo(String id, String process, ProviderStageName stageName) throws ApisResourceAccessException, PacketManagerException, JsonProcessingException, IOException {
         ContainerInfoDto containerInfoDto = findSourceAndProcessByPriority(id, MappingJsonConstants.METAINFO, stageName);
-        return containerInfoDto  != null ? packetManagerService.getMetaInfo(id, containerInfoDto.getSource(), containerInfoDto.getProcess())
-                : packetManagerService.getMetaInfo(id, null, process);
+        return containerInfoDto  != null ? fetchMetaInfo(id, containerInfoDto.getSource(), containerInfoDto.getProcess(), stageName)
+                : fetchMetaInfo(id, null, process, stageName);
     }
 
     /**
@@ -267,15 +266,15 @@ public class PriorityBasedPacketManagerService {
                 key -> key.getKey().contains(person)).collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
         // if there is no priority set for individual stage
         if (CollectionUtils.isEmpty(finalKeyMap)) {
-            return packetManagerService.getBiometrics(id, person, modalities, null, process);
+            return fetchBiometrics(id, person, modalities, null, process, stageName);
         }
         // else get fields based on priority set in individual stage level
-        InfoResponseDto infoResponseDto = packetManagerService.info(id);
+        InfoResponseDto infoResponseDto = info(id, stageName);
         // if there is no type/subtype set in properties
         if (finalKeyMap.get(person) != null) {
             ContainerInfoDto containerInfoDto = PacketManagerHelper.getContainerInfo(finalKeyMap, person, infoResponseDto);
             modalities = CollectionUtils.isEmpty(modalities) ? PacketManagerHelper.getTypeSubtypeModalities(containerInfoDto) : modalities;
-            return packetManagerService.getBiometrics(id, person, modalities, containerInfoDto.getSource(), containerInfoDto.getProcess());
+            return fetchBiometrics(id, person, modalities, containerInfoDto.getSource(), containerInfoDto.getProcess(), stageName);
         }
 
         Set<ContainerInfoDto> containers = new HashSet<>();
@@ -292,8 +291,8 @@ public class PriorityBasedPacketManagerService {
 
         for (ContainerInfoDto containerInfoDto : containers) {
             List<String> containerModalities = CollectionUtils.isEmpty(modalities) ? PacketManagerHelper.getTypeSubtypeModalities(containerInfoDto) : modalities;
-            BiometricRecord record = packetManagerService.getBiometrics(
-                    id, person, containerModalities, containerInfoDto.getSource(), containerInfoDto.getProcess());
+            BiometricRecord record = fetchBiometrics(
+                    id, person, containerModalities, containerInfoDto.getSource(), containerInfoDto.getProcess(), stageName);
 
             if (biometricRecord == null)
                 biometricRecord = new BiometricRecord();
@@ -307,25 +306,34 @@ public class PriorityBasedPacketManagerService {
             throws ApisResourceAccessException, IOException, PacketManagerException, JsonProcessingException {
 
         Map<String, String> fieldMap = new HashMap<>();
-        InfoResponseDto infoResponseDto = packetManagerService.info(id);
+        InfoResponseDto infoResponseDto = info(id, stageName);
         // if there is only one source then save time
         if (infoResponseDto.getInfo().size() == 1) {
             ContainerInfoDto containerInfoDto = infoResponseDto.getInfo().iterator().next();
-            fieldMap = packetManagerService.getFields(id, fields, containerInfoDto.getSource(), containerInfoDto.getProcess());
+            fieldMap = fetchFields(id, fields, containerInfoDto.getSource(), containerInfoDto.getProcess(), stageName);
             return fieldMap;
         }
-        // else find correct source for each field
+        // else find correct source for each field and fetch the fields of a source together
         Map<String, String> keyMap = PacketManagerHelper.getKeyMap(stageName, providerConfiguration);
+        Map<List<String>, List<String>> containerFields = new LinkedHashMap<>();
         for (String field : fields) {
             ContainerInfoDto containerInfoDto = PacketManagerHelper.getContainerInfo(keyMap, field, infoResponseDto);
-            if (containerInfoDto != null) {
-                String fieldValue = packetManagerService.getField(id, field, containerInfoDto.getSource(), containerInfoDto.getProcess());
-                fieldMap.put(field, fieldValue);
-            }
+            if (containerInfoDto != null)
+                containerFields.computeIfAbsent(Arrays.asList(containerInfoDto.getSource(), containerInfoDto.getProcess()),
+                        k -> new ArrayList<>()).add(field);
         }
         ContainerInfoDto containerInfoDto = packetManagerHelper.getBiometricSourceAndProcess(fields, keyMap, infoResponseDto.getInfo());
         if (containerInfoDto != null)
-            fieldMap.put(packetManagerHelper.getApplicantBiometricLabel(), packetManagerService.getField(id, packetManagerHelper.getApplicantBiometricLabel(), containerInfoDto.getSource(), containerInfoDto.getProcess()));
+            containerFields.computeIfAbsent(Arrays.asList(containerInfoDto.getSource(), containerInfoDto.getProcess()),
+                    k -> new ArrayList<>()).add(packetManagerHelper.getApplicantBiometricLabel());
+
+        for (Map.Entry<List<String>, List<String>> entry : containerFields.entrySet()) {
+            Map<String, String> values = fetchFields(id, entry.getValue(), entry.getKey().get(0), entry.getKey().get(1), stageName);
+            for (String field : entry.getValue()) {
+                String fieldValue = values != null ? values.get(field) : null;
+                fieldMap.put(field, fieldValue != null && fieldValue.equalsIgnoreCase("null") ? null : fieldValue);
+            }
+        }
         return fieldMap;
     }
 
@@ -334,9 +342,96 @@ public class PriorityBasedPacketManagerService {
             throws ApisResourceAccessException, IOException, PacketManagerException, JsonProcessingException {
         Map<String, String> keyMap = PacketManagerHelper.getKeyMap(stageName, providerConfiguration);
         if (keyMap != null && keyMap.get(field) != null) {
-            InfoResponseDto infoResponseDto = packetManagerService.info(id);
+            InfoResponseDto infoResponseDto = info(id, stageName);
             return PacketManagerHelper.getContainerInfo(keyMap, field, infoResponseDto);
         }
         return null;
     }
+
+    private PacketManagerRequestCache getRequestCache() {
+        return MessageProcessingScope.get(PacketManagerRequestCache.class, PacketManagerRequestCache::new);
+    }
+
+    private InfoResponseDto info(String id, ProviderStageName stageName)
+            throws ApisResourceAccessException, IOException, PacketManagerException, JsonProcessingException {
+        PacketManagerRequestCache requestCache = getRequestCache();
+        if (requestCache == null)
+            return packetManagerService.info(id);
+        InfoResponseDto infoResponseDto = requestCache.getInfo(id);
+        if (infoResponseDto != null) {
+            callAvoided(stageName, "info");
+            return infoResponseDto;
+        }
+        infoResponseDto = packetManagerService.info(id);
+        requestCache.putInfo(id, infoResponseDto);
+        return infoResponseDto;
+    }
+
+    /**
+     * Fields are fetched once per message. When the source is not known, the
+     * fields of the identity mapping json are fetched along in the same request,
+     * as the other lookups of the stage mostly ask for them.
+     */
+    private Map<String, String> fetchFields(String id, List<String> fields, String source, String process, ProviderStageName stageName)
+            throws ApisResourceAccessException, IOException, PacketManagerException, JsonProcessingException {
+        PacketManagerRequestCache requestCache = getRequestCache();
+        if (requestCache == null)
+            return packetManagerService.getFields(id, fields, source, process);
+
+        Map<String, String> fetchedFields = requestCache.getFields(id, source, process);
+        List<String> missingFields = fields.stream().filter(field -> !fetchedFields.containsKey(field))
+                .distinct().collect(Collectors.toList());
+        if (missingFields.isEmpty()) {
+            callAvoided(stageName, "fields");
+        } else {
+            List<String> requestFields = new ArrayList<>(missingFields);
+            if (source == null)
+                utilities.getIdentityMappedFields().stream().filter(field -> !fetchedFields.containsKey(field) && !requestFields.contains(field))
+                        .forEach(requestFields::add);
+            Map<String, String> values = packetManagerService.getFields(id, requestFields, source, process);
+            for (String field : requestFields)
+                fetchedFields.put(field, values != null ? values.get(field) : null);
+        }
+        Map<String, String> fieldMap = new HashMap<>();
+        for (String field : fields)
+            fieldMap.put(field, fetchedFields.get(field));
+        return fieldMap;
+    }
+
+    private Map<String, String> fetchMetaInfo(String id, String source, String process, ProviderStageName stageName)
+            throws ApisResourceAccessException, IOException, PacketManagerException, JsonProcessingException {
+        PacketManagerRequestCache requestCache = getRequestCache();
+        if (requestCache == null)
+            return packetManagerService.getMetaInfo(id, source, process);
+        Map<String, String> metaInfo = requestCache.getMetaInfo(id, source, process);
+        if (metaInfo != null) {
+            callAvoided(stageName, "metainfo");
+            return metaInfo;
+        }
+        metaInfo = packetManagerService.getMetaInfo(id, source, process);
+        requestCache.putMetaInfo(id, source, process, metaInfo);
+        return metaInfo;
+    }
+
+    private BiometricRecord fetchBiometrics(String id, String person, List<String> modalities, String source, String process, ProviderStageName stageName)
+            throws ApisResourceAccessException, IOException, PacketManagerException, JsonProcessingException {
+        PacketManagerRequestCache requestCache = getRequestCache();
+        if (requestCache == null)
+            return packetManagerService.getBiometrics(id, person, modalities, source, process);
+        BiometricRecord biometricRecord = requestCache.getBiometrics(id, person, modalities, source, process);
+        if (biometricRecord != null) {
+            callAvoided(stageName, "biometrics");
+            return biometricRecord;
+        }
+        biometricRecord = packetManagerService.getBiometrics(id, person, modalities, source, process);
+        requestCache.putBiometrics(id, person, modalities, source, process, biometricRecord);
+        return biometricRecord;
+    }
+
+    private void callAvoided(ProviderStageName stageName, String api) {
+        MeterRegistry registry = MeterBinding.getRegistry(null);
+        if (registry != null)
+            registry.counter(PACKET_MANAGER_CALLS_AVOIDED, "stage",
+                    stageName != null ? stageName.getValue() : "unknown", "api", api).increment();
+    }
 }
@@ -160,6 +160,9 @@ public class Utilities {
 	@Autowired
 	private PacketInfoDao packetInfoDao;
 
+	@Autowired
+	private ConfigServerFileCache configServerFileCache;
+
 	@Autowired
 	private PriorityBasedPacketManagerService packetManagerService;
 
@@ -206,7 +209,12 @@ public class Utilities {
 	
 	private static final String VALUE = "value";
 
-	private JSONObject mappingJsonObject = null;
+	/** The key of the parsed mapping json in the config file cache */
+	private static final String MAPPING_JSON = "mappingJson";
+
+	private static final String IDENTITY_MAPPED_FIELDS = "identityMappedFields";
+
+	private static final RestTemplate CONFIG_FILE_REST_TEMPLATE = new RestTemplate();
 
 	public static void initialize(Map<String, String> reader, Map<String, String> writer) {
 		readerConfiguration = reader;
@@ -223,8 +231,7 @@ public class Utilities {
 	 * @return the json
 	 */
 	public static String getJson(String configServerFileStorageURL, String uri) {
-		RestTemplate restTemplate = new RestTemplate();
-		return restTemplate.getForObject(configServerFileStorageURL + uri, String.class);
+		return CONFIG_FILE_REST_TEMPLATE.getForObject(configServerFileStorageURL + uri, String.class);
 	}
 
 	/**
@@ -441,7 +448,8 @@ public class Utilities {
 	 */
 	public List<AbisQueueDetails> getAbisQueueDetails() throws RegistrationProcessorCheckedException {
 		List<AbisQueueDetails> abisQueueDetailsList = new ArrayList<>();
-		String registrationProcessorAbis = Utilities.getJson(configServerFileStorageURL, registrationProcessorAbisJson);
+		String registrationProcessorAbis = configServerFileCache
+				.get(configServerFileStorageURL, registrationProcessorAbisJson).getContent();
 		JSONObject regProcessorAbisJson;
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"Utilities::getAbisQueueDetails()::entry");
@@ -500,17 +508,44 @@ public class Utilities {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"Utilities::getRegistrationProcessorMappingJson()::entry");
 
-		if (mappingJsonObject == null) {
-			String mappingJsonString = Utilities.getJson(configServerFileStorageURL, getRegProcessorIdentityJson);
-			mappingJsonObject = objMapper.readValue(mappingJsonString, JSONObject.class);
-
-		}
+		JSONObject mappingJsonObject = getRegistrationProcessorMappingJson(
+				configServerFileCache.get(configServerFileStorageURL, getRegProcessorIdentityJson));
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"Utilities::getRegistrationProcessorMappingJson()::exit");
 		return JsonUtil.getJSONObject(mappingJsonObject, packetSegment);
 
 	}
 
+	/**
+	 * Gets the fields of all the keys of the identity mapping json, computed once
+	 * for each mapping json fetched from the config server.
+	 *
+	 * @return the fields, shared by all the callers
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public List<String> getIdentityMappedFields() throws IOException {
+		ConfigServerFileCache.ConfigFile mappingJsonFile = configServerFileCache.get(configServerFileStorageURL,
+				getRegProcessorIdentityJson);
+		JSONObject identityJson = JsonUtil.getJSONObject(getRegistrationProcessorMappingJson(mappingJsonFile),
+				MappingJsonConstants.IDENTITY);
+		return mappingJsonFile.getValue(IDENTITY_MAPPED_FIELDS, mappingJsonString -> {
+			List<String> fields = new ArrayList<>();
+			for (Object key : identityJson.keySet()) {
+				String field = JsonUtil.getJSONValue(JsonUtil.getJSONObject(identityJson, key), VALUE);
+				if (field != null)
+					fields.addAll(Arrays.asList(field.split(",")));
+			}
+			return Collections.unmodifiableList(fields);
+		});
+	}
+
+	private JSONObject getRegistrationProcessorMappingJson(ConfigServerFileCache.ConfigFile mappingJsonFile)
+			throws IOException {
+		return mappingJsonFile.getValue(MAPPING_JSON,
+				mappingJsonString -> objMapper.readValue(mappingJsonString, JSONObject.class));
+	}
+
 	public String getMappingJsonValue(String key, String packetSegment) throws IOException {
 		JSONObject jsonObject = getRegistrationProcessorMappingJson(packetSegment);
 		Object obj = jsonObject.get(key);
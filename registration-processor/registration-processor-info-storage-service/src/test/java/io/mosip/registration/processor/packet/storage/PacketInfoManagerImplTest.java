@@ -892,6 +892,37 @@ public class PacketInfoManagerImplTest {
 		packetInfoManagerImpl.saveAbisRequest(dto, "", "");
 	}
 
+	/**
+	 * Test save abis requests success.
+	 */
+	@Test
+	public void testSaveAbisRequestsSuccess() {
+		RegBioRefDto regBioRefDto = new RegBioRefDto();
+		regBioRefDto.setBioRefId("abc-efg-123");
+		regBioRefDto.setRegId("1234567890");
+		AbisRequestDto dto = new AbisRequestDto();
+		dto.setId("1");
+		dto.setBioRefId("abc-efg-123");
+		dto.setRequestType("INSERT");
+		packetInfoManagerImpl.saveAbisRequests(regBioRefDto, Arrays.asList(dto), "", "");
+		Mockito.verify(packetInfoDao).saveAbisRequests(Mockito.argThat(entity -> "abc-efg-123".equals(entity.getId().getBioRefId())),
+				Mockito.argThat(entities -> entities.size() == 1 && "1".equals(entities.get(0).getId().getId())));
+		Mockito.verify(auditLogRequestBuilder, Mockito.times(1)).createAuditRequestBuilder(any(), any(), any(), any(),
+				any(), any(), any());
+	}
+
+	/**
+	 * Test save abis requests exception.
+	 */
+	@Test(expected = UnableToInsertData.class)
+	public void testSaveAbisRequestsException() {
+		Mockito.doThrow(exp).when(packetInfoDao).saveAbisRequests(any(), any());
+		AbisRequestDto dto = new AbisRequestDto();
+		dto.setBioRefId("abc-efg-123");
+		dto.setRequestType("INSERT");
+		packetInfoManagerImpl.saveAbisRequests(null, Arrays.asList(dto), "", "");
+	}
+
 	/**
 	 * Test get demo list by transaction id.
 	 */
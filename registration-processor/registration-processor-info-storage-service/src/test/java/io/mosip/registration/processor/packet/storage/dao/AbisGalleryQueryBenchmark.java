@@ -0,0 +1,208 @@
+package io.mosip.registration.processor.packet.storage.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.kernel.dataaccess.hibernate.repository.impl.HibernateRepositoryImpl;
+import io.mosip.registration.processor.packet.storage.entity.RegBioRefEntity;
+import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
+
+/**
+ * Compares the reg bio ref lookups of the ABIS stages done one item at a time
+ * against the bulk lookups of {@link PacketInfoDao}, on an in memory H2
+ * reg_bio_ref table of 200k rows with the (reg_id, cr_dtimes) index. The DAO
+ * runs the JPQL queries of {@link BasePacketRepository} through a Spring Data
+ * JPA repository on Hibernate, as the stages do:
+ * <ul>
+ * <li>the gallery of a demo dedupe identify request, the bio refs of 10k
+ * matched reg ids, read with {@link PacketInfoDao#getBioRefIdByRegId} per reg
+ * id or with {@link PacketInfoDao#getBioRefsByRegIds} in chunks of 1000 reg
+ * ids</li>
+ * <li>the reg ids of the candidates of an identify response, read with
+ * {@link PacketInfoDao#getRegIdByBioRefId} per candidate or with
+ * {@link PacketInfoDao#getRegIdsByBioRefIds}</li>
+ * </ul>
+ * H2 has no index on lower(bio_ref_id), so every candidate lookup scans the
+ * table. The in memory database has no network round trip, so the gap against
+ * a remote database is larger. Not run as part of the unit tests, run the main
+ * method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbisGalleryQueryBenchmark {
+
+	private static final int REGISTRATIONS = 200_000;
+
+	private static final String URL = "jdbc:h2:mem:gallery;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS regprc";
+
+	@Param({ "10000" })
+	private int matches;
+
+	@Param({ "100" })
+	private int candidates;
+
+	private EntityManagerFactory entityManagerFactory;
+
+	private JdbcDataSource dataSource;
+
+	private PacketInfoDao packetInfoDao;
+
+	private List<String> matchedRegIds;
+
+	private List<String> candidateBioRefIds;
+
+	@Setup
+	public void setup() throws SQLException {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL(URL);
+		List<String> bioRefIds = new ArrayList<>(REGISTRATIONS);
+		try (Connection connection = dataSource.getConnection()) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE TABLE regprc.reg_bio_ref(reg_id VARCHAR(39) NOT NULL, "
+						+ "bio_ref_id VARCHAR(36) NOT NULL, workflow_instance_id VARCHAR(36) NOT NULL, "
+						+ "process VARCHAR(36), iteration INT, is_active BOOLEAN, cr_by VARCHAR(256) NOT NULL, "
+						+ "cr_dtimes TIMESTAMP NOT NULL, upd_by VARCHAR(256), upd_dtimes TIMESTAMP, "
+						+ "is_deleted BOOLEAN, del_dtimes TIMESTAMP, PRIMARY KEY (bio_ref_id, workflow_instance_id))");
+				statement.execute("CREATE INDEX idx_rbioref_regid_crdtimes ON regprc.reg_bio_ref (reg_id, cr_dtimes)");
+			}
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO regprc.reg_bio_ref (reg_id, "
+					+ "bio_ref_id, workflow_instance_id, process, iteration, is_active, cr_by, cr_dtimes, is_deleted) "
+					+ "VALUES (?, ?, ?, 'NEW', 1, TRUE, 'SYSTEM', ?, FALSE)")) {
+				for (int i = 0; i < REGISTRATIONS; i++) {
+					String bioRefId = UUID.randomUUID().toString();
+					bioRefIds.add(bioRefId);
+					insert.setString(1, regId(i));
+					insert.setString(2, bioRefId);
+					insert.setString(3, UUID.randomUUID().toString());
+					insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+					insert.addBatch();
+					if (i % 10_000 == 0)
+						insert.executeBatch();
+				}
+				insert.executeBatch();
+			}
+		}
+		matchedRegIds = new ArrayList<>(matches);
+		for (int i = 0; i < matches; i++)
+			matchedRegIds.add(regId(i * (REGISTRATIONS / matches)));
+		candidateBioRefIds = new ArrayList<>(candidates);
+		for (int i = 0; i < candidates; i++)
+			candidateBioRefIds.add(bioRefIds.get(i * (REGISTRATIONS / candidates)));
+
+		LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setPackagesToScan("io.mosip.registration.processor.packet.storage.entity");
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		Properties jpaProperties = new Properties();
+		jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+		jpaProperties.put("hibernate.hbm2ddl.auto", "none");
+		factoryBean.setJpaProperties(jpaProperties);
+		factoryBean.afterPropertiesSet();
+		entityManagerFactory = factoryBean.getObject();
+
+		// an entity manager per query, as outside of a transaction in the stages
+		EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+		JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+		repositoryFactory.setRepositoryBaseClass(HibernateRepositoryImpl.class);
+		BasePacketRepository<?, ?> repository = repositoryFactory.getRepository(BasePacketRepository.class);
+		packetInfoDao = new PacketInfoDao();
+		ReflectionTestUtils.setField(packetInfoDao, "regBioRefRepository", repository);
+		ReflectionTestUtils.setField(packetInfoDao, "abisRequestRepository", repository);
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		entityManagerFactory.close();
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+	}
+
+	@Benchmark
+	public Map<String, String> galleryQueryPerMatch() {
+		Map<String, String> bioRefIdByRegId = new HashMap<>();
+		for (String regId : matchedRegIds) {
+			List<RegBioRefEntity> bioRefs = packetInfoDao.getBioRefIdByRegId(regId);
+			if (!bioRefs.isEmpty())
+				bioRefIdByRegId.put(regId, bioRefs.get(0).getId().getBioRefId());
+		}
+		return bioRefIdByRegId;
+	}
+
+	@Benchmark
+	public Map<String, String> galleryBulkQuery() {
+		Map<String, String> bioRefIdByRegId = new HashMap<>();
+		// latest first, the latest bio ref of each reg id is kept
+		for (RegBioRefEntity bioRef : packetInfoDao.getBioRefsByRegIds(matchedRegIds))
+			bioRefIdByRegId.putIfAbsent(bioRef.getRegId(), bioRef.getId().getBioRefId());
+		return bioRefIdByRegId;
+	}
+
+	@Benchmark
+	public Map<String, String> candidatesQueryPerCandidate() {
+		Map<String, String> regIdByBioRefId = new HashMap<>();
+		for (String bioRefId : candidateBioRefIds) {
+			String regId = packetInfoDao.getRegIdByBioRefId(bioRefId.toLowerCase());
+			if (regId != null)
+				regIdByBioRefId.put(bioRefId.toLowerCase(), regId);
+		}
+		return regIdByBioRefId;
+	}
+
+	@Benchmark
+	public Map<String, String> candidatesBulkQuery() {
+		return packetInfoDao.getRegIdsByBioRefIds(candidateBioRefIds);
+	}
+
+	private static String regId(int i) {
+		return String.format("1000110001%019d", i);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(AbisGalleryQueryBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,216 @@
+package io.mosip.registration.processor.packet.storage.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
+
+/**
+ * Measures the demo dedupe of a packet of two languages against a synthetic
+ * population growing from 100k to 1M registrations, comparing a name, dob and
+ * gender query per language followed by a uin check per candidate against the
+ * single blocking key query followed by a single uin check of
+ * {@link PacketInfoDao#getAllDemographicInfoDtos(java.util.Collection)}. The
+ * population shares a name, dob and gender by groups of about five, and four
+ * registrations out of five are processed. The tables are in memory H2 with
+ * the indexes of the db scripts, so the gap against a remote database is
+ * larger. Not run as part of the unit tests, run the main method from the test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DemoDedupeBlockingKeyBenchmark {
+
+	private static final String[] LANGUAGES = { "eng", "ara" };
+
+	private static final int GROUP_SIZE = 5;
+
+	@Param({ "100000", "400000", "1000000" })
+	private int registrations;
+
+	private Connection connection;
+
+	private PreparedStatement selectByFields;
+
+	private PreparedStatement selectProcessed;
+
+	private Random random;
+
+	@Setup
+	public void setup() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:demodedupe;DB_CLOSE_DELAY=-1");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE individual_demographic_dedup(reg_id VARCHAR(39) NOT NULL, "
+					+ "name VARCHAR(128), dob VARCHAR(64), gender VARCHAR(64), dedupe_key VARCHAR(64), "
+					+ "lang_code VARCHAR(3) NOT NULL, is_active BOOLEAN NOT NULL, PRIMARY KEY (reg_id, lang_code))");
+			statement.execute("CREATE INDEX idx_idemogd_namedobgender ON individual_demographic_dedup (name, dob, gender)");
+			statement.execute("CREATE INDEX idx_idemogd_dedupekey ON individual_demographic_dedup (dedupe_key, is_active)");
+			statement.execute("CREATE TABLE registration(reg_id VARCHAR(39) NOT NULL PRIMARY KEY, "
+					+ "status_code VARCHAR(36) NOT NULL)");
+			statement.execute("CREATE INDEX idx_rgstrn_regid_statuscode ON registration (reg_id, status_code)");
+		}
+		try (PreparedStatement insertDemo = connection
+				.prepareStatement("INSERT INTO individual_demographic_dedup VALUES (?, ?, ?, ?, ?, ?, TRUE)");
+				PreparedStatement insertRegistration = connection
+						.prepareStatement("INSERT INTO registration VALUES (?, ?)")) {
+			for (int i = 0; i < registrations; i++) {
+				for (String langCode : LANGUAGES) {
+					insertDemo.setString(1, regId(i));
+					insertDemo.setString(2, name(i, langCode));
+					insertDemo.setString(3, dob(i));
+					insertDemo.setString(4, gender(i, langCode));
+					insertDemo.setString(5, PacketInfoMapper.getDedupeKey(name(i, langCode), dob(i),
+							gender(i, langCode), langCode));
+					insertDemo.setString(6, langCode);
+					insertDemo.addBatch();
+				}
+				insertRegistration.setString(1, regId(i));
+				insertRegistration.setString(2, i % 5 == 0 ? "PROCESSING" : "PROCESSED");
+				insertRegistration.addBatch();
+				if (i % 10_000 == 0) {
+					insertDemo.executeBatch();
+					insertRegistration.executeBatch();
+				}
+			}
+			insertDemo.executeBatch();
+			insertRegistration.executeBatch();
+		}
+		selectByFields = connection.prepareStatement("SELECT reg_id FROM individual_demographic_dedup "
+				+ "WHERE name = ? AND gender = ? AND dob = ? AND lang_code = ? AND is_active = TRUE");
+		selectProcessed = connection.prepareStatement(
+				"SELECT reg_id FROM registration WHERE reg_id = ? AND status_code = 'PROCESSED'");
+		random = new Random(7);
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		connection.close();
+	}
+
+	@Benchmark
+	public List<String> queryPerLanguageAndCandidate() throws SQLException {
+		int applicant = random.nextInt(registrations);
+		List<String> candidates = new ArrayList<>();
+		for (String langCode : LANGUAGES) {
+			selectByFields.setString(1, name(applicant, langCode));
+			selectByFields.setString(2, gender(applicant, langCode));
+			selectByFields.setString(3, dob(applicant));
+			selectByFields.setString(4, langCode);
+			try (ResultSet resultSet = selectByFields.executeQuery()) {
+				while (resultSet.next())
+					candidates.add(resultSet.getString(1));
+			}
+		}
+		List<String> duplicates = new ArrayList<>();
+		for (String candidate : candidates) {
+			selectProcessed.setString(1, candidate);
+			try (ResultSet resultSet = selectProcessed.executeQuery()) {
+				if (resultSet.next())
+					duplicates.add(candidate);
+			}
+		}
+		return duplicates;
+	}
+
+	@Benchmark
+	public List<String> blockingKeyQuery() throws SQLException {
+		int applicant = random.nextInt(registrations);
+		List<String> dedupeKeys = new ArrayList<>();
+		for (String langCode : LANGUAGES)
+			dedupeKeys.add(PacketInfoMapper.getDedupeKey(name(applicant, langCode), dob(applicant),
+					gender(applicant, langCode), langCode));
+		List<String> candidates = new ArrayList<>();
+		try (PreparedStatement select = connection.prepareStatement("SELECT reg_id FROM individual_demographic_dedup "
+				+ "WHERE dedupe_key IN (" + placeholders(dedupeKeys.size()) + ") AND is_active = TRUE")) {
+			for (int i = 0; i < dedupeKeys.size(); i++)
+				select.setString(i + 1, dedupeKeys.get(i));
+			try (ResultSet resultSet = select.executeQuery()) {
+				while (resultSet.next())
+					candidates.add(resultSet.getString(1));
+			}
+		}
+		Set<String> regIds = new LinkedHashSet<>(candidates);
+		Set<String> processed = new LinkedHashSet<>();
+		try (PreparedStatement select = connection.prepareStatement("SELECT DISTINCT reg_id FROM registration "
+				+ "WHERE reg_id IN (" + placeholders(regIds.size()) + ") AND status_code = 'PROCESSED'")) {
+			int index = 1;
+			for (String regId : regIds)
+				select.setString(index++, regId);
+			try (ResultSet resultSet = select.executeQuery()) {
+				while (resultSet.next())
+					processed.add(resultSet.getString(1));
+			}
+		}
+		List<String> duplicates = new ArrayList<>();
+		for (String candidate : candidates) {
+			if (processed.contains(candidate))
+				duplicates.add(candidate);
+		}
+		return duplicates;
+	}
+
+	private static String placeholders(int count) {
+		StringBuilder placeholders = new StringBuilder("?");
+		for (int i = 1; i < count; i++)
+			placeholders.append(", ?");
+		return placeholders.toString();
+	}
+
+	private static String regId(int i) {
+		return String.format("1000110001%019d", i);
+	}
+
+	private static String name(int i, String langCode) {
+		return "name-" + langCode + "-" + i / GROUP_SIZE;
+	}
+
+	private static String dob(int i) {
+		return "dob-" + (i / GROUP_SIZE) % 20_000;
+	}
+
+	private static String gender(int i, String langCode) {
+		return "gender-" + langCode + "-" + (i / GROUP_SIZE) % 2;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(DemoDedupeBlockingKeyBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+}
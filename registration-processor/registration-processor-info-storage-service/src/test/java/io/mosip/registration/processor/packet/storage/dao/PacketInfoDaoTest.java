@@ -1,14 +1,18 @@
 package io.mosip.registration.processor.packet.storage.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import io.mosip.registration.processor.packet.storage.entity.RegBioRefPKEntity;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,7 +20,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import io.mosip.registration.processor.core.packet.dto.abis.AbisRequestDto;
+import io.mosip.registration.processor.core.packet.dto.abis.RegBioRefDto;
 import io.mosip.registration.processor.core.packet.dto.demographicinfo.DemographicInfoDto;
 import io.mosip.registration.processor.packet.storage.entity.AbisRequestEntity;
 import io.mosip.registration.processor.packet.storage.entity.IndividualDemographicDedupeEntity;
@@ -24,6 +33,7 @@ import io.mosip.registration.processor.packet.storage.entity.IndividualDemograph
 import io.mosip.registration.processor.packet.storage.entity.QcuserRegistrationIdEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegBioRefEntity;
 import io.mosip.registration.processor.packet.storage.entity.RegDemoDedupeListEntity;
+import io.mosip.registration.processor.packet.storage.mapper.PacketInfoMapper;
 import io.mosip.registration.processor.packet.storage.repository.BasePacketRepository;
 
 /**
@@ -183,6 +193,42 @@ public class PacketInfoDaoTest {
 		assertEquals("abc-efg", result.get(0).getId().getBioRefId());
 	}
 
+	@Test
+	public void testGetBioRefsByRegIdsQueriedInChunks() {
+		List<String> regIds = new ArrayList<>();
+		for (int i = 0; i < 2500; i++)
+			regIds.add("rid-" + i);
+		// duplicate reg ids are queried once
+		regIds.add("rid-0");
+		Mockito.when(regBioRefRepository.getBioRefsByRegIds(any())).thenAnswer(invocation -> {
+			List<RegBioRefEntity> entities = new ArrayList<>();
+			for (String regId : invocation.<List<String>>getArgument(0)) {
+				RegBioRefEntity entity = new RegBioRefEntity();
+				entity.setRegId(regId);
+				entities.add(entity);
+			}
+			return entities;
+		});
+
+		List<RegBioRefEntity> result = packetInfodao.getBioRefsByRegIds(regIds);
+
+		assertEquals(2500, result.size());
+		Mockito.verify(regBioRefRepository, Mockito.times(3)).getBioRefsByRegIds(any());
+	}
+
+	@Test
+	public void testGetRegIdsByBioRefIds() {
+		List<Object[]> bioRefs = new ArrayList<>();
+		bioRefs.add(new Object[] { "ABC-efg", "1234567890" });
+		Mockito.when(regBioRefRepository.getRegIdsByBioRefIds(Arrays.asList("abc-efg", "hij-klm")))
+				.thenReturn(bioRefs);
+
+		Map<String, String> result = packetInfodao.getRegIdsByBioRefIds(Arrays.asList("ABC-EFG", "hij-klm"));
+
+		assertEquals(1, result.size());
+		assertEquals("1234567890", result.get("abc-efg"));
+	}
+
 	@Test
 	public void testgetIdentifyByTransactionId() {
 		List<AbisRequestEntity> abisRequestEntityList = new ArrayList<>();
@@ -194,4 +240,88 @@ public class PacketInfoDaoTest {
 		assertEquals("Abis", result.get(0).getAbisAppCode());
 	}
 
+	@Test
+	public void testSaveAbisRequestsInOneTransaction() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:abisrequests;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS regprc");
+		jdbcTemplate.execute("CREATE TABLE regprc.reg_bio_ref (reg_id varchar(39) NOT NULL, bio_ref_id varchar(36)"
+				+ " NOT NULL, is_active boolean NOT NULL, cr_by varchar(256) NOT NULL, cr_dtimes timestamp NOT NULL,"
+				+ " upd_by varchar(256), upd_dtimes timestamp, is_deleted boolean DEFAULT FALSE, del_dtimes timestamp,"
+				+ " workflow_instance_id varchar(36) NOT NULL, process varchar, iteration integer DEFAULT 1,"
+				+ " PRIMARY KEY (bio_ref_id, workflow_instance_id))");
+		jdbcTemplate.execute("CREATE TABLE regprc.abis_request (id varchar(36) NOT NULL, req_batch_id varchar(36)"
+				+ " NOT NULL, abis_app_code varchar(36) NOT NULL, request_type varchar(64) NOT NULL, request_dtimes"
+				+ " timestamp NOT NULL, bio_ref_id varchar(36), ref_regtrn_id varchar(36), req_text bytea, status_code"
+				+ " varchar(36) NOT NULL, status_comment varchar(256), lang_code varchar(3) NOT NULL, cr_by varchar(256)"
+				+ " NOT NULL, cr_dtimes timestamp NOT NULL, upd_by varchar(256), upd_dtimes timestamp, is_deleted"
+				+ " boolean DEFAULT FALSE, del_dtimes timestamp, PRIMARY KEY (id), UNIQUE (req_batch_id, abis_app_code))");
+		ReflectionTestUtils.setField(packetInfodao, "dataSource", dataSource);
+		try {
+			packetInfodao.saveAbisRequests(bioRef("bio-ref-1"),
+					Arrays.asList(abisRequest("1", "ABIS1"), abisRequest("2", "ABIS2")));
+
+			assertEquals(Integer.valueOf(1),
+					jdbcTemplate.queryForObject("SELECT count(*) FROM regprc.reg_bio_ref", Integer.class));
+			assertEquals(Arrays.asList("ABIS1", "ABIS2"), jdbcTemplate.queryForList(
+					"SELECT abis_app_code FROM regprc.abis_request ORDER BY id", String.class));
+			assertEquals("request-1", new String(jdbcTemplate.queryForObject(
+					"SELECT req_text FROM regprc.abis_request WHERE id = '1'", byte[].class)));
+
+			try {
+				// the second request breaks the unique batch id and app code
+				packetInfodao.saveAbisRequests(bioRef("bio-ref-2"),
+						Arrays.asList(abisRequest("3", "ABIS3"), abisRequest("4", "ABIS1")));
+				fail();
+			} catch (DataAccessException e) {
+				assertEquals(Integer.valueOf(1),
+						jdbcTemplate.queryForObject("SELECT count(*) FROM regprc.reg_bio_ref", Integer.class));
+				assertEquals(Integer.valueOf(2),
+						jdbcTemplate.queryForObject("SELECT count(*) FROM regprc.abis_request", Integer.class));
+			}
+		} finally {
+			jdbcTemplate.execute("DROP SCHEMA regprc CASCADE");
+		}
+		Mockito.verify(abisRequestRepository, Mockito.never()).save(any());
+	}
+
+	@Test
+	public void testSaveAbisRequestsWithoutDataSource() {
+		RegBioRefEntity regBioRefEntity = bioRef("bio-ref-1");
+		List<AbisRequestEntity> abisRequestEntities = Arrays.asList(abisRequest("1", "ABIS1"));
+
+		packetInfodao.saveAbisRequests(regBioRefEntity, abisRequestEntities);
+
+		Mockito.verify(regBioRefRepository).save(regBioRefEntity);
+		Mockito.verify(abisRequestRepository).saveAll(abisRequestEntities);
+	}
+
+	private static RegBioRefEntity bioRef(String bioRefId) {
+		RegBioRefDto regBioRefDto = new RegBioRefDto();
+		regBioRefDto.setBioRefId(bioRefId);
+		regBioRefDto.setWorkflowInstanceId("workflow-1");
+		regBioRefDto.setRegId("10003100030001520190422074511");
+		regBioRefDto.setIsActive(Boolean.TRUE);
+		regBioRefDto.setCrBy("MOSIP_SYSTEM");
+		regBioRefDto.setProcess("NEW");
+		regBioRefDto.setIteration(1);
+		return PacketInfoMapper.convertBioRefDtoToEntity(regBioRefDto);
+	}
+
+	private static AbisRequestEntity abisRequest(String id, String abisAppCode) {
+		AbisRequestDto abisRequestDto = new AbisRequestDto();
+		abisRequestDto.setId(id);
+		abisRequestDto.setReqBatchId("batch-1");
+		abisRequestDto.setAbisAppCode(abisAppCode);
+		abisRequestDto.setRequestType("INSERT");
+		abisRequestDto.setBioRefId("bio-ref-1");
+		abisRequestDto.setReqText(("request-" + id).getBytes());
+		abisRequestDto.setStatusCode("IN_PROGRESS");
+		abisRequestDto.setLangCode("eng");
+		abisRequestDto.setCrBy("MOSIP_SYSTEM");
+		abisRequestDto.setIsDeleted(Boolean.FALSE);
+		return PacketInfoMapper.convertAbisRequestDtoToEntity(abisRequestDto);
+	}
+
 }
@@ -9,7 +9,6 @@ import io.mosip.registration.processor.core.exception.ApisResourceAccessExceptio
 import io.mosip.registration.processor.core.exception.PacketManagerException;
 import io.mosip.registration.processor.core.packet.dto.Identity;
 import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDetDto;
-import io.mosip.registration.processor.core.packet.dto.abis.AbisResponseDto;
 import io.mosip.registration.processor.core.spi.packetmanager.PacketInfoManager;
 import io.mosip.registration.processor.packet.manager.idreposervice.IdRepoService;
 import io.mosip.registration.processor.packet.storage.dao.PacketInfoDao;
@@ -89,16 +88,6 @@ public class ABISHandlerUtilTest {
 		matchedRids.addAll(inprogressMatchedIds);
 		matchedRids.addAll(processedMatchedIds);
 
-		List<AbisResponseDto> abisResponseDtoList = new ArrayList<>();
-		matchedRids.forEach(matchedRid -> {
-			AbisResponseDto abisResponseDto = new AbisResponseDto();
-			abisResponseDto.setId(matchedRid);
-			abisResponseDtoList.add(abisResponseDto);
-		});
-
-		when(packetInfoManager.getAbisResponseRecords(regBioRefIds.get(0),
-				latestTransactionId, AbisConstant.IDENTIFY)).thenReturn(abisResponseDtoList);
-
 		List<AbisResponseDetDto> abisResponseDetDtoList = new ArrayList<>();
 
 		matchedRids.forEach(matchedRid -> {
@@ -106,11 +95,8 @@ public class ABISHandlerUtilTest {
 			abisResponseDto.setMatchedBioRefId(matchedRid);
 			abisResponseDetDtoList.add(abisResponseDto);
 		});
-		for (AbisResponseDetDto dto : abisResponseDetDtoList) {
-			AbisResponseDetDto responseDetDto = new AbisResponseDetDto();
-			responseDetDto.setMatchedBioRefId(dto.getMatchedBioRefId());
-			when(packetInfoManager.getAbisResponseDetails(dto.getMatchedBioRefId())).thenReturn(Lists.newArrayList(responseDetDto));
-		}
+		when(packetInfoManager.getAbisResponseDetails(regBioRefIds.get(0),
+				latestTransactionId, AbisConstant.IDENTIFY)).thenReturn(abisResponseDetDtoList);
 
 		when(packetInfoDao.getAbisRefRegIdsByMatchedRefIds(matchedRids)).thenReturn(matchedRids);
 
@@ -0,0 +1,106 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.util.JsonUtil;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+
+public class ConfigServerFileCacheTest {
+
+	private static final String FILE = "RegistrationProcessorIdentity.json";
+
+	private ConfigServerFileCache configServerFileCache;
+
+	private Vertx vertx;
+
+	private String baseUrl;
+
+	private volatile String content = "{\"identity\":{\"name\":{\"value\":\"fullName\"}}}";
+
+	private final AtomicInteger fetched = new AtomicInteger();
+
+	private final AtomicInteger notModified = new AtomicInteger();
+
+	@Before
+	public void setup() throws Exception {
+		vertx = Vertx.vertx();
+		CompletableFuture<HttpServer> started = new CompletableFuture<>();
+		vertx.createHttpServer().requestHandler(request -> {
+			String eTag = "\"" + content.hashCode() + "\"";
+			if (eTag.equals(request.getHeader("If-None-Match"))) {
+				notModified.incrementAndGet();
+				request.response().setStatusCode(304).end();
+				return;
+			}
+			fetched.incrementAndGet();
+			request.response().putHeader("ETag", eTag).end(content);
+		}).listen(0, res -> {
+			if (res.succeeded())
+				started.complete(res.result());
+			else
+				started.completeExceptionally(res.cause());
+		});
+		baseUrl = "http://localhost:" + started.get(10, TimeUnit.SECONDS).actualPort() + "/";
+
+		configServerFileCache = new ConfigServerFileCache();
+		ReflectionTestUtils.setField(configServerFileCache, "refreshIntervalMillis", 0L);
+		ReflectionTestUtils.setField(configServerFileCache, "maxConnectionPerRoute", 2);
+		configServerFileCache.init();
+	}
+
+	@After
+	public void tearDown() {
+		configServerFileCache.destroy();
+		vertx.close();
+	}
+
+	@Test
+	public void testFileFetchedOnce() throws Exception {
+		ConfigServerFileCache.ConfigFile file = configServerFileCache.get(baseUrl, FILE);
+		JSONObject mappingJson = file.getValue("mappingJson",
+				json -> JsonUtil.objectMapperReadValue(json, JSONObject.class));
+
+		assertSame(file, configServerFileCache.get(baseUrl, FILE));
+		assertSame(mappingJson, configServerFileCache.get(baseUrl, FILE).getValue("mappingJson",
+				json -> JsonUtil.objectMapperReadValue(json, JSONObject.class)));
+		assertEquals(content, file.getContent());
+		assertEquals(1, fetched.get());
+	}
+
+	@Test
+	public void testRefresh() throws Exception {
+		ConfigServerFileCache.ConfigFile file = configServerFileCache.get(baseUrl, FILE);
+		JSONObject mappingJson = file.getValue("mappingJson",
+				json -> JsonUtil.objectMapperReadValue(json, JSONObject.class));
+
+		configServerFileCache.refresh();
+		assertEquals(1, notModified.get());
+		assertSame(file, configServerFileCache.get(baseUrl, FILE));
+
+		content = "{\"identity\":{\"name\":{\"value\":\"firstName,lastName\"}}}";
+		configServerFileCache.refresh();
+		ConfigServerFileCache.ConfigFile refreshed = configServerFileCache.get(baseUrl, FILE);
+		assertNotSame(file, refreshed);
+		assertEquals(content, refreshed.getContent());
+		JSONObject refreshedMappingJson = refreshed.getValue("mappingJson",
+				json -> JsonUtil.objectMapperReadValue(json, JSONObject.class));
+		assertNotSame(mappingJson, refreshedMappingJson);
+		assertEquals("firstName,lastName", JsonUtil.getJSONValue(
+				JsonUtil.getJSONObject(JsonUtil.getJSONObject(refreshedMappingJson, "identity"), "name"), "value"));
+		assertEquals(2, fetched.get());
+	}
+
+}
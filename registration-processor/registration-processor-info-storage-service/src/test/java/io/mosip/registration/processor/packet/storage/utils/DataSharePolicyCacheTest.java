@@ -0,0 +1,85 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.common.rest.dto.ErrorDTO;
+import io.mosip.registration.processor.core.constant.PolicyConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+
+public class DataSharePolicyCacheTest {
+
+	private DataSharePolicyCache dataSharePolicyCache;
+
+	@SuppressWarnings("unchecked")
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestClientService = Mockito
+			.mock(RegistrationProcessorRestClientService.class);
+
+	@Before
+	public void setup() {
+		dataSharePolicyCache = new DataSharePolicyCache();
+		ReflectionTestUtils.setField(dataSharePolicyCache, "ttlSeconds", 600L);
+		ReflectionTestUtils.setField(dataSharePolicyCache, "registrationProcessorRestClientService",
+				registrationProcessorRestClientService);
+	}
+
+	@Test
+	public void testPolicyCachedWithinTtl() throws Exception {
+		ResponseWrapper<?> policy = new ResponseWrapper<>();
+		Mockito.when(registrationProcessorRestClientService.getApi(any(ApiName.class), any(), anyString(), anyString(),
+				any())).thenReturn(policy);
+
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+
+		Mockito.verify(registrationProcessorRestClientService, Mockito.times(1)).getApi(ApiName.PMS,
+				Arrays.asList("policy", PolicyConstant.PARTNER_ID, "subscriber"), "", "", ResponseWrapper.class);
+	}
+
+	@Test
+	public void testExpiredPolicyKeptWhenRefreshFails() throws Exception {
+		ResponseWrapper<?> policy = new ResponseWrapper<>();
+		ResponseWrapper<?> error = new ResponseWrapper<>();
+		error.getErrors().add(new ErrorDTO("PMS_POL_001", "policy not found"));
+		Mockito.when(registrationProcessorRestClientService.getApi(any(ApiName.class), any(), anyString(), anyString(),
+				any())).thenReturn(policy).thenThrow(new ApisResourceAccessException("unreachable"))
+				.thenReturn(error);
+
+		ReflectionTestUtils.setField(dataSharePolicyCache, "ttlSeconds", 1L);
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+		Thread.sleep(1100);
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+		// the stale policy is kept for another time to live
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+		Thread.sleep(1100);
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+
+		Mockito.verify(registrationProcessorRestClientService, Mockito.times(3)).getApi(any(ApiName.class), any(),
+				anyString(), anyString(), any());
+	}
+
+	@Test
+	public void testErrorResponseNotCached() throws Exception {
+		ResponseWrapper<?> error = new ResponseWrapper<>();
+		error.getErrors().add(new ErrorDTO("PMS_POL_001", "policy not found"));
+		ResponseWrapper<?> policy = new ResponseWrapper<>();
+		Mockito.when(registrationProcessorRestClientService.getApi(any(ApiName.class), any(), anyString(), anyString(),
+				any())).thenReturn(error).thenReturn(policy);
+
+		assertFalse(dataSharePolicyCache.getPolicy("policy", "subscriber").getErrors().isEmpty());
+		assertSame(policy, dataSharePolicyCache.getPolicy("policy", "subscriber"));
+	}
+
+}
@@ -0,0 +1,121 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.core.util.JsonUtils;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+
+/**
+ * Compares reading a packet manager biometrics response of about 5 MB, the
+ * response read into a map and converted again through a json string, against
+ * the response read directly into the typed response wrapper and the map
+ * converted with convertValue. Not run as part of the unit tests, run the main
+ * method from the test classpath, allocations are reported by the gc profiler
+ * as gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketManagerResponseBenchmark {
+
+	private static final int SEGMENT_COUNT = 10;
+
+	private static final int BDB_SIZE = 5 * 1024 * 1024 / SEGMENT_COUNT;
+
+	private ObjectMapper objectMapper;
+
+	private JavaType responseType;
+
+	private byte[] responseBody;
+
+	@Setup
+	public void setup() throws Exception {
+		objectMapper = new ObjectMapper().registerModule(new AfterburnerModule())
+				.registerModule(new JavaTimeModule());
+		objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		responseType = objectMapper.getTypeFactory().constructParametricType(ResponseWrapper.class,
+				BiometricRecord.class);
+
+		Random random = new Random(1);
+		List<BIR> segments = new ArrayList<>();
+		for (int i = 0; i < SEGMENT_COUNT; i++) {
+			BDBInfo bdbInfo = new BDBInfo();
+			bdbInfo.setType(Arrays.asList(BiometricType.FINGER));
+			bdbInfo.setSubtype(Arrays.asList("Left", "IndexFinger"));
+			bdbInfo.setCreationDate(LocalDateTime.now());
+			byte[] bdb = new byte[BDB_SIZE];
+			random.nextBytes(bdb);
+			BIR bir = new BIR();
+			bir.setBdbInfo(bdbInfo);
+			bir.setBdb(bdb);
+			segments.add(bir);
+		}
+		BiometricRecord biometricRecord = new BiometricRecord();
+		biometricRecord.setSegments(segments);
+		ResponseWrapper<BiometricRecord> response = new ResponseWrapper<>();
+		response.setResponse(biometricRecord);
+		responseBody = objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public BiometricRecord jsonStringRoundTrip() throws Exception {
+		ResponseWrapper<?> response = objectMapper.readValue(responseBody, ResponseWrapper.class);
+		return objectMapper.readValue(JsonUtils.javaObjectToJsonString(response.getResponse()),
+				BiometricRecord.class);
+	}
+
+	@Benchmark
+	public BiometricRecord convertValue() throws Exception {
+		ResponseWrapper<?> response = objectMapper.readValue(responseBody, ResponseWrapper.class);
+		return objectMapper.convertValue(response.getResponse(), BiometricRecord.class);
+	}
+
+	@Benchmark
+	public BiometricRecord typedResponse() throws Exception {
+		ResponseWrapper<BiometricRecord> response = objectMapper.readValue(responseBody, responseType);
+		return response.getResponse();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(PacketManagerResponseBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
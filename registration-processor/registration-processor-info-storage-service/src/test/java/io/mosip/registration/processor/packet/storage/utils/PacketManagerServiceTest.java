@@ -0,0 +1,110 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.exception.PacketManagerException;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.packet.storage.dto.FieldResponseDto;
+import io.mosip.registration.processor.packet.storage.exception.ObjectDoesnotExistsException;
+
+public class PacketManagerServiceTest {
+
+	private static final String RID = "10002100820001420210108085956";
+
+	@InjectMocks
+	private PacketManagerService packetManagerService;
+
+	@Mock
+	private RegistrationProcessorRestClientService<Object> restApi;
+
+	@Mock
+	private Utilities utilities;
+
+	private ObjectMapper objectMapper;
+
+	@Before
+	public void setup() {
+		MockitoAnnotations.initMocks(this);
+		objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		ReflectionTestUtils.setField(packetManagerService, "objectMapper", objectMapper);
+	}
+
+	@Test
+	public void testGetBiometricsReadsTypedResponse() throws Exception {
+		respond(ApiName.PACKETMANAGER_SEARCH_BIOMETRICS,
+				"{\"id\":\"mosip.commmons.packetmanager\",\"response\":{\"segments\":[{\"bdb\":\"AQID\"},{\"bdb\":\"BAU=\"}]},\"errors\":null}");
+
+		BiometricRecord biometricRecord = packetManagerService.getBiometrics(RID, "individualBiometrics",
+				List.of("Face"), "REGISTRATION_CLIENT", "NEW");
+
+		assertEquals(2, biometricRecord.getSegments().size());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, biometricRecord.getSegments().get(0).getBdb());
+		assertArrayEquals(new byte[] { 4, 5 }, biometricRecord.getSegments().get(1).getBdb());
+	}
+
+	@Test
+	public void testGetFieldsAndAuditsReadTypedResponse() throws Exception {
+		respond(ApiName.PACKETMANAGER_SEARCH_FIELDS,
+				"{\"response\":{\"fields\":{\"fullName\":\"John\",\"dateOfBirth\":\"1990/01/01\"}}}");
+		respond(ApiName.PACKETMANAGER_SEARCH_AUDITS,
+				"{\"response\":[{\"fields\":{\"eventId\":\"RPR_405\"}},{\"fields\":{\"eventId\":\"RPR_406\"}}]}");
+
+		Map<String, String> fields = packetManagerService.getFields(RID, List.of("fullName", "dateOfBirth"),
+				"REGISTRATION_CLIENT", "NEW");
+		List<FieldResponseDto> audits = packetManagerService.getAudits(RID, "REGISTRATION_CLIENT", "NEW");
+
+		assertEquals("John", fields.get("fullName"));
+		assertEquals("1990/01/01", fields.get("dateOfBirth"));
+		assertEquals(2, audits.size());
+		assertEquals(FieldResponseDto.class, audits.get(1).getClass());
+		assertEquals("RPR_406", audits.get(1).getFields().get("eventId"));
+	}
+
+	@Test(expected = PacketManagerException.class)
+	public void testErrorResponseMappedToPacketManagerException() throws Exception {
+		respond(ApiName.PACKETMANAGER_SEARCH_BIOMETRICS,
+				"{\"response\":null,\"errors\":[{\"errorCode\":\"KER-PUT-019\",\"message\":\"Packet not found\"}]}");
+
+		packetManagerService.getBiometrics(RID, "individualBiometrics", List.of("Face"), "REGISTRATION_CLIENT",
+				"NEW");
+	}
+
+	@Test(expected = ObjectDoesnotExistsException.class)
+	public void testObjectDoesNotExistErrorResponse() throws Exception {
+		respond(ApiName.PACKETMANAGER_SEARCH_FIELDS,
+				"{\"response\":null,\"errors\":[{\"errorCode\":\"KER-PUT-027\",\"message\":\"Object does not exist\"}]}");
+
+		packetManagerService.getFields(RID, List.of("fullName"), "REGISTRATION_CLIENT", "NEW");
+	}
+
+	/*
+	 * Reads the response body into the type requested by the service, as the
+	 * rest client does
+	 */
+	private void respond(ApiName apiName, String body) throws Exception {
+		when(restApi.postApiForType(eq(apiName), anyString(), anyString(), any(), any(JavaType.class)))
+				.thenAnswer(invocation -> objectMapper.readValue(body, (JavaType) invocation.getArgument(4)));
+	}
+
+}
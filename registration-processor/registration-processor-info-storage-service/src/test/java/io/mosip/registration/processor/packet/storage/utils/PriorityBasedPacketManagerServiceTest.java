@@ -0,0 +1,155 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.registration.processor.core.abstractverticle.MessageProcessingScope;
+import io.mosip.registration.processor.core.constant.MappingJsonConstants;
+import io.mosip.registration.processor.core.constant.ProviderStageName;
+import io.mosip.registration.processor.packet.storage.helper.PacketManagerHelper;
+
+public class PriorityBasedPacketManagerServiceTest {
+
+	private static final String RID = "10002100820001420210108085956";
+
+	@InjectMocks
+	private PriorityBasedPacketManagerService priorityBasedPacketManagerService;
+
+	@Mock
+	private PacketManagerService packetManagerService;
+
+	@Mock
+	private Utilities utilities;
+
+	@Mock
+	private PacketManagerHelper packetManagerHelper;
+
+	@Before
+	public void setup() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		PriorityBasedPacketManagerService.initialize(new HashMap<>());
+
+		JSONObject identityJson = new JSONObject();
+		identityJson.put("name", getValue("fullName"));
+		identityJson.put("dob", getValue("dateOfBirth"));
+		when(utilities.getRegistrationProcessorMappingJson(MappingJsonConstants.IDENTITY)).thenReturn(identityJson);
+		when(utilities.getIdentityMappedFields()).thenReturn(List.of("fullName", "dateOfBirth"));
+
+		when(packetManagerService.getFields(anyString(), anyList(), isNull(), anyString())).thenAnswer(invocation -> {
+			Map<String, String> values = new HashMap<>();
+			for (String field : (List<String>) invocation.getArgument(1))
+				values.put(field, field + "Value");
+			return values;
+		});
+	}
+
+	@After
+	public void tearDown() {
+		MessageProcessingScope.close();
+	}
+
+	@Test
+	public void testGetFieldWithoutScope() throws Exception {
+		assertEquals("fullNameValue", priorityBasedPacketManagerService.getField(RID, "fullName", "NEW",
+				ProviderStageName.PACKET_VALIDATOR));
+		assertEquals("fullNameValue", priorityBasedPacketManagerService.getField(RID, "fullName", "NEW",
+				ProviderStageName.PACKET_VALIDATOR));
+
+		verify(packetManagerService, times(2)).getFields(anyString(), anyList(), isNull(), anyString());
+	}
+
+	@Test
+	public void testGetFieldsMergedInScope() throws Exception {
+		MessageProcessingScope.open();
+		assertEquals("fullNameValue", priorityBasedPacketManagerService.getField(RID, "fullName", "NEW",
+				ProviderStageName.PACKET_VALIDATOR));
+		assertEquals("dateOfBirthValue", priorityBasedPacketManagerService.getField(RID, "dateOfBirth", "NEW",
+				ProviderStageName.PACKET_VALIDATOR));
+		Map<String, String> fields = priorityBasedPacketManagerService.getFields(RID,
+				List.of("fullName", "dateOfBirth"), "NEW", ProviderStageName.PACKET_VALIDATOR);
+		assertEquals(2, fields.size());
+
+		ArgumentCaptor<List<String>> argument = ArgumentCaptor.forClass(List.class);
+		verify(packetManagerService, times(1)).getFields(eq(RID), argument.capture(), isNull(), eq("NEW"));
+		assertEquals(List.of("fullName", "dateOfBirth"), argument.getValue());
+	}
+
+	@Test
+	public void testScopeClearedAfterHop() throws Exception {
+		MessageProcessingScope.open();
+		priorityBasedPacketManagerService.getField(RID, "fullName", "NEW", ProviderStageName.PACKET_VALIDATOR);
+		MessageProcessingScope.close();
+
+		MessageProcessingScope.open();
+		priorityBasedPacketManagerService.getField(RID, "fullName", "NEW", ProviderStageName.PACKET_VALIDATOR);
+
+		verify(packetManagerService, times(2)).getFields(anyString(), anyList(), isNull(), anyString());
+	}
+
+	@Test
+	public void testGetMetaInfoInScope() throws Exception {
+		Map<String, String> metaInfo = new HashMap<>();
+		metaInfo.put("centerId", "10001");
+		when(packetManagerService.getMetaInfo(RID, null, "NEW")).thenReturn(metaInfo);
+
+		MessageProcessingScope.open();
+		priorityBasedPacketManagerService.getMetaInfo(RID, "NEW", ProviderStageName.PACKET_VALIDATOR).clear();
+		Map<String, String> result = priorityBasedPacketManagerService.getMetaInfo(RID, "NEW",
+				ProviderStageName.PACKET_VALIDATOR);
+
+		assertEquals("10001", result.get("centerId"));
+		verify(packetManagerService, times(1)).getMetaInfo(RID, null, "NEW");
+	}
+
+	@Test
+	public void testGetBiometricsInScope() throws Exception {
+		BiometricRecord biometricRecord = new BiometricRecord();
+		List<BIR> segments = new ArrayList<>();
+		segments.add(new BIR());
+		biometricRecord.setSegments(segments);
+		when(packetManagerService.getBiometrics(anyString(), anyString(), anyList(), isNull(), anyString())).thenReturn(biometricRecord);
+
+		MessageProcessingScope.open();
+		BiometricRecord first = priorityBasedPacketManagerService.getBiometrics(RID, "individualBiometrics",
+				List.of("Face"), "NEW", ProviderStageName.BIO_DEDUPE);
+		first.getSegments().clear();
+		BiometricRecord second = priorityBasedPacketManagerService.getBiometrics(RID, "individualBiometrics",
+				List.of("Face"), "NEW", ProviderStageName.BIO_DEDUPE);
+
+		assertNotSame(first, second);
+		assertEquals(1, second.getSegments().size());
+		verify(packetManagerService, times(1)).getBiometrics(RID, "individualBiometrics", List.of("Face"), null,
+				"NEW");
+	}
+
+	private LinkedHashMap<String, String> getValue(String value) {
+		LinkedHashMap<String, String> map = new LinkedHashMap<>();
+		map.put(MappingJsonConstants.VALUE, value);
+		return map;
+	}
+
+}
@@ -0,0 +1,68 @@
+package io.mosip.registration.processor.packet.storage.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class UtilitiesTest {
+
+	private static final String CONFIG_SERVER_URL = "http://localhost/config/";
+
+	private static final String IDENTITY_JSON = "RegistrationProcessorIdentity.json";
+
+	@InjectMocks
+	private Utilities utilities;
+
+	@Mock
+	private ConfigServerFileCache configServerFileCache;
+
+	@Before
+	public void setup() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(utilities, "objMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(utilities, "configServerFileStorageURL", CONFIG_SERVER_URL);
+		ReflectionTestUtils.setField(utilities, "getRegProcessorIdentityJson", IDENTITY_JSON);
+	}
+
+	@Test
+	public void testIdentityMappedFieldsComputedOncePerFile() throws Exception {
+		when(configServerFileCache.get(CONFIG_SERVER_URL, IDENTITY_JSON)).thenReturn(mappingJsonFile(
+				"{\"identity\":{\"name\":{\"value\":\"firstName,lastName\"},\"dob\":{\"value\":\"dateOfBirth\"}}}"));
+
+		List<String> fields = utilities.getIdentityMappedFields();
+
+		assertEquals(List.of("firstName", "lastName", "dateOfBirth"), fields);
+		assertSame(fields, utilities.getIdentityMappedFields());
+	}
+
+	@Test
+	public void testIdentityMappedFieldsRecomputedWhenFileChanged() throws Exception {
+		when(configServerFileCache.get(CONFIG_SERVER_URL, IDENTITY_JSON))
+				.thenReturn(mappingJsonFile("{\"identity\":{\"name\":{\"value\":\"fullName\"}}}"));
+		List<String> fields = utilities.getIdentityMappedFields();
+
+		when(configServerFileCache.get(CONFIG_SERVER_URL, IDENTITY_JSON)).thenReturn(
+				mappingJsonFile("{\"identity\":{\"name\":{\"value\":\"fullName\"},\"dob\":{\"value\":\"dateOfBirth\"}}}"));
+		List<String> changedFields = utilities.getIdentityMappedFields();
+
+		assertNotSame(fields, changedFields);
+		assertEquals(List.of("fullName", "dateOfBirth"), changedFields);
+	}
+
+	private ConfigServerFileCache.ConfigFile mappingJsonFile(String content) {
+		return new ConfigServerFileCache.ConfigFile(content, "\"" + content.hashCode() + "\"", 0L);
+	}
+
+}
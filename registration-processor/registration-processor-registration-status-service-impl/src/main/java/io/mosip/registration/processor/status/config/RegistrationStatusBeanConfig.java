@@ -16,8 +16,10 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import io.mosip.kernel.dataaccess.hibernate.config.HibernateDaoConfig;
 import io.mosip.kernel.dataaccess.hibernate.repository.impl.HibernateRepositoryImpl;
+import io.mosip.registration.processor.rest.client.audit.builder.AsyncAuditLogSender;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.rest.client.utils.RestApiClient;
+import io.mosip.registration.processor.status.dao.RegistrationStatusBatchWriter;
 import io.mosip.registration.processor.status.dao.RegistrationStatusDao;
 import io.mosip.registration.processor.status.dao.SyncRegistrationDao;
 import io.mosip.registration.processor.status.decryptor.Decryptor;
@@ -57,6 +59,11 @@ public class RegistrationStatusBeanConfig {
 		return new AuditLogRequestBuilder();
 	}
 
+	@Bean
+	public AsyncAuditLogSender getAsyncAuditLogSender() {
+		return new AsyncAuditLogSender();
+	}
+
 //	@Bean
 //	public RegistrationProcessorRestClientService<Object> getRegistrationProcessorRestClientService() {
 //		return new RegistrationProcessorRestClientServiceImpl();
@@ -77,6 +84,11 @@ public class RegistrationStatusBeanConfig {
 		return new RegistrationStatusDao();
 	}
 
+	@Bean
+	public RegistrationStatusBatchWriter getRegistrationStatusBatchWriter() {
+		return new RegistrationStatusBatchWriter();
+	}
+
 	@Bean
 	@Primary
 	public TransactionService<TransactionDto> getTransactionService() {
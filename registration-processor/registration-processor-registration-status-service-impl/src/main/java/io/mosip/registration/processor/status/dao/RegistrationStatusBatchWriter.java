@@ -0,0 +1,261 @@
+package io.mosip.registration.processor.status.dao;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.status.dto.TransactionDto;
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
+
+/**
+ * Writes the registration status updates of the concurrent workers together.
+ *
+ * Each update is a transaction insert and a registration status update. The
+ * updates submitted are queued, and a flusher thread writes them every few
+ * milliseconds, or once the batch is full, as two JDBC batch statements in one
+ * database transaction. The parent transaction id is read by the insert and
+ * the status code and last success stage name are kept by the update when not
+ * given, so the registration is not selected before it is updated.
+ *
+ * The caller gets a future that completes once the update is committed.
+ *
+ * @author Vishwanath V
+ */
+public class RegistrationStatusBatchWriter {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(RegistrationStatusBatchWriter.class);
+
+	private static final String ACTIVE_REGISTRATION = " FROM regprc.registration WHERE workflow_instance_id = ?"
+			+ " AND is_deleted = false AND is_active = true";
+
+	private static final String INSERT_TRANSACTION = "INSERT INTO regprc.registration_transaction (id, reg_id,"
+			+ " trn_type_code, remarks, parent_regtrn_id, ref_id, ref_id_type, status_code, sub_status_code,"
+			+ " lang_code, status_comment, cr_by, cr_dtimes, upd_dtimes) VALUES (?, ?, ?, ?, (SELECT latest_trn_id"
+			+ ACTIVE_REGISTRATION + "), ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String UPDATE_REGISTRATION = "UPDATE regprc.registration SET reg_id = ?, process = ?,"
+			+ " iteration = ?, ref_reg_id = ?, source = ?, status_code = COALESCE(?, status_code), lang_code = ?,"
+			+ " status_comment = ?, latest_trn_id = ?, is_active = ?, cr_by = ?, upd_by = ?, upd_dtimes = ?,"
+			+ " is_deleted = ?, del_dtimes = ?, trn_retry_count = ?, applicant_type = ?, latest_trn_type_code = ?,"
+			+ " latest_trn_status_code = ?, latest_trn_dtimes = ?, reg_stage_name = ?, reg_process_retry_count = ?,"
+			+ " resume_timestamp = ?, default_resume_action = ?, pause_rule_ids = ?,"
+			+ " last_success_stage_name = COALESCE(?, last_success_stage_name) WHERE workflow_instance_id = ?"
+			+ " AND is_deleted = false AND is_active = true";
+
+	@Value("${mosip.regproc.registration.status.batch.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.regproc.registration.status.batch.size:100}")
+	private int batchSize;
+
+	@Value("${mosip.regproc.registration.status.batch.max-delay-millis:5}")
+	private long maxDelayMillis;
+
+	@Autowired(required = false)
+	private DataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate transactionTemplate;
+
+	private final BlockingQueue<StatusWrite> queue = new LinkedBlockingQueue<>();
+
+	private Thread flusher;
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void init() {
+		if (!enabled || dataSource == null) {
+			enabled = false;
+			return;
+		}
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		running = true;
+		flusher = new Thread(this::flushLoop, "registration-status-batch-writer");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		if (flusher == null)
+			return;
+		running = false;
+		flusher.interrupt();
+		flusher.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Queues the transaction insert and the status update of a registration.
+	 *
+	 * @param transactionDto the transaction, its parent id is the latest
+	 *                       transaction id of the registration
+	 * @param entity         the registration status, the status code and last
+	 *                       success stage name are kept when null
+	 * @return the future completed once the update is committed, with false when
+	 *         the registration is not found
+	 */
+	public CompletableFuture<Boolean> submit(TransactionDto transactionDto, RegistrationStatusEntity entity) {
+		StatusWrite write = new StatusWrite(transactionDto, entity);
+		if (!running) {
+			write.future.completeExceptionally(
+					new IllegalStateException("Registration status batch writer is not running"));
+			return write.future;
+		}
+		queue.add(write);
+		return write.future;
+	}
+
+	private void flushLoop() {
+		List<StatusWrite> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				StatusWrite first = running ? queue.take() : queue.poll();
+				if (first == null)
+					break;
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+				while (batch.size() < batchSize) {
+					long remaining = deadline - System.nanoTime();
+					StatusWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+					if (next == null)
+						break;
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				// flushed below, the remaining are flushed without waiting
+			}
+			if (!batch.isEmpty()) {
+				flush(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(List<StatusWrite> batch) {
+		List<List<StatusWrite>> rounds = toRounds(batch);
+		try {
+			List<int[]> counts = transactionTemplate.execute(status -> {
+				List<int[]> roundCounts = new ArrayList<>(rounds.size());
+				for (List<StatusWrite> round : rounds)
+					roundCounts.add(write(round));
+				return roundCounts;
+			});
+			for (int i = 0; i < rounds.size(); i++) {
+				List<StatusWrite> round = rounds.get(i);
+				for (int j = 0; j < round.size(); j++)
+					round.get(j).future.complete(counts.get(i)[j] != 0);
+			}
+		} catch (RuntimeException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					"", "Registration status batch could not be written " + ExceptionUtils.getStackTrace(e));
+			batch.forEach(write -> write.future.completeExceptionally(e));
+		}
+	}
+
+	/**
+	 * Splits the batch so that a registration is written once per round. The
+	 * second update of a registration is written in the next round, so that its
+	 * transaction gets the first one as parent.
+	 */
+	private List<List<StatusWrite>> toRounds(List<StatusWrite> batch) {
+		List<List<StatusWrite>> rounds = new ArrayList<>(1);
+		List<StatusWrite> pending = batch;
+		while (!pending.isEmpty()) {
+			List<StatusWrite> round = new ArrayList<>(pending.size());
+			List<StatusWrite> next = new ArrayList<>();
+			Set<String> workflowInstanceIds = new HashSet<>();
+			for (StatusWrite write : pending) {
+				if (workflowInstanceIds.add(write.entity.getId().getWorkflowInstanceId()))
+					round.add(write);
+				else
+					next.add(write);
+			}
+			rounds.add(round);
+			pending = next;
+		}
+		return rounds;
+	}
+
+	/**
+	 * @return the update count of each registration
+	 */
+	private int[] write(List<StatusWrite> round) {
+		List<Object[]> transactions = new ArrayList<>(round.size());
+		List<Object[]> registrations = new ArrayList<>(round.size());
+		for (StatusWrite write : round) {
+			transactions.add(toTransactionRow(write.transactionDto, write.entity.getId().getWorkflowInstanceId()));
+			registrations.add(toRegistrationRow(write.entity));
+		}
+		jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions);
+		return jdbcTemplate.batchUpdate(UPDATE_REGISTRATION, registrations);
+	}
+
+	private Object[] toTransactionRow(TransactionDto dto, String workflowInstanceId) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZoneId.of("UTC")));
+		return new Object[] { dto.getTransactionId(), dto.getRegistrationId(), dto.getTrntypecode(),
+				dto.getRemarks(), workflowInstanceId, dto.getReferenceId(), dto.getReferenceIdType(),
+				dto.getStatusCode(), dto.getSubStatusCode(), "eng", dto.getStatusComment(), "MOSIP_SYSTEM", now,
+				now };
+	}
+
+	private Object[] toRegistrationRow(RegistrationStatusEntity entity) {
+		return new Object[] { entity.getRegId(), entity.getRegistrationType(), entity.getIteration(),
+				entity.getReferenceRegistrationId(), entity.getSource(), entity.getStatusCode(), entity.getLangCode(),
+				entity.getStatusComment(), entity.getLatestRegistrationTransactionId(), entity.isActive(),
+				entity.getCreatedBy(), entity.getUpdatedBy(), timestamp(entity.getUpdateDateTime()),
+				entity.isDeleted(), timestamp(entity.getDeletedDateTime()), entity.getRetryCount(),
+				entity.getApplicantType(), entity.getLatestTransactionTypeCode(),
+				entity.getLatestTransactionStatusCode(), timestamp(entity.getLatestTransactionTimes()),
+				entity.getRegistrationStageName(), entity.getRegProcessRetryCount(),
+				timestamp(entity.getResumeTimeStamp()), entity.getDefaultResumeAction(), entity.getPauseRuleIds(),
+				entity.getLastSuccessStageName(), entity.getId().getWorkflowInstanceId() };
+	}
+
+	private Timestamp timestamp(LocalDateTime dateTime) {
+		return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+	}
+
+	private static class StatusWrite {
+
+		private final TransactionDto transactionDto;
+
+		private final RegistrationStatusEntity entity;
+
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+		StatusWrite(TransactionDto transactionDto, RegistrationStatusEntity entity) {
+			this.transactionDto = transactionDto;
+			this.entity = entity;
+		}
+	}
+
+}
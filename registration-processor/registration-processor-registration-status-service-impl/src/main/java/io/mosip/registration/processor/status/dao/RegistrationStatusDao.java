@@ -3,16 +3,23 @@ package io.mosip.registration.processor.status.dao;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.mosip.registration.processor.core.code.RegistrationTransactionStatusCode;
 import io.mosip.registration.processor.core.workflow.dto.FilterInfo;
@@ -35,6 +42,13 @@ public class RegistrationStatusDao {
 	@Autowired
 	RegistrationRepositary<RegistrationStatusEntity, String> registrationStatusRepositary;
 
+	/** The transaction manager, the packets claimed are locked in its transaction */
+	@Autowired(required = false)
+	private PlatformTransactionManager transactionManager;
+
+	/** The Constant IN_CLAUSE_SIZE, the most rids queried at a time. */
+	private static final int IN_CLAUSE_SIZE = 1000;
+
 	/** The Constant AND. */
 	public static final String AND = "AND";
 
@@ -193,6 +207,53 @@ public class RegistrationStatusDao {
 			Integer reprocessCount, List<String> status) {
 
 		LocalDateTime timeDifference = LocalDateTime.now().minusSeconds(elapseTime);
+		List<String> statusCodes = getNotReprocessableStatusCodes();
+
+		return registrationStatusRepositary.getUnProcessedPackets(status, reprocessCount, timeDifference, statusCodes,fetchSize);
+	}
+
+	/**
+	 * Claims the next page of un processed packets, in the order of their latest
+	 * transaction time. The packets locked by another reprocessor are skipped, and
+	 * the latest transaction time of the packets claimed is set to now, so they
+	 * are not claimed again until the elapse time is over.
+	 *
+	 * @param fetchSize
+	 *            the fetch size
+	 * @param elapseTime
+	 *            the elapse time
+	 * @param reprocessCount
+	 *            the reprocess count
+	 * @param status
+	 *            the status
+	 * @param lastTransactionTime
+	 *            the latest transaction time of the last packet of the previous
+	 *            page
+	 * @param lastWorkflowInstanceId
+	 *            the workflow instance id of the last packet of the previous page
+	 * @return the packets claimed, with their latest transaction time before the
+	 *         claim
+	 */
+	public List<RegistrationStatusEntity> claimUnProcessedPackets(Integer fetchSize, long elapseTime,
+			Integer reprocessCount, List<String> status, LocalDateTime lastTransactionTime,
+			String lastWorkflowInstanceId) {
+		LocalDateTime timeDifference = LocalDateTime.now().minusSeconds(elapseTime);
+		List<String> statusCodes = getNotReprocessableStatusCodes();
+
+		return new TransactionTemplate(transactionManager).execute(transactionStatus -> {
+			List<RegistrationStatusEntity> entities = registrationStatusRepositary.getUnProcessedPacketsForUpdate(
+					status, reprocessCount, timeDifference, statusCodes, lastTransactionTime, lastWorkflowInstanceId,
+					fetchSize);
+			if (!entities.isEmpty())
+				registrationStatusRepositary.updateLatestTransactionTimes(
+						entities.stream().map(entity -> entity.getId().getWorkflowInstanceId())
+								.collect(Collectors.toList()),
+						LocalDateTime.now(ZoneId.of("UTC")));
+			return entities;
+		});
+	}
+
+	private List<String> getNotReprocessableStatusCodes() {
 		List<String> statusCodes=new ArrayList<>();
 		statusCodes.add(RegistrationStatusCode.PAUSED.toString());
 		statusCodes.add(RegistrationStatusCode.RESUMABLE.toString());
@@ -200,8 +261,7 @@ public class RegistrationStatusDao {
 		statusCodes.add(RegistrationStatusCode.REJECTED.toString());
 		statusCodes.add(RegistrationStatusCode.FAILED.toString());
 		statusCodes.add(RegistrationStatusCode.PROCESSED.toString());
-
-		return registrationStatusRepositary.getUnProcessedPackets(status, reprocessCount, timeDifference, statusCodes,fetchSize);
+		return statusCodes;
 	}
 
 	public Integer getUnProcessedPacketsCount(long elapseTime, Integer reprocessCount, List<String> status) {
@@ -217,6 +277,25 @@ public class RegistrationStatusDao {
 
 	}
 
+	/**
+	 * Checks which of the rids are processed, querying at most 1000 rids at a
+	 * time.
+	 *
+	 * @param rids
+	 *            the rids
+	 * @return the processed rids
+	 */
+	public Set<String> checkUinAvailabilityForRids(Collection<String> rids) {
+		List<String> distinctRids = new ArrayList<>(new LinkedHashSet<>(rids));
+		Set<String> processedRids = new HashSet<>();
+		for (int from = 0; from < distinctRids.size(); from += IN_CLAUSE_SIZE) {
+			processedRids.addAll(registrationStatusRepositary.findRegIdsByRegIdsAndStatusCode(
+					distinctRids.subList(from, Math.min(from + IN_CLAUSE_SIZE, distinctRids.size())),
+					RegistrationStatusCode.PROCESSED.toString()));
+		}
+		return processedRids;
+	}
+
 	/**
 	 * Gets the by ids.
 	 *
@@ -6,6 +6,7 @@ package io.mosip.registration.processor.status.repositary;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -48,6 +49,9 @@ public interface RegistrationRepositary<T extends BaseRegistrationEntity, E> ext
 	
 	@Query("SELECT registration FROM RegistrationStatusEntity registration WHERE registration.regId = :regId AND registration.statusCode = :statusCode ")
 	public List<RegistrationStatusEntity> findByRegIdANDByStatusCode(@Param("regId") String regId,@Param("statusCode") String statusCode);
+
+	@Query("SELECT DISTINCT registration.regId FROM RegistrationStatusEntity registration WHERE registration.regId IN :regIds AND registration.statusCode = :statusCode ")
+	public List<String> findRegIdsByRegIdsAndStatusCode(@Param("regIds") List<String> regIds, @Param("statusCode") String statusCode);
 	
 	@Query("SELECT registration FROM RegistrationStatusEntity registration WHERE registration.id.workflowInstanceId = :workflowInstanceId AND registration.isDeleted =false AND registration.isActive=true")
 	public List<RegistrationStatusEntity> findByWorkflowInstanceId(@Param("workflowInstanceId") String workflowInstanceId);
@@ -57,6 +61,13 @@ public interface RegistrationRepositary<T extends BaseRegistrationEntity, E> ext
 	
 	@Query("SELECT COUNT(*) FROM RegistrationStatusEntity registration WHERE registration.latestTransactionStatusCode IN :status AND registration.regProcessRetryCount<=:reprocessCount AND registration.latestTransactionTimes<:timeDifference AND registration.statusCode  NOT IN :statusCodes ")
 	public int getUnProcessedPacketsCount(@Param("status") List<String> status,@Param("reprocessCount") Integer reprocessCount,@Param("timeDifference") LocalDateTime timeDifference,@Param("statusCodes") List<String> statusCodes );
+
+	@Query(value ="SELECT * FROM registration r WHERE r.latest_trn_status_code IN :status AND r.reg_process_retry_count<=:reprocessCount AND r.latest_trn_dtimes <:timeDifference AND r.status_code NOT IN :statusCodes AND (r.latest_trn_dtimes >:lastTransactionTime OR (r.latest_trn_dtimes =:lastTransactionTime AND r.workflow_instance_id >:lastWorkflowInstanceId)) order by r.latest_trn_dtimes, r.workflow_instance_id LIMIT :fetchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	public List<RegistrationStatusEntity> getUnProcessedPacketsForUpdate(@Param("status") List<String> status,@Param("reprocessCount") Integer reprocessCount,@Param("timeDifference") LocalDateTime timeDifference,@Param("statusCodes") List<String> statusCodes,@Param("lastTransactionTime") LocalDateTime lastTransactionTime,@Param("lastWorkflowInstanceId") String lastWorkflowInstanceId,@Param("fetchSize") Integer fetchSize );
+
+	@Modifying
+	@Query("UPDATE RegistrationStatusEntity registration SET registration.latestTransactionTimes =:latestTransactionTime WHERE registration.id.workflowInstanceId IN :workflowInstanceIds")
+	public int updateLatestTransactionTimes(@Param("workflowInstanceIds") List<String> workflowInstanceIds,@Param("latestTransactionTime") LocalDateTime latestTransactionTime);
 	
 	@Query(value ="SELECT * FROM registration r WHERE r.status_code IN :statusCodes AND r.resume_timestamp < now() AND r.default_resume_action is NOT NULL order by r.upd_dtimes LIMIT :fetchSize ", nativeQuery = true)
 	public List<RegistrationStatusEntity> getActionablePausedPackets(@Param("statusCodes") List<String> statusCodes,@Param("fetchSize") Integer fetchSize);
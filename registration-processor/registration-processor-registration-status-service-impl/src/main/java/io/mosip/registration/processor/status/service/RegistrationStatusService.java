@@ -1,6 +1,10 @@
 package io.mosip.registration.processor.status.service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
@@ -65,6 +69,22 @@ public interface RegistrationStatusService<T, U, D> {
 	 */
 	public void updateRegistrationStatus(U registrationStatusDto, String moduleId, String moduleName);
 
+	/**
+	 * Update registration status without waiting for the update to be written.
+	 * When the batch writes are enabled the update is written together with the
+	 * updates of the other workers, else it is written before returning.
+	 *
+	 * @param registrationStatusDto
+	 *            the registration status dto
+	 * @param moduleId
+	 *            the module id
+	 * @param moduleName
+	 *            the module name
+	 * @return the future completed once the update is committed
+	 */
+	public CompletableFuture<Void> updateRegistrationStatusAsync(U registrationStatusDto, String moduleId,
+			String moduleName);
+
 	/**
 	 * Update registration status for workflow Engine.
 	 *
@@ -77,6 +97,21 @@ public interface RegistrationStatusService<T, U, D> {
 	 */
 	public void updateRegistrationStatusForWorkflowEngine(U registrationStatusDto, String moduleId, String moduleName);
 
+	/**
+	 * Update registration status for workflow Engine without waiting for the
+	 * update to be written.
+	 *
+	 * @param registrationStatusDto
+	 *            the registration status dto
+	 * @param moduleId
+	 *            the module id
+	 * @param moduleName
+	 *            the module name
+	 * @return the future completed once the update is committed
+	 */
+	public CompletableFuture<Void> updateRegistrationStatusForWorkflowEngineAsync(U registrationStatusDto,
+			String moduleId, String moduleName);
+
 	/**
 	 * Gets the by status.
 	 *
@@ -132,6 +167,31 @@ public interface RegistrationStatusService<T, U, D> {
 	 * @return the un processed packets count
 	 */
 	public Integer getUnProcessedPacketsCount(long elapseTime, Integer reprocessCount, List<String> status);
+
+	/**
+	 * Claims the next page of un processed packets, the packets claimed by another
+	 * reprocessor are skipped. The page starts after the last packet of the
+	 * previous page, in the order of the latest transaction time and workflow
+	 * instance id.
+	 *
+	 * @param fetchSize
+	 *            the fetch size
+	 * @param elapseTime
+	 *            the elapse time
+	 * @param reprocessCount
+	 *            the reprocess count
+	 * @param status
+	 *            the status
+	 * @param lastTransactionTime
+	 *            the latest transaction time of the last packet of the previous
+	 *            page
+	 * @param lastWorkflowInstanceId
+	 *            the workflow instance id of the last packet of the previous page
+	 * @return the packets claimed, with their latest transaction time before the
+	 *         claim
+	 */
+	public List<U> claimUnProcessedPackets(Integer fetchSize, long elapseTime, Integer reprocessCount,
+			List<String> status, LocalDateTime lastTransactionTime, String lastWorkflowInstanceId);
 	
 	/**
 	 * Check Rid if uin is available.
@@ -142,6 +202,15 @@ public interface RegistrationStatusService<T, U, D> {
 	 */
 	public Boolean checkUinAvailabilityForRid(String rid);
 
+	/**
+	 * Check which of the rids have a uin available, in a single query.
+	 *
+	 * @param rids
+	 *            the rids
+	 * @return the rids with a uin available
+	 */
+	public Set<String> checkUinAvailabilityForRids(Collection<String> rids);
+
 	/**
 	 * Gets the by ids and timestamp.
 	 *
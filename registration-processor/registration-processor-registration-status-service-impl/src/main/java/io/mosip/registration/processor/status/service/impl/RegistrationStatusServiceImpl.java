@@ -3,10 +3,14 @@ package io.mosip.registration.processor.status.service.impl;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import io.mosip.registration.processor.core.code.RegistrationTransactionTypeCode;
@@ -34,6 +38,7 @@ import io.mosip.registration.processor.core.workflow.dto.SearchInfo;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.status.code.RegistrationExternalStatusCode;
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
+import io.mosip.registration.processor.status.dao.RegistrationStatusBatchWriter;
 import io.mosip.registration.processor.status.dao.RegistrationStatusDao;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
 import io.mosip.registration.processor.status.dto.RegistrationStatusDto;
@@ -64,6 +69,10 @@ public class RegistrationStatusServiceImpl
 	@Autowired
 	private TransactionService<TransactionDto> transcationStatusService;
 
+	/** Writes the status updates of the concurrent workers together, when enabled */
+	@Autowired(required = false)
+	private RegistrationStatusBatchWriter registrationStatusBatchWriter;
+
 	/** The core audit request builder. */
 	@Autowired
 	private AuditLogRequestBuilder auditLogRequestBuilder;
@@ -263,9 +272,50 @@ public class RegistrationStatusServiceImpl
 	@Override
 	public void updateRegistrationStatus(InternalRegistrationStatusDto registrationStatusDto, String moduleId,
 			String moduleName) {
+		if (isBatchWrite(registrationStatusDto)) {
+			Boolean updated = null;
+			Throwable failure = null;
+			try {
+				updated = submitToBatch(registrationStatusDto, false).join();
+			} catch (CompletionException e) {
+				failure = e.getCause();
+			}
+			completeBatchUpdate(registrationStatusDto, moduleId, moduleName, updated, failure);
+			return;
+		}
 		updateRegistrationStatus(registrationStatusDto, moduleId, moduleName, false);
 	}
 
+	@Override
+	public CompletableFuture<Void> updateRegistrationStatusAsync(InternalRegistrationStatusDto registrationStatusDto,
+			String moduleId, String moduleName) {
+		return updateRegistrationStatusAsync(registrationStatusDto, moduleId, moduleName, false);
+	}
+
+	@Override
+	public CompletableFuture<Void> updateRegistrationStatusForWorkflowEngineAsync(
+			InternalRegistrationStatusDto registrationStatusDto, String moduleId, String moduleName) {
+		return updateRegistrationStatusAsync(registrationStatusDto, moduleId, moduleName, true);
+	}
+
+	private CompletableFuture<Void> updateRegistrationStatusAsync(InternalRegistrationStatusDto registrationStatusDto,
+			String moduleId, String moduleName, boolean updateStatusCode) {
+		if (isBatchWrite(registrationStatusDto)) {
+			// completed off the batch writer thread, as the audit may be sent synchronously
+			return submitToBatch(registrationStatusDto, updateStatusCode).handleAsync((updated,
+					failure) -> completeBatchUpdate(registrationStatusDto, moduleId, moduleName, updated,
+							failure instanceof CompletionException ? failure.getCause() : failure));
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			updateRegistrationStatus(registrationStatusDto, moduleId, moduleName, updateStatusCode);
+			future.complete(null);
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
 	@Override
 	public void updateRegistrationStatusForWorkflowEngine(InternalRegistrationStatusDto registrationStatusDto, String moduleId,
 			String moduleName) {
@@ -282,17 +332,8 @@ public class RegistrationStatusServiceImpl
 		String transactionId = generateId();
 		String latestTransactionId = getLatestTransactionId(registrationStatusDto.getRegistrationId(),
 				registrationStatusDto.getRegistrationType(), registrationStatusDto.getIteration(), registrationStatusDto.getWorkflowInstanceId());
-		TransactionDto transactionDto = new TransactionDto(transactionId, registrationStatusDto.getRegistrationId(),
-				latestTransactionId, registrationStatusDto.getLatestTransactionTypeCode(),
-				"updated registration status record", registrationStatusDto.getLatestTransactionStatusCode(),
-				registrationStatusDto.getStatusComment(), registrationStatusDto.getSubStatusCode());
-		if (registrationStatusDto.getRefId() == null) {
-			transactionDto.setReferenceId(registrationStatusDto.getRegistrationId());
-		} else {
-			transactionDto.setReferenceId(registrationStatusDto.getRefId());
-		}
-
-		transactionDto.setReferenceIdType("updated registration record");
+		TransactionDto transactionDto = createUpdateTransactionDto(registrationStatusDto, transactionId,
+				latestTransactionId);
 		transcationStatusService.addRegistrationTransaction(transactionDto);
 
 		registrationStatusDto.setLatestRegistrationTransactionId(transactionId);
@@ -319,21 +360,89 @@ public class RegistrationStatusServiceImpl
 			throw new TablenotAccessibleException(
 					PlatformErrorMessages.RPR_RGS_REGISTRATION_TABLE_NOT_ACCESSIBLE.getMessage(), e);
 		} finally {
+			auditStatusUpdate(isTransactionSuccessful, description, moduleId, moduleName,
+					registrationStatusDto.getRegistrationId());
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+				registrationStatusDto.getRegistrationId(),
+				"RegistrationStatusServiceImpl::updateRegistrationStatus()::exit");
+	}
 
-			String eventId = isTransactionSuccessful ? EventId.RPR_407.toString() : EventId.RPR_405.toString();
-			String eventName = eventId.equalsIgnoreCase(EventId.RPR_407.toString()) ? EventName.UPDATE.toString()
-					: EventName.EXCEPTION.toString();
-			String eventType = eventId.equalsIgnoreCase(EventId.RPR_407.toString()) ? EventType.BUSINESS.toString()
-					: EventType.SYSTEM.toString();
+	private boolean isBatchWrite(InternalRegistrationStatusDto registrationStatusDto) {
+		return registrationStatusBatchWriter != null && registrationStatusBatchWriter.isEnabled()
+				&& registrationStatusDto.getWorkflowInstanceId() != null;
+	}
 
-			if(!disableAudit)
-				auditLogRequestBuilder.createAuditRequestBuilder(description.getMessage(), eventId, eventName, eventType,
-					moduleId, moduleName, registrationStatusDto.getRegistrationId());
+	/**
+	 * Queues the transaction and the status update to the batch writer. The
+	 * parent transaction id, the existing status code and last success stage name
+	 * are read by the batch statements, so the registration is not selected here.
+	 */
+	private CompletableFuture<Boolean> submitToBatch(InternalRegistrationStatusDto registrationStatusDto,
+			boolean updateStatusCode) {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
+				registrationStatusDto.getRegistrationId(),
+				"RegistrationStatusServiceImpl::submitToBatch()::entry");
+		String transactionId = generateId();
+		TransactionDto transactionDto = createUpdateTransactionDto(registrationStatusDto, transactionId, null);
+		registrationStatusDto.setLatestRegistrationTransactionId(transactionId);
+		RegistrationStatusEntity entity = convertDtoToEntity(registrationStatusDto, null, updateStatusCode);
+		return registrationStatusBatchWriter.submit(transactionDto, entity);
+	}
 
+	private Void completeBatchUpdate(InternalRegistrationStatusDto registrationStatusDto, String moduleId,
+			String moduleName, Boolean updated, Throwable failure) {
+		boolean isTransactionSuccessful = failure == null && Boolean.TRUE.equals(updated);
+		LogDescription description = new LogDescription();
+		try {
+			if (failure != null) {
+				description.setMessage("DataAccessLayerException while Updating registration status for registration Id"
+						+ registrationStatusDto.getRegistrationId() + "::" + failure.getMessage());
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), registrationStatusDto.getRegistrationId(),
+						failure.getMessage() + ExceptionUtils.getStackTrace(failure));
+				throw new TablenotAccessibleException(
+						PlatformErrorMessages.RPR_RGS_REGISTRATION_TABLE_NOT_ACCESSIBLE.getMessage(), failure);
+			}
+			if (isTransactionSuccessful)
+				description.setMessage("Updated registration status successfully");
+		} finally {
+			auditStatusUpdate(isTransactionSuccessful, description, moduleId, moduleName,
+					registrationStatusDto.getRegistrationId());
 		}
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(),
 				registrationStatusDto.getRegistrationId(),
-				"RegistrationStatusServiceImpl::updateRegistrationStatus()::exit");
+				"RegistrationStatusServiceImpl::completeBatchUpdate()::exit");
+		return null;
+	}
+
+	private TransactionDto createUpdateTransactionDto(InternalRegistrationStatusDto registrationStatusDto,
+			String transactionId, String latestTransactionId) {
+		TransactionDto transactionDto = new TransactionDto(transactionId, registrationStatusDto.getRegistrationId(),
+				latestTransactionId, registrationStatusDto.getLatestTransactionTypeCode(),
+				"updated registration status record", registrationStatusDto.getLatestTransactionStatusCode(),
+				registrationStatusDto.getStatusComment(), registrationStatusDto.getSubStatusCode());
+		if (registrationStatusDto.getRefId() == null) {
+			transactionDto.setReferenceId(registrationStatusDto.getRegistrationId());
+		} else {
+			transactionDto.setReferenceId(registrationStatusDto.getRefId());
+		}
+
+		transactionDto.setReferenceIdType("updated registration record");
+		return transactionDto;
+	}
+
+	private void auditStatusUpdate(boolean isTransactionSuccessful, LogDescription description, String moduleId,
+			String moduleName, String registrationId) {
+		String eventId = isTransactionSuccessful ? EventId.RPR_407.toString() : EventId.RPR_405.toString();
+		String eventName = eventId.equalsIgnoreCase(EventId.RPR_407.toString()) ? EventName.UPDATE.toString()
+				: EventName.EXCEPTION.toString();
+		String eventType = eventId.equalsIgnoreCase(EventId.RPR_407.toString()) ? EventType.BUSINESS.toString()
+				: EventType.SYSTEM.toString();
+
+		if(!disableAudit)
+			auditLogRequestBuilder.createAuditRequestBuilder(description.getMessage(), eventId, eventName, eventType,
+				moduleId, moduleName, registrationId);
 	}
 
 	/*
@@ -763,6 +872,37 @@ public class RegistrationStatusServiceImpl
 		}
 	}
 
+	@Override
+	public List<InternalRegistrationStatusDto> claimUnProcessedPackets(Integer fetchSize, long elapseTime,
+			Integer reprocessCount, List<String> status, LocalDateTime lastTransactionTime,
+			String lastWorkflowInstanceId) {
+
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationStatusServiceImpl::claimUnProcessedPackets()::entry");
+		try {
+			List<RegistrationStatusEntity> entityList = registrationStatusDao.claimUnProcessedPackets(fetchSize,
+					elapseTime, reprocessCount, status, lastTransactionTime, lastWorkflowInstanceId);
+			List<InternalRegistrationStatusDto> dtoList = new ArrayList<>(entityList.size());
+			for (RegistrationStatusEntity entity : entityList) {
+				InternalRegistrationStatusDto dto = convertEntityToDto(entity);
+				dto.setLatestTransactionTimes(entity.getLatestTransactionTimes());
+				dtoList.add(dto);
+			}
+
+			regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+					"RegistrationStatusServiceImpl::claimUnProcessedPackets()::exit");
+
+			return dtoList;
+
+		} catch (DataAccessException | DataAccessLayerException e) {
+
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", e.getMessage() + ExceptionUtils.getStackTrace(e));
+			throw new TablenotAccessibleException(
+					PlatformErrorMessages.RPR_RGS_REGISTRATION_TABLE_NOT_ACCESSIBLE.getMessage(), e);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -825,6 +965,18 @@ public class RegistrationStatusServiceImpl
 		return registrationStatusDao.checkUinAvailabilityForRid(rid);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * io.mosip.registration.processor.status.service.RegistrationStatusService#
+	 * checkUinAvailabilityForRids(java.util.Collection)
+	 */
+	@Override
+	public Set<String> checkUinAvailabilityForRids(Collection<String> rids) {
+		return registrationStatusDao.checkUinAvailabilityForRids(rids);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,121 @@
+package io.mosip.registration.processor.status.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.registration.processor.status.dto.TransactionDto;
+import io.mosip.registration.processor.status.entity.BaseRegistrationPKEntity;
+import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
+
+public class RegistrationStatusBatchWriterTest {
+
+	private RegistrationStatusBatchWriter registrationStatusBatchWriter;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Before
+	public void setup() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:registration_status_batch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+		dataSource.setDriverClassName("org.h2.Driver");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS regprc");
+		jdbcTemplate.execute("CREATE TABLE regprc.registration (workflow_instance_id VARCHAR(36) PRIMARY KEY,"
+				+ " reg_id VARCHAR(39), process VARCHAR(36), iteration INT, ref_reg_id VARCHAR(39),"
+				+ " source VARCHAR(36), status_code VARCHAR(36), lang_code VARCHAR(3), status_comment VARCHAR(256),"
+				+ " latest_trn_id VARCHAR(36), is_active BOOLEAN, cr_by VARCHAR(256), upd_by VARCHAR(256),"
+				+ " upd_dtimes TIMESTAMP, is_deleted BOOLEAN, del_dtimes TIMESTAMP, trn_retry_count INT,"
+				+ " applicant_type VARCHAR(36), latest_trn_type_code VARCHAR(64), latest_trn_status_code VARCHAR(36),"
+				+ " latest_trn_dtimes TIMESTAMP, reg_stage_name VARCHAR(128), reg_process_retry_count INT,"
+				+ " resume_timestamp TIMESTAMP, default_resume_action VARCHAR(50), pause_rule_ids VARCHAR(256),"
+				+ " last_success_stage_name VARCHAR(128))");
+		jdbcTemplate.execute("CREATE TABLE regprc.registration_transaction (id VARCHAR(36) PRIMARY KEY,"
+				+ " reg_id VARCHAR(39), trn_type_code VARCHAR(64), remarks VARCHAR(256), parent_regtrn_id VARCHAR(36),"
+				+ " ref_id VARCHAR(64), ref_id_type VARCHAR(64), status_code VARCHAR(36), sub_status_code VARCHAR(36),"
+				+ " lang_code VARCHAR(3), status_comment VARCHAR(256), cr_by VARCHAR(256), cr_dtimes TIMESTAMP,"
+				+ " upd_dtimes TIMESTAMP)");
+		jdbcTemplate.update("INSERT INTO regprc.registration (workflow_instance_id, reg_id, status_code,"
+				+ " latest_trn_id, is_active, is_deleted, last_success_stage_name) VALUES"
+				+ " ('w1', '10001', 'PROCESSING', 't0', true, false, 'PacketReceiverStage')");
+
+		registrationStatusBatchWriter = new RegistrationStatusBatchWriter();
+		ReflectionTestUtils.setField(registrationStatusBatchWriter, "enabled", true);
+		ReflectionTestUtils.setField(registrationStatusBatchWriter, "batchSize", 10);
+		ReflectionTestUtils.setField(registrationStatusBatchWriter, "maxDelayMillis", 50L);
+		ReflectionTestUtils.setField(registrationStatusBatchWriter, "dataSource", dataSource);
+		registrationStatusBatchWriter.init();
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		registrationStatusBatchWriter.destroy();
+		jdbcTemplate.execute("DROP SCHEMA regprc CASCADE");
+	}
+
+	@Test
+	public void testUpdatesOfARegistrationWrittenTogether() throws Exception {
+		CompletableFuture<Boolean> first = registrationStatusBatchWriter.submit(transaction("t1"),
+				registration("w1", "t1", null, "OSIValidatorStage"));
+		CompletableFuture<Boolean> second = registrationStatusBatchWriter.submit(transaction("t2"),
+				registration("w1", "t2", "PROCESSED", null));
+
+		assertTrue(first.get(10, TimeUnit.SECONDS));
+		assertTrue(second.get(10, TimeUnit.SECONDS));
+		assertEquals("t0", jdbcTemplate.queryForObject(
+				"SELECT parent_regtrn_id FROM regprc.registration_transaction WHERE id = 't1'", String.class));
+		assertEquals("t1", jdbcTemplate.queryForObject(
+				"SELECT parent_regtrn_id FROM regprc.registration_transaction WHERE id = 't2'", String.class));
+		assertEquals("t2", jdbcTemplate.queryForObject(
+				"SELECT latest_trn_id FROM regprc.registration WHERE workflow_instance_id = 'w1'", String.class));
+		assertEquals("PROCESSED", jdbcTemplate.queryForObject(
+				"SELECT status_code FROM regprc.registration WHERE workflow_instance_id = 'w1'", String.class));
+		assertEquals("OSIValidatorStage", jdbcTemplate.queryForObject(
+				"SELECT last_success_stage_name FROM regprc.registration WHERE workflow_instance_id = 'w1'",
+				String.class));
+	}
+
+	@Test
+	public void testRegistrationNotFound() throws Exception {
+		assertFalse(registrationStatusBatchWriter.submit(transaction("t1"), registration("w2", "t1", null, null))
+				.get(10, TimeUnit.SECONDS));
+		assertEquals("PROCESSING", jdbcTemplate.queryForObject(
+				"SELECT status_code FROM regprc.registration WHERE workflow_instance_id = 'w1'", String.class));
+	}
+
+	private TransactionDto transaction(String transactionId) {
+		TransactionDto transactionDto = new TransactionDto(transactionId, "10001", null, "PACKET_RECEIVER",
+				"updated registration status record", "SUCCESS", "packet received", null);
+		transactionDto.setReferenceId("10001");
+		transactionDto.setReferenceIdType("updated registration record");
+		return transactionDto;
+	}
+
+	private RegistrationStatusEntity registration(String workflowInstanceId, String transactionId, String statusCode,
+			String lastSuccessStageName) {
+		BaseRegistrationPKEntity id = new BaseRegistrationPKEntity();
+		id.setWorkflowInstanceId(workflowInstanceId);
+		RegistrationStatusEntity entity = new RegistrationStatusEntity();
+		entity.setId(id);
+		entity.setRegId("10001");
+		entity.setStatusCode(statusCode);
+		entity.setLatestRegistrationTransactionId(transactionId);
+		entity.setLastSuccessStageName(lastSuccessStageName);
+		entity.setIsActive(true);
+		entity.setIsDeleted(false);
+		entity.setUpdateDateTime(LocalDateTime.now());
+		return entity;
+	}
+
+}
@@ -2,8 +2,11 @@ package io.mosip.registration.processor.status.dao;
 
 import static org.junit.Assert.assertEquals;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -14,11 +17,13 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import io.mosip.registration.processor.core.workflow.dto.FilterInfo;
 import io.mosip.registration.processor.core.workflow.dto.PaginationInfo;
 import io.mosip.registration.processor.core.workflow.dto.SortInfo;
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
+import io.mosip.registration.processor.status.entity.BaseRegistrationPKEntity;
 import io.mosip.registration.processor.status.entity.RegistrationStatusEntity;
 import io.mosip.registration.processor.status.repositary.RegistrationRepositary;
 
@@ -33,6 +38,8 @@ public class RegistrationStatusDaoTest {
 	RegistrationStatusDao registrationStatusDao = new RegistrationStatusDao();
 	@Mock
 	RegistrationRepositary<RegistrationStatusEntity, String> registrationStatusRepositary;
+	@Mock
+	PlatformTransactionManager transactionManager;
 
 	@Before
 	public void setup() {
@@ -115,6 +122,24 @@ public class RegistrationStatusDaoTest {
 		assertEquals(list, rEntityList);
 	}
 
+	@Test
+	public void testClaimUnProcessedPackets() {
+		BaseRegistrationPKEntity id = new BaseRegistrationPKEntity();
+		id.setWorkflowInstanceId("b8d2f7a6-1c3e-4f5a-9d0b-2e6c7a8f9d10");
+		registrationStatusEntity.setId(id);
+		LocalDateTime lastTransactionTime = LocalDateTime.now().minusDays(1);
+		Mockito.when(registrationStatusRepositary.getUnProcessedPacketsForUpdate(Matchers.any(), Matchers.any(),
+				Matchers.any(), Matchers.any(), Matchers.eq(lastTransactionTime), Matchers.eq("a1"), Matchers.eq(2)))
+				.thenReturn(list);
+
+		List<RegistrationStatusEntity> rEntityList = registrationStatusDao.claimUnProcessedPackets(2, 60000, 4,
+				Arrays.asList("SUCCESS"), lastTransactionTime, "a1");
+		assertEquals(list, rEntityList);
+		Mockito.verify(registrationStatusRepositary).updateLatestTransactionTimes(
+				Matchers.eq(Arrays.asList("b8d2f7a6-1c3e-4f5a-9d0b-2e6c7a8f9d10")), Matchers.any());
+		Mockito.verify(transactionManager).commit(Matchers.any());
+	}
+
 	@Test
 	public void testgetUnProcessedPacketCount() {
 		List<String> statusList = new ArrayList<>();
@@ -167,4 +192,20 @@ public class RegistrationStatusDaoTest {
 		Boolean status = registrationStatusDao.checkUinAvailabilityForRid("1000");
 		assertEquals(true, status);
 	}
+
+	@Test
+	public void checkUinAvailabilityForRidsTest() {
+		List<String> rids = new ArrayList<>();
+		for (int i = 0; i < 2500; i++)
+			rids.add(String.valueOf(i));
+		rids.add("1");
+		Mockito.when(registrationStatusRepositary.findRegIdsByRegIdsAndStatusCode(Matchers.any(), Matchers.any()))
+				.thenAnswer(invocation -> invocation.<List<String>>getArgument(0).subList(0, 10));
+
+		Set<String> processed = registrationStatusDao.checkUinAvailabilityForRids(rids);
+
+		assertEquals(30, processed.size());
+		Mockito.verify(registrationStatusRepositary, Mockito.times(3)).findRegIdsByRegIdsAndStatusCode(Matchers.any(),
+				Matchers.eq(RegistrationStatusCode.PROCESSED.toString()));
+	}
 }
@@ -0,0 +1,401 @@
+package io.mosip.registration.processor.rest.client.audit.builder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.RequestWrapper;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.core.util.MeterBinding;
+import io.mosip.registration.processor.rest.client.audit.dto.AuditRequestDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sends the audit logs to the audit service in the background, so that the
+ * audit call is not on the critical path of the stage processing.
+ *
+ * Audits are queued in a bounded in memory queue that is drained by a flusher
+ * thread in batches. Audits that do not fit in the queue, or that could not be
+ * sent because the audit service failed, are appended to a local spill file as
+ * json lines. The audits that do not fit in the queue are handed to the
+ * flusher too, which writes them to the spill file in batches, the caller
+ * writes an audit to the spill file itself only when the flusher is behind by
+ * another queue size. The spill file is sent again by the flusher once the
+ * audit service is reachable, so an audit is sent at least once. An audit is
+ * dropped only when it can not be written to the spill file either.
+ *
+ * @author Vishwanath V
+ */
+public class AsyncAuditLogSender implements MeterBinder {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(AsyncAuditLogSender.class);
+
+	private static final String METRIC_PREFIX = "mosip.regproc.audit.async";
+
+	private static final String REPLAY_FILE_SUFFIX = ".replay";
+
+	@Value("${mosip.regproc.audit.async.enabled:false}")
+	private boolean enabled;
+
+	@Value("${mosip.regproc.audit.async.queue-size:10000}")
+	private int queueSize;
+
+	@Value("${mosip.regproc.audit.async.batch-size:100}")
+	private int batchSize;
+
+	@Value("${mosip.regproc.audit.async.flush-interval-millis:500}")
+	private long flushIntervalMillis;
+
+	/** Time the audit service is not called after a failure, spilled audits are sent again after it */
+	@Value("${mosip.regproc.audit.async.retry-interval-millis:30000}")
+	private long retryIntervalMillis;
+
+	@Value("${mosip.regproc.audit.async.spill-file:${java.io.tmpdir}/regproc-audit-spill.jsonl}")
+	private String spillFile;
+
+	@Autowired
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private BlockingQueue<AuditLogEntry> queue;
+
+	private Thread flusher;
+
+	private volatile boolean running;
+
+	private final MeterBinding metrics = new MeterBinding(this);
+
+	/** Accessed by the flusher thread only */
+	private long unavailableUntil;
+
+	/** Accessed by the flusher thread only */
+	private long lastReplayTime;
+
+	private final Object spillLock = new Object();
+
+	/** Open on the spill file once an audit is spilled, guarded by the spill lock */
+	private BufferedWriter spillWriter;
+
+	/** Audits that did not fit in the queue, written to the spill file by the flusher */
+	private final Queue<AuditLogEntry> overflow = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger overflowSize = new AtomicInteger();
+
+	private final AtomicLong sent = new AtomicLong();
+
+	private final AtomicLong spilled = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	public AsyncAuditLogSender() {
+	}
+
+	public AsyncAuditLogSender(boolean enabled, int queueSize, int batchSize, long flushIntervalMillis,
+			long retryIntervalMillis, String spillFile) {
+		this.enabled = enabled;
+		this.queueSize = queueSize;
+		this.batchSize = batchSize;
+		this.flushIntervalMillis = flushIntervalMillis;
+		this.retryIntervalMillis = retryIntervalMillis;
+		this.spillFile = spillFile;
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!enabled || running)
+			return;
+		queue = new ArrayBlockingQueue<>(queueSize);
+		running = true;
+		flusher = new Thread(this::flushLoop, "audit-log-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Stops the flusher, the audits still in the queue are written to the spill
+	 * file to be sent on the next start
+	 */
+	@PreDestroy
+	public void stop() {
+		if (!running)
+			return;
+		running = false;
+		flusher.interrupt();
+		try {
+			flusher.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<AuditLogEntry> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		spill(remaining);
+		spillOverflow();
+		synchronized (spillLock) {
+			closeSpillWriter();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled && running;
+	}
+
+	/**
+	 * Queues the audit to be sent by the flusher. When the queue is full the audit
+	 * is handed to the flusher to be spilled, it is spilled to the file here only
+	 * when the flusher is stopped or too far behind
+	 *
+	 * @param apiName        The audit api
+	 * @param requestWrapper The audit request
+	 */
+	public void send(ApiName apiName, RequestWrapper<AuditRequestDto> requestWrapper) {
+		metrics.bind(meterRegistry);
+		AuditLogEntry entry = new AuditLogEntry(apiName, requestWrapper);
+		if (running && (queue.offer(entry) || offerOverflow(entry)))
+			return;
+		spill(Collections.singletonList(entry));
+	}
+
+	private boolean offerOverflow(AuditLogEntry entry) {
+		if (overflowSize.incrementAndGet() > queueSize) {
+			overflowSize.decrementAndGet();
+			return false;
+		}
+		overflow.add(entry);
+		return true;
+	}
+
+	private void spillOverflow() {
+		List<AuditLogEntry> entries = new ArrayList<>();
+		AuditLogEntry entry;
+		while ((entry = overflow.poll()) != null) {
+			overflowSize.decrementAndGet();
+			entries.add(entry);
+		}
+		spill(entries);
+	}
+
+	public int getQueueDepth() {
+		return queue != null ? queue.size() : 0;
+	}
+
+	public long getSentCount() {
+		return sent.get();
+	}
+
+	public long getSpilledCount() {
+		return spilled.get();
+	}
+
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + ".queue.depth", this, AsyncAuditLogSender::getQueueDepth)
+				.description("Audits waiting to be sent to the audit service").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".sent", sent, AtomicLong::get)
+				.description("Audits sent to the audit service").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".spilled", spilled, AtomicLong::get)
+				.description("Audits written to the spill file").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".dropped", dropped, AtomicLong::get)
+				.description("Audits lost as they could not be written to the spill file").register(registry);
+	}
+
+	private void flushLoop() {
+		// the audits of the batch not sent yet, an audit is removed once sent
+		Deque<AuditLogEntry> batch = new ArrayDeque<>(batchSize);
+		while (running) {
+			try {
+				spillOverflow();
+				AuditLogEntry first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+				if (first != null) {
+					batch.add(first);
+					queue.drainTo(batch, batchSize - 1);
+					flush(batch);
+					batch.clear();
+				}
+				replaySpilled();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				spill(batch);
+				return;
+			} catch (RuntimeException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						"", "Audit flush failed " + ExceptionUtils.getStackTrace(e));
+				spill(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(Deque<AuditLogEntry> batch) {
+		if (System.currentTimeMillis() < unavailableUntil) {
+			spill(batch);
+			batch.clear();
+			return;
+		}
+		while (!batch.isEmpty()) {
+			if (!post(batch.peekFirst())) {
+				spill(batch);
+				batch.clear();
+				return;
+			}
+			batch.pollFirst();
+		}
+	}
+
+	private boolean post(AuditLogEntry entry) {
+		try {
+			registrationProcessorRestService.postApi(entry.getApiName(), "", "", entry.getRequest(),
+					ResponseWrapper.class);
+			sent.incrementAndGet();
+			return true;
+		} catch (ApisResourceAccessException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					"", "Audit service not reachable, audits are spilled for " + retryIntervalMillis + " ms : "
+							+ e.getMessage());
+			unavailableUntil = System.currentTimeMillis() + retryIntervalMillis;
+			return false;
+		}
+	}
+
+	/**
+	 * Sends the spilled audits again. The spill file is moved aside first, so that
+	 * the audits spilled meanwhile go to a new file, the audits that still could
+	 * not be sent are spilled again
+	 */
+	private void replaySpilled() {
+		long now = System.currentTimeMillis();
+		if (now < unavailableUntil || now - lastReplayTime < retryIntervalMillis)
+			return;
+		lastReplayTime = now;
+		Path replayFile = Paths.get(spillFile + REPLAY_FILE_SUFFIX);
+		try {
+			synchronized (spillLock) {
+				Path file = Paths.get(spillFile);
+				if (!Files.exists(replayFile)) {
+					closeSpillWriter();
+					if (!Files.exists(file))
+						return;
+					Files.move(file, replayFile);
+				}
+			}
+			List<AuditLogEntry> failed = new ArrayList<>();
+			try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty())
+						continue;
+					AuditLogEntry entry = objectMapper.readValue(line, AuditLogEntry.class);
+					if (!failed.isEmpty() || !post(entry))
+						failed.add(entry);
+				}
+			}
+			spill(failed);
+			Files.delete(replayFile);
+		} catch (IOException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					"", "Spilled audits could not be sent " + ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	private void spill(Collection<AuditLogEntry> entries) {
+		if (entries.isEmpty())
+			return;
+		synchronized (spillLock) {
+			try {
+				if (spillWriter == null)
+					spillWriter = Files.newBufferedWriter(Paths.get(spillFile), StandardCharsets.UTF_8,
+							StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+				for (AuditLogEntry entry : entries) {
+					spillWriter.write(objectMapper.writeValueAsString(entry));
+					spillWriter.newLine();
+				}
+				spillWriter.flush();
+				spilled.addAndGet(entries.size());
+			} catch (IOException e) {
+				closeSpillWriter();
+				dropped.addAndGet(entries.size());
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(), "",
+						entries.size() + " audits dropped " + ExceptionUtils.getStackTrace(e));
+			}
+		}
+	}
+
+	/**
+	 * Closes the spill file, called with the spill lock held before the file is
+	 * moved aside and on stop
+	 */
+	private void closeSpillWriter() {
+		if (spillWriter == null)
+			return;
+		try {
+			spillWriter.close();
+		} catch (IOException e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					"", "Spill file could not be closed " + ExceptionUtils.getStackTrace(e));
+		} finally {
+			spillWriter = null;
+		}
+	}
+
+	/**
+	 * The queued audit, also the line format of the spill file
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class AuditLogEntry {
+
+		private ApiName apiName;
+
+		private RequestWrapper<AuditRequestDto> request;
+	}
+
+}
@@ -1,7 +1,11 @@
 package io.mosip.registration.processor.rest.client.audit.builder;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,7 +13,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
-import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.code.AuditLogConstant;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
@@ -39,10 +42,16 @@ public class AuditLogRequestBuilder {
 	@Autowired
 	private Environment env;
 
+	@Autowired(required = false)
+	private AsyncAuditLogSender asyncAuditLogSender;
+
 	private static final String AUDIT_SERVICE_ID = "mosip.registration.processor.audit.id";
 	private static final String REG_PROC_APPLICATION_VERSION = "mosip.registration.processor.application.version";
 	private static final String DATETIME_PATTERN = "mosip.registration.processor.datetime.pattern";
 
+	/** Formatters of the date time patterns, to not parse the pattern on every audit */
+	private static final Map<String, DateTimeFormatter> DATETIME_FORMATTERS = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates the audit request builder.
 	 *
@@ -71,7 +80,7 @@ public class AuditLogRequestBuilder {
 		ResponseWrapper<AuditResponseDto> responseWrapper = new ResponseWrapper<>();
 		try {
 			auditRequestDto.setDescription(description);
-			auditRequestDto.setActionTimeStamp(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)));
+			auditRequestDto.setActionTimeStamp(ZonedDateTime.now(ZoneOffset.UTC).format(getDateTimeFormatter()));
 			auditRequestDto.setApplicationId(AuditLogConstant.MOSIP_4.toString());
 			auditRequestDto.setApplicationName(AuditLogConstant.REGISTRATION_PROCESSOR.toString());
 			auditRequestDto.setCreatedBy(AuditLogConstant.SYSTEM.toString());
@@ -89,13 +98,11 @@ public class AuditLogRequestBuilder {
 			requestWrapper.setId(env.getProperty(AUDIT_SERVICE_ID));
 			requestWrapper.setMetadata(null);
 			requestWrapper.setRequest(auditRequestDto);
-			DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
-			LocalDateTime localdatetime = LocalDateTime
-					.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format);
+			LocalDateTime localdatetime = LocalDateTime.parse(auditRequestDto.getActionTimeStamp(),
+					getDateTimeFormatter());
 			requestWrapper.setRequesttime(localdatetime);
 			requestWrapper.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
-			responseWrapper = (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService.postApi(apiname, "",
-					"", requestWrapper, ResponseWrapper.class);
+			responseWrapper = sendAudit(apiname, requestWrapper);
 		} catch (ApisResourceAccessException arae) {
 
 			regProcLogger.error(arae.getMessage());
@@ -125,7 +132,7 @@ public class AuditLogRequestBuilder {
 
 			auditRequestDto = new AuditRequestDto();
 			auditRequestDto.setDescription(description);
-			auditRequestDto.setActionTimeStamp(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)));
+			auditRequestDto.setActionTimeStamp(ZonedDateTime.now(ZoneOffset.UTC).format(getDateTimeFormatter()));
 			auditRequestDto.setApplicationId(AuditLogConstant.MOSIP_4.toString());
 			auditRequestDto.setApplicationName(AuditLogConstant.REGISTRATION_PROCESSOR.toString());
 			auditRequestDto.setCreatedBy(AuditLogConstant.SYSTEM.toString());
@@ -143,13 +150,11 @@ public class AuditLogRequestBuilder {
 			requestWrapper.setId(env.getProperty(AUDIT_SERVICE_ID));
 			requestWrapper.setMetadata(null);
 			requestWrapper.setRequest(auditRequestDto);
-			DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
-			LocalDateTime localdatetime = LocalDateTime
-					.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format);
+			LocalDateTime localdatetime = LocalDateTime.parse(auditRequestDto.getActionTimeStamp(),
+					getDateTimeFormatter());
 			requestWrapper.setRequesttime(localdatetime);
 			requestWrapper.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
-			responseWrapper = (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService
-					.postApi(ApiName.AUDIT, "", "", requestWrapper, ResponseWrapper.class);
+			responseWrapper = sendAudit(ApiName.AUDIT, requestWrapper);
 
 		} catch (ApisResourceAccessException arae) {
 
@@ -181,8 +186,7 @@ public class AuditLogRequestBuilder {
 
 			auditRequestDto = new AuditRequestDto();
 			auditRequestDto.setDescription(description);
-			auditRequestDto
-					.setActionTimeStamp(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)));
+			auditRequestDto.setActionTimeStamp(ZonedDateTime.now(ZoneOffset.UTC).format(getDateTimeFormatter()));
 			auditRequestDto.setApplicationId(AuditLogConstant.MOSIP_4.toString());
 			auditRequestDto.setApplicationName(AuditLogConstant.REGISTRATION_PROCESSOR.toString());
 			auditRequestDto.setCreatedBy(AuditLogConstant.SYSTEM.toString());
@@ -200,13 +204,11 @@ public class AuditLogRequestBuilder {
 			requestWrapper.setId(env.getProperty(AUDIT_SERVICE_ID));
 			requestWrapper.setMetadata(null);
 			requestWrapper.setRequest(auditRequestDto);
-			DateTimeFormatter format = DateTimeFormatter.ofPattern(env.getProperty(DATETIME_PATTERN));
-			LocalDateTime localdatetime = LocalDateTime
-					.parse(DateUtils.getUTCCurrentDateTimeString(env.getProperty(DATETIME_PATTERN)), format);
+			LocalDateTime localdatetime = LocalDateTime.parse(auditRequestDto.getActionTimeStamp(),
+					getDateTimeFormatter());
 			requestWrapper.setRequesttime(localdatetime);
 			requestWrapper.setVersion(env.getProperty(REG_PROC_APPLICATION_VERSION));
-			responseWrapper = (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService
-					.postApi(ApiName.AUDIT, "", "", requestWrapper, ResponseWrapper.class);
+			responseWrapper = sendAudit(ApiName.AUDIT, requestWrapper);
 
 		} catch (ApisResourceAccessException arae) {
 
@@ -220,4 +222,23 @@ public class AuditLogRequestBuilder {
 
 		return responseWrapper;
 	}
+
+	/**
+	 * Sends the audit, through the async audit sender when it is enabled, in which
+	 * case an empty response is returned as the audit is sent later
+	 */
+	@SuppressWarnings("unchecked")
+	private ResponseWrapper<AuditResponseDto> sendAudit(ApiName apiName,
+			RequestWrapper<AuditRequestDto> requestWrapper) throws ApisResourceAccessException {
+		if (asyncAuditLogSender != null && asyncAuditLogSender.isEnabled()) {
+			asyncAuditLogSender.send(apiName, requestWrapper);
+			return new ResponseWrapper<>();
+		}
+		return (ResponseWrapper<AuditResponseDto>) registrationProcessorRestService.postApi(apiName, "", "",
+				requestWrapper, ResponseWrapper.class);
+	}
+
+	private DateTimeFormatter getDateTimeFormatter() {
+		return DATETIME_FORMATTERS.computeIfAbsent(env.getProperty(DATETIME_PATTERN), DateTimeFormatter::ofPattern);
+	}
 }
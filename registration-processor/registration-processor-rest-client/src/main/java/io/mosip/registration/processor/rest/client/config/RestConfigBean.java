@@ -4,8 +4,11 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorAsyncRestClientService;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.rest.client.audit.builder.AsyncAuditLogSender;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
+import io.mosip.registration.processor.rest.client.service.impl.RegistrationProcessorAsyncRestClientServiceImpl;
 import io.mosip.registration.processor.rest.client.service.impl.RegistrationProcessorRestClientServiceImpl;
 import io.mosip.registration.processor.rest.client.utils.RestApiClient;
 
@@ -17,6 +20,11 @@ public class RestConfigBean {
 		return new RegistrationProcessorRestClientServiceImpl();
 	}
 
+	@Bean
+	public RegistrationProcessorAsyncRestClientService getRegistrationProcessorAsyncRestClientService() {
+		return new RegistrationProcessorAsyncRestClientServiceImpl();
+	}
+
 	@Bean
 	public RestApiClient getRestApiClient() {
 		return new RestApiClient();
@@ -26,6 +34,11 @@ public class RestConfigBean {
 	public AuditLogRequestBuilder getAuditLogRequestBuilder() {
 		return new AuditLogRequestBuilder();
 	}
+
+	@Bean
+	public AsyncAuditLogSender getAsyncAuditLogSender() {
+		return new AsyncAuditLogSender();
+	}
 	
 	@Bean
 	public RestTemplateBuilder getRestTemplateBuilder() {
@@ -0,0 +1,275 @@
+package io.mosip.registration.processor.rest.client.service.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.kernel.core.util.StringUtils;
+import io.mosip.kernel.core.util.TokenHandlerUtil;
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorAsyncRestClientService;
+import io.mosip.registration.processor.core.tracing.ContextualData;
+import io.mosip.registration.processor.core.tracing.TracingConstant;
+import io.mosip.registration.processor.rest.client.exception.TokenGenerationFailedException;
+import io.mosip.registration.processor.rest.client.utils.ApiUriTemplate;
+import io.mosip.registration.processor.rest.client.utils.ApiUriTemplateRegistry;
+import io.mosip.registration.processor.rest.client.utils.RestApiClient;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+/**
+ * The Class RegistrationProcessorAsyncRestClientServiceImpl, calls the apis
+ * with the vertx web client.
+ *
+ * The web client of the vertx instance of the calling verticle is used, so
+ * the responses are handled on its event loop. Callers outside of a verticle
+ * use a vertx instance owned by this class. The auth token and the trace id
+ * are sent the same way as the blocking rest client.
+ *
+ * The auth token is the one cached by the blocking rest client. When it is
+ * missing or expired it is fetched with the web client too, once for all the
+ * calls made meanwhile, so that no call parks the calling thread.
+ *
+ * @author Vishwanath V
+ */
+public class RegistrationProcessorAsyncRestClientServiceImpl implements RegistrationProcessorAsyncRestClientService {
+
+	private static Logger regProcLogger = RegProcessorLogger
+			.getLogger(RegistrationProcessorAsyncRestClientServiceImpl.class);
+
+	private static final String COOKIE = "Cookie";
+
+	private static final String AUTHORIZATION = "Authorization=";
+
+	private static final String TOKEN_PROPERTY = "token";
+
+	@Value("${registration.processor.httpclient.connections.max.per.host:20}")
+	private int maxConnectionPerRoute;
+
+	@Value("${mosip.regproc.rest-client.async.timeout-millis:60000}")
+	private long timeoutMillis;
+
+	@Autowired
+	private RestApiClient restApiClient;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Environment env;
+
+	private final Map<Vertx, WebClient> webClients = new ConcurrentHashMap<>();
+
+	private Vertx ownedVertx;
+
+	private volatile ApiUriTemplateRegistry uriTemplates;
+
+	/** The token request in flight, shared by the calls made meanwhile, guarded by this */
+	private CompletableFuture<String> tokenRefresh;
+
+	/**
+	 * Compiles the uri templates of the apis whose url changed on config refresh.
+	 *
+	 * @param event the environment change event
+	 */
+	@EventListener
+	public void onEnvironmentChange(EnvironmentChangeEvent event) {
+		getUriTemplates().refresh(event.getKeys());
+	}
+
+	@Override
+	public <R> CompletionStage<R> getApi(ApiName apiName, List<String> pathsegments, String queryParamName,
+			String queryParamValue, JavaType responseType) {
+		return send(HttpMethod.GET, apiName, pathsegments, queryParamName, queryParamValue, null, responseType);
+	}
+
+	@Override
+	public <R> CompletionStage<R> postApi(ApiName apiName, String queryParamName, String queryParamValue,
+			Object requestedData, JavaType responseType) {
+		return send(HttpMethod.POST, apiName, null, queryParamName, queryParamValue, requestedData, responseType);
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		webClients.values().forEach(WebClient::close);
+		webClients.clear();
+		if (ownedVertx != null) {
+			ownedVertx.close();
+			ownedVertx = null;
+		}
+	}
+
+	private <R> CompletionStage<R> send(HttpMethod method, ApiName apiName, List<String> pathsegments,
+			String queryParamName, String queryParamValue, Object requestedData, JavaType responseType) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate == null) {
+			result.completeExceptionally(new ApisResourceAccessException(
+					PlatformErrorMessages.RPR_RCT_UNKNOWN_RESOURCE_EXCEPTION.getMessage() + " " + apiName.name()));
+			return result;
+		}
+		String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
+		try {
+			// read on the calling thread, the request may be sent once the token is fetched
+			WebClient webClient = getWebClient();
+			String traceId = (String) ContextualData.getOrDefault(TracingConstant.TRACE_ID_KEY);
+			Buffer body = requestedData != null ? Buffer.buffer(objectMapper.writeValueAsBytes(requestedData)) : null;
+			getToken(webClient, traceId).whenComplete((token, e) -> {
+				if (e != null) {
+					fail(uri, e, result);
+					return;
+				}
+				HttpRequest<Buffer> request = webClient.requestAbs(method, uri).timeout(timeoutMillis)
+						.putHeader(COOKIE, token);
+				if (traceId != null)
+					request.putHeader(TracingConstant.TRACE_HEADER, traceId);
+				if (body != null)
+					request.putHeader(HttpHeaders.CONTENT_TYPE.toString(), "application/json").sendBuffer(body,
+							response -> complete(uri, response, responseType, result));
+				else
+					request.send(response -> complete(uri, response, responseType, result));
+			});
+		} catch (IOException | RuntimeException e) {
+			fail(uri, e, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the auth token cookie, from the token cached by the rest client when
+	 * it is valid, else from the token request in flight or a new one
+	 */
+	private CompletionStage<String> getToken(WebClient webClient, String traceId) {
+		String token = System.getProperty(TOKEN_PROPERTY);
+		if (StringUtils.isNotEmpty(token) && TokenHandlerUtil.isValidBearerToken(token,
+				env.getProperty("token.request.issuerUrl"), env.getProperty("token.request.clientId")))
+			return CompletableFuture.completedFuture(AUTHORIZATION + token);
+		synchronized (this) {
+			if (tokenRefresh == null) {
+				CompletableFuture<String> refresh = new CompletableFuture<>();
+				tokenRefresh = refresh;
+				refresh.whenComplete((t, e) -> {
+					synchronized (this) {
+						if (tokenRefresh == refresh)
+							tokenRefresh = null;
+					}
+				});
+				requestToken(webClient, traceId, refresh);
+			}
+			return tokenRefresh;
+		}
+	}
+
+	private void requestToken(WebClient webClient, String traceId, CompletableFuture<String> refresh) {
+		String uri = env.getProperty("KEYBASEDTOKENAPI");
+		try {
+			HttpRequest<Buffer> request = webClient.postAbs(uri).timeout(timeoutMillis)
+					.putHeader(HttpHeaders.CONTENT_TYPE.toString(), "application/json");
+			if (traceId != null)
+				request.putHeader(TracingConstant.TRACE_HEADER, traceId);
+			request.sendBuffer(Buffer.buffer(objectMapper.writeValueAsBytes(restApiClient.getTokenRequest())),
+					response -> {
+						String cookie = response.succeeded() ? response.result().getHeader("Set-Cookie") : null;
+						if (cookie == null || cookie.indexOf(';') < AUTHORIZATION.length()) {
+							Throwable cause = response.failed() ? response.cause() : new TokenGenerationFailedException();
+							regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+									LoggerFileConstant.APPLICATIONID.toString(), uri,
+									"Token generation failed " + ExceptionUtils.getStackTrace(cause));
+							refresh.completeExceptionally(cause);
+							return;
+						}
+						System.setProperty(TOKEN_PROPERTY, cookie.substring(AUTHORIZATION.length(), cookie.indexOf(';')));
+						refresh.complete(cookie.substring(0, cookie.indexOf(';')));
+					});
+		} catch (IOException | RuntimeException e) {
+			refresh.completeExceptionally(e);
+		}
+	}
+
+	private <R> void complete(String uri, AsyncResult<HttpResponse<Buffer>> response, JavaType responseType,
+			CompletableFuture<R> result) {
+		if (response.failed()) {
+			fail(uri, response.cause(), result);
+			return;
+		}
+		HttpResponse<Buffer> httpResponse = response.result();
+		if (httpResponse.statusCode() >= 400) {
+			if (httpResponse.statusCode() == 401) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						LoggerFileConstant.APPLICATIONID.toString(), "Authentication failed. Resetting auth token.");
+				System.setProperty(TOKEN_PROPERTY, "");
+			}
+			fail(uri, new IOException(httpResponse.statusCode() + " " + httpResponse.statusMessage() + " "
+					+ httpResponse.bodyAsString()), result);
+			return;
+		}
+		try {
+			Buffer body = httpResponse.body();
+			result.complete(body == null || body.length() == 0 ? null
+					: objectMapper.readValue(body.getBytes(), responseType));
+		} catch (IOException e) {
+			fail(uri, e, result);
+		}
+	}
+
+	private void fail(String uri, Throwable e, CompletableFuture<?> result) {
+		regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(), uri,
+				e.getMessage() + ExceptionUtils.getStackTrace(e));
+		result.completeExceptionally(
+				new ApisResourceAccessException(PlatformErrorMessages.RPR_RCT_UNKNOWN_RESOURCE_EXCEPTION.getMessage(), e));
+	}
+
+	private ApiUriTemplateRegistry getUriTemplates() {
+		ApiUriTemplateRegistry registry = uriTemplates;
+		if (registry == null) {
+			synchronized (this) {
+				if (uriTemplates == null)
+					uriTemplates = new ApiUriTemplateRegistry(env);
+				registry = uriTemplates;
+			}
+		}
+		return registry;
+	}
+
+	private WebClient getWebClient() {
+		Context context = Vertx.currentContext();
+		Vertx vertx = context != null ? context.owner() : getOwnedVertx();
+		return webClients.computeIfAbsent(vertx, v -> WebClient.create(v,
+				new WebClientOptions().setMaxPoolSize(maxConnectionPerRoute).setKeepAlive(true)));
+	}
+
+	private synchronized Vertx getOwnedVertx() {
+		if (ownedVertx == null)
+			ownedVertx = Vertx.vertx();
+		return ownedVertx;
+	}
+
+}
@@ -1,15 +1,24 @@
 package io.mosip.registration.processor.rest.client.service.impl;
 
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
-import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.JavaType;
+
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.code.ApiName;
@@ -18,6 +27,8 @@ import io.mosip.registration.processor.core.exception.ApisResourceAccessExceptio
 import io.mosip.registration.processor.core.exception.util.PlatformErrorMessages;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.rest.client.utils.ApiUriTemplate;
+import io.mosip.registration.processor.rest.client.utils.ApiUriTemplateRegistry;
 import io.mosip.registration.processor.rest.client.utils.RestApiClient;
 
 /**
@@ -40,6 +51,27 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 	@Autowired
 	private Environment env;
 
+	/** The uri templates of the apis, compiled from the env. */
+	private volatile ApiUriTemplateRegistry uriTemplates;
+
+	/**
+	 * Compiles the uri templates of the apis at startup.
+	 */
+	@PostConstruct
+	public void compileUriTemplates() {
+		getUriTemplates();
+	}
+
+	/**
+	 * Compiles the uri templates of the apis whose url changed on config refresh.
+	 *
+	 * @param event the environment change event
+	 */
+	@EventListener
+	public void onEnvironmentChange(EnvironmentChangeEvent event) {
+		getUriTemplates().refresh(event.getKeys());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -55,37 +87,43 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::getApi()::entry");
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
-		UriComponentsBuilder builder = null;
-		UriComponents uriComponents = null;
-		if (apiHostIpPort != null) {
-
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
-				}
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
+			try {
 
-			}
+				regProcLogger.debug(uri, "URI", "", "");
+				obj = restApiClient.getApi(URI.create(uri), responseType);
 
-			if (!((queryParamName == null) || (("").equals(queryParamName)))) {
+			} catch (Exception e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), "",
+						e.getMessage() + ExceptionUtils.getStackTrace(e));
 
-				String[] queryParamNameArr = queryParamName.split(",");
-				String[] queryParamValueArr = queryParamValue.split(",");
-				for (int i = 0; i < queryParamNameArr.length; i++) {
-					builder.queryParam(queryParamNameArr[i], queryParamValueArr[i]);
-				}
+				throw new ApisResourceAccessException(
+						PlatformErrorMessages.RPR_RCT_UNKNOWN_RESOURCE_EXCEPTION.getCode(), e);
 
 			}
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationProcessorRestClientServiceImpl::getApi()::exit");
+		return obj;
+	}
 
+	@Override
+	public void getApi(ApiName apiName, List<String> pathsegments, OutputStream outputStream)
+			throws ApisResourceAccessException {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationProcessorRestClientServiceImpl::getApi()::entry");
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
+
+			String uri = uriTemplate.expand(pathsegments, (List<String>) null, null);
 			try {
 
-				uriComponents = builder.build(false).encode();
-				regProcLogger.debug(uriComponents.toUri().toString(), "URI", "", "");
-				obj = restApiClient.getApi(uriComponents.toUri(), responseType);
+				regProcLogger.debug(uri, "URI", "", "");
+				restApiClient.getApiToStream(URI.create(uri), outputStream);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -99,7 +137,6 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		}
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::getApi()::exit");
-		return obj;
 	}
 
 	@Override
@@ -108,34 +145,14 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::getApi()::entry");
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-
-		UriComponentsBuilder builder = null;
-		UriComponents uriComponents = null;
-		if (apiHostIpPort != null) {
-
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
-				}
-
-			}
-
-			if (((queryParamName != null) && (!queryParamName.isEmpty()))) {
-				for (int i = 0; i < queryParamName.size(); i++) {
-					builder.queryParam(queryParamName.get(i), queryParamValue.get(i));
-				}
-
-			}
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
 			try {
 
-				uriComponents = builder.build(false).encode();
-				regProcLogger.debug(uriComponents.toUri().toString(), "URI", "", "");
-				obj = restApiClient.getApi(uriComponents.toUri(), responseType);
+				regProcLogger.debug(uri, "URI", "", "");
+				obj = restApiClient.getApi(URI.create(uri), responseType);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -158,23 +175,46 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 				"RegistrationProcessorRestClientServiceImpl::postApi()::entry");
 
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-		UriComponentsBuilder builder = null;
-		if (apiHostIpPort != null)
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-		if (builder != null) {
+		String uri = getUri(apiName, queryParamName, queryParamValue);
+		if (uri != null) {
 
-			if (!((queryParamName == null) || (("").equals(queryParamName)))) {
-				String[] queryParamNameArr = queryParamName.split(",");
-				String[] queryParamValueArr = queryParamValue.split(",");
+			try {
+				obj = restApiClient.postApi(uri, mediaType, requestedData, responseType);
+
+			} catch (Exception e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
+						LoggerFileConstant.REGISTRATIONID.toString(), "",
+						e.getMessage() + ExceptionUtils.getStackTrace(e));
+
+				throw new ApisResourceAccessException(
+						PlatformErrorMessages.RPR_RCT_UNKNOWN_RESOURCE_EXCEPTION.getMessage(), e);
 
-				for (int i = 0; i < queryParamNameArr.length; i++) {
-					builder.queryParam(queryParamNameArr[i], queryParamValueArr[i]);
-				}
 			}
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationProcessorRestClientServiceImpl::postApi()::exit");
+		return obj;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.registration.processor.core.spi.restclient.
+	 * RegistrationProcessorRestClientService#postApiForType(io.mosip.registration.
+	 * processor.core.code.ApiName, java.lang.String, java.lang.String,
+	 * java.lang.Object, com.fasterxml.jackson.databind.JavaType)
+	 */
+	@Override
+	public <R> R postApiForType(ApiName apiName, String queryParamName, String queryParamValue,
+			Object requestedData, JavaType responseType) throws ApisResourceAccessException {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationProcessorRestClientServiceImpl::postApiForType()::entry");
 
+		R obj = null;
+		String uri = getUri(apiName, queryParamName, queryParamValue);
+		if (uri != null) {
 			try {
-				obj = restApiClient.postApi(builder.toUriString(), mediaType, requestedData, responseType);
+				obj = restApiClient.postApiForType(uri, null, requestedData, responseType);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -187,10 +227,27 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 			}
 		}
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
-				"RegistrationProcessorRestClientServiceImpl::postApi()::exit");
+				"RegistrationProcessorRestClientServiceImpl::postApiForType()::exit");
 		return obj;
 	}
 
+	private ApiUriTemplateRegistry getUriTemplates() {
+		ApiUriTemplateRegistry registry = uriTemplates;
+		if (registry == null) {
+			synchronized (this) {
+				if (uriTemplates == null)
+					uriTemplates = new ApiUriTemplateRegistry(env);
+				registry = uriTemplates;
+			}
+		}
+		return registry;
+	}
+
+	private String getUri(ApiName apiName, String queryParamName, String queryParamValue) {
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		return uriTemplate != null ? uriTemplate.expand(null, queryParamName, queryParamValue) : null;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -221,31 +278,12 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::postApi()::entry");
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-		UriComponentsBuilder builder = null;
-		if (apiHostIpPort != null)
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-		if (builder != null) {
-
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
-				}
-
-			}
-			if (!checkNull(queryParamName)) {
-				String[] queryParamNameArr = queryParamName.split(",");
-				String[] queryParamValueArr = queryParamValue.split(",");
-
-				for (int i = 0; i < queryParamNameArr.length; i++) {
-					builder.queryParam(queryParamNameArr[i], queryParamValueArr[i]);
-				}
-			}
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
 			try {
-				obj = restApiClient.postApi(builder.toUriString(), null, requestedData, responseType);
+				obj = restApiClient.postApi(uri, null, requestedData, responseType);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -269,29 +307,12 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::postApi()::entry");
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-		UriComponentsBuilder builder = null;
-		if (apiHostIpPort != null)
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-		if (builder != null) {
-
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
-				}
-
-			}
-			if (!CollectionUtils.isEmpty(queryParamName)) {
-
-				for (int i = 0; i < queryParamName.size(); i++) {
-					builder.queryParam(queryParamName.get(i), queryParamValue.get(i));
-				}
-			}
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
 			try {
-				obj = restApiClient.postApi(builder.toUriString(), mediaType, requestedData, responseType);
+				obj = restApiClient.postApi(uri, mediaType, requestedData, responseType);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -322,31 +343,12 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::postApi()::entry");
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-		UriComponentsBuilder builder = null;
-		if (apiHostIpPort != null)
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-		if (builder != null) {
-
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
-				}
-
-			}
-			if (!checkNull(queryParamName)) {
-				String[] queryParamNameArr = queryParamName.split(",");
-				String[] queryParamValueArr = queryParamValue.split(",");
-
-				for (int i = 0; i < queryParamNameArr.length; i++) {
-					builder.queryParam(queryParamNameArr[i], queryParamValueArr[i]);
-				}
-			}
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
 			try {
-				obj = restApiClient.patchApi(builder.toUriString(), requestedData, responseType);
+				obj = restApiClient.patchApi(uri, requestedData, responseType);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -377,31 +379,12 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
 				"RegistrationProcessorRestClientServiceImpl::putApi()::entry");
 		Object obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-		UriComponentsBuilder builder = null;
-		if (apiHostIpPort != null)
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-		if (builder != null) {
-
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
-				}
-
-			}
-			if (!checkNull(queryParamName)) {
-				String[] queryParamNameArr = queryParamName.split(",");
-				String[] queryParamValueArr = queryParamValue.split(",");
-
-				for (int i = 0; i < queryParamNameArr.length; i++) {
-					builder.queryParam(queryParamNameArr[i], queryParamValueArr[i]);
-				}
-			}
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
 			try {
-				obj = restApiClient.putApi(builder.toUriString(), requestedData, responseType, mediaType);
+				obj = restApiClient.putApi(uri, requestedData, responseType, mediaType);
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -417,18 +400,6 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 		return obj;
 	}
 
-	/**
-	 * Check null.
-	 *
-	 * @param queryParamName
-	 *            the query param name
-	 * @return true, if successful
-	 */
-	private boolean checkNull(String queryParamName) {
-
-		return ((queryParamName == null) || (("").equals(queryParamName)));
-	}
-
 	@Override
 	public Object postApi(String url, MediaType mediaType, List<String> pathsegments, List<String> queryParamName,
 			List<Object> queryParamValue, Object requestedData, Class<?> responseType)
@@ -473,38 +444,50 @@ public class RegistrationProcessorRestClientServiceImpl implements RegistrationP
 	}
 
 	@Override
-	public Integer headApi(ApiName apiName, List<String> pathsegments, List<String> queryParamName, List<Object> queryParamValue) throws ApisResourceAccessException {
+	public Object postMultipartApi(String url, List<String> pathsegments, Map<String, String> formFields,
+			String filePartName, String fileName, StreamingHttpOutputMessage.Body file, Class<?> responseType)
+			throws ApisResourceAccessException {
 		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
-				"RegistrationProcessorRestClientServiceImpl::headApi()::entry");
-		Integer obj = null;
-		String apiHostIpPort = env.getProperty(apiName.name());
-
-		UriComponentsBuilder builder = null;
-		UriComponents uriComponents = null;
-		if (apiHostIpPort != null) {
-
-			builder = UriComponentsBuilder.fromUriString(apiHostIpPort);
-			if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
-				for (String segment : pathsegments) {
-					if (!((segment == null) || (("").equals(segment)))) {
-						builder.pathSegment(segment);
-					}
+				"RegistrationProcessorRestClientServiceImpl::postMultipartApi()::entry");
+		UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(url);
+		if (!CollectionUtils.isEmpty(pathsegments)) {
+			for (String segment : pathsegments) {
+				if (!((segment == null) || (("").equals(segment)))) {
+					builder.pathSegment(segment);
 				}
-
 			}
+		}
+		Object obj = null;
+		try {
+			obj = restApiClient.postMultipartApi(builder.toUriString(), formFields, filePartName, fileName, file,
+					responseType);
 
-			if (((queryParamName != null) && (!queryParamName.isEmpty()))) {
-				for (int i = 0; i < queryParamName.size(); i++) {
-					builder.queryParam(queryParamName.get(i), queryParamValue.get(i));
-				}
+		} catch (Exception e) {
+			regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.REGISTRATIONID.toString(),
+					"", e.getMessage() + ExceptionUtils.getStackTrace(e));
 
-			}
+			throw new ApisResourceAccessException(PlatformErrorMessages.RPR_RCT_UNKNOWN_RESOURCE_EXCEPTION.getMessage(),
+					e);
+
+		}
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationProcessorRestClientServiceImpl::postMultipartApi()::exit");
+		return obj;
+	}
+
+	@Override
+	public Integer headApi(ApiName apiName, List<String> pathsegments, List<String> queryParamName, List<Object> queryParamValue) throws ApisResourceAccessException {
+		regProcLogger.debug(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.USERID.toString(), "",
+				"RegistrationProcessorRestClientServiceImpl::headApi()::entry");
+		Integer obj = null;
+		ApiUriTemplate uriTemplate = getUriTemplates().get(apiName);
+		if (uriTemplate != null) {
 
+			String uri = uriTemplate.expand(pathsegments, queryParamName, queryParamValue);
 			try {
 
-				uriComponents = builder.build(false).encode();
-				regProcLogger.debug(uriComponents.toUri().toString(), "URI", "", "");
-				obj = restApiClient.headApi(uriComponents.toUri());
+				regProcLogger.debug(uri, "URI", "", "");
+				obj = restApiClient.headApi(URI.create(uri));
 
 			} catch (Exception e) {
 				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(),
@@ -0,0 +1,166 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * The uri of an api, parsed and encoded once from its configured url.
+ *
+ * Expanding the template gives the same encoded uri as appending the path
+ * segments and query params to a UriComponentsBuilder of the url and encoding
+ * it, without parsing and encoding the url on every call. Urls whose path would
+ * be normalized by the builder, or that are not hierarchical, are expanded with
+ * the builder.
+ *
+ * @author Vishwanath V
+ */
+public class ApiUriTemplate {
+
+	private final String url;
+
+	private final boolean compiled;
+
+	/** The encoded uri of the url without the query */
+	private final String encodedPath;
+
+	/** The encoded query of the url, null when it has no query params */
+	private final String encodedQuery;
+
+	/** The query params of the url, as parsed by the builder */
+	private final Map<String, List<String>> queryParams = new LinkedHashMap<>();
+
+	private ApiUriTemplate(String url) {
+		this.url = url;
+		UriComponents uriComponents = UriComponentsBuilder.fromUriString(url).build();
+		String path = uriComponents.getPath();
+		this.compiled = uriComponents.getSchemeSpecificPart() == null && uriComponents.getFragment() == null
+				&& url.indexOf('{') < 0 && (path == null || (!path.endsWith("/") && !path.contains("//")));
+		if (compiled) {
+			this.encodedPath = UriComponentsBuilder.fromUriString(url).replaceQuery(null).build(false).encode()
+					.toUriString();
+			MultiValueMap<String, String> params = uriComponents.getQueryParams();
+			params.forEach((name, values) -> queryParams.put(name, new ArrayList<>(values)));
+			this.encodedQuery = params.isEmpty() ? null : uriComponents.encode().getQuery();
+		} else {
+			this.encodedPath = null;
+			this.encodedQuery = null;
+		}
+	}
+
+	/**
+	 * Compiles the template of the url.
+	 *
+	 * @param url the configured url of the api
+	 * @return the template
+	 */
+	public static ApiUriTemplate compile(String url) {
+		return new ApiUriTemplate(url);
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Expands the template with the comma separated query params.
+	 *
+	 * @param pathsegments    the path segments, null and empty segments are
+	 *                        skipped
+	 * @param queryParamName  the comma separated query param names
+	 * @param queryParamValue the comma separated query param values
+	 * @return the encoded uri
+	 */
+	public String expand(List<String> pathsegments, String queryParamName, String queryParamValue) {
+		if ((queryParamName == null) || (("").equals(queryParamName)))
+			return expand(pathsegments, (List<String>) null, null);
+		String[] queryParamNameArr = queryParamName.split(",");
+		String[] queryParamValueArr = queryParamValue.split(",");
+		List<Object> queryParamValues = new ArrayList<>(queryParamNameArr.length);
+		for (int i = 0; i < queryParamNameArr.length; i++) {
+			queryParamValues.add(queryParamValueArr[i]);
+		}
+		return expand(pathsegments, Arrays.asList(queryParamNameArr), queryParamValues);
+	}
+
+	/**
+	 * Expands the template.
+	 *
+	 * @param pathsegments    the path segments, null and empty segments are
+	 *                        skipped
+	 * @param queryParamName  the query param names
+	 * @param queryParamValue the query param values
+	 * @return the encoded uri
+	 */
+	public String expand(List<String> pathsegments, List<String> queryParamName, List<?> queryParamValue) {
+		if (!compiled)
+			return expandWithBuilder(pathsegments, queryParamName, queryParamValue);
+		boolean hasSegments = pathsegments != null && !pathsegments.isEmpty();
+		boolean hasQueryParams = queryParamName != null && !queryParamName.isEmpty();
+		if (!hasSegments && !hasQueryParams)
+			return encodedQuery == null ? encodedPath : encodedPath + '?' + encodedQuery;
+
+		StringBuilder uri = new StringBuilder(encodedPath.length() + 64).append(encodedPath);
+		if (hasSegments) {
+			for (String segment : pathsegments) {
+				if (!((segment == null) || (("").equals(segment))))
+					uri.append('/').append(UriUtils.encodePathSegment(segment, StandardCharsets.UTF_8));
+			}
+		}
+		if (!hasQueryParams) {
+			if (encodedQuery != null)
+				uri.append('?').append(encodedQuery);
+			return uri.toString();
+		}
+		// params of the same name are grouped, in the order their name was first added
+		Map<String, List<String>> params = new LinkedHashMap<>(queryParams.size() + queryParamName.size());
+		queryParams.forEach((name, values) -> params.put(name, new ArrayList<>(values)));
+		for (int i = 0; i < queryParamName.size(); i++) {
+			Object value = queryParamValue.get(i);
+			params.computeIfAbsent(queryParamName.get(i), k -> new ArrayList<>(1))
+					.add(value != null ? value.toString() : null);
+		}
+		char separator = '?';
+		for (Map.Entry<String, List<String>> param : params.entrySet()) {
+			String name = UriUtils.encodeQueryParam(param.getKey(), StandardCharsets.UTF_8);
+			if (param.getValue().isEmpty()) {
+				uri.append(separator).append(name);
+				separator = '&';
+			}
+			for (String value : param.getValue()) {
+				uri.append(separator).append(name);
+				if (value != null)
+					uri.append('=').append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+				separator = '&';
+			}
+		}
+		return uri.toString();
+	}
+
+	private String expandWithBuilder(List<String> pathsegments, List<String> queryParamName,
+			List<?> queryParamValue) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(url);
+		if (!((pathsegments == null) || (pathsegments.isEmpty()))) {
+			for (String segment : pathsegments) {
+				if (!((segment == null) || (("").equals(segment)))) {
+					builder.pathSegment(segment);
+				}
+			}
+		}
+		if (((queryParamName != null) && (!queryParamName.isEmpty()))) {
+			for (int i = 0; i < queryParamName.size(); i++) {
+				builder.queryParam(queryParamName.get(i), queryParamValue.get(i));
+			}
+		}
+		return builder.build(false).encode().toUriString();
+	}
+
+}
@@ -0,0 +1,73 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import java.util.Set;
+
+import org.springframework.core.env.Environment;
+
+import io.mosip.registration.processor.core.code.ApiName;
+
+/**
+ * The uri templates of all the apis, compiled once from the urls configured
+ * against the {@link ApiName}. The templates of the changed urls are compiled
+ * again on refresh.
+ *
+ * @author Vishwanath V
+ */
+public class ApiUriTemplateRegistry {
+
+	private static final ApiName[] API_NAMES = ApiName.values();
+
+	private final Environment env;
+
+	/** The templates by api name ordinal, null when the api has no url */
+	private volatile ApiUriTemplate[] templates;
+
+	public ApiUriTemplateRegistry(Environment env) {
+		this.env = env;
+		refresh();
+	}
+
+	/**
+	 * Gets the template of the api.
+	 *
+	 * @param apiName the api name
+	 * @return the template, null when no url is configured for the api
+	 */
+	public ApiUriTemplate get(ApiName apiName) {
+		return templates[apiName.ordinal()];
+	}
+
+	/**
+	 * Compiles the templates of all the apis again
+	 */
+	public synchronized void refresh() {
+		ApiUriTemplate[] compiled = new ApiUriTemplate[API_NAMES.length];
+		for (ApiName apiName : API_NAMES)
+			compiled[apiName.ordinal()] = compile(apiName);
+		templates = compiled;
+	}
+
+	/**
+	 * Compiles the templates of the apis whose url changed
+	 *
+	 * @param keys the changed property keys
+	 */
+	public synchronized void refresh(Set<String> keys) {
+		ApiUriTemplate[] compiled = templates.clone();
+		boolean changed = false;
+		for (ApiName apiName : API_NAMES) {
+			if (keys.contains(apiName.name())) {
+				compiled[apiName.ordinal()] = compile(apiName);
+				changed = true;
+			}
+		}
+		if (changed)
+			templates = compiled;
+	}
+
+	private ApiUriTemplate compile(ApiName apiName) {
+		String url = env.getProperty(apiName.name());
+		return url != null ? ApiUriTemplate.compile(url) : null;
+	}
+
+}
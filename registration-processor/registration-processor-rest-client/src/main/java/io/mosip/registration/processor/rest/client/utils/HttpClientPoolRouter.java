@@ -0,0 +1,295 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.registration.processor.core.constant.LoggerFileConstant;
+import io.mosip.registration.processor.core.logger.RegProcessorLogger;
+import io.mosip.registration.processor.core.util.MeterBinding;
+
+/**
+ * Sends the requests of each configured destination through a connection pool
+ * of its own, so that a slow destination can not hold the connections needed
+ * by the others. The requests to the hosts without a pool are sent with the
+ * default request factory.
+ *
+ * The leased, pending and available connections and the time taken to lease a
+ * connection are published per pool.
+ *
+ * @author Vishwanath V
+ */
+public class HttpClientPoolRouter implements ClientHttpRequestFactory, MeterBinder {
+
+	private static final Logger regProcLogger = RegProcessorLogger.getLogger(HttpClientPoolRouter.class);
+
+	private static final String METRIC_PREFIX = "mosip.regproc.httpclient.pool";
+
+	private final List<Pool> pools;
+
+	/** The pools by host, and by host and port */
+	private final Map<String, Pool> poolsByHost = new HashMap<>();
+
+	private final ClientHttpRequestFactory defaultRequestFactory;
+
+	/** Used when the vertx metrics registry is not set up */
+	private final MeterRegistry meterRegistry;
+
+	private final MeterBinding metrics = new MeterBinding(this);
+
+	public HttpClientPoolRouter(List<Pool> pools, ClientHttpRequestFactory defaultRequestFactory,
+			MeterRegistry meterRegistry) {
+		this.pools = new ArrayList<>(pools);
+		this.defaultRequestFactory = defaultRequestFactory;
+		this.meterRegistry = meterRegistry;
+		for (Pool pool : pools) {
+			for (String host : pool.getHosts())
+				poolsByHost.put(host.toLowerCase(Locale.ROOT), pool);
+		}
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		metrics.bind(meterRegistry);
+		Pool pool = getPool(uri);
+		return pool != null ? pool.requestFactory.createRequest(uri, httpMethod)
+				: defaultRequestFactory.createRequest(uri, httpMethod);
+	}
+
+	/**
+	 * Gets the pool of the destination.
+	 *
+	 * @param uri the uri of the request
+	 * @return the pool, null when the destination has no pool
+	 */
+	public Pool getPool(URI uri) {
+		String host = uri.getHost();
+		if (host == null)
+			return null;
+		host = host.toLowerCase(Locale.ROOT);
+		Pool pool = uri.getPort() != -1 ? poolsByHost.get(host + ":" + uri.getPort()) : null;
+		return pool != null ? pool : poolsByHost.get(host);
+	}
+
+	public List<Pool> getPools() {
+		return pools;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		pools.forEach(pool -> pool.bindTo(registry));
+	}
+
+	public void close() {
+		for (Pool pool : pools) {
+			try {
+				pool.httpClient.close();
+			} catch (IOException e) {
+				regProcLogger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						pool.name, "Http client pool could not be closed " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * The connection pool of a destination
+	 */
+	public static class Pool implements MeterBinder {
+
+		private final String name;
+
+		private final Set<String> hosts;
+
+		private final TimedConnectionManager connectionManager;
+
+		private final CloseableHttpClient httpClient;
+
+		private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+		/**
+		 * Instantiates a new pool.
+		 *
+		 * @param name                     the pool name, used as the metrics tag
+		 * @param hosts                    the hosts, or host:port, sent through
+		 *                                 the pool
+		 * @param maxConnections           the max connections of the pool
+		 * @param connectionTtlMillis      the max life time of a connection, not
+		 *                                 limited when not positive
+		 * @param keepAliveMillis          the time an idle connection is kept when
+		 *                                 the server does not say, as long as the
+		 *                                 server allows when not positive
+		 * @param acquisitionTimeoutMillis the max wait for a connection from the
+		 *                                 pool, no limit when not positive
+		 */
+		public Pool(String name, Set<String> hosts, int maxConnections, long connectionTtlMillis,
+				long keepAliveMillis, int acquisitionTimeoutMillis) {
+			this(name, hosts, maxConnections, connectionTtlMillis, keepAliveMillis, acquisitionTimeoutMillis,
+					RequestConfig.DEFAULT);
+		}
+
+		/**
+		 * Instantiates a new pool whose requests are sent with the given request
+		 * config, the timeouts of the default request factory. The tls and proxy
+		 * settings are the ones of the jvm.
+		 *
+		 * @param name                     the pool name, used as the metrics tag
+		 * @param hosts                    the hosts, or host:port, sent through
+		 *                                 the pool
+		 * @param maxConnections           the max connections of the pool
+		 * @param connectionTtlMillis      the max life time of a connection, not
+		 *                                 limited when not positive
+		 * @param keepAliveMillis          the time an idle connection is kept when
+		 *                                 the server does not say, as long as the
+		 *                                 server allows when not positive
+		 * @param acquisitionTimeoutMillis the max wait for a connection from the
+		 *                                 pool, the one of the request config when
+		 *                                 not positive
+		 * @param requestConfig            the request config of the requests
+		 */
+		public Pool(String name, Set<String> hosts, int maxConnections, long connectionTtlMillis,
+				long keepAliveMillis, int acquisitionTimeoutMillis, RequestConfig requestConfig) {
+			this.name = name;
+			this.hosts = hosts;
+			this.connectionManager = new TimedConnectionManager(connectionTtlMillis);
+			connectionManager.setMaxTotal(maxConnections);
+			connectionManager.setDefaultMaxPerRoute(maxConnections);
+			DefaultConnectionKeepAliveStrategy keepAliveStrategy = new DefaultConnectionKeepAliveStrategy() {
+				@Override
+				public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+					long duration = super.getKeepAliveDuration(response, context);
+					return duration < 0 && keepAliveMillis > 0 ? keepAliveMillis : duration;
+				}
+			};
+			RequestConfig.Builder requestConfigBuilder = RequestConfig.copy(requestConfig);
+			if (acquisitionTimeoutMillis > 0)
+				requestConfigBuilder.setConnectionRequestTimeout(acquisitionTimeoutMillis);
+			this.httpClient = HttpClients.custom().useSystemProperties().setConnectionManager(connectionManager)
+					.setKeepAliveStrategy(keepAliveStrategy).setDefaultRequestConfig(requestConfigBuilder.build())
+					.build();
+			this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Set<String> getHosts() {
+			return hosts;
+		}
+
+		public int getLeased() {
+			return connectionManager.getTotalStats().getLeased();
+		}
+
+		public int getPending() {
+			return connectionManager.getTotalStats().getPending();
+		}
+
+		public int getAvailable() {
+			return connectionManager.getTotalStats().getAvailable();
+		}
+
+		public int getMax() {
+			return connectionManager.getTotalStats().getMax();
+		}
+
+		/**
+		 * When false the request bodies are sent as they are written instead of
+		 * being buffered, in chunks when their length is not known.
+		 *
+		 * @param bufferRequestBody whether the request bodies are buffered
+		 */
+		public void setBufferRequestBody(boolean bufferRequestBody) {
+			requestFactory.setBufferRequestBody(bufferRequestBody);
+		}
+
+		@Override
+		public void bindTo(MeterRegistry registry) {
+			Gauge.builder(METRIC_PREFIX + ".leased", this, Pool::getLeased).tag("pool", name)
+					.description("Connections of the pool in use").register(registry);
+			Gauge.builder(METRIC_PREFIX + ".pending", this, Pool::getPending).tag("pool", name)
+					.description("Requests waiting for a connection of the pool").register(registry);
+			Gauge.builder(METRIC_PREFIX + ".available", this, Pool::getAvailable).tag("pool", name)
+					.description("Idle connections of the pool").register(registry);
+			Gauge.builder(METRIC_PREFIX + ".max", this, Pool::getMax).tag("pool", name)
+					.description("Max connections of the pool").register(registry);
+			connectionManager.acquisitionTimer = Timer.builder(METRIC_PREFIX + ".acquisition").tag("pool", name)
+					.description("Time taken to get a connection from the pool").publishPercentileHistogram()
+					.register(registry);
+		}
+	}
+
+	/**
+	 * Times the wait for a connection of the pool
+	 */
+	private static class TimedConnectionManager extends PoolingHttpClientConnectionManager {
+
+		private volatile Timer acquisitionTimer;
+
+		TimedConnectionManager(long connectionTtlMillis) {
+			super(RegistryBuilder.<ConnectionSocketFactory>create()
+					.register("http", PlainConnectionSocketFactory.getSocketFactory())
+					.register("https", SSLConnectionSocketFactory.getSystemSocketFactory()).build(), null, null, null,
+					connectionTtlMillis, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+			ConnectionRequest connectionRequest = super.requestConnection(route, state);
+			Timer timer = acquisitionTimer;
+			if (timer == null)
+				return connectionRequest;
+			return new ConnectionRequest() {
+
+				@Override
+				public boolean cancel() {
+					return connectionRequest.cancel();
+				}
+
+				@Override
+				public HttpClientConnection get(long timeout, TimeUnit tunit)
+						throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+					long start = System.nanoTime();
+					try {
+						return connectionRequest.get(timeout, tunit);
+					} finally {
+						timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+					}
+				}
+			};
+		}
+	}
+
+}
@@ -1,15 +1,24 @@
 package io.mosip.registration.processor.rest.client.utils;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.net.ssl.SSLContext;
 
 import io.mosip.registration.processor.core.tracing.ContextualData;
@@ -18,6 +27,8 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.StringEntity;
@@ -26,6 +37,7 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.ssl.TrustStrategy;
 import org.apache.http.util.EntityUtils;
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -38,19 +50,30 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpMessageConverterExtractor;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.kernel.core.util.StringUtils;
 import io.mosip.kernel.core.util.TokenHandlerUtil;
+import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.constant.LoggerFileConstant;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.rest.client.audit.dto.Metadata;
@@ -75,6 +98,10 @@ public class RestApiClient {
 	@Value("${registration.processor.httpclient.connections.max:100}")
 	private int totalMaxConnection;
 
+	/** The names of the destinations that get a connection pool of their own */
+	@Value("#{T(java.util.Arrays).asList('${mosip.regproc.httpclient.pools:}')}")
+	private List<String> poolNames;
+
 	/** The builder. */
 	@Autowired
 	RestTemplateBuilder builder;
@@ -84,10 +111,126 @@ public class RestApiClient {
 
 	private static final String AUTHORIZATION = "Authorization=";
 
+	private static final byte[] CRLF = { '\r', '\n' };
+
 	@Autowired
 	@Qualifier("selfTokenRestTemplate")
 	RestTemplate localRestTemplate;
 
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private HttpClientPoolRouter poolRouter;
+
+	/**
+	 * Sends the requests of the configured destinations through their own
+	 * connection pool. The requests to the other destinations are sent as before.
+	 */
+	@PostConstruct
+	public void setupConnectionPools() {
+		List<HttpClientPoolRouter.Pool> pools = new ArrayList<>();
+		if (poolNames != null) {
+			for (String poolName : poolNames) {
+				if (StringUtils.isBlank(poolName))
+					continue;
+				HttpClientPoolRouter.Pool pool = createPool(poolName.trim(),
+						getRequestConfig(localRestTemplate.getRequestFactory()));
+				if (pool != null)
+					pools.add(pool);
+			}
+		}
+		if (pools.isEmpty())
+			return;
+		// the factory of the rest template, without the interceptors that are
+		// applied again by the rest template on top of the router
+		List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(localRestTemplate.getInterceptors());
+		localRestTemplate.getInterceptors().clear();
+		poolRouter = new HttpClientPoolRouter(pools, localRestTemplate.getRequestFactory(), meterRegistry);
+		localRestTemplate.setInterceptors(interceptors);
+		localRestTemplate.setRequestFactory(poolRouter);
+	}
+
+	@PreDestroy
+	public void closeConnectionPools() {
+		if (poolRouter != null)
+			poolRouter.close();
+	}
+
+	private HttpClientPoolRouter.Pool createPool(String poolName, RequestConfig requestConfig) {
+		String prefix = "mosip.regproc.httpclient.pool." + poolName + ".";
+		Set<String> hosts = new LinkedHashSet<>();
+		for (String host : environment.getProperty(prefix + "hosts", String[].class, new String[0])) {
+			if (StringUtils.isNotBlank(host))
+				hosts.add(host.trim());
+		}
+		for (String apiName : environment.getProperty(prefix + "api-names", String[].class, new String[0])) {
+			if (StringUtils.isBlank(apiName))
+				continue;
+			ApiName api;
+			try {
+				api = ApiName.valueOf(apiName.trim());
+			} catch (IllegalArgumentException e) {
+				logger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+						poolName, "Unknown api name " + apiName.trim() + " of the http client pool is skipped");
+				continue;
+			}
+			String url = environment.getProperty(api.name());
+			String host = url != null ? URI.create(url).getHost() : null;
+			if (host != null)
+				hosts.add(host);
+		}
+		if (hosts.isEmpty()) {
+			logger.warn(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					poolName, "No hosts configured for the http client pool, the pool is not created");
+			return null;
+		}
+		HttpClientPoolRouter.Pool pool = new HttpClientPoolRouter.Pool(poolName, hosts,
+				environment.getProperty(prefix + "max-connections", Integer.class, maxConnectionPerRoute),
+				environment.getProperty(prefix + "connection-ttl-millis", Long.class, -1L),
+				environment.getProperty(prefix + "keep-alive-millis", Long.class, -1L),
+				environment.getProperty(prefix + "acquisition-timeout-millis", Integer.class, -1), requestConfig);
+		pool.setBufferRequestBody(environment.getProperty(prefix + "buffer-request-body", Boolean.class, true));
+		return pool;
+	}
+
+	/**
+	 * Gets the timeouts of the request factory of the rest template, to be used
+	 * by the pools too. The timeouts set on the factory take precedence over the
+	 * ones of its http client, as they do for the rest template.
+	 *
+	 * @param requestFactory the request factory of the rest template
+	 * @return the request config
+	 */
+	static RequestConfig getRequestConfig(ClientHttpRequestFactory requestFactory) {
+		if (requestFactory instanceof HttpComponentsClientHttpRequestFactory) {
+			HttpClient httpClient = ((HttpComponentsClientHttpRequestFactory) requestFactory).getHttpClient();
+			RequestConfig clientConfig = httpClient instanceof Configurable
+					? ((Configurable) httpClient).getConfig()
+					: null;
+			RequestConfig factoryConfig = (RequestConfig) new DirectFieldAccessor(requestFactory)
+					.getPropertyValue("requestConfig");
+			RequestConfig.Builder builder = RequestConfig.copy(clientConfig != null ? clientConfig : RequestConfig.DEFAULT);
+			if (factoryConfig != null) {
+				if (factoryConfig.getConnectTimeout() >= 0)
+					builder.setConnectTimeout(factoryConfig.getConnectTimeout());
+				if (factoryConfig.getConnectionRequestTimeout() >= 0)
+					builder.setConnectionRequestTimeout(factoryConfig.getConnectionRequestTimeout());
+				if (factoryConfig.getSocketTimeout() >= 0)
+					builder.setSocketTimeout(factoryConfig.getSocketTimeout());
+			}
+			return builder.build();
+		}
+		if (requestFactory instanceof SimpleClientHttpRequestFactory) {
+			DirectFieldAccessor factory = new DirectFieldAccessor(requestFactory);
+			return RequestConfig.custom().setConnectTimeout((Integer) factory.getPropertyValue("connectTimeout"))
+					.setSocketTimeout((Integer) factory.getPropertyValue("readTimeout")).build();
+		}
+		return RequestConfig.DEFAULT;
+	}
+
 	/**
 	 * Gets the api. *
 	 * 
@@ -112,6 +255,27 @@ public class RestApiClient {
 		return result;
 	}
 
+	/**
+	 * Gets the api, writing the response body to the output stream as it is
+	 * received.
+	 *
+	 * @param uri          the get URI
+	 * @param outputStream the output stream the response body is written to
+	 * @throws Exception
+	 */
+	public void getApiToStream(URI uri, OutputStream outputStream) throws Exception {
+		try {
+			HttpHeaders headers = setRequestHeader(null, null).getHeaders();
+			localRestTemplate.execute(uri, HttpMethod.GET, request -> request.getHeaders().putAll(headers),
+					response -> StreamUtils.copy(response.getBody(), outputStream));
+		} catch (Exception e) {
+			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
+			tokenExceptionHandler(e);
+			throw e;
+		}
+	}
+
 	/**
 	 * Post api.
 	 *
@@ -139,6 +303,114 @@ public class RestApiClient {
 		return result;
 	}
 
+	/**
+	 * Post api, streaming the request and the response body through the object
+	 * mapper so that the response is read directly into the given type instead
+	 * of an intermediate map.
+	 *
+	 * @param <T>          the generic type
+	 * @param uri          the uri
+	 * @param mediaType    the media type
+	 * @param requestType  the request type
+	 * @param responseType the response type, including its generic parameters
+	 * @return the t
+	 */
+	public <T> T postApiForType(String uri, MediaType mediaType, Object requestType, JavaType responseType)
+			throws Exception {
+
+		T result = null;
+		try {
+			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), uri);
+			HttpEntity<Object> httpEntity = setRequestHeader(requestType, mediaType);
+			result = localRestTemplate.execute(uri, HttpMethod.POST, request -> {
+				request.getHeaders().putAll(httpEntity.getHeaders());
+				if (request.getHeaders().getContentType() == null)
+					request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+				request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+				if (httpEntity.getBody() != null)
+					objectMapper.writeValue(request.getBody(), httpEntity.getBody());
+			}, response -> objectMapper.readValue(response.getBody(), responseType));
+
+		} catch (Exception e) {
+			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
+			tokenExceptionHandler(e);
+			throw e;
+		}
+		return result;
+	}
+
+	/**
+	 * Post api with a multipart form data body of text parts and a file part.
+	 * The body is written as it is sent, the content of the file is written by
+	 * the given writer so that it is not held in memory, unless the request
+	 * factory of the rest template buffers the request body.
+	 *
+	 * @param <T>           the generic type
+	 * @param uri           the uri
+	 * @param formFields    the text parts, by name
+	 * @param filePartName  the name of the file part
+	 * @param fileName      the file name of the file part
+	 * @param file          writes the content of the file part
+	 * @param responseClass the response class
+	 * @return the t
+	 */
+	public <T> T postMultipartApi(String uri, Map<String, String> formFields, String filePartName, String fileName,
+			StreamingHttpOutputMessage.Body file, Class<T> responseClass) throws Exception {
+
+		T result = null;
+		try {
+			logger.info(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), uri);
+			HttpHeaders headers = setRequestHeader(null, null).getHeaders();
+			String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+			StreamingHttpOutputMessage.Body body = outputStream -> {
+				for (Map.Entry<String, String> formField : formFields.entrySet()) {
+					writePartHeaders(outputStream, boundary, "form-data; name=\"" + formField.getKey() + "\"",
+							"text/plain;charset=UTF-8");
+					outputStream.write(formField.getValue().getBytes(StandardCharsets.UTF_8));
+					outputStream.write(CRLF);
+				}
+				writePartHeaders(outputStream, boundary,
+						"form-data; name=\"" + filePartName + "\"; filename=\"" + fileName + "\"",
+						MediaType.APPLICATION_OCTET_STREAM_VALUE);
+				file.writeTo(StreamUtils.nonClosing(outputStream));
+				outputStream.write(CRLF);
+				outputStream.write(("--" + boundary + "--").getBytes(StandardCharsets.US_ASCII));
+				outputStream.write(CRLF);
+			};
+			result = localRestTemplate.execute(uri, HttpMethod.POST, request -> {
+				request.getHeaders().putAll(headers);
+				request.getHeaders().setContentType(
+						new MediaType(MediaType.MULTIPART_FORM_DATA, Collections.singletonMap("boundary", boundary)));
+				request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+				if (request instanceof StreamingHttpOutputMessage)
+					((StreamingHttpOutputMessage) request).setBody(body);
+				else
+					body.writeTo(request.getBody());
+			}, new HttpMessageConverterExtractor<T>(responseClass, localRestTemplate.getMessageConverters()));
+
+		} catch (Exception e) {
+			logger.error(LoggerFileConstant.SESSIONID.toString(), LoggerFileConstant.APPLICATIONID.toString(),
+					LoggerFileConstant.APPLICATIONID.toString(), e.getMessage() + ExceptionUtils.getStackTrace(e));
+			tokenExceptionHandler(e);
+			throw e;
+		}
+		return result;
+	}
+
+	private static void writePartHeaders(OutputStream outputStream, String boundary, String contentDisposition,
+			String contentType) throws IOException {
+		outputStream.write(("--" + boundary).getBytes(StandardCharsets.US_ASCII));
+		outputStream.write(CRLF);
+		outputStream.write(("Content-Disposition: " + contentDisposition).getBytes(StandardCharsets.UTF_8));
+		outputStream.write(CRLF);
+		outputStream.write(("Content-Type: " + contentType).getBytes(StandardCharsets.US_ASCII));
+		outputStream.write(CRLF);
+		outputStream.write(CRLF);
+	}
+
 	/**
 	 * Patch api.
 	 *
@@ -271,14 +543,7 @@ public class RestApiClient {
 
 		}
 		if (!isValid) {
-			TokenRequestDTO<SecretKeyRequest> tokenRequestDTO = new TokenRequestDTO<SecretKeyRequest>();
-			tokenRequestDTO.setId(environment.getProperty("token.request.id"));
-			tokenRequestDTO.setMetadata(new Metadata());
-
-			tokenRequestDTO.setRequesttime(DateUtils.getUTCCurrentDateTimeString());
-			// tokenRequestDTO.setRequest(setPasswordRequestDTO());
-			tokenRequestDTO.setRequest(setSecretKeyRequestDTO());
-			tokenRequestDTO.setVersion(environment.getProperty("token.request.version"));
+			TokenRequestDTO<SecretKeyRequest> tokenRequestDTO = getTokenRequest();
 
 			Gson gson = new Gson();
 			HttpClient httpClient = HttpClientBuilder.create().build();
@@ -307,6 +572,24 @@ public class RestApiClient {
 		return AUTHORIZATION + token;
 	}
 
+	/**
+	 * Gets the request of the token api for the client details present in config
+	 * server.
+	 *
+	 * @return the token request
+	 */
+	public TokenRequestDTO<SecretKeyRequest> getTokenRequest() {
+		TokenRequestDTO<SecretKeyRequest> tokenRequestDTO = new TokenRequestDTO<SecretKeyRequest>();
+		tokenRequestDTO.setId(environment.getProperty("token.request.id"));
+		tokenRequestDTO.setMetadata(new Metadata());
+
+		tokenRequestDTO.setRequesttime(DateUtils.getUTCCurrentDateTimeString());
+		// tokenRequestDTO.setRequest(setPasswordRequestDTO());
+		tokenRequestDTO.setRequest(setSecretKeyRequestDTO());
+		tokenRequestDTO.setVersion(environment.getProperty("token.request.version"));
+		return tokenRequestDTO;
+	}
+
 	private SecretKeyRequest setSecretKeyRequestDTO() {
 		SecretKeyRequest request = new SecretKeyRequest();
 		request.setAppId(environment.getProperty("token.request.appid"));
@@ -0,0 +1,181 @@
+package io.mosip.registration.processor.rest.client.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.RequestWrapper;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.rest.client.audit.builder.AsyncAuditLogSender;
+import io.mosip.registration.processor.rest.client.audit.dto.AuditRequestDto;
+
+public class AsyncAuditLogSenderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@InjectMocks
+	private AsyncAuditLogSender asyncAuditLogSender;
+
+	@Mock
+	private RegistrationProcessorRestClientService<Object> registrationProcessorRestService;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	private File spillFile;
+
+	@Before
+	public void setup() throws Exception {
+		spillFile = new File(folder.getRoot(), "audit-spill.jsonl");
+		asyncAuditLogSender = new AsyncAuditLogSender(true, 1, 10, 10, 100, spillFile.getAbsolutePath());
+		MockitoAnnotations.initMocks(this);
+	}
+
+	@After
+	public void tearDown() {
+		asyncAuditLogSender.stop();
+	}
+
+	@Test
+	public void testSentInBackground() throws Exception {
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenReturn(new ResponseWrapper<>());
+		asyncAuditLogSender.start();
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10001"));
+		awaitTrue(() -> asyncAuditLogSender.getSentCount() == 1);
+
+		Mockito.verify(registrationProcessorRestService).postApi(any(), any(), any(), any(), any());
+		assertEquals(0, asyncAuditLogSender.getSpilledCount());
+		assertFalse(spillFile.exists());
+	}
+
+	@Test
+	public void testSpilledWhenQueueFull() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any())).thenAnswer(i -> {
+			latch.await(5, TimeUnit.SECONDS);
+			return new ResponseWrapper<>();
+		});
+		asyncAuditLogSender.start();
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10001"));
+		awaitTrue(() -> asyncAuditLogSender.getQueueDepth() == 0);
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10002"));
+		// handed to the flusher, which is busy
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10003"));
+		assertEquals(0, asyncAuditLogSender.getSpilledCount());
+		// the flusher is a queue size behind
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10004"));
+
+		assertEquals(1, asyncAuditLogSender.getSpilledCount());
+		assertTrue(spillFile.exists());
+		latch.countDown();
+		awaitTrue(() -> asyncAuditLogSender.getSpilledCount() == 2);
+		awaitTrue(() -> asyncAuditLogSender.getSentCount() == 4);
+		assertEquals(0, asyncAuditLogSender.getDroppedCount());
+	}
+
+	@Test
+	public void testOnlyAuditsNotSentSpilledOnFailure() throws Exception {
+		asyncAuditLogSender = new AsyncAuditLogSender(true, 10, 10, 10, 100, spillFile.getAbsolutePath());
+		MockitoAnnotations.initMocks(this);
+		CountDownLatch latch = new CountDownLatch(1);
+		Set<String> failed = ConcurrentHashMap.newKeySet();
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any())).thenAnswer(i -> {
+			String registrationId = ((RequestWrapper<AuditRequestDto>) i.getArgument(3)).getRequest().getId();
+			if ("10001".equals(registrationId))
+				latch.await(5, TimeUnit.SECONDS);
+			if ("10003".equals(registrationId) && failed.add(registrationId))
+				throw new IllegalStateException("unexpected response");
+			return new ResponseWrapper<>();
+		});
+		asyncAuditLogSender.start();
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10001"));
+		awaitTrue(() -> asyncAuditLogSender.getQueueDepth() == 0);
+		// sent in one batch, the second one failing
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10002"));
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10003"));
+		latch.countDown();
+
+		awaitTrue(() -> asyncAuditLogSender.getSentCount() == 3);
+		assertEquals(1, asyncAuditLogSender.getSpilledCount());
+		Mockito.verify(registrationProcessorRestService, Mockito.times(4)).postApi(any(), any(), any(), any(),
+				any());
+	}
+
+	@Test
+	public void testSpilledWhenServiceDownAndSentAgain() throws Exception {
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any()))
+				.thenThrow(new ApisResourceAccessException("errorMessage")).thenReturn(new ResponseWrapper<>());
+		asyncAuditLogSender.start();
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10001"));
+		awaitTrue(() -> asyncAuditLogSender.getSpilledCount() == 1);
+		awaitTrue(() -> asyncAuditLogSender.getSentCount() == 1);
+
+		Mockito.verify(registrationProcessorRestService, Mockito.times(2)).postApi(any(), any(), any(), any(),
+				any());
+		assertFalse(spillFile.exists());
+	}
+
+	@Test
+	public void testQueuedAuditsSpilledOnStop() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		Mockito.when(registrationProcessorRestService.postApi(any(), any(), any(), any(), any())).thenAnswer(i -> {
+			latch.await(5, TimeUnit.SECONDS);
+			return new ResponseWrapper<>();
+		});
+		asyncAuditLogSender.start();
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10001"));
+		awaitTrue(() -> asyncAuditLogSender.getQueueDepth() == 0);
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10002"));
+		latch.countDown();
+		asyncAuditLogSender.stop();
+		asyncAuditLogSender.send(ApiName.AUDIT, getRequest("10003"));
+
+		assertEquals(3, asyncAuditLogSender.getSentCount() + asyncAuditLogSender.getSpilledCount());
+		assertFalse(asyncAuditLogSender.isEnabled());
+	}
+
+	private RequestWrapper<AuditRequestDto> getRequest(String registrationId) {
+		AuditRequestDto auditRequestDto = new AuditRequestDto();
+		auditRequestDto.setId(registrationId);
+		RequestWrapper<AuditRequestDto> requestWrapper = new RequestWrapper<>();
+		requestWrapper.setRequesttime(LocalDateTime.now());
+		requestWrapper.setRequest(auditRequestDto);
+		return requestWrapper;
+	}
+
+	private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertTrue(condition.getAsBoolean());
+	}
+
+}
@@ -25,6 +25,7 @@ import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
 import io.mosip.registration.processor.core.http.ResponseWrapper;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
+import io.mosip.registration.processor.rest.client.audit.builder.AsyncAuditLogSender;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditResponseDto;
 
@@ -40,6 +41,9 @@ public class AuditLogRequestBuilderTest {
 	
 	@Mock
 	private Environment env;
+
+	@Mock
+	private AsyncAuditLogSender asyncAuditLogSender;
 	
 	AuditResponseDto dto;
 	private Logger fooLogger;
@@ -80,6 +84,16 @@ public class AuditLogRequestBuilderTest {
 		
 	}
 	
+	@Test
+	public void createAuditRequestBuilderAsyncTest() throws ApisResourceAccessException {
+		Mockito.when(asyncAuditLogSender.isEnabled()).thenReturn(true);
+		auditLogRequestBuilder.createAuditRequestBuilder("abcde", "200", "ADD", "ADD", "moduleID", "moduleName",
+				"123456789");
+
+		Mockito.verify(asyncAuditLogSender).send(any(), any());
+		Mockito.verify(registrationProcessorRestService, Mockito.never()).postApi(any(), any(), any(), any(), any());
+	}
+
 	@Test
 	public void createAuditRequestBuilderFailureTest() throws ApisResourceAccessException {
 		 fooLogger = (Logger) LoggerFactory.getLogger(AuditLogRequestBuilder.class);
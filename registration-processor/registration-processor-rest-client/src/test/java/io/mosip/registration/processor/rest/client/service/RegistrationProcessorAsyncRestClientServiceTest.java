@@ -0,0 +1,207 @@
+package io.mosip.registration.processor.rest.client.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.mosip.registration.processor.core.code.ApiName;
+import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
+import io.mosip.registration.processor.rest.client.audit.dto.TokenRequestDTO;
+import io.mosip.registration.processor.rest.client.service.impl.RegistrationProcessorAsyncRestClientServiceImpl;
+import io.mosip.registration.processor.rest.client.utils.RestApiClient;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+
+public class RegistrationProcessorAsyncRestClientServiceTest {
+
+	@InjectMocks
+	private RegistrationProcessorAsyncRestClientServiceImpl asyncRestClientService;
+
+	@Mock
+	private RestApiClient restApiClient;
+
+	@Mock
+	private Environment env;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	private Vertx vertx;
+
+	private HttpServer server;
+
+	private String baseUrl;
+
+	private String token;
+
+	private AtomicInteger tokenRequests;
+
+	@Before
+	public void setup() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(asyncRestClientService, "maxConnectionPerRoute", 5);
+		ReflectionTestUtils.setField(asyncRestClientService, "timeoutMillis", 10000L);
+		token = JWT.create().withIssuer("http://localhost/auth").withClaim("clientId", "mosip-regproc-client")
+				.withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.sign(Algorithm.HMAC256("secret"));
+		System.setProperty("token", token);
+		when(env.getProperty("token.request.issuerUrl")).thenReturn("http://localhost/auth");
+		when(env.getProperty("token.request.clientId")).thenReturn("mosip-regproc-client");
+		when(restApiClient.getTokenRequest()).thenReturn(new TokenRequestDTO<>());
+		tokenRequests = new AtomicInteger();
+
+		vertx = Vertx.vertx();
+		CompletableFuture<HttpServer> started = new CompletableFuture<>();
+		vertx.createHttpServer().requestHandler(request -> request.bodyHandler(body -> {
+			if (request.path().endsWith("/token")) {
+				tokenRequests.incrementAndGet();
+				request.response().putHeader("Set-Cookie", "Authorization=newtoken; Path=/; HttpOnly").end();
+				return;
+			}
+			if (request.path().endsWith("/fail")) {
+				request.response().setStatusCode(500).end("failed");
+				return;
+			}
+			JsonObject response = new JsonObject().put("id", "mosip.commmons.packetmanager")
+					.put("response", new JsonObject().put("cookie", request.getHeader("Cookie"))
+							.put("method", request.method().name()).put("path", request.path())
+							.put("query", request.query()).put("body", body.toString()));
+			request.response().putHeader("Content-Type", "application/json").end(response.encode());
+		})).listen(0, res -> {
+			if (res.succeeded())
+				started.complete(res.result());
+			else
+				started.completeExceptionally(res.cause());
+		});
+		server = started.get(10, TimeUnit.SECONDS);
+		baseUrl = "http://localhost:" + server.actualPort();
+	}
+
+	@After
+	public void tearDown() {
+		asyncRestClientService.close();
+		vertx.close();
+		System.clearProperty("token");
+	}
+
+	@Test
+	public void testPostApiSuccess() throws Exception {
+		when(env.getProperty(ApiName.PACKETMANAGER_GET_TAGS.name())).thenReturn(baseUrl + "/tags");
+
+		ResponseWrapper<Map<String, String>> response = asyncRestClientService
+				.<ResponseWrapper<Map<String, String>>>postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "",
+						new JsonObject().put("id", "10002100820001420210108085956").getMap(), getResponseType())
+				.toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+		assertEquals("mosip.commmons.packetmanager", response.getId());
+		assertEquals("Authorization=" + token, response.getResponse().get("cookie"));
+		assertEquals(0, tokenRequests.get());
+		assertEquals("POST", response.getResponse().get("method"));
+		assertEquals("{\"id\":\"10002100820001420210108085956\"}", response.getResponse().get("body"));
+	}
+
+	@Test
+	public void testGetApiWithPathAndQuery() throws Exception {
+		when(env.getProperty(ApiName.PACKETMANAGER_GET_TAGS.name())).thenReturn(baseUrl + "/tags");
+
+		ResponseWrapper<Map<String, String>> response = asyncRestClientService
+				.<ResponseWrapper<Map<String, String>>>getApi(ApiName.PACKETMANAGER_GET_TAGS,
+						Arrays.asList("10002100820001420210108085956", ""), "source,process", "REGISTRATION_CLIENT,NEW",
+						getResponseType())
+				.toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+		assertEquals("GET", response.getResponse().get("method"));
+		assertEquals("/tags/10002100820001420210108085956", response.getResponse().get("path"));
+		assertEquals("source=REGISTRATION_CLIENT&process=NEW", response.getResponse().get("query"));
+	}
+
+	@Test
+	public void testExpiredTokenFetchedOnceForConcurrentCalls() throws Exception {
+		System.setProperty("token", "expired");
+		when(env.getProperty(ApiName.PACKETMANAGER_GET_TAGS.name())).thenReturn(baseUrl + "/tags");
+		when(env.getProperty("KEYBASEDTOKENAPI")).thenReturn(baseUrl + "/token");
+
+		CompletableFuture<ResponseWrapper<Map<String, String>>> first = asyncRestClientService
+				.<ResponseWrapper<Map<String, String>>>postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "", "{}",
+						getResponseType())
+				.toCompletableFuture();
+		CompletableFuture<ResponseWrapper<Map<String, String>>> second = asyncRestClientService
+				.<ResponseWrapper<Map<String, String>>>postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "", "{}",
+						getResponseType())
+				.toCompletableFuture();
+
+		assertEquals("Authorization=newtoken", first.get(10, TimeUnit.SECONDS).getResponse().get("cookie"));
+		assertEquals("Authorization=newtoken", second.get(10, TimeUnit.SECONDS).getResponse().get("cookie"));
+		assertEquals(1, tokenRequests.get());
+		assertEquals("newtoken", System.getProperty("token"));
+	}
+
+	@Test
+	public void testTokenFailureFailsCall() throws Exception {
+		System.clearProperty("token");
+		when(env.getProperty(ApiName.PACKETMANAGER_GET_TAGS.name())).thenReturn(baseUrl + "/tags");
+		when(env.getProperty("KEYBASEDTOKENAPI")).thenReturn(baseUrl + "/fail");
+
+		assertFailsWithApisResourceAccessException(
+				asyncRestClientService.postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "", "{}", getResponseType())
+						.toCompletableFuture());
+	}
+
+	@Test
+	public void testPostApiErrorStatus() throws Exception {
+		when(env.getProperty(ApiName.PACKETMANAGER_GET_TAGS.name())).thenReturn(baseUrl + "/fail");
+
+		assertFailsWithApisResourceAccessException(
+				asyncRestClientService.postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "", "{}", getResponseType())
+						.toCompletableFuture());
+	}
+
+	@Test
+	public void testPostApiUnknownApi() throws Exception {
+		assertFailsWithApisResourceAccessException(
+				asyncRestClientService.postApi(ApiName.PACKETMANAGER_GET_TAGS, "", "", "{}", getResponseType())
+						.toCompletableFuture());
+	}
+
+	private JavaType getResponseType() {
+		return objectMapper.getTypeFactory().constructParametricType(ResponseWrapper.class,
+				objectMapper.getTypeFactory().constructMapType(Map.class, String.class, String.class));
+	}
+
+	private void assertFailsWithApisResourceAccessException(CompletableFuture<?> future) throws Exception {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("expected the call to fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ApisResourceAccessException);
+		}
+	}
+
+}
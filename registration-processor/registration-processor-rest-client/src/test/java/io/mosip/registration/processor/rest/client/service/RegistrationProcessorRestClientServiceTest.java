@@ -2,9 +2,13 @@ package io.mosip.registration.processor.rest.client.service;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,10 +20,15 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.env.Environment;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.web.client.ResourceAccessException;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
 import io.mosip.registration.processor.core.code.ApiName;
 import io.mosip.registration.processor.core.exception.ApisResourceAccessException;
+import io.mosip.registration.processor.core.http.ResponseWrapper;
 import io.mosip.registration.processor.core.spi.restclient.RegistrationProcessorRestClientService;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditRequestDto;
 import io.mosip.registration.processor.rest.client.audit.dto.AuditResponseDto;
@@ -58,6 +67,38 @@ public class RegistrationProcessorRestClientServiceTest {
 		assertEquals(true, resultDto.isStatus());
 	}
 
+	@Test
+	public void getToStreamSuccessTest() throws Exception {
+		Mockito.when(env.getProperty(ArgumentMatchers.any())).thenReturn("http://localhost/packets");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		registrationProcessorRestClientService.getApi(ApiName.NGINXDMZURL, Arrays.asList("10001.zip"), outputStream);
+		Mockito.verify(restApiClient).getApiToStream(URI.create("http://localhost/packets/10001.zip"), outputStream);
+	}
+
+	@Test(expected = ApisResourceAccessException.class)
+	public void getToStreamFailureTest() throws Exception {
+		Mockito.when(env.getProperty(ArgumentMatchers.any())).thenReturn("http://localhost/packets");
+		Mockito.doThrow(new ResourceAccessException("errorMessage")).when(restApiClient)
+				.getApiToStream(ArgumentMatchers.any(), ArgumentMatchers.any());
+		registrationProcessorRestClientService.getApi(ApiName.NGINXDMZURL, Arrays.asList("10001.zip"),
+				new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void postMultipartSuccessTest() throws Exception {
+		StreamingHttpOutputMessage.Body file = outputStream -> outputStream.write(new byte[] { 1, 2, 3 });
+		Map<String, String> formFields = Collections.singletonMap("name", "biometrics");
+		Mockito.when(restApiClient.postMultipartApi(ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenReturn(auditResponseDto);
+		AuditResponseDto resultDto = (AuditResponseDto) registrationProcessorRestClientService.postMultipartApi(
+				"http://localhost/v1/datashare/create", Arrays.asList("policy", "subscriber"), formFields, "file",
+				"biometrics", file, AuditResponseDto.class);
+		assertEquals(true, resultDto.isStatus());
+		Mockito.verify(restApiClient).postMultipartApi("http://localhost/v1/datashare/create/policy/subscriber",
+				formFields, "file", "biometrics", file, AuditResponseDto.class);
+	}
+
 	@Test
 	public void postObjecSuccessTest() throws Exception {
 		AuditRequestDto auditRequestDto = new AuditRequestDto();
@@ -69,6 +110,31 @@ public class RegistrationProcessorRestClientServiceTest {
 		assertEquals(true, resultDto.isStatus());
 	}
 
+	@Test
+	public void postForTypeSuccessTest() throws Exception {
+		AuditRequestDto auditRequestDto = new AuditRequestDto();
+		ResponseWrapper<AuditResponseDto> responseWrapper = new ResponseWrapper<>();
+		responseWrapper.setResponse(auditResponseDto);
+		JavaType responseType = TypeFactory.defaultInstance().constructParametricType(ResponseWrapper.class,
+				AuditResponseDto.class);
+		Mockito.when(env.getProperty(ArgumentMatchers.any())).thenReturn("AUDIT");
+		Mockito.when(restApiClient.postApiForType("AUDIT?query1=12345", null, auditRequestDto, responseType))
+				.thenReturn(responseWrapper);
+		ResponseWrapper<AuditResponseDto> result = registrationProcessorRestClientService
+				.postApiForType(ApiName.AUDIT, "query1", "12345", auditRequestDto, responseType);
+		assertEquals(true, result.getResponse().isStatus());
+	}
+
+	@Test(expected = ApisResourceAccessException.class)
+	public void postForTypeFailureTest() throws Exception {
+		Mockito.when(env.getProperty(ArgumentMatchers.any())).thenReturn("AUDIT");
+		ResourceAccessException exp = new ResourceAccessException("errorMessage");
+		Mockito.when(restApiClient.postApiForType(ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any(), ArgumentMatchers.any())).thenThrow(exp);
+		registrationProcessorRestClientService.postApiForType(ApiName.AUDIT, "", "", new AuditRequestDto(),
+				TypeFactory.defaultInstance().constructType(AuditResponseDto.class));
+	}
+
 	@Test(expected = ApisResourceAccessException.class)
 	public void getObjecTestFailureTest() throws Exception {
 		Mockito.when(env.getProperty(ArgumentMatchers.any())).thenReturn("AUDIT");
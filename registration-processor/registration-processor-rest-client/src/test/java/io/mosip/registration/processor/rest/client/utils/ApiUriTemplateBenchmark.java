@@ -0,0 +1,97 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.mosip.registration.processor.core.code.ApiName;
+
+/**
+ * Compares building the uri of every api in {@link ApiName} from its
+ * configured url with a UriComponentsBuilder, as the rest client service did,
+ * against expanding the compiled uri templates. Each api is called with a path
+ * segment and two query params. Not run as part of the unit tests, run the main
+ * method from the test classpath, allocations are reported by the gc profiler
+ * as gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiUriTemplateBenchmark {
+
+	private static final List<String> PATH_SEGMENTS = Arrays.asList("10002100820001420210108085956");
+
+	private static final String QUERY_PARAM_NAME = "source,process";
+
+	private static final String QUERY_PARAM_VALUE = "REGISTRATION_CLIENT,NEW";
+
+	private StandardEnvironment env;
+
+	private ApiUriTemplateRegistry registry;
+
+	@Setup
+	public void setup() {
+		Map<String, Object> urls = new HashMap<>();
+		for (ApiName apiName : ApiName.values())
+			urls.put(apiName.name(), "https://dev.mosip.net/v1/" + apiName.name().toLowerCase().replace('_', '/'));
+		env = new StandardEnvironment();
+		env.getPropertySources().addFirst(new MapPropertySource("apis", urls));
+		registry = new ApiUriTemplateRegistry(env);
+	}
+
+	@Benchmark
+	public void uriComponentsBuilder(Blackhole blackhole) {
+		for (ApiName apiName : ApiName.values()) {
+			UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(env.getProperty(apiName.name()));
+			for (String segment : PATH_SEGMENTS) {
+				if (!((segment == null) || (("").equals(segment))))
+					builder.pathSegment(segment);
+			}
+			String[] queryParamNameArr = QUERY_PARAM_NAME.split(",");
+			String[] queryParamValueArr = QUERY_PARAM_VALUE.split(",");
+			for (int i = 0; i < queryParamNameArr.length; i++)
+				builder.queryParam(queryParamNameArr[i], queryParamValueArr[i]);
+			blackhole.consume(builder.toUriString());
+		}
+	}
+
+	@Benchmark
+	public void uriTemplate(Blackhole blackhole) {
+		for (ApiName apiName : ApiName.values())
+			blackhole.consume(registry.get(apiName).expand(PATH_SEGMENTS, QUERY_PARAM_NAME, QUERY_PARAM_VALUE));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(ApiUriTemplateBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,90 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.env.Environment;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.mosip.registration.processor.core.code.ApiName;
+
+public class ApiUriTemplateTest {
+
+	private static final List<String> URLS = Arrays.asList("AUDIT", "http://localhost",
+			"http://localhost:8080/v1/packetmanager/searchField",
+			"https://user@dev.mosip.net/v1/idrepo/identity?type=all&type=bio",
+			"http://localhost:8080/v1/masterdata/", "http://localhost:8080/v1//masterdata",
+			"http://localhost:8080/v1/{id}/documents", "http://localhost:8080/v1/datashare#section",
+			"http://localhost:8080/v1/partner?flag", "http://localhost:8080/v1/a%20b?x=a%20b");
+
+	private static final List<List<String>> PATH_SEGMENTS = Arrays.asList(null, Collections.emptyList(),
+			Arrays.asList("10002100820001420210108085956"), Arrays.asList("", null, "individual", "name with space"),
+			Arrays.asList("a/b", "ünicode", "%20", "?&="));
+
+	@Test
+	public void testExpandSameAsBuilder() {
+		for (String url : URLS) {
+			ApiUriTemplate uriTemplate = ApiUriTemplate.compile(url);
+			for (List<String> pathsegments : PATH_SEGMENTS) {
+				assertEquals(build(url, pathsegments, null, null), uriTemplate.expand(pathsegments, "", ""));
+				assertEquals(build(url, pathsegments, Arrays.asList("type"), Arrays.asList("demo")),
+						uriTemplate.expand(pathsegments, "type", "demo"));
+				assertEquals(
+						build(url, pathsegments, Arrays.asList("type", "rid", "type", "x"),
+								Arrays.asList("bio", "1000 2", "demo&x=1", null)),
+						uriTemplate.expand(pathsegments, Arrays.asList("type", "rid", "type", "x"),
+								Arrays.asList("bio", "1000 2", "demo&x=1", null)));
+				assertEquals(
+						build(url, pathsegments, Arrays.asList("source", "process"),
+								Arrays.asList("REGISTRATION_CLIENT", "NEW")),
+						uriTemplate.expand(pathsegments, "source,process", "REGISTRATION_CLIENT,NEW"));
+			}
+		}
+	}
+
+	@Test
+	public void testRegistryRefresh() {
+		Environment env = Mockito.mock(Environment.class);
+		when(env.getProperty(anyString())).thenReturn(null);
+		when(env.getProperty(ApiName.AUDIT.name())).thenReturn("http://localhost/v1/auditmanager/audits");
+
+		ApiUriTemplateRegistry registry = new ApiUriTemplateRegistry(env);
+		assertEquals("http://localhost/v1/auditmanager/audits", registry.get(ApiName.AUDIT).expand(null, "", ""));
+		assertNull(registry.get(ApiName.PACKETMANAGER_GET_TAGS));
+
+		when(env.getProperty(ApiName.AUDIT.name())).thenReturn("http://audit/v1/auditmanager/audits");
+		when(env.getProperty(ApiName.PACKETMANAGER_GET_TAGS.name())).thenReturn("http://packetmanager/v1/getTags");
+		registry.refresh(Collections.singleton(ApiName.PACKETMANAGER_GET_TAGS.name()));
+
+		assertEquals("http://localhost/v1/auditmanager/audits", registry.get(ApiName.AUDIT).getUrl());
+		assertEquals("http://packetmanager/v1/getTags", registry.get(ApiName.PACKETMANAGER_GET_TAGS).getUrl());
+
+		registry.refresh();
+		assertEquals("http://audit/v1/auditmanager/audits", registry.get(ApiName.AUDIT).getUrl());
+	}
+
+	private String build(String url, List<String> pathsegments, List<String> queryParamName,
+			List<String> queryParamValue) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(url);
+		if (pathsegments != null) {
+			for (String segment : pathsegments) {
+				if (!((segment == null) || (("").equals(segment))))
+					builder.pathSegment(segment);
+			}
+		}
+		if (queryParamName != null) {
+			for (int i = 0; i < queryParamName.size(); i++)
+				builder.queryParam(queryParamName.get(i), queryParamValue.get(i));
+		}
+		return builder.toUriString();
+	}
+
+}
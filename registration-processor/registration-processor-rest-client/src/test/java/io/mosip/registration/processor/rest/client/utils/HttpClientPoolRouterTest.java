@@ -0,0 +1,103 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+
+public class HttpClientPoolRouterTest {
+
+	private Vertx vertx;
+
+	private HttpServer server;
+
+	private ClientHttpRequestFactory defaultRequestFactory;
+
+	private MeterRegistry registry;
+
+	private HttpClientPoolRouter router;
+
+	@Before
+	public void setup() throws Exception {
+		vertx = Vertx.vertx();
+		CompletableFuture<HttpServer> started = new CompletableFuture<>();
+		vertx.createHttpServer().requestHandler(request -> request.response().end("ok")).listen(0, res -> {
+			if (res.succeeded())
+				started.complete(res.result());
+			else
+				started.completeExceptionally(res.cause());
+		});
+		server = started.get(10, TimeUnit.SECONDS);
+
+		defaultRequestFactory = mock(ClientHttpRequestFactory.class);
+		registry = new SimpleMeterRegistry();
+		router = new HttpClientPoolRouter(Arrays.asList(
+				new HttpClientPoolRouter.Pool("packetmanager", Collections.singleton("localhost:" + server.actualPort()),
+						2, 60000, 30000, 5000),
+				new HttpClientPoolRouter.Pool("idrepo", Collections.singleton("IdRepo"), 10, -1, -1, -1)),
+				defaultRequestFactory, registry);
+	}
+
+	@After
+	public void tearDown() {
+		router.close();
+		vertx.close();
+	}
+
+	@Test
+	public void testRouting() throws Exception {
+		assertEquals("packetmanager",
+				router.getPool(URI.create("http://localhost:" + server.actualPort() + "/v1/packetmanager")).getName());
+		assertEquals("idrepo", router.getPool(URI.create("http://idrepo:8080/idrepository/v1/identity")).getName());
+		assertNull(router.getPool(URI.create("http://localhost:9999/v1/packetmanager")));
+
+		URI uri = URI.create("http://kernel/v1/auditmanager/audits");
+		assertNull(router.getPool(uri));
+		router.createRequest(uri, HttpMethod.POST);
+		verify(defaultRequestFactory).createRequest(uri, HttpMethod.POST);
+	}
+
+	@Test
+	public void testPoolMetrics() {
+		RestTemplate restTemplate = new RestTemplate(router);
+		String url = "http://localhost:" + server.actualPort() + "/v1/packetmanager";
+		assertEquals("ok", restTemplate.getForObject(url, String.class));
+		assertEquals("ok", restTemplate.getForObject(url, String.class));
+
+		HttpClientPoolRouter.Pool pool = router.getPool(URI.create(url));
+		assertSame(pool, router.getPools().get(0));
+		assertEquals(2, registry.get("mosip.regproc.httpclient.pool.acquisition").tag("pool", "packetmanager")
+				.timer().count());
+		assertEquals(0, registry.get("mosip.regproc.httpclient.pool.leased").tag("pool", "packetmanager").gauge()
+				.value(), 0);
+		assertEquals(0, registry.get("mosip.regproc.httpclient.pool.pending").tag("pool", "packetmanager").gauge()
+				.value(), 0);
+		// the connection is kept alive and reused by the second request
+		assertEquals(1, registry.get("mosip.regproc.httpclient.pool.available").tag("pool", "packetmanager")
+				.gauge().value(), 0);
+		assertEquals(2, registry.get("mosip.regproc.httpclient.pool.max").tag("pool", "packetmanager").gauge()
+				.value(), 0);
+		assertEquals(0, registry.get("mosip.regproc.httpclient.pool.acquisition").tag("pool", "idrepo").timer()
+				.count());
+	}
+
+}
@@ -0,0 +1,143 @@
+package io.mosip.registration.processor.rest.client.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+
+public class RestApiClientTest {
+
+	private static final int FILE_SIZE = 4 * 1024 * 1024;
+
+	private Vertx vertx;
+
+	private HttpServer server;
+
+	private HttpClientPoolRouter router;
+
+	private RestApiClient restApiClient;
+
+	@Before
+	public void setup() throws Exception {
+		vertx = Vertx.vertx();
+		CompletableFuture<HttpServer> started = new CompletableFuture<>();
+		vertx.createHttpServer().requestHandler(request -> {
+			request.setExpectMultipart(true);
+			AtomicLong fileSize = new AtomicLong();
+			JsonObject response = new JsonObject().put("chunked",
+					"chunked".equals(request.getHeader("Transfer-Encoding")));
+			request.uploadHandler(upload -> {
+				response.put("fileName", upload.filename());
+				upload.handler(buffer -> fileSize.addAndGet(buffer.length()));
+			});
+			request.endHandler(v -> request.response().putHeader("Content-Type", "application/json")
+					.end(response.put("path", request.path()).put("name", request.getFormAttribute("name"))
+							.put("fileSize", fileSize.get()).encode()));
+		}).listen(0, res -> {
+			if (res.succeeded())
+				started.complete(res.result());
+			else
+				started.completeExceptionally(res.cause());
+		});
+		server = started.get(10, TimeUnit.SECONDS);
+
+		HttpClientPoolRouter.Pool pool = new HttpClientPoolRouter.Pool("datashare",
+				Collections.singleton("localhost:" + server.actualPort()), 2, -1, -1, -1);
+		pool.setBufferRequestBody(false);
+		router = new HttpClientPoolRouter(Arrays.asList(pool), new SimpleClientHttpRequestFactory(),
+				new SimpleMeterRegistry());
+		restApiClient = new RestApiClient();
+		ReflectionTestUtils.setField(restApiClient, "localRestTemplate", new RestTemplate(router));
+	}
+
+	@After
+	public void tearDown() {
+		router.close();
+		vertx.close();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMultipartBodyStreamed() throws Exception {
+		Map<String, String> formFields = new LinkedHashMap<>();
+		formFields.put("name", "biometrics");
+		Map<String, Object> response = restApiClient.postMultipartApi(
+				"http://localhost:" + server.actualPort() + "/v1/datashare/create", formFields, "file", "biometrics",
+				outputStream -> {
+					byte[] chunk = new byte[8192];
+					for (int written = 0; written < FILE_SIZE; written += chunk.length)
+						outputStream.write(chunk);
+				}, Map.class);
+
+		assertEquals("/v1/datashare/create", response.get("path"));
+		assertEquals("biometrics", response.get("name"));
+		assertEquals("biometrics", response.get("fileName"));
+		assertEquals(FILE_SIZE, ((Number) response.get("fileSize")).intValue());
+		assertEquals(true, response.get("chunked"));
+	}
+
+	@Test
+	public void testPoolsOfUnknownApiNamesSkipped() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty("mosip.regproc.httpclient.pool.packetmanager.api-names",
+				"PACKETMANAGER_SEARCH_FIELDS, PACKETMANAGER_UNKNOWN");
+		environment.setProperty("PACKETMANAGER_SEARCH_FIELDS", "http://packetmanager/v1/packetmanager/searchFields");
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+		RestTemplate restTemplate = new RestTemplate(requestFactory);
+		RestApiClient client = new RestApiClient();
+		ReflectionTestUtils.setField(client, "poolNames", Arrays.asList("packetmanager"));
+		ReflectionTestUtils.setField(client, "maxConnectionPerRoute", 5);
+		ReflectionTestUtils.setField(client, "environment", environment);
+		ReflectionTestUtils.setField(client, "localRestTemplate", restTemplate);
+
+		client.setupConnectionPools();
+
+		HttpClientPoolRouter poolRouter = (HttpClientPoolRouter) restTemplate.getRequestFactory();
+		assertEquals(Collections.singleton("packetmanager"), poolRouter.getPools().get(0).getHosts());
+		client.closeConnectionPools();
+	}
+
+	@Test
+	public void testPoolRequestConfigOfRestTemplate() {
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+				HttpClients.custom().setDefaultRequestConfig(
+						RequestConfig.custom().setConnectTimeout(1000).setSocketTimeout(2000).build()).build());
+		requestFactory.setReadTimeout(3000);
+
+		RequestConfig requestConfig = RestApiClient.getRequestConfig(requestFactory);
+
+		assertEquals(1000, requestConfig.getConnectTimeout());
+		assertEquals(3000, requestConfig.getSocketTimeout());
+
+		SimpleClientHttpRequestFactory simpleRequestFactory = new SimpleClientHttpRequestFactory();
+		simpleRequestFactory.setConnectTimeout(4000);
+		simpleRequestFactory.setReadTimeout(5000);
+
+		requestConfig = RestApiClient.getRequestConfig(simpleRequestFactory);
+
+		assertEquals(4000, requestConfig.getConnectTimeout());
+		assertEquals(5000, requestConfig.getSocketTimeout());
+	}
+
+}
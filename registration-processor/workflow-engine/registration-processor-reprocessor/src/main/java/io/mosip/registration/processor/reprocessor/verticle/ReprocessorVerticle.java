@@ -1,7 +1,11 @@
 package io.mosip.registration.processor.reprocessor.verticle;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.mosip.registration.processor.reprocessor.constants.ReprocessorConstants;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -11,6 +15,9 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.registration.processor.core.abstractverticle.MessageBusAddress;
 import io.mosip.registration.processor.core.abstractverticle.MessageDTO;
@@ -30,6 +37,7 @@ import io.mosip.registration.processor.core.logger.LogDescription;
 import io.mosip.registration.processor.core.logger.RegProcessorLogger;
 import io.mosip.registration.processor.core.status.util.StatusUtil;
 import io.mosip.registration.processor.core.util.MessageBusUtil;
+import io.mosip.registration.processor.core.util.MeterBinding;
 import io.mosip.registration.processor.rest.client.audit.builder.AuditLogRequestBuilder;
 import io.mosip.registration.processor.status.code.RegistrationStatusCode;
 import io.mosip.registration.processor.status.dto.InternalRegistrationStatusDto;
@@ -59,6 +67,11 @@ public class ReprocessorVerticle extends MosipVerticleAPIManager {
 
 	private static Logger regProcLogger = RegProcessorLogger.getLogger(ReprocessorVerticle.class);
 
+	private static final String METRIC_PREFIX = "mosip.regproc.reprocessor";
+
+	/** Start of the keyset scan, before the latest transaction time of any packet */
+	private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
 	/** The cluster manager url. */
 	@Value("${vertx.cluster.configuration}")
 	private String clusterManagerUrl;
@@ -82,9 +95,29 @@ public class ReprocessorVerticle extends MosipVerticleAPIManager {
 	@Value("${registration.processor.reprocess.attempt.count}")
 	private Integer reprocessCount;
 
+	/** Claims the packets page by page, so that the reprocessor instances share them */
+	@Value("${mosip.regproc.reprocessor.keyset-scan.enabled:false}")
+	private boolean keysetScanEnabled;
+
+	/** The max pages of fetch size packets claimed in a run */
+	@Value("${mosip.regproc.reprocessor.keyset-scan.max-pages:10}")
+	private int maxPages;
+
 	/** The is transaction successful. */
 	boolean isTransactionSuccessful;
 
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private final MeterBinding metrics = new MeterBinding(this::bindTo);
+
+	/** The packets to be reprocessed, counted at the start of the last run */
+	private final AtomicLong backlog = new AtomicLong();
+
+	private final AtomicLong reprocessed = new AtomicLong();
+
+	private final AtomicLong reprocessFailed = new AtomicLong();
+
 	/** The registration status service. */
 	@Autowired
 	RegistrationStatusService<String, InternalRegistrationStatusDto, RegistrationStatusDto> registrationStatusService;
@@ -141,8 +174,12 @@ public class ReprocessorVerticle extends MosipVerticleAPIManager {
 		EventBus eventBus = vertx.eventBus();
 		// listen the timer events
 		eventBus.consumer((ReprocessorConstants.TIMER_EVENT), message -> {
-
-			process(new MessageDTO());
+			// off the event loop, the runs are ordered so they do not overlap
+			vertx.executeBlocking(future -> {
+				process(new MessageDTO());
+				future.complete();
+			}, res -> {
+			});
 		});
 
 		// description of timers
@@ -214,6 +251,10 @@ public class ReprocessorVerticle extends MosipVerticleAPIManager {
 				"ReprocessorVerticle::process()::entry");
 		StringBuffer ridSb=new StringBuffer();
 		try {
+			if (keysetScanEnabled) {
+				processPages(statusList, description, ridSb);
+				return object;
+			}
 			reprocessorDtoList = registrationStatusService.getResumablePackets(fetchSize);
 			if (!CollectionUtils.isEmpty(reprocessorDtoList)) {
 				if (reprocessorDtoList.size() < fetchSize) {
@@ -234,51 +275,7 @@ public class ReprocessorVerticle extends MosipVerticleAPIManager {
 					String registrationId = dto.getRegistrationId();
 					ridSb.append(registrationId);
 					ridSb.append(",");
-					MessageDTO messageDTO = new MessageDTO();
-					messageDTO.setRid(registrationId);
-					messageDTO.setReg_type(dto.getRegistrationType());
-					messageDTO.setSource(dto.getSource());
-					messageDTO.setIteration(dto.getIteration());
-					messageDTO.setWorkflowInstanceId(dto.getWorkflowInstanceId());
-					if (reprocessCount.equals(dto.getReProcessRetryCount())) {
-						dto.setLatestTransactionStatusCode(
-								RegistrationTransactionStatusCode.REPROCESS_FAILED.toString());
-						dto.setLatestTransactionTypeCode(
-								RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
-						dto.setStatusComment(StatusUtil.RE_PROCESS_FAILED.getMessage());
-						dto.setStatusCode(RegistrationStatusCode.REPROCESS_FAILED.toString());
-						dto.setSubStatusCode(StatusUtil.RE_PROCESS_FAILED.getCode());
-						messageDTO.setIsValid(false);
-						description.setMessage(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getMessage());
-						description.setCode(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getCode());
-
-					} else {
-						messageDTO.setIsValid(true);
-						isTransactionSuccessful = true;
-						String stageName = MessageBusUtil.getMessageBusAdress(dto.getRegistrationStageName());
-						if (RegistrationTransactionStatusCode.SUCCESS.name()
-								.equalsIgnoreCase(dto.getLatestTransactionStatusCode())) {
-							stageName = stageName.concat(ReprocessorConstants.BUS_OUT);
-						} else {
-							stageName = stageName.concat(ReprocessorConstants.BUS_IN);
-						}
-						MessageBusAddress address = new MessageBusAddress(stageName);
-						sendMessage(messageDTO, address);
-						dto.setUpdatedBy(ReprocessorConstants.USER);
-						Integer reprocessRetryCount = dto.getReProcessRetryCount() != null
-								? dto.getReProcessRetryCount() + 1
-								: 1;
-						dto.setReProcessRetryCount(reprocessRetryCount);
-						dto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
-						dto.setLatestTransactionTypeCode(
-								RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
-						dto.setStatusComment(StatusUtil.RE_PROCESS_COMPLETED.getMessage());
-						dto.setSubStatusCode(StatusUtil.RE_PROCESS_COMPLETED.getCode());
-						description.setMessage(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getMessage());
-						description.setCode(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode());
-					}
-					regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
-							LoggerFileConstant.REGISTRATIONID.toString(), registrationId, description.getMessage());
+					reprocess(dto, description);
 
 					/** Module-Id can be Both Success/Error code */
 					String moduleId = PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode();
@@ -336,6 +333,134 @@ public class ReprocessorVerticle extends MosipVerticleAPIManager {
 	
 	
 	
+	/**
+	 * Claims the packets to be reprocessed page by page and sends them. The
+	 * resumable packets are sent first. The status updates of a page are written
+	 * together, when the batch writes of the registration status are enabled.
+	 */
+	private void processPages(List<String> statusList, LogDescription description, StringBuffer ridSb) {
+		metrics.bind(meterRegistry);
+		backlog.set(registrationStatusService.getUnProcessedPacketsCount(elapseTime, reprocessCount, statusList));
+
+		List<InternalRegistrationStatusDto> resumablePackets = registrationStatusService.getResumablePackets(fetchSize);
+		if (!CollectionUtils.isEmpty(resumablePackets))
+			dispatch(resumablePackets, description, ridSb);
+
+		LocalDateTime lastTransactionTime = SCAN_START;
+		String lastWorkflowInstanceId = "";
+		for (int page = 0; page < maxPages; page++) {
+			List<InternalRegistrationStatusDto> packets = registrationStatusService.claimUnProcessedPackets(fetchSize,
+					elapseTime, reprocessCount, statusList, lastTransactionTime, lastWorkflowInstanceId);
+			if (CollectionUtils.isEmpty(packets))
+				break;
+			InternalRegistrationStatusDto last = packets.get(packets.size() - 1);
+			lastTransactionTime = last.getLatestTransactionTimes();
+			lastWorkflowInstanceId = last.getWorkflowInstanceId();
+			dispatch(packets, description, ridSb);
+			if (packets.size() < fetchSize)
+				break;
+		}
+	}
+
+	private void dispatch(List<InternalRegistrationStatusDto> packets, LogDescription description,
+			StringBuffer ridSb) {
+		/** Module-Id can be Both Success/Error code */
+		String moduleId = PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode();
+		String moduleName = ModuleName.RE_PROCESSOR.toString();
+		List<CompletableFuture<Void>> updates = new ArrayList<>(packets.size());
+		for (InternalRegistrationStatusDto dto : packets) {
+			String registrationId = dto.getRegistrationId();
+			ridSb.append(registrationId);
+			ridSb.append(",");
+			LogDescription packetDescription = new LogDescription();
+			boolean sent = reprocess(dto, packetDescription);
+			description.setMessage(packetDescription.getMessage());
+			description.setCode(packetDescription.getCode());
+			(sent ? reprocessed : reprocessFailed).incrementAndGet();
+			updates.add(registrationStatusService
+					.updateRegistrationStatusForWorkflowEngineAsync(dto, moduleId, moduleName).thenRun(() -> {
+						if (!sent)
+							auditLogRequestBuilder.createAuditRequestBuilder(packetDescription.getMessage(),
+									EventId.RPR_402.toString(), EventName.UPDATE.toString(),
+									EventType.BUSINESS.toString(), moduleId, moduleName, registrationId);
+					}));
+		}
+		try {
+			CompletableFuture.allOf(updates.toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sends the packet to its stage, or marks it reprocess failed when the
+	 * reprocess count is reached.
+	 *
+	 * @return true when the packet is sent
+	 */
+	private boolean reprocess(InternalRegistrationStatusDto dto, LogDescription description) {
+		String registrationId = dto.getRegistrationId();
+		MessageDTO messageDTO = new MessageDTO();
+		messageDTO.setRid(registrationId);
+		messageDTO.setReg_type(dto.getRegistrationType());
+		messageDTO.setSource(dto.getSource());
+		messageDTO.setIteration(dto.getIteration());
+		messageDTO.setWorkflowInstanceId(dto.getWorkflowInstanceId());
+		boolean sent;
+		if (reprocessCount.equals(dto.getReProcessRetryCount())) {
+			dto.setLatestTransactionStatusCode(
+					RegistrationTransactionStatusCode.REPROCESS_FAILED.toString());
+			dto.setLatestTransactionTypeCode(
+					RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
+			dto.setStatusComment(StatusUtil.RE_PROCESS_FAILED.getMessage());
+			dto.setStatusCode(RegistrationStatusCode.REPROCESS_FAILED.toString());
+			dto.setSubStatusCode(StatusUtil.RE_PROCESS_FAILED.getCode());
+			messageDTO.setIsValid(false);
+			description.setMessage(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getMessage());
+			description.setCode(PlatformSuccessMessages.RPR_RE_PROCESS_FAILED.getCode());
+			sent = false;
+		} else {
+			messageDTO.setIsValid(true);
+			isTransactionSuccessful = true;
+			String stageName = MessageBusUtil.getMessageBusAdress(dto.getRegistrationStageName());
+			if (RegistrationTransactionStatusCode.SUCCESS.name()
+					.equalsIgnoreCase(dto.getLatestTransactionStatusCode())) {
+				stageName = stageName.concat(ReprocessorConstants.BUS_OUT);
+			} else {
+				stageName = stageName.concat(ReprocessorConstants.BUS_IN);
+			}
+			MessageBusAddress address = new MessageBusAddress(stageName);
+			sendMessage(messageDTO, address);
+			dto.setUpdatedBy(ReprocessorConstants.USER);
+			Integer reprocessRetryCount = dto.getReProcessRetryCount() != null
+					? dto.getReProcessRetryCount() + 1
+					: 1;
+			dto.setReProcessRetryCount(reprocessRetryCount);
+			dto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
+			dto.setLatestTransactionTypeCode(
+					RegistrationTransactionTypeCode.PACKET_REPROCESS.toString());
+			dto.setStatusComment(StatusUtil.RE_PROCESS_COMPLETED.getMessage());
+			dto.setSubStatusCode(StatusUtil.RE_PROCESS_COMPLETED.getCode());
+			description.setMessage(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getMessage());
+			description.setCode(PlatformSuccessMessages.RPR_SENT_TO_REPROCESS_SUCCESS.getCode());
+			sent = true;
+		}
+		regProcLogger.info(LoggerFileConstant.SESSIONID.toString(),
+				LoggerFileConstant.REGISTRATIONID.toString(), registrationId, description.getMessage());
+		return sent;
+	}
+
+	private void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_PREFIX + ".backlog", backlog, AtomicLong::get)
+				.description("Packets to be reprocessed, counted at the start of the last run").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".reprocessed", reprocessed, AtomicLong::get)
+				.description("Packets sent for reprocessing").register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".reprocess.failed", reprocessFailed, AtomicLong::get)
+				.description("Packets marked reprocess failed as the reprocess count is reached").register(registry);
+	}
+
 	@Override
 	protected String getPropertyPrefix() {
 		return VERTICLE_PROPERTY_PREFIX;
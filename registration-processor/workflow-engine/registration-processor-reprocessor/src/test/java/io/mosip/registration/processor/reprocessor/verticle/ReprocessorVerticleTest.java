@@ -3,12 +3,16 @@ package io.mosip.registration.processor.reprocessor.verticle;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
 import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -245,4 +249,46 @@ public class ReprocessorVerticleTest {
 		reprocessorVerticle.process(dto);
 
 	}
+
+	@Test
+	public void testProcessKeysetScan() {
+		ReflectionTestUtils.setField(reprocessorVerticle, "keysetScanEnabled", true);
+		ReflectionTestUtils.setField(reprocessorVerticle, "maxPages", 5);
+		LocalDateTime lastTransactionTime = LocalDateTime.now().minusDays(1);
+		List<InternalRegistrationStatusDto> page = new ArrayList<>();
+		InternalRegistrationStatusDto registrationStatusDto = new InternalRegistrationStatusDto();
+		registrationStatusDto.setRegistrationId("2018701130000410092018110735");
+		registrationStatusDto.setRegistrationStageName("PacketValidatorStage");
+		registrationStatusDto.setReProcessRetryCount(0);
+		registrationStatusDto.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.REPROCESS.toString());
+		registrationStatusDto.setWorkflowInstanceId("0a1b2c3d-0000-0000-0000-000000000001");
+		registrationStatusDto.setLatestTransactionTimes(lastTransactionTime.minusHours(1));
+		page.add(registrationStatusDto);
+		InternalRegistrationStatusDto registrationStatusDto1 = new InternalRegistrationStatusDto();
+		registrationStatusDto1.setRegistrationId("2018701130000410092018110734");
+		registrationStatusDto1.setRegistrationStageName("PacketValidatorStage");
+		registrationStatusDto1.setReProcessRetryCount(3);
+		registrationStatusDto1.setLatestTransactionStatusCode(RegistrationTransactionStatusCode.SUCCESS.toString());
+		registrationStatusDto1.setWorkflowInstanceId("0a1b2c3d-0000-0000-0000-000000000002");
+		registrationStatusDto1.setLatestTransactionTimes(lastTransactionTime);
+		page.add(registrationStatusDto1);
+		Mockito.when(registrationStatusService.getUnProcessedPacketsCount(anyLong(), anyInt(), anyList()))
+				.thenReturn(2);
+		Mockito.when(registrationStatusService.claimUnProcessedPackets(anyInt(), anyLong(), anyInt(), anyList(),
+				any(), anyString())).thenReturn(page).thenReturn(new ArrayList<>());
+		Mockito.when(registrationStatusService.updateRegistrationStatusForWorkflowEngineAsync(any(), anyString(),
+				anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+		dto = reprocessorVerticle.process(dto);
+
+		assertEquals(null, dto.getInternalError());
+		Mockito.verify(registrationStatusService, Mockito.times(2)).updateRegistrationStatusForWorkflowEngineAsync(
+				any(), anyString(), anyString());
+		Mockito.verify(registrationStatusService).claimUnProcessedPackets(eq(2), anyLong(), eq(3), anyList(),
+				eq(lastTransactionTime), eq("0a1b2c3d-0000-0000-0000-000000000002"));
+		Mockito.verify(registrationStatusService, Mockito.never()).getUnProcessedPackets(anyInt(), anyLong(),
+				anyInt(), anyList());
+		assertEquals(RegistrationTransactionStatusCode.REPROCESS_FAILED.toString(),
+				registrationStatusDto1.getLatestTransactionStatusCode());
+	}
 }